@@ -0,0 +1,115 @@
+// k6 load test for request scheduling: end users flood the ticket lists while support
+// agents keep working their queue (GET /assigned-to-me and PATCH /{id}/status).
+//
+//   k6 run -e LABEL=scheduled   loadtest/priority.js   (app started normally)
+//   k6 run -e LABEL=unscheduled loadtest/priority.js   (app started with --app.scheduler.enabled=false)
+//
+// All VUs of a role share one login, so start the app with --app.ratelimit.enabled=false.
+// Each run writes its summary to priority-<LABEL>.json; compare the p(99) of
+// http_req_duration{scenario:support} between the two files. Shed user requests (503)
+// are counted in user_shed and are expected under the flood.
+import http from 'k6/http';
+import { check } from 'k6';
+import { Counter } from 'k6/metrics';
+import { textSummary } from 'https://jslib.k6.io/k6-summary/0.0.2/index.js';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const USER_VUS = parseInt(__ENV.USER_VUS || '1500', 10);
+const SUPPORT_RATE = parseInt(__ENV.SUPPORT_RATE || '20', 10);
+const SEED_TICKETS = parseInt(__ENV.SEED_TICKETS || '20000', 10);
+const DURATION = __ENV.DURATION || '2m';
+const BATCH_SIZE = 1000;
+const STATUSES = ['IN_PROGRESS', 'OPEN'];
+
+const userShed = new Counter('user_shed');
+
+export const options = {
+  scenarios: {
+    users: {
+      executor: 'ramping-vus',
+      exec: 'userFlood',
+      startVUs: 0,
+      stages: [
+        { duration: '30s', target: USER_VUS },
+        { duration: DURATION, target: USER_VUS },
+      ],
+      gracefulRampDown: '10s',
+    },
+    support: {
+      executor: 'constant-arrival-rate',
+      exec: 'supportWork',
+      rate: SUPPORT_RATE,
+      timeUnit: '1s',
+      duration: '2m30s',
+      preAllocatedVUs: 50,
+      maxVUs: 200,
+    },
+  },
+  thresholds: {
+    'http_req_duration{scenario:support}': ['p(99)<500'],
+    'checks{scenario:support}': ['rate>0.99'],
+  },
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+  setupTimeout: '10m',
+};
+
+function login(username, password) {
+  const response = http.post(`${BASE_URL}/api/auth/login`,
+    JSON.stringify({ username, password }),
+    { headers: { 'Content-Type': 'application/json' } });
+  check(response, { 'logged in': (r) => r.status === 200 });
+  return {
+    id: response.json('id'),
+    headers: { 'Content-Type': 'application/json', Authorization: `Bearer ${response.json('token')}` },
+  };
+}
+
+export function setup() {
+  const user = login(__ENV.USER_NAME || 'user', __ENV.USER_PASSWORD || 'user123');
+  const support = login(__ENV.SUPPORT_NAME || 'support', __ENV.SUPPORT_PASSWORD || 'support123');
+
+  for (let seeded = 0; seeded < SEED_TICKETS; seeded += BATCH_SIZE) {
+    const tickets = [];
+    for (let i = 0; i < Math.min(BATCH_SIZE, SEED_TICKETS - seeded); i++) {
+      tickets.push({ title: `Load test ticket ${seeded + i}`, description: 'Seeded by priority.js', priority: 'MEDIUM' });
+    }
+    http.post(`${BASE_URL}/api/tickets/batch`, JSON.stringify({ tickets }), { headers: user.headers, timeout: '120s' });
+  }
+
+  // Give the support agent a queue of its own to work on
+  const page = http.get(`${BASE_URL}/api/tickets?size=200`, { headers: support.headers });
+  const ticketIds = page.json('content').map((ticket) => ticket.id);
+  http.patch(`${BASE_URL}/api/tickets/batch/assignee`,
+    JSON.stringify({ ticketIds, assignedToId: support.id }), { headers: support.headers });
+
+  return { user: user.headers, support: support.headers, ticketIds };
+}
+
+export function userFlood(data) {
+  const path = Math.random() < 0.5 ? '/api/tickets?size=50' : '/api/tickets/my-tickets?size=50';
+  const response = http.get(`${BASE_URL}${path}`, { headers: data.user, tags: { name: 'user-list' } });
+  if (response.status === 503) {
+    userShed.add(1);
+  }
+}
+
+export function supportWork(data) {
+  if (Math.random() < 0.5) {
+    const response = http.get(`${BASE_URL}/api/tickets/assigned-to-me?size=20`,
+      { headers: data.support, tags: { name: 'assigned-to-me' } });
+    check(response, { 'support read ok': (r) => r.status === 200 });
+  } else {
+    const id = data.ticketIds[Math.floor(Math.random() * data.ticketIds.length)];
+    const status = STATUSES[Math.floor(Math.random() * STATUSES.length)];
+    const response = http.patch(`${BASE_URL}/api/tickets/${id}/status?status=${status}`, null,
+      { headers: data.support, tags: { name: 'update-status' } });
+    check(response, { 'support update ok': (r) => r.status === 200 });
+  }
+}
+
+export function handleSummary(data) {
+  return {
+    stdout: textSummary(data, { indent: ' ', enableColors: true }),
+    [`priority-${__ENV.LABEL || 'run'}.json`]: JSON.stringify(data, null, 2),
+  };
+}
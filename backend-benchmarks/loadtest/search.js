@@ -0,0 +1,77 @@
+// k6 load test for GET /api/tickets/search.
+//
+//   k6 run -e LABEL=platform loadtest/search.js   (app started normally)
+//   k6 run -e LABEL=virtual  loadtest/search.js   (app started with the virtual-threads profile)
+//
+// All VUs share one login, so start the app with --app.ratelimit.enabled=false
+// --app.scheduler.enabled=false.
+// Each run writes its summary to search-<LABEL>.json; compare http_reqs rate and
+// the p(99) of http_req_duration between the two files.
+import http from 'k6/http';
+import { check } from 'k6';
+import { textSummary } from 'https://jslib.k6.io/k6-summary/0.0.2/index.js';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const USERNAME = __ENV.USERNAME || 'support';
+const PASSWORD = __ENV.PASSWORD || 'support123';
+const VUS = parseInt(__ENV.VUS || '2000', 10);
+const SEED_TICKETS = parseInt(__ENV.SEED_TICKETS || '20000', 10);
+const BATCH_SIZE = 1000;
+
+const WORDS = ['printer', 'network', 'password', 'laptop', 'vpn', 'email', 'monitor', 'access',
+  'install', 'license', 'server', 'backup', 'slow', 'error', 'login', 'update'];
+
+export const options = {
+  scenarios: {
+    search: {
+      executor: 'ramping-vus',
+      startVUs: 0,
+      stages: [
+        { duration: '30s', target: VUS },
+        { duration: __ENV.DURATION || '2m', target: VUS },
+      ],
+      gracefulRampDown: '10s',
+    },
+  },
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+  setupTimeout: '10m',
+};
+
+function phrase(words) {
+  const parts = [];
+  for (let i = 0; i < words; i++) {
+    parts.push(WORDS[Math.floor(Math.random() * WORDS.length)]);
+  }
+  return parts.join(' ');
+}
+
+export function setup() {
+  const login = http.post(`${BASE_URL}/api/auth/login`,
+    JSON.stringify({ username: USERNAME, password: PASSWORD }),
+    { headers: { 'Content-Type': 'application/json' } });
+  check(login, { 'logged in': (r) => r.status === 200 });
+  const headers = { 'Content-Type': 'application/json', Authorization: `Bearer ${login.json('token')}` };
+
+  for (let seeded = 0; seeded < SEED_TICKETS; seeded += BATCH_SIZE) {
+    const tickets = [];
+    for (let i = 0; i < Math.min(BATCH_SIZE, SEED_TICKETS - seeded); i++) {
+      tickets.push({ title: phrase(4), description: phrase(40), priority: 'MEDIUM' });
+    }
+    http.post(`${BASE_URL}/api/tickets/batch`, JSON.stringify({ tickets }), { headers, timeout: '120s' });
+  }
+  return { headers };
+}
+
+export default function (data) {
+  const term = encodeURIComponent(phrase(1 + Math.floor(Math.random() * 2)));
+  const response = http.get(`${BASE_URL}/api/tickets/search?search=${term}&size=20`,
+    { headers: data.headers, tags: { name: 'search' } });
+  check(response, { 'status is 200': (r) => r.status === 200 });
+}
+
+export function handleSummary(data) {
+  return {
+    stdout: textSummary(data, { indent: ' ', enableColors: true }),
+    [`search-${__ENV.LABEL || 'run'}.json`]: JSON.stringify(data, null, 2),
+  };
+}
@@ -0,0 +1,60 @@
+package com.ticketsystem.benchmarks;
+
+import com.ticketsystem.entity.User;
+import com.ticketsystem.security.JwtTokenProvider;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Authentication costs: JWT verification on every request and BCrypt-dominated login.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@State(Scope.Thread)
+public class AuthBenchmark {
+    
+    private JwtTokenProvider tokenProvider;
+    private AuthenticationManager authenticationManager;
+    private PasswordEncoder passwordEncoder;
+    private String token;
+    private String username;
+    private String passwordHash;
+    
+    @Setup(Level.Trial)
+    public void setUp(SeededApplication app) {
+        tokenProvider = app.bean(JwtTokenProvider.class);
+        authenticationManager = app.bean(AuthenticationManager.class);
+        passwordEncoder = app.bean(PasswordEncoder.class);
+        User user = app.supportUser;
+        username = user.getUsername();
+        passwordHash = user.getPassword();
+        token = tokenProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+    
+    @Benchmark
+    public Optional<Claims> validateToken() {
+        return tokenProvider.parseToken(token);
+    }
+    
+    @Benchmark
+    public boolean passwordMatches() {
+        return passwordEncoder.matches(SeededApplication.PASSWORD, passwordHash);
+    }
+    
+    @Benchmark
+    public Authentication login() {
+        return authenticationManager.authenticate(
+                new UsernamePasswordAuthenticationToken(username, SeededApplication.PASSWORD));
+    }
+}
@@ -0,0 +1,46 @@
+package com.ticketsystem.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * Runs the benchmarks with the GC profiler attached and writes JSON results to
+ * {@code target/jmh-results/} so runs from different releases can be diffed.
+ * Accepts the usual JMH command line, optionally passed as a single string. A command line
+ * starting with {@code load} runs the {@link LoadDriver} instead.
+ */
+public class BenchmarkRunner {
+    
+    public static void main(String[] args) throws Exception {
+        String[] jmhArgs = Arrays.stream(String.join(" ", args).trim().split("\\s+"))
+                .filter(arg -> !arg.isEmpty())
+                .toArray(String[]::new);
+        if (jmhArgs.length > 0 && "load".equals(jmhArgs[0])) {
+            LoadDriver.main(Arrays.copyOfRange(jmhArgs, 1, jmhArgs.length));
+            return;
+        }
+        
+        Path resultDir = Paths.get("target", "jmh-results");
+        Files.createDirectories(resultDir);
+        String resultFile = resultDir.resolve("jmh-result-" + System.currentTimeMillis() + ".json").toString();
+        
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(jmhArgs))
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultFile)
+                .build();
+        
+        new Runner(options).run();
+        System.out.println("Results written to " + resultFile);
+    }
+}
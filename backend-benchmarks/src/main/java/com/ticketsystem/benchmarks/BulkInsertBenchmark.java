@@ -0,0 +1,101 @@
+package com.ticketsystem.benchmarks;
+
+import com.ticketsystem.TicketSystemApplication;
+import com.ticketsystem.entity.Priority;
+import com.ticketsystem.entity.Role;
+import com.ticketsystem.entity.Ticket;
+import com.ticketsystem.entity.TicketStatus;
+import com.ticketsystem.entity.User;
+import com.ticketsystem.repository.TicketRepository;
+import com.ticketsystem.repository.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk insert throughput in tickets per second. {@code jdbcBatchSize=1} reproduces the
+ * old one-statement-per-row behaviour; larger values use the sequence-backed ids and
+ * Hibernate JDBC batching. Point {@code datasourceUrl} at PostgreSQL to measure the
+ * production setup instead of H2.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BulkInsertBenchmark {
+    
+    private static final int TICKETS_PER_TRANSACTION = 1000;
+    
+    @Param({"1", "50"})
+    public int jdbcBatchSize;
+    
+    @Param({""})
+    public String datasourceUrl;
+    
+    private ConfigurableApplicationContext context;
+    private TicketRepository ticketRepository;
+    private TransactionTemplate tx;
+    private User owner;
+    
+    @Setup(Level.Trial)
+    public void start() {
+        String url = datasourceUrl.isEmpty()
+                ? "jdbc:h2:mem:bulk" + System.nanoTime() + ";DB_CLOSE_DELAY=-1"
+                : datasourceUrl;
+        context = new SpringApplicationBuilder(TicketSystemApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=" + url,
+                        "spring.jpa.show-sql=false",
+                        "spring.jpa.properties.hibernate.jdbc.batch_size=" + jdbcBatchSize,
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN")
+                .run();
+        ticketRepository = context.getBean(TicketRepository.class);
+        tx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        owner = context.getBean(UserRepository.class).findByUsername("admin")
+                .orElseGet(() -> {
+                    User user = new User();
+                    user.setUsername("bulk-owner");
+                    user.setPassword("not-used");
+                    user.setEmail("bulk-owner@ticketsystem.com");
+                    user.setFullName("Bulk Owner");
+                    user.setRole(Role.ADMIN);
+                    return context.getBean(UserRepository.class).save(user);
+                });
+    }
+    
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(TICKETS_PER_TRANSACTION)
+    public void insertTickets() {
+        tx.executeWithoutResult(status -> {
+            List<Ticket> tickets = new ArrayList<>(TICKETS_PER_TRANSACTION);
+            LocalDateTime now = LocalDateTime.now();
+            for (int i = 0; i < TICKETS_PER_TRANSACTION; i++) {
+                Ticket ticket = new Ticket();
+                ticket.setTitle("Bulk ticket " + i);
+                ticket.setDescription("Inserted by the bulk insert benchmark");
+                ticket.setStatus(TicketStatus.OPEN);
+                ticket.setPriority(Priority.LOW);
+                ticket.setCreatedBy(owner);
+                ticket.setCreatedAt(now);
+                tickets.add(ticket);
+            }
+            ticketRepository.saveAll(tickets);
+        });
+    }
+}
@@ -0,0 +1,309 @@
+package com.ticketsystem.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Plain-JDK counterpart of the k6 scripts in {@code loadtest/}, for machines without k6.
+ * Runs the same scenarios against a running backend and writes a JSON summary to
+ * {@code loadtest/results/<scenario>-<label>.json}:
+ * <ul>
+ *   <li>{@code search}: closed-loop clients on {@code GET /api/tickets/search}, like search.js</li>
+ *   <li>{@code priority}: closed-loop end users on the ticket lists plus support work at a
+ *   fixed arrival rate, like priority.js</li>
+ * </ul>
+ * Only requests sent after the ramp-up are recorded. Arguments are {@code key=value} pairs:
+ * {@code mvn compile exec:exec -Djmh.args="load scenario=search label=platform clients=2000 duration=60"}.
+ */
+public class LoadDriver {
+    
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final int BATCH_SIZE = 1000;
+    private static final String[] WORDS = {"printer", "network", "password", "laptop", "vpn", "email", "monitor",
+            "access", "install", "license", "server", "backup", "slow", "error", "login", "update"};
+    private static final String[] STATUSES = {"IN_PROGRESS", "OPEN"};
+    
+    private final Map<String, String> options;
+    private final String baseUrl;
+    private final HttpClient client;
+    private final Map<String, Recorder> recorders = new TreeMap<>();
+    private volatile boolean recording;
+    private volatile boolean running = true;
+    
+    private LoadDriver(Map<String, String> options) {
+        this.options = options;
+        this.baseUrl = option("baseUrl", "http://localhost:8080");
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newFixedThreadPool(4))
+                .build();
+    }
+    
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : String.join(" ", args).trim().split("\\s+")) {
+            int separator = arg.indexOf('=');
+            if (separator > 0) {
+                options.put(arg.substring(0, separator), arg.substring(separator + 1));
+            }
+        }
+        new LoadDriver(options).run();
+        System.exit(0);
+    }
+    
+    private void run() throws Exception {
+        String scenario = option("scenario", "search");
+        int rampSeconds = Integer.parseInt(option("ramp", "30"));
+        int durationSeconds = Integer.parseInt(option("duration", "120"));
+        int seedTickets = Integer.parseInt(option("seedTickets", "20000"));
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
+        
+        int clients;
+        if ("search".equals(scenario)) {
+            clients = Integer.parseInt(option("clients", "2000"));
+            Map<String, String> headers = login(option("username", "support"), option("password", "support123"))
+                    .headers;
+            seed(headers, seedTickets, i -> phrase(4), i -> phrase(40));
+            startClosedLoop(scheduler, clients, rampSeconds, "search", () -> HttpRequest.newBuilder(
+                    uri("/api/tickets/search?search=" + phrase(1 + ThreadLocalRandom.current().nextInt(2)).replace(' ', '+')
+                            + "&size=20")), headers);
+        } else if ("priority".equals(scenario)) {
+            clients = Integer.parseInt(option("clients", "1500"));
+            int supportRate = Integer.parseInt(option("supportRate", "20"));
+            Session user = login(option("userName", "user"), option("userPassword", "user123"));
+            Session support = login(option("supportName", "support"), option("supportPassword", "support123"));
+            seed(user.headers, seedTickets, i -> "Load test ticket " + i, i -> "Seeded by LoadDriver");
+            List<Long> ticketIds = assignQueue(support);
+            startClosedLoop(scheduler, clients, rampSeconds, "user-list", () -> HttpRequest.newBuilder(
+                    uri(ThreadLocalRandom.current().nextBoolean() ? "/api/tickets?size=50" : "/api/tickets/my-tickets?size=50")),
+                    user.headers);
+            scheduler.scheduleAtFixedRate(() -> supportWork(support.headers, ticketIds),
+                    0, 1_000_000 / supportRate, TimeUnit.MICROSECONDS);
+        } else {
+            throw new IllegalArgumentException("Unknown scenario " + scenario + ", use search or priority");
+        }
+        
+        Thread.sleep(TimeUnit.SECONDS.toMillis(rampSeconds));
+        recording = true;
+        long start = System.nanoTime();
+        Thread.sleep(TimeUnit.SECONDS.toMillis(durationSeconds));
+        recording = false;
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        running = false;
+        scheduler.shutdownNow();
+        
+        writeSummary(scenario, clients, elapsed);
+    }
+    
+    private void startClosedLoop(ScheduledExecutorService scheduler, int clients, int rampSeconds, String name,
+                                 Supplier<HttpRequest.Builder> request, Map<String, String> headers) {
+        long stepMicros = TimeUnit.SECONDS.toMicros(rampSeconds) / Math.max(clients, 1);
+        for (int i = 0; i < clients; i++) {
+            scheduler.schedule(() -> loop(name, request, headers), i * stepMicros, TimeUnit.MICROSECONDS);
+        }
+    }
+    
+    private void loop(String name, Supplier<HttpRequest.Builder> request, Map<String, String> headers) {
+        if (!running) {
+            return;
+        }
+        send(name, request.get(), headers).whenComplete((status, error) -> loop(name, request, headers));
+    }
+    
+    private void supportWork(Map<String, String> headers, List<Long> ticketIds) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextBoolean()) {
+            send("assigned-to-me", HttpRequest.newBuilder(uri("/api/tickets/assigned-to-me?size=20")), headers);
+        } else {
+            long id = ticketIds.get(random.nextInt(ticketIds.size()));
+            String status = STATUSES[random.nextInt(STATUSES.length)];
+            send("update-status", HttpRequest.newBuilder(uri("/api/tickets/" + id + "/status?status=" + status))
+                    .method("PATCH", HttpRequest.BodyPublishers.noBody()), headers);
+        }
+    }
+    
+    private CompletableFuture<Integer> send(String name, HttpRequest.Builder builder, Map<String, String> headers) {
+        headers.forEach(builder::header);
+        HttpRequest request = builder.timeout(Duration.ofSeconds(60)).build();
+        boolean recorded = recording;
+        long start = System.nanoTime();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .handle((response, error) -> {
+                    int status = error != null ? -1 : response.statusCode();
+                    if (recorded && recording) {
+                        recorder(name).record(System.nanoTime() - start, status);
+                    }
+                    return status;
+                });
+    }
+    
+    private synchronized Recorder recorder(String name) {
+        return recorders.computeIfAbsent(name, key -> new Recorder());
+    }
+    
+    private Session login(String username, String password) throws IOException, InterruptedException {
+        ObjectNode body = JSON.createObjectNode().put("username", username).put("password", password);
+        JsonNode response = call(HttpRequest.newBuilder(uri("/api/auth/login"))
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString())), Map.of());
+        return new Session(response.get("id").asLong(), Map.of(
+                "Content-Type", "application/json",
+                "Authorization", "Bearer " + response.get("token").asText()));
+    }
+    
+    private void seed(Map<String, String> headers, int count, IntFunction<String> title,
+                      IntFunction<String> description) throws IOException, InterruptedException {
+        for (int seeded = 0; seeded < count; seeded += BATCH_SIZE) {
+            ArrayNode tickets = JSON.createArrayNode();
+            for (int i = seeded; i < Math.min(seeded + BATCH_SIZE, count); i++) {
+                tickets.addObject().put("title", title.apply(i)).put("description", description.apply(i))
+                        .put("priority", "MEDIUM");
+            }
+            ObjectNode body = JSON.createObjectNode();
+            body.set("tickets", tickets);
+            call(HttpRequest.newBuilder(uri("/api/tickets/batch"))
+                    .POST(HttpRequest.BodyPublishers.ofString(body.toString())), headers);
+        }
+    }
+    
+    /**
+     * Gives the support agent a queue of its own to work on, like priority.js.
+     */
+    private List<Long> assignQueue(Session support) throws IOException, InterruptedException {
+        List<Long> ticketIds = new ArrayList<>();
+        call(HttpRequest.newBuilder(uri("/api/tickets?size=200")), support.headers)
+                .get("content").forEach(ticket -> ticketIds.add(ticket.get("id").asLong()));
+        ObjectNode body = JSON.createObjectNode().put("assignedToId", support.id);
+        ticketIds.forEach(body.putArray("ticketIds")::add);
+        call(HttpRequest.newBuilder(uri("/api/tickets/batch/assignee"))
+                .method("PATCH", HttpRequest.BodyPublishers.ofString(body.toString())), support.headers);
+        return ticketIds;
+    }
+    
+    private JsonNode call(HttpRequest.Builder builder, Map<String, String> headers)
+            throws IOException, InterruptedException {
+        builder.header("Content-Type", "application/json");
+        headers.forEach((name, value) -> {
+            if (!"Content-Type".equals(name)) {
+                builder.header(name, value);
+            }
+        });
+        HttpResponse<String> response = client.send(builder.timeout(Duration.ofMinutes(2)).build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 300) {
+            throw new IllegalStateException(response.request().uri() + " answered " + response.statusCode()
+                    + ": " + response.body());
+        }
+        return JSON.readTree(response.body());
+    }
+    
+    private void writeSummary(String scenario, int clients, double elapsedSeconds) throws IOException {
+        ObjectNode summary = JSON.createObjectNode()
+                .put("scenario", scenario)
+                .put("label", option("label", "run"))
+                .put("clients", clients)
+                .put("measuredSeconds", Math.round(elapsedSeconds * 10) / 10.0)
+                .put("javaVersion", System.getProperty("java.version"))
+                .put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        ObjectNode requests = summary.putObject("requests");
+        synchronized (this) {
+            recorders.forEach((name, recorder) -> requests.set(name, recorder.summary(elapsedSeconds)));
+        }
+        
+        Path resultDir = Paths.get(option("resultDir", "loadtest/results"));
+        Files.createDirectories(resultDir);
+        Path file = resultDir.resolve(scenario + "-" + option("label", "run") + ".json");
+        String text = JSON.writerWithDefaultPrettyPrinter().writeValueAsString(summary);
+        Files.writeString(file, text + "\n");
+        System.out.println(text);
+        System.out.println("Summary written to " + file);
+    }
+    
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+    
+    private String option(String name, String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+    
+    private static String phrase(int words) {
+        StringBuilder phrase = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                phrase.append(' ');
+            }
+            phrase.append(WORDS[ThreadLocalRandom.current().nextInt(WORDS.length)]);
+        }
+        return phrase.toString();
+    }
+    
+    private record Session(long id, Map<String, String> headers) {
+    }
+    
+    /**
+     * Keeps every latency of the measured window; a few hundred thousand samples fit easily.
+     */
+    private static final class Recorder {
+        private long[] latencies = new long[1 << 16];
+        private int count;
+        private final Map<Integer, Integer> statuses = new TreeMap<>();
+        
+        synchronized void record(long nanos, int status) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+            statuses.merge(status, 1, Integer::sum);
+        }
+        
+        synchronized ObjectNode summary(double elapsedSeconds) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            ObjectNode node = JSON.createObjectNode()
+                    .put("count", count)
+                    .put("perSecond", Math.round(count / elapsedSeconds * 10) / 10.0);
+            ObjectNode status = node.putObject("status");
+            statuses.forEach((code, total) -> status.put(code < 0 ? "error" : String.valueOf(code), total));
+            ObjectNode latency = node.putObject("latencyMs");
+            latency.put("p50", percentile(sorted, 0.50));
+            latency.put("p95", percentile(sorted, 0.95));
+            latency.put("p99", percentile(sorted, 0.99));
+            latency.put("max", sorted.length == 0 ? 0 : Math.round(sorted[sorted.length - 1] / 1e4) / 100.0);
+            return node;
+        }
+        
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return Math.round(sorted[Math.max(index, 0)] / 1e4) / 100.0;
+        }
+    }
+}
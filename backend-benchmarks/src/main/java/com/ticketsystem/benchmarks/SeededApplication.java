@@ -0,0 +1,163 @@
+package com.ticketsystem.benchmarks;
+
+import com.ticketsystem.TicketSystemApplication;
+import com.ticketsystem.entity.*;
+import com.ticketsystem.repository.CommentRepository;
+import com.ticketsystem.repository.TicketRepository;
+import com.ticketsystem.repository.UserRepository;
+import com.ticketsystem.service.CommentCountReconciler;
+import com.ticketsystem.service.TicketSearchIndex;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Boots the backend against a private in-memory H2 database and seeds it with a
+ * configurable number of users, tickets and comments. Shared by all benchmarks.
+ */
+@State(Scope.Benchmark)
+public class SeededApplication {
+    
+    static final String PASSWORD = "benchmark";
+    static final String[] WORDS = {
+            "printer", "network", "login", "password", "vpn", "email", "laptop", "monitor",
+            "keyboard", "outlook", "server", "backup", "license", "update", "crash", "slow",
+            "access", "permission", "wifi", "headset", "install", "error", "timeout", "database"
+    };
+    
+    private static final int BATCH_SIZE = 1000;
+    
+    @Param({"10000"})
+    public int tickets;
+    
+    @Param({"2"})
+    public int commentsPerTicket;
+    
+    @Param({"50"})
+    public int users;
+    
+    ConfigurableApplicationContext context;
+    List<User> seededUsers;
+    User supportUser;
+    long minTicketId;
+    long maxTicketId;
+    
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(TicketSystemApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:bench" + System.nanoTime() + ";DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false",
+                        "spring.jpa.properties.hibernate.format_sql=false",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN")
+                .run();
+        seed();
+        JdbcTemplate jdbc = bean(JdbcTemplate.class);
+        minTicketId = jdbc.queryForObject("select min(id) from tickets", Long.class);
+        maxTicketId = jdbc.queryForObject("select max(id) from tickets", Long.class);
+        bean(TicketSearchIndex.class).rebuild();
+    }
+    
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+    
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+    
+    Long randomTicketId(Random random) {
+        return minTicketId + (long) (random.nextDouble() * (maxTicketId - minTicketId + 1));
+    }
+    
+    String randomPhrase(Random random, int words) {
+        StringBuilder phrase = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                phrase.append(' ');
+            }
+            phrase.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return phrase.toString();
+    }
+    
+    private void seed() {
+        UserRepository userRepository = bean(UserRepository.class);
+        TicketRepository ticketRepository = bean(TicketRepository.class);
+        CommentRepository commentRepository = bean(CommentRepository.class);
+        EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(
+                bean(EntityManagerFactory.class));
+        TransactionTemplate tx = new TransactionTemplate(bean(PlatformTransactionManager.class));
+        String passwordHash = bean(PasswordEncoder.class).encode(PASSWORD);
+        Random random = new Random(42);
+        
+        seededUsers = tx.execute(status -> {
+            List<User> created = new ArrayList<>();
+            for (int i = 0; i < users; i++) {
+                User user = new User();
+                user.setUsername("bench-user-" + i);
+                user.setPassword(passwordHash);
+                user.setEmail("bench-user-" + i + "@ticketsystem.com");
+                user.setFullName("Benchmark User " + i);
+                user.setRole(i % 5 == 0 ? Role.SUPPORT : Role.USER);
+                user.setEnabled(true);
+                created.add(user);
+            }
+            return userRepository.saveAll(created);
+        });
+        supportUser = seededUsers.get(0);
+        
+        LocalDateTime start = LocalDateTime.now().minusDays(365);
+        for (int offset = 0; offset < tickets; offset += BATCH_SIZE) {
+            int from = offset;
+            int to = Math.min(tickets, offset + BATCH_SIZE);
+            tx.executeWithoutResult(status -> {
+                for (int i = from; i < to; i++) {
+                    Ticket ticket = new Ticket();
+                    ticket.setTitle(randomPhrase(random, 4));
+                    ticket.setDescription(randomPhrase(random, 60));
+                    ticket.setStatus(TicketStatus.values()[random.nextInt(TicketStatus.values().length)]);
+                    ticket.setPriority(Priority.values()[random.nextInt(Priority.values().length)]);
+                    ticket.setCreatedBy(seededUsers.get(random.nextInt(users)));
+                    if (random.nextBoolean()) {
+                        ticket.setAssignedTo(supportUser);
+                    }
+                    ticket.setCreatedAt(start.plusSeconds(i * 60L));
+                    ticketRepository.save(ticket);
+                    
+                    for (int c = 0; c < commentsPerTicket; c++) {
+                        Comment comment = new Comment();
+                        comment.setContent(randomPhrase(random, 20));
+                        comment.setTicket(ticket);
+                        comment.setUser(seededUsers.get(random.nextInt(users)));
+                        comment.setCreatedAt(ticket.getCreatedAt().plusMinutes(c + 1));
+                        commentRepository.save(comment);
+                    }
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+        }
+        bean(CommentCountReconciler.class).reconcile();
+    }
+}
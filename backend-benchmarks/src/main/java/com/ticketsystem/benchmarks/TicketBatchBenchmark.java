@@ -0,0 +1,90 @@
+package com.ticketsystem.benchmarks;
+
+import com.ticketsystem.dto.BatchResponse;
+import com.ticketsystem.dto.TicketRequest;
+import com.ticketsystem.entity.Priority;
+import com.ticketsystem.entity.TicketStatus;
+import com.ticketsystem.service.TicketBatchService;
+import com.ticketsystem.service.TicketService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk import and batch status change against the equivalent loop of single-item
+ * service calls. Scores are per ticket thanks to {@link OperationsPerInvocation}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@State(Scope.Thread)
+public class TicketBatchBenchmark {
+    
+    private static final int BATCH = 1000;
+    
+    private TicketService ticketService;
+    private TicketBatchService ticketBatchService;
+    private Random random;
+    
+    @Setup(Level.Trial)
+    public void setUp(SeededApplication app) {
+        ticketService = app.bean(TicketService.class);
+        ticketBatchService = app.bean(TicketBatchService.class);
+        random = new Random();
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public BatchResponse batchCreate(SeededApplication app) {
+        return ticketBatchService.createTickets(requests(app), app.seededUsers.get(random.nextInt(app.users)));
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void singleCreate(SeededApplication app, Blackhole blackhole) {
+        for (TicketRequest request : requests(app)) {
+            blackhole.consume(ticketService.createTicket(request, app.seededUsers.get(random.nextInt(app.users))));
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public BatchResponse batchStatus(SeededApplication app) {
+        return ticketBatchService.updateStatuses(ticketIds(app), TicketStatus.IN_PROGRESS, app.supportUser);
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void singleStatus(SeededApplication app, Blackhole blackhole) {
+        for (Long id : ticketIds(app)) {
+            blackhole.consume(ticketService.updateTicketStatus(id, TicketStatus.IN_PROGRESS, app.supportUser));
+        }
+    }
+    
+    private List<TicketRequest> requests(SeededApplication app) {
+        List<TicketRequest> requests = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            requests.add(new TicketRequest(
+                    app.randomPhrase(random, 4),
+                    app.randomPhrase(random, 60),
+                    Priority.MEDIUM,
+                    app.supportUser.getId(),
+                    null));
+        }
+        return requests;
+    }
+    
+    private List<Long> ticketIds(SeededApplication app) {
+        List<Long> ids = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            ids.add(app.randomTicketId(random));
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,60 @@
+package com.ticketsystem.benchmarks;
+
+import com.ticketsystem.dto.TicketPageResponse;
+import com.ticketsystem.dto.TicketResponse;
+import com.ticketsystem.entity.Priority;
+import com.ticketsystem.entity.TicketStatus;
+import com.ticketsystem.service.TicketService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read paths: paginated listing, full-text and filtered search, and single ticket lookup
+ * (which includes response conversion). Compare search latency across volumes with
+ * {@code -p tickets=10000,100000,1000000}.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@State(Scope.Thread)
+public class TicketQueryBenchmark {
+    
+    private TicketService ticketService;
+    private Random random;
+    
+    @Setup(Level.Trial)
+    public void setUp(SeededApplication app) {
+        ticketService = app.bean(TicketService.class);
+        random = new Random();
+    }
+    
+    @Benchmark
+    public TicketPageResponse listFirstPage() {
+        return ticketService.getAllTickets(null, 50);
+    }
+    
+    @Benchmark
+    public TicketPageResponse searchSingleTerm(SeededApplication app) {
+        return ticketService.searchTickets(app.randomPhrase(random, 1), null, null, null, 50);
+    }
+    
+    @Benchmark
+    public TicketPageResponse searchPrefixWithFilters(SeededApplication app) {
+        String term = app.randomPhrase(random, 1);
+        return ticketService.searchTickets(term.substring(0, 3), TicketStatus.OPEN, Priority.HIGH, null, 50);
+    }
+    
+    @Benchmark
+    public TicketPageResponse filterByStatus() {
+        return ticketService.searchTickets(null, TicketStatus.IN_PROGRESS, null, null, 50);
+    }
+    
+    @Benchmark
+    public TicketResponse getTicketById(SeededApplication app) {
+        return ticketService.getTicketById(app.randomTicketId(random));
+    }
+}
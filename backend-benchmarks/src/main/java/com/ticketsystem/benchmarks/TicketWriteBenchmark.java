@@ -0,0 +1,53 @@
+package com.ticketsystem.benchmarks;
+
+import com.ticketsystem.dto.CommentRequest;
+import com.ticketsystem.dto.CommentResponse;
+import com.ticketsystem.dto.TicketRequest;
+import com.ticketsystem.dto.TicketResponse;
+import com.ticketsystem.entity.Priority;
+import com.ticketsystem.service.CommentService;
+import com.ticketsystem.service.TicketService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write paths: ticket creation and adding a comment to an existing ticket.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@State(Scope.Thread)
+public class TicketWriteBenchmark {
+    
+    private TicketService ticketService;
+    private CommentService commentService;
+    private Random random;
+    
+    @Setup(Level.Trial)
+    public void setUp(SeededApplication app) {
+        ticketService = app.bean(TicketService.class);
+        commentService = app.bean(CommentService.class);
+        random = new Random();
+    }
+    
+    @Benchmark
+    public TicketResponse createTicket(SeededApplication app) {
+        TicketRequest request = new TicketRequest(
+                app.randomPhrase(random, 4),
+                app.randomPhrase(random, 60),
+                Priority.MEDIUM,
+                app.supportUser.getId(),
+                null);
+        return ticketService.createTicket(request, app.seededUsers.get(random.nextInt(app.users)));
+    }
+    
+    @Benchmark
+    public CommentResponse addComment(SeededApplication app) {
+        CommentRequest request = new CommentRequest(app.randomPhrase(random, 20));
+        return commentService.addComment(app.randomTicketId(random), request, app.supportUser);
+    }
+}
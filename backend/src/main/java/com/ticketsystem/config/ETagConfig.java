@@ -0,0 +1,56 @@
+package com.ticketsystem.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+import java.io.IOException;
+
+/**
+ * List endpoints have no single version to derive an ETag from, so their bodies are hashed
+ * instead: the query still runs but unchanged pages go back as a bodiless 304. Single
+ * tickets, comment threads and users set version-based ETags in their controllers.
+ */
+@Configuration
+public class ETagConfig {
+    
+    private static final String REVALIDATE = CacheControl.noCache().cachePrivate().getHeaderValue();
+    
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> listETagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration = new FilterRegistrationBean<>(new RevalidatingEtagFilter());
+        registration.addUrlPatterns(
+                "/api/tickets",
+                "/api/tickets/search",
+                "/api/tickets/my-tickets",
+                "/api/tickets/assigned-to-me",
+                "/api/users");
+        // Ahead of Spring Security, so a request the scheduler parks is already wrapped when it gets dispatched again
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+    
+    /**
+     * Marks GET responses as privately cacheable but always revalidated. Spring Security
+     * otherwise adds no-store, which keeps browsers from ever sending If-None-Match.
+     */
+    private static class RevalidatingEtagFilter extends ShallowEtagHeaderFilter {
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                        FilterChain filterChain) throws ServletException, IOException {
+            if (HttpMethod.GET.matches(request.getMethod())) {
+                response.setHeader(HttpHeaders.CACHE_CONTROL, REVALIDATE);
+            }
+            super.doFilterInternal(request, response, filterChain);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.ticketsystem.controller;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.ticketsystem.dto.BackupResult;
+import com.ticketsystem.service.OutboxDispatcher;
+import com.ticketsystem.service.TicketBackupService;
+import com.ticketsystem.service.TicketSearchIndex;
+import com.ticketsystem.service.UserService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin")
+@CrossOrigin(origins = "*", maxAge = 3600)
+@SecurityRequirement(name = "bearerAuth")
+@PreAuthorize("hasRole('ADMIN')")
+@Tag(name = "Administration", description = "Maintenance APIs")
+public class AdminController {
+    
+    @Autowired
+    private TicketSearchIndex ticketSearchIndex;
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+    
+    @Autowired
+    private TicketBackupService ticketBackupService;
+    
+    @PostMapping("/search/reindex")
+    @Operation(summary = "Rebuild the ticket search index from the database")
+    public ResponseEntity<Map<String, Object>> rebuildSearchIndex() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("indexed", ticketSearchIndex.rebuild());
+        return ResponseEntity.ok(response);
+    }
+    
+    @GetMapping("/outbox")
+    @Operation(summary = "Get the number of pending and dead-lettered outbox messages")
+    public ResponseEntity<Map<String, Object>> getOutboxStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("pending", outboxDispatcher.getPendingCount());
+        response.put("deadLetters", outboxDispatcher.getDeadLetterCount());
+        return ResponseEntity.ok(response);
+    }
+    
+    @PostMapping("/outbox/dead-letters/{id}/retry")
+    @Operation(summary = "Put a dead-lettered outbox message back for its handler")
+    public ResponseEntity<Void> retryDeadLetter(@PathVariable Long id) {
+        outboxDispatcher.requeue(id);
+        return ResponseEntity.accepted().build();
+    }
+    
+    @PostMapping("/backup/export")
+    @Operation(summary = "Export all users, tickets and comments into a backup file on the server")
+    public ResponseEntity<BackupResult> exportBackup() {
+        return ResponseEntity.ok(ticketBackupService.export());
+    }
+    
+    @PostMapping("/backup/import")
+    @Operation(summary = "Import a backup file from the server into an installation without tickets")
+    public ResponseEntity<BackupResult> importBackup(@RequestParam String file) {
+        return ResponseEntity.ok(ticketBackupService.importFile(file));
+    }
+    
+    @GetMapping("/caches")
+    @Operation(summary = "Get cache hit and miss statistics")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        CacheStats stats = userService.getUserCacheStats();
+        Map<String, Object> users = new HashMap<>();
+        users.put("size", userService.getUserCacheSize());
+        users.put("hitCount", stats.hitCount());
+        users.put("missCount", stats.missCount());
+        users.put("hitRate", stats.hitRate());
+        users.put("evictionCount", stats.evictionCount());
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("users", users);
+        return ResponseEntity.ok(response);
+    }
+}
@@ -6,14 +6,17 @@ import com.ticketsystem.dto.RegisterRequest;
 import com.ticketsystem.entity.Role;
 import com.ticketsystem.entity.User;
 import com.ticketsystem.security.JwtTokenProvider;
+import com.ticketsystem.security.LoginAttemptLimiter;
 import com.ticketsystem.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -37,15 +40,30 @@ public class AuthController {
     @Autowired
     private JwtTokenProvider tokenProvider;
     
+    @Autowired
+    private LoginAttemptLimiter loginAttemptLimiter;
+    
     @PostMapping("/login")
     @Operation(summary = "Login user", description = "Authenticate user and return JWT token")
-    public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        loginRequest.getUsername(),
-                        loginRequest.getPassword()
-                )
-        );
+    public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest,
+                                              HttpServletRequest request) {
+        // The client behind a trusted proxy, see server.forward-headers-strategy
+        String clientIp = request.getRemoteAddr();
+        loginAttemptLimiter.checkAllowed(loginRequest.getUsername(), clientIp);
+        
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(
+                            loginRequest.getUsername(),
+                            loginRequest.getPassword()
+                    )
+            );
+        } catch (BadCredentialsException ex) {
+            loginAttemptLimiter.recordFailure(loginRequest.getUsername(), clientIp);
+            throw ex;
+        }
+        loginAttemptLimiter.recordSuccess(loginRequest.getUsername());
         
         SecurityContextHolder.getContext().setAuthentication(authentication);
         String jwt = tokenProvider.generateToken(authentication);
@@ -0,0 +1,41 @@
+package com.ticketsystem.controller;
+
+import com.ticketsystem.dto.StreamTokenResponse;
+import com.ticketsystem.entity.User;
+import com.ticketsystem.security.JwtTokenProvider;
+import com.ticketsystem.service.ChangeFeedBroadcaster;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/events")
+@CrossOrigin(origins = "*", maxAge = 3600)
+@SecurityRequirement(name = "bearerAuth")
+@Tag(name = "Events", description = "Server-sent change feed")
+public class ChangeFeedController {
+    
+    @Autowired
+    private ChangeFeedBroadcaster broadcaster;
+    
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+    
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Subscribe to ticket and comment changes visible to the current user")
+    public SseEmitter subscribe(@AuthenticationPrincipal User user) {
+        return broadcaster.subscribe(user);
+    }
+    
+    @PostMapping("/token")
+    @Operation(summary = "Issue a short-lived token for opening the change feed with access_token")
+    public StreamTokenResponse streamToken(@AuthenticationPrincipal User user) {
+        return new StreamTokenResponse(tokenProvider.generateStreamToken(user),
+                tokenProvider.getStreamExpirationMs() / 1000);
+    }
+}
@@ -9,11 +9,13 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -24,6 +26,8 @@ import java.util.List;
 @Tag(name = "Comments", description = "Comment management APIs")
 public class CommentController {
     
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+    
     @Autowired
     private CommentService commentService;
     
@@ -39,8 +43,12 @@ public class CommentController {
     
     @GetMapping
     @Operation(summary = "Get all comments for a ticket")
-    public ResponseEntity<List<CommentResponse>> getComments(@PathVariable Long ticketId) {
-        return ResponseEntity.ok(commentService.getCommentsByTicket(ticketId));
+    public ResponseEntity<List<CommentResponse>> getComments(@PathVariable Long ticketId, WebRequest request) {
+        String eTag = commentService.getCommentsETag(ticketId);
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(REVALIDATE).build();
+        }
+        return ResponseEntity.ok().eTag(eTag).cacheControl(REVALIDATE).body(commentService.getCommentsByTicket(ticketId));
     }
     
     @DeleteMapping("/{commentId}")
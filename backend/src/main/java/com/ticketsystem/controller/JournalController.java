@@ -0,0 +1,32 @@
+package com.ticketsystem.controller;
+
+import com.ticketsystem.dto.JournalPageResponse;
+import com.ticketsystem.service.TicketJournal;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/journal")
+@CrossOrigin(origins = "*", maxAge = 3600)
+@SecurityRequirement(name = "bearerAuth")
+@Tag(name = "Journal", description = "Audit trail of ticket and comment changes")
+public class JournalController {
+    
+    @Autowired
+    private TicketJournal ticketJournal;
+    
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Journal events after an offset",
+            description = "size counts transactions; pass the returned nextOffset as 'after' to continue")
+    public ResponseEntity<JournalPageResponse> read(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(ticketJournal.read(after, size));
+    }
+}
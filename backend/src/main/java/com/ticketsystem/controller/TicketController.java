@@ -1,22 +1,41 @@
 package com.ticketsystem.controller;
 
+import com.ticketsystem.dto.BatchResponse;
+import com.ticketsystem.dto.SlaStatsResponse;
+import com.ticketsystem.dto.TicketBatchAssignRequest;
+import com.ticketsystem.dto.TicketBatchRequest;
+import com.ticketsystem.dto.TicketBatchStatusRequest;
+import com.ticketsystem.dto.TicketExportFilter;
+import com.ticketsystem.dto.TicketPageResponse;
 import com.ticketsystem.dto.TicketRequest;
 import com.ticketsystem.dto.TicketResponse;
+import com.ticketsystem.dto.TicketStatsResponse;
+import com.ticketsystem.dto.TicketSyncResponse;
 import com.ticketsystem.entity.Priority;
 import com.ticketsystem.entity.TicketStatus;
 import com.ticketsystem.entity.User;
+import com.ticketsystem.service.SlaAnalyticsService;
+import com.ticketsystem.service.TicketBatchService;
+import com.ticketsystem.service.TicketReportService;
 import com.ticketsystem.service.TicketService;
+import com.ticketsystem.service.TicketStatsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
@@ -26,9 +45,24 @@ import java.util.List;
 @Tag(name = "Tickets", description = "Ticket management APIs")
 public class TicketController {
     
+    private static final String NDJSON_VALUE = "application/x-ndjson";
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+    
     @Autowired
     private TicketService ticketService;
     
+    @Autowired
+    private TicketBatchService ticketBatchService;
+    
+    @Autowired
+    private TicketStatsService ticketStatsService;
+    
+    @Autowired
+    private SlaAnalyticsService slaAnalyticsService;
+    
+    @Autowired
+    private TicketReportService ticketReportService;
+    
     @PostMapping
     @Operation(summary = "Create a new ticket")
     public ResponseEntity<TicketResponse> createTicket(
@@ -38,25 +72,59 @@ public class TicketController {
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
     
+    @PostMapping("/batch")
+    @PreAuthorize("hasAnyRole('SUPPORT', 'ADMIN')")
+    @Operation(summary = "Create tickets in bulk with per-item results")
+    public ResponseEntity<BatchResponse> createTickets(
+            @Valid @RequestBody TicketBatchRequest request,
+            @AuthenticationPrincipal User user) {
+        return ResponseEntity.ok(ticketBatchService.createTickets(request.getTickets(), user));
+    }
+    
+    @PatchMapping("/batch/status")
+    @PreAuthorize("hasAnyRole('SUPPORT', 'ADMIN')")
+    @Operation(summary = "Update the status of many tickets")
+    public ResponseEntity<BatchResponse> updateTicketStatuses(
+            @Valid @RequestBody TicketBatchStatusRequest request,
+            @AuthenticationPrincipal User user) {
+        return ResponseEntity.ok(ticketBatchService.updateStatuses(request.getTicketIds(), request.getStatus(), user));
+    }
+    
+    @PatchMapping("/batch/assignee")
+    @PreAuthorize("hasAnyRole('SUPPORT', 'ADMIN')")
+    @Operation(summary = "Reassign many tickets")
+    public ResponseEntity<BatchResponse> assignTickets(
+            @Valid @RequestBody TicketBatchAssignRequest request) {
+        return ResponseEntity.ok(ticketBatchService.assignTickets(request.getTicketIds(), request.getAssignedToId()));
+    }
+    
     @GetMapping
     @Operation(summary = "Get all tickets")
-    public ResponseEntity<List<TicketResponse>> getAllTickets() {
-        return ResponseEntity.ok(ticketService.getAllTickets());
+    public ResponseEntity<TicketPageResponse> getAllTickets(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(ticketService.getAllTickets(cursor, size));
     }
     
     @GetMapping("/{id}")
     @Operation(summary = "Get ticket by ID")
-    public ResponseEntity<TicketResponse> getTicketById(@PathVariable Long id) {
-        return ResponseEntity.ok(ticketService.getTicketById(id));
+    public ResponseEntity<TicketResponse> getTicketById(@PathVariable Long id, WebRequest request) {
+        String eTag = ticketService.getTicketETag(id);
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(REVALIDATE).build();
+        }
+        return ResponseEntity.ok().eTag(eTag).cacheControl(REVALIDATE).body(ticketService.getTicketById(id));
     }
     
     @PutMapping("/{id}")
-    @Operation(summary = "Update a ticket")
+    @Operation(summary = "Update a ticket", description = "Send If-Match or the version field to reject concurrent edits")
     public ResponseEntity<TicketResponse> updateTicket(
             @PathVariable Long id,
             @Valid @RequestBody TicketRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @AuthenticationPrincipal User user) {
-        return ResponseEntity.ok(ticketService.updateTicket(id, request, user));
+        TicketResponse response = ticketService.updateTicket(id, request, user, ifMatch);
+        return ResponseEntity.ok().eTag(TicketService.eTag(response)).body(response);
     }
     
     @PatchMapping("/{id}/status")
@@ -64,8 +132,10 @@ public class TicketController {
     @Operation(summary = "Update ticket status")
     public ResponseEntity<TicketResponse> updateTicketStatus(
             @PathVariable Long id,
-            @RequestParam TicketStatus status) {
-        return ResponseEntity.ok(ticketService.updateTicketStatus(id, status));
+            @RequestParam TicketStatus status,
+            @AuthenticationPrincipal User user) {
+        TicketResponse response = ticketService.updateTicketStatus(id, status, user);
+        return ResponseEntity.ok().eTag(TicketService.eTag(response)).body(response);
     }
     
     @DeleteMapping("/{id}")
@@ -78,23 +148,105 @@ public class TicketController {
     
     @GetMapping("/search")
     @Operation(summary = "Search tickets")
-    public ResponseEntity<List<TicketResponse>> searchTickets(
+    public ResponseEntity<TicketPageResponse> searchTickets(
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) TicketStatus status,
+            @RequestParam(required = false) Priority priority,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(ticketService.searchTickets(search, status, priority, cursor, size));
+    }
+    
+    @GetMapping("/changes")
+    @Operation(summary = "Tickets changed since a sync token",
+            description = "Omit 'since' for a full sync, then pass the returned nextToken; 410 means start over")
+    public ResponseEntity<TicketSyncResponse> getChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(ticketService.getChanges(since, size));
+    }
+    
+    @GetMapping("/stats")
+    @PreAuthorize("hasAnyRole('SUPPORT', 'ADMIN')")
+    @Operation(summary = "Ticket counts by status, and open tickets by priority, assignee and creator")
+    public ResponseEntity<TicketStatsResponse> getStats() {
+        return ResponseEntity.ok(ticketStatsService.getStats());
+    }
+    
+    @GetMapping("/sla")
+    @PreAuthorize("hasAnyRole('SUPPORT', 'ADMIN')")
+    @Operation(summary = "Time to first response and to resolution over the last days, by priority and agent")
+    public ResponseEntity<SlaStatsResponse> getSla(@RequestParam(required = false) Integer days) {
+        return ResponseEntity.ok(slaAnalyticsService.getSla(days));
+    }
+    
+    @GetMapping(value = "/stream", produces = NDJSON_VALUE)
+    @Operation(summary = "Stream matching tickets as newline-delimited JSON")
+    public ResponseEntity<StreamingResponseBody> streamTickets(
             @RequestParam(required = false) String search,
             @RequestParam(required = false) TicketStatus status,
             @RequestParam(required = false) Priority priority) {
-        return ResponseEntity.ok(ticketService.searchTickets(search, status, priority));
+        StreamingResponseBody body = out -> ticketService.streamTickets(search, status, priority, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON_VALUE))
+                .body(body);
+    }
+    
+    @GetMapping("/export")
+    @PreAuthorize("hasAnyRole('SUPPORT', 'ADMIN')")
+    @Operation(summary = "Export matching tickets as CSV or NDJSON",
+            description = "Takes the search filters plus inclusive date ranges (createdFrom/To, updatedFrom/To) and "
+                    + "a comma-separated column list; gzip-compressed when the client accepts it")
+    public ResponseEntity<StreamingResponseBody> exportTickets(
+            TicketExportFilter filter,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) String columns,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        TicketReportService.Format exportFormat = TicketReportService.Format.parse(format);
+        List<TicketReportService.Column> selected = TicketReportService.Column.parse(columns);
+        ticketReportService.validate(filter);
+        boolean gzip = acceptsGzip(acceptEncoding);
+        
+        StreamingResponseBody body = out -> ticketReportService.export(filter, exportFormat, selected, gzip, out);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(new MediaType(MediaType.parseMediaType(exportFormat.getMediaType()), StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + exportFormat.fileName() + "\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
     }
     
     @GetMapping("/my-tickets")
     @Operation(summary = "Get tickets created by current user")
-    public ResponseEntity<List<TicketResponse>> getMyTickets(@AuthenticationPrincipal User user) {
-        return ResponseEntity.ok(ticketService.getMyTickets(user));
+    public ResponseEntity<TicketPageResponse> getMyTickets(
+            @AuthenticationPrincipal User user,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(ticketService.getMyTickets(user, cursor, size));
     }
     
     @GetMapping("/assigned-to-me")
     @PreAuthorize("hasAnyRole('SUPPORT', 'ADMIN')")
     @Operation(summary = "Get tickets assigned to current user")
-    public ResponseEntity<List<TicketResponse>> getAssignedTickets(@AuthenticationPrincipal User user) {
-        return ResponseEntity.ok(ticketService.getAssignedTickets(user));
+    public ResponseEntity<TicketPageResponse> getAssignedTickets(
+            @AuthenticationPrincipal User user,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(ticketService.getAssignedTickets(user, cursor, size));
+    }
+    
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length < 2 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
     }
 }
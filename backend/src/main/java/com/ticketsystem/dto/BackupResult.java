@@ -0,0 +1,19 @@
+package com.ticketsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BackupResult {
+    private String file;
+    private long users;
+    private long tickets;
+    private long comments;
+    private long bytes;
+    private long millis;
+    private long recordsPerSecond;
+    private double megabytesPerSecond;
+}
@@ -0,0 +1,15 @@
+package com.ticketsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeEvent {
+    private String entity;
+    private String type;
+    private Long ticketId;
+    private Long commentId;
+}
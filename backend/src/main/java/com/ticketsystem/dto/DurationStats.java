@@ -0,0 +1,15 @@
+package com.ticketsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DurationStats {
+    private long count;
+    private double meanSeconds;
+    private long p50Seconds;
+    private long p95Seconds;
+}
@@ -0,0 +1,17 @@
+package com.ticketsystem.dto;
+
+import com.ticketsystem.event.JournalEvent;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JournalPageResponse {
+    private List<JournalEvent> events;
+    private long nextOffset;
+    private boolean hasMore;
+}
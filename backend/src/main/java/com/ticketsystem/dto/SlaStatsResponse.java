@@ -0,0 +1,20 @@
+package com.ticketsystem.dto;
+
+import com.ticketsystem.entity.Priority;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlaStatsResponse {
+    private LocalDate from;
+    private LocalDate to;
+    private SlaSummary overall;
+    private Map<Priority, SlaSummary> byPriority;
+    private Map<Long, SlaSummary> byAgent;
+}
@@ -0,0 +1,13 @@
+package com.ticketsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlaSummary {
+    private DurationStats firstResponse;
+    private DurationStats resolution;
+}
@@ -0,0 +1,19 @@
+package com.ticketsystem.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketBatchRequest {
+    
+    @NotEmpty(message = "At least one ticket is required")
+    @Size(max = 10000, message = "At most 10000 tickets per batch")
+    private List<TicketRequest> tickets;
+}
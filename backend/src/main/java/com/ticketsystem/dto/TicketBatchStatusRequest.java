@@ -0,0 +1,24 @@
+package com.ticketsystem.dto;
+
+import com.ticketsystem.entity.TicketStatus;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketBatchStatusRequest {
+    
+    @NotEmpty(message = "At least one ticket id is required")
+    @Size(max = 10000, message = "At most 10000 tickets per batch")
+    private List<Long> ticketIds;
+    
+    @NotNull(message = "Status is required")
+    private TicketStatus status;
+}
@@ -0,0 +1,34 @@
+package com.ticketsystem.dto;
+
+import com.ticketsystem.entity.Priority;
+import com.ticketsystem.entity.TicketStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/**
+ * Filters of the ticket export; the date ranges are inclusive days.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketExportFilter {
+    private String search;
+    private TicketStatus status;
+    private Priority priority;
+    
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate createdFrom;
+    
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate createdTo;
+    
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate updatedFrom;
+    
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate updatedTo;
+}
@@ -0,0 +1,16 @@
+package com.ticketsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketPageResponse {
+    private List<TicketResponse> content;
+    private String nextCursor;
+    private boolean hasMore;
+}
@@ -23,4 +23,7 @@ public class TicketRequest {
     private Priority priority;
     
     private Long assignedToId;
+    
+    /** Version the client last read; when present a concurrent change is reported as 409. */
+    private Long version;
 }
@@ -22,4 +22,5 @@ public class TicketResponse {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private int commentCount;
+    private Long version;
 }
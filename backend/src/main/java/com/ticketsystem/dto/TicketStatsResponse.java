@@ -0,0 +1,22 @@
+package com.ticketsystem.dto;
+
+import com.ticketsystem.entity.Priority;
+import com.ticketsystem.entity.TicketStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketStatsResponse {
+    private long total;
+    private long open;
+    private Map<TicketStatus, Long> byStatus;
+    private Map<Priority, Long> openByPriority;
+    private Map<Long, Long> openByAssignee;
+    private long openUnassigned;
+    private Map<Long, Long> openByCreator;
+}
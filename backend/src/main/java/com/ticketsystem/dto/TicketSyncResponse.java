@@ -0,0 +1,17 @@
+package com.ticketsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketSyncResponse {
+    private List<TicketResponse> updated;
+    private List<Long> deleted;
+    private String nextToken;
+    private boolean hasMore;
+}
@@ -13,4 +13,5 @@ public class UserDTO {
     private String email;
     private String fullName;
     private String role;
+    private Long version;
 }
@@ -0,0 +1,23 @@
+package com.ticketsystem.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The single row every transaction locks before it appends to the change log or the
+ * journal, see {@link com.ticketsystem.service.CommitOrder}.
+ */
+@Entity
+@Table(name = "change_log_lock")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeLogLock {
+    
+    @Id
+    private Integer id;
+}
@@ -0,0 +1,10 @@
+package com.ticketsystem.entity;
+
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    STATUS_CHANGED,
+    DELETED,
+    COMMENT_ADDED,
+    COMMENT_DELETED
+}
@@ -1,5 +1,6 @@
 package com.ticketsystem.entity;
 
+import com.ticketsystem.metrics.EntityLoadListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -8,27 +9,35 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "comments")
+@EntityListeners(EntityLoadListener.class)
+@Table(name = "comments", indexes = {
+        @Index(name = "idx_comments_ticket_created_at", columnList = "ticket_id, created_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Comment {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "comment_seq")
+    @SequenceGenerator(name = "comment_seq", sequenceName = "comments_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false, length = 2000)
     private String content;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "ticket_id", nullable = false)
     private Ticket ticket;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
     
-    @Column(nullable = false)
+    @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
+    
+    @Version
+    @Column(nullable = false)
+    private Long version;
 }
@@ -0,0 +1,36 @@
+package com.ticketsystem.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * The journal events of one committed transaction, encoded and deflated together. Rows are
+ * only ever inserted; the sequence is the replay offset and is allocated one value at a time
+ * so offsets follow insert order across application instances. Rows are appended under
+ * {@link com.ticketsystem.service.CommitOrder}, which makes them commit in that order too.
+ */
+@Entity
+@Table(name = "ticket_journal")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JournalBatch {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ticket_journal_seq")
+    @SequenceGenerator(name = "ticket_journal_seq", sequenceName = "ticket_journal_seq", allocationSize = 1)
+    private Long seq;
+    
+    @Column(nullable = false)
+    private LocalDateTime recordedAt;
+    
+    @Column(nullable = false)
+    private int eventCount;
+    
+    @Column(nullable = false, length = 16_777_216)
+    private byte[] payload;
+}
@@ -0,0 +1,42 @@
+package com.ticketsystem.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One part of the ticket state as of a journal offset. A snapshot is every part sharing
+ * the same {@code journalSeq}; replay starts from the newest one and reads the journal after it.
+ */
+@Entity
+@Table(name = "ticket_journal_snapshots", indexes = {
+        @Index(name = "idx_ticket_journal_snapshots_seq", columnList = "journal_seq, part")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JournalSnapshot {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ticket_journal_snapshot_seq")
+    @SequenceGenerator(name = "ticket_journal_snapshot_seq", sequenceName = "ticket_journal_snapshots_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(name = "journal_seq", nullable = false)
+    private Long journalSeq;
+    
+    @Column(nullable = false)
+    private int part;
+    
+    @Column(nullable = false)
+    private int ticketCount;
+    
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(nullable = false, length = 16_777_216)
+    private byte[] payload;
+}
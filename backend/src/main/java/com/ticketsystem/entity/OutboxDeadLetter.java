@@ -0,0 +1,45 @@
+package com.ticketsystem.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * An outbox message one handler gave up on after the maximum number of attempts.
+ */
+@Entity
+@Table(name = "outbox_dead_letters")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxDeadLetter {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_dead_letter_seq")
+    @SequenceGenerator(name = "outbox_dead_letter_seq", sequenceName = "outbox_dead_letters_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(nullable = false)
+    private Long messageId;
+    
+    @Column(nullable = false)
+    private String handler;
+    
+    @Column(nullable = false, length = 1000)
+    private String payload;
+    
+    @Column(nullable = false)
+    private int attempts;
+    
+    @Column(length = 2000)
+    private String lastError;
+    
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(nullable = false)
+    private LocalDateTime failedAt;
+}
@@ -0,0 +1,49 @@
+package com.ticketsystem.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A change waiting to be handed to the outbox handlers, written in the transaction that
+ * made the change. {@code deliveredTo} lists the handlers that already succeeded, so a
+ * retry only goes to the ones that failed. The row is deleted once every handler is done.
+ */
+@Entity
+@Table(name = "outbox_messages", indexes = {
+        @Index(name = "idx_outbox_messages_next_attempt", columnList = "next_attempt_at, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxMessage {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_message_seq")
+    @SequenceGenerator(name = "outbox_message_seq", sequenceName = "outbox_messages_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(nullable = false, length = 1000)
+    private String payload;
+    
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+    
+    /** Claimed by a dispatcher until then; an expired claim is picked up again. */
+    private LocalDateTime lockedUntil;
+    
+    @Column(nullable = false)
+    private int attempts;
+    
+    @Column(length = 1000)
+    private String deliveredTo;
+    
+    @Column(length = 2000)
+    private String lastError;
+}
@@ -1,5 +1,6 @@
 package com.ticketsystem.entity;
 
+import com.ticketsystem.metrics.EntityLoadListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -10,14 +11,23 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "tickets")
+@EntityListeners(EntityLoadListener.class)
+@Table(name = "tickets", indexes = {
+        @Index(name = "idx_tickets_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_tickets_created_by_created_at", columnList = "created_by_id, created_at, id"),
+        @Index(name = "idx_tickets_assigned_created_at", columnList = "assigned_to_id, created_at, id"),
+        @Index(name = "idx_tickets_assigned_status_created_at", columnList = "assigned_to_id, status, created_at"),
+        @Index(name = "idx_tickets_status_created_at", columnList = "status, created_at, id"),
+        @Index(name = "idx_tickets_priority_created_at", columnList = "priority, created_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Ticket {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ticket_seq")
+    @SequenceGenerator(name = "ticket_seq", sequenceName = "tickets_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
@@ -34,19 +44,32 @@ public class Ticket {
     @Column(nullable = false)
     private Priority priority = Priority.MEDIUM;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "created_by_id", nullable = false)
     private User createdBy;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "assigned_to_id")
     private User assignedTo;
     
-    @Column(nullable = false)
+    @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
     
     private LocalDateTime updatedAt;
     
+    /** Set when the ticket first leaves OPEN. */
+    private LocalDateTime firstResponseAt;
+    
+    /** Set when the ticket reaches RESOLVED or CLOSED, cleared again if it is reopened. */
+    private LocalDateTime resolvedAt;
+    
+    @Column(name = "comment_count", nullable = false, updatable = false)
+    private int commentCount = 0;
+    
+    @Version
+    @Column(nullable = false)
+    private Long version;
+    
     @OneToMany(mappedBy = "ticket", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Comment> comments = new ArrayList<>();
 }
@@ -0,0 +1,40 @@
+package com.ticketsystem.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row per committed change to a ticket or its comments. The sequence is the sync
+ * watermark; it is allocated one value at a time so rows are numbered in insert order
+ * even with several application instances, and appended under
+ * {@link com.ticketsystem.service.CommitOrder} so they commit in that order too. No foreign
+ * key, since tombstones outlive the ticket.
+ */
+@Entity
+@Table(name = "ticket_changes", indexes = {
+        @Index(name = "idx_ticket_changes_ticket_id", columnList = "ticket_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketChange {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ticket_change_seq")
+    @SequenceGenerator(name = "ticket_change_seq", sequenceName = "ticket_changes_seq", allocationSize = 1)
+    private Long seq;
+    
+    @Column(name = "ticket_id", nullable = false)
+    private Long ticketId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", nullable = false)
+    private ChangeType type;
+    
+    @Column(nullable = false)
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,54 @@
+package com.ticketsystem.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row per status transition. The response and resolution columns are filled only on
+ * the transition that reached that milestone, holding the time since the ticket was created.
+ * No foreign key, so the history of deleted tickets still counts towards the SLA figures.
+ */
+@Entity
+@Table(name = "ticket_status_changes", indexes = {
+        @Index(name = "idx_ticket_status_changes_ticket_id", columnList = "ticket_id, changed_at"),
+        @Index(name = "idx_ticket_status_changes_changed_at", columnList = "changed_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketStatusChange {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ticket_status_change_seq")
+    @SequenceGenerator(name = "ticket_status_change_seq", sequenceName = "ticket_status_changes_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(name = "ticket_id", nullable = false)
+    private Long ticketId;
+    
+    @Enumerated(EnumType.STRING)
+    private TicketStatus fromStatus;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TicketStatus toStatus;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Priority priority;
+    
+    private Long changedById;
+    
+    private Long assignedToId;
+    
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+    
+    private Long responseMillis;
+    
+    private Long resolutionMillis;
+}
@@ -1,5 +1,6 @@
 package com.ticketsystem.entity;
 
+import com.ticketsystem.metrics.EntityLoadListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -12,6 +13,7 @@ import java.util.Collection;
 import java.util.Collections;
 
 @Entity
+@EntityListeners(EntityLoadListener.class)
 @Table(name = "users")
 @Data
 @NoArgsConstructor
@@ -19,7 +21,8 @@ import java.util.Collections;
 public class User implements UserDetails {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_seq")
+    @SequenceGenerator(name = "user_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
     
     @Column(unique = true, nullable = false)
@@ -41,6 +44,10 @@ public class User implements UserDetails {
     @Column(nullable = false)
     private boolean enabled = true;
     
+    @Version
+    @Column(nullable = false)
+    private Long version;
+    
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role.name()));
@@ -0,0 +1,22 @@
+package com.ticketsystem.event;
+
+import lombok.Value;
+
+/**
+ * Published by {@code CommentService} inside the writing transaction. Carries the
+ * owning ticket's participants so listeners can filter without touching the database.
+ */
+@Value
+public class CommentChangedEvent {
+    
+    public enum Type {
+        ADDED,
+        DELETED
+    }
+    
+    Type type;
+    Long commentId;
+    Long ticketId;
+    Long ticketCreatedById;
+    Long ticketAssignedToId;
+}
@@ -0,0 +1,54 @@
+package com.ticketsystem.event;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One entry of the ticket journal. Field values are carried as strings (enum names,
+ * ids, ISO timestamps) so the binary format does not change when a field is added.
+ */
+@Value
+public class JournalEvent {
+    
+    public enum Type {
+        CREATED,
+        FIELD_CHANGED,
+        STATUS_CHANGED,
+        ASSIGNED,
+        COMMENT_ADDED,
+        COMMENT_REMOVED,
+        DELETED
+    }
+    
+    public enum Field {
+        TITLE,
+        DESCRIPTION,
+        STATUS,
+        PRIORITY,
+        CREATED_BY,
+        ASSIGNED_TO,
+        CREATED_AT,
+        COMMENT
+    }
+    
+    @Value
+    public static class Change {
+        Field field;
+        String oldValue;
+        String newValue;
+    }
+    
+    /** Sequence of the journal batch holding this event; null until it has been written. */
+    Long offset;
+    Type type;
+    Long ticketId;
+    Long actorId;
+    LocalDateTime occurredAt;
+    List<Change> changes;
+    
+    public JournalEvent atOffset(long offset) {
+        return new JournalEvent(offset, type, ticketId, actorId, occurredAt, changes);
+    }
+}
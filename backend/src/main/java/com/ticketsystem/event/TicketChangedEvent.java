@@ -0,0 +1,33 @@
+package com.ticketsystem.event;
+
+import lombok.Value;
+
+@Value
+public class TicketChangedEvent {
+    
+    public enum Type {
+        CREATED,
+        UPDATED,
+        STATUS_CHANGED,
+        DELETED
+    }
+    
+    Type type;
+    Long ticketId;
+    /** State after the change; for deletions the last state before the row went away. */
+    TicketSnapshot ticket;
+    /** State before the change; null for creations. */
+    TicketSnapshot previous;
+    
+    public static TicketChangedEvent created(TicketSnapshot ticket) {
+        return new TicketChangedEvent(Type.CREATED, ticket.getId(), ticket, null);
+    }
+    
+    public static TicketChangedEvent changed(Type type, TicketSnapshot previous, TicketSnapshot ticket) {
+        return new TicketChangedEvent(type, ticket.getId(), ticket, previous);
+    }
+    
+    public static TicketChangedEvent deleted(TicketSnapshot ticket) {
+        return new TicketChangedEvent(Type.DELETED, ticket.getId(), ticket, ticket);
+    }
+}
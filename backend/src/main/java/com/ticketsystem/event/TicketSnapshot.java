@@ -0,0 +1,37 @@
+package com.ticketsystem.event;
+
+import com.ticketsystem.entity.Priority;
+import com.ticketsystem.entity.Ticket;
+import com.ticketsystem.entity.TicketStatus;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable copy of a ticket's state taken inside the transaction that changed it,
+ * safe to read from listeners that run after commit.
+ */
+@Value
+public class TicketSnapshot {
+    Long id;
+    String title;
+    String description;
+    TicketStatus status;
+    Priority priority;
+    Long createdById;
+    Long assignedToId;
+    LocalDateTime createdAt;
+    
+    public static TicketSnapshot of(Ticket ticket) {
+        return new TicketSnapshot(
+                ticket.getId(),
+                ticket.getTitle(),
+                ticket.getDescription(),
+                ticket.getStatus(),
+                ticket.getPriority(),
+                ticket.getCreatedBy().getId(),
+                ticket.getAssignedTo() != null ? ticket.getAssignedTo().getId() : null,
+                ticket.getCreatedAt()
+        );
+    }
+}
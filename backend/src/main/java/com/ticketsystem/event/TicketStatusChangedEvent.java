@@ -0,0 +1,31 @@
+package com.ticketsystem.event;
+
+import com.ticketsystem.entity.Priority;
+import com.ticketsystem.entity.TicketStatusChange;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+@Value
+public class TicketStatusChangedEvent {
+    Long changeId;
+    Long ticketId;
+    Priority priority;
+    /** The assignee at the time of the change, or whoever changed the status if nobody was. */
+    Long agentId;
+    LocalDateTime changedAt;
+    Long responseMillis;
+    Long resolutionMillis;
+    
+    public static TicketStatusChangedEvent of(TicketStatusChange change) {
+        return new TicketStatusChangedEvent(
+                change.getId(),
+                change.getTicketId(),
+                change.getPriority(),
+                change.getAssignedToId() != null ? change.getAssignedToId() : change.getChangedById(),
+                change.getChangedAt(),
+                change.getResponseMillis(),
+                change.getResolutionMillis()
+        );
+    }
+}
@@ -0,0 +1,14 @@
+package com.ticketsystem.event;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Tickets moved out of the tickets table into an archive segment, published within the
+ * batch's transaction.
+ */
+@Value
+public class TicketsArchivedEvent {
+    List<Long> ticketIds;
+}
@@ -0,0 +1,11 @@
+package com.ticketsystem.metrics;
+
+import jakarta.persistence.PostLoad;
+
+public class EntityLoadListener {
+    
+    @PostLoad
+    public void onLoad(Object entity) {
+        RequestQueryStats.entityLoaded();
+    }
+}
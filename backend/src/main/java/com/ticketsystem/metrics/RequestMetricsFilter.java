@@ -0,0 +1,165 @@
+package com.ticketsystem.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Records how many SQL statements and entity loads each request caused, tagged by
+ * endpoint and outcome, and logs requests that are slow or unusually chatty with the database.
+ * <p>
+ * Async requests, such as streamed exports and requests parked by the scheduler, are recorded
+ * once they finish: their counters follow them into async dispatches and into the threads that
+ * write streamed bodies, and a listener records requests that end without another dispatch.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class RequestMetricsFilter extends OncePerRequestFilter {
+    
+    private static final String TRACKED_ATTRIBUTE = RequestMetricsFilter.class.getName() + ".TRACKED";
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${app.metrics.slow-request-ms:500}")
+    private long slowRequestMs;
+    
+    @Value("${app.metrics.slow-request-statements:50}")
+    private long slowRequestStatements;
+    
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Tracked tracked = (Tracked) request.getAttribute(TRACKED_ATTRIBUTE);
+        if (tracked == null) {
+            tracked = new Tracked(RequestQueryStats.reset(), System.nanoTime());
+            request.setAttribute(TRACKED_ATTRIBUTE, tracked);
+            WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(TRACKED_ATTRIBUTE, tracked);
+        } else {
+            RequestQueryStats.attach(tracked.counters);
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestQueryStats.detach();
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(tracked);
+            } else {
+                tracked.record(request, response);
+            }
+        }
+    }
+    
+    private String endpointOf(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+    
+    private String outcomeOf(int status) {
+        if (status >= 500) {
+            return "SERVER_ERROR";
+        }
+        if (status >= 400) {
+            return "CLIENT_ERROR";
+        }
+        return "SUCCESS";
+    }
+    
+    /**
+     * Counters and start time of one request across its dispatches and async threads.
+     */
+    private final class Tracked implements AsyncListener, CallableProcessingInterceptor {
+        
+        private final RequestQueryStats.Counters counters;
+        private final long start;
+        private final AtomicBoolean recorded = new AtomicBoolean();
+        
+        private Tracked(RequestQueryStats.Counters counters, long start) {
+            this.counters = counters;
+            this.start = start;
+        }
+        
+        private void record(HttpServletRequest request, HttpServletResponse response) {
+            if (!recorded.compareAndSet(false, true)) {
+                return;
+            }
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+            long statements = counters.statements();
+            long entityLoads = counters.entityLoads();
+            String endpoint = endpointOf(request);
+            String outcome = outcomeOf(response.getStatus());
+            
+            DistributionSummary.builder("ticketsystem.request.sql.statements")
+                    .description("SQL statements executed per request")
+                    .tag("method", request.getMethod())
+                    .tag("endpoint", endpoint)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(statements);
+            DistributionSummary.builder("ticketsystem.request.entity.loads")
+                    .description("Entities loaded per request")
+                    .tag("method", request.getMethod())
+                    .tag("endpoint", endpoint)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(entityLoads);
+            
+            if (elapsedMs >= slowRequestMs || statements >= slowRequestStatements) {
+                logger.warn(String.format("Slow request %s %s (%s): %d ms, %d SQL statements, %d entity loads",
+                        request.getMethod(), request.getRequestURI(), endpoint, elapsedMs, statements, entityLoads));
+            }
+        }
+        
+        @Override
+        public void onComplete(AsyncEvent event) {
+            // Only reached without a final dispatch through the filter, e.g. after an async timeout
+            record((HttpServletRequest) event.getSuppliedRequest(), (HttpServletResponse) event.getSuppliedResponse());
+        }
+        
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+        
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+        
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+        
+        @Override
+        public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+            RequestQueryStats.attach(counters);
+        }
+        
+        @Override
+        public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+            RequestQueryStats.detach();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.ticketsystem.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-thread SQL statement and entity load counters for the request currently being served.
+ * Async parts of a request run on other threads and {@link #attach} the request's counters there.
+ */
+public final class RequestQueryStats {
+    
+    private static final ThreadLocal<Counters> COUNTERS = ThreadLocal.withInitial(Counters::new);
+    
+    private RequestQueryStats() {
+    }
+    
+    /**
+     * Starts fresh counters on the current thread.
+     */
+    public static Counters reset() {
+        Counters counters = new Counters();
+        COUNTERS.set(counters);
+        return counters;
+    }
+    
+    public static void attach(Counters counters) {
+        COUNTERS.set(counters);
+    }
+    
+    public static void detach() {
+        COUNTERS.remove();
+    }
+    
+    public static void statementExecuted() {
+        COUNTERS.get().statements.increment();
+    }
+    
+    public static void entityLoaded() {
+        COUNTERS.get().entityLoads.increment();
+    }
+    
+    public static long statements() {
+        return COUNTERS.get().statements();
+    }
+    
+    public static long entityLoads() {
+        return COUNTERS.get().entityLoads();
+    }
+    
+    public static final class Counters {
+        
+        private final LongAdder statements = new LongAdder();
+        private final LongAdder entityLoads = new LongAdder();
+        
+        public long statements() {
+            return statements.sum();
+        }
+        
+        public long entityLoads() {
+            return entityLoads.sum();
+        }
+    }
+}
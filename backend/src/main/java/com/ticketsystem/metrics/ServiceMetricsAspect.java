@@ -0,0 +1,44 @@
+package com.ticketsystem.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times every public method of the ticket, comment and user services with a
+ * percentile histogram, tagged by service, method and outcome.
+ */
+@Aspect
+@Component
+public class ServiceMetricsAspect {
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Around("execution(public * com.ticketsystem.service.TicketService.*(..))"
+            + " || execution(public * com.ticketsystem.service.TicketBatchService.*(..))"
+            + " || execution(public * com.ticketsystem.service.CommentService.*(..))"
+            + " || execution(public * com.ticketsystem.service.UserService.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable ex) {
+            outcome = ex.getClass().getSimpleName();
+            throw ex;
+        } finally {
+            sample.stop(Timer.builder("ticketsystem.service")
+                    .description("Service method latency")
+                    .tag("service", joinPoint.getSignature().getDeclaringType().getSimpleName())
+                    .tag("method", joinPoint.getSignature().getName())
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+}
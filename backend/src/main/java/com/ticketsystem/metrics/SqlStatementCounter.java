@@ -0,0 +1,15 @@
+package com.ticketsystem.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Registered with Hibernate through {@code hibernate.session_factory.statement_inspector}.
+ */
+public class SqlStatementCounter implements StatementInspector {
+    
+    @Override
+    public String inspect(String sql) {
+        RequestQueryStats.statementExecuted();
+        return sql;
+    }
+}
@@ -0,0 +1,82 @@
+package com.ticketsystem.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Streams the JFR {@code jdk.VirtualThreadPinned} event and records how long carrier
+ * threads were held by {@code synchronized} blocks or native frames, tagged with the
+ * innermost application frame (or the innermost non-JDK frame for library code such as
+ * the JDBC driver). Long pins there are what starve the carrier pool under load.
+ */
+@Component
+@ConditionalOnProperty(name = "app.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor {
+    
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+    
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String APPLICATION_PACKAGE = "com.ticketsystem.";
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${app.virtual-threads.pinned-threshold-ms:20}")
+    private long thresholdMs;
+    
+    private RecordingStream stream;
+    
+    @PostConstruct
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(thresholdMs)).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::record);
+        stream.startAsync();
+    }
+    
+    @PreDestroy
+    public void stop() {
+        stream.close();
+    }
+    
+    private void record(RecordedEvent event) {
+        String frame = pinningFrame(event.getStackTrace());
+        Timer.builder("ticketsystem.virtual.pinned")
+                .description("Time virtual threads spent pinned to their carrier")
+                .tag("frame", frame)
+                .register(meterRegistry)
+                .record(event.getDuration());
+        log.debug("Virtual thread pinned for {} ms in {}", event.getDuration().toMillis(), frame);
+    }
+    
+    private String pinningFrame(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "unknown";
+        }
+        String library = null;
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            if (type.startsWith(APPLICATION_PACKAGE)) {
+                return type + "." + frame.getMethod().getName();
+            }
+            if (library == null && !type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                library = type + "." + frame.getMethod().getName();
+            }
+        }
+        return library != null ? library : "unknown";
+    }
+}
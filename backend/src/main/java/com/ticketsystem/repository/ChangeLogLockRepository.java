@@ -0,0 +1,19 @@
+package com.ticketsystem.repository;
+
+import com.ticketsystem.entity.ChangeLogLock;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ChangeLogLockRepository extends JpaRepository<ChangeLogLock, Integer> {
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select l from ChangeLogLock l where l.id = :id")
+    Optional<ChangeLogLock> lockById(@Param("id") Integer id);
+}
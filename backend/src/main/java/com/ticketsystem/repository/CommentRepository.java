@@ -3,11 +3,39 @@ package com.ticketsystem.repository;
 import com.ticketsystem.entity.Comment;
 import com.ticketsystem.entity.Ticket;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     List<Comment> findByTicketOrderByCreatedAtAsc(Ticket ticket);
+    
+    @Query("select c from Comment c where c.ticket.id in :ticketIds")
+    List<Comment> findByTicketIds(@Param("ticketIds") Collection<Long> ticketIds);
+    
+    @Modifying
+    @Query("delete from Comment c where c.ticket.id in :ticketIds")
+    int deleteByTicketIds(@Param("ticketIds") Collection<Long> ticketIds);
+    
+    /**
+     * Fingerprint of a ticket's comment thread. Ids come from a sequence, so any add or
+     * delete changes the count or the max id, and edits bump the version sum.
+     */
+    @Query("""
+            select count(c) as count, coalesce(max(c.id), 0) as maxId, coalesce(sum(c.version), 0) as versionSum
+            from Comment c
+            where c.ticket.id = :ticketId
+            """)
+    ThreadVersionView findThreadVersion(@Param("ticketId") Long ticketId);
+    
+    interface ThreadVersionView {
+        Long getCount();
+        Long getMaxId();
+        Long getVersionSum();
+    }
 }
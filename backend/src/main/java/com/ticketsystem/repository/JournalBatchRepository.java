@@ -0,0 +1,26 @@
+package com.ticketsystem.repository;
+
+import com.ticketsystem.entity.JournalBatch;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface JournalBatchRepository extends JpaRepository<JournalBatch, Long> {
+    
+    @Query("""
+            select b from JournalBatch b
+            where b.seq > :after
+            order by b.seq asc
+            """)
+    List<JournalBatch> findPageAfter(@Param("after") long after, Pageable pageable);
+    
+    @Query("select coalesce(max(b.seq), 0) from JournalBatch b")
+    long findMaxSeq();
+    
+    boolean existsBySeqGreaterThan(Long seq);
+}
@@ -0,0 +1,29 @@
+package com.ticketsystem.repository;
+
+import com.ticketsystem.entity.JournalSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface JournalSnapshotRepository extends JpaRepository<JournalSnapshot, Long> {
+    
+    @Query("select distinct s.journalSeq from JournalSnapshot s order by s.journalSeq desc")
+    List<Long> findJournalSeqsNewestFirst();
+    
+    /** Part ids only, so a snapshot can be read one payload at a time. */
+    @Query("select s.id from JournalSnapshot s where s.journalSeq = :journalSeq order by s.part asc")
+    List<Long> findPartIds(@Param("journalSeq") Long journalSeq);
+    
+    @Modifying
+    @Query("delete from JournalSnapshot s where s.journalSeq = :journalSeq")
+    int deleteByJournalSeq(@Param("journalSeq") Long journalSeq);
+    
+    @Modifying
+    @Query("delete from JournalSnapshot s where s.journalSeq < :journalSeq")
+    int deleteOlderThan(@Param("journalSeq") Long journalSeq);
+}
@@ -0,0 +1,39 @@
+package com.ticketsystem.repository;
+
+import com.ticketsystem.entity.ChangeType;
+import com.ticketsystem.entity.TicketChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TicketChangeRepository extends JpaRepository<TicketChange, Long> {
+    
+    @Query("""
+            select c from TicketChange c
+            where c.seq > :since
+            order by c.seq asc
+            """)
+    List<TicketChange> findPageAfter(@Param("since") Long since, Pageable pageable);
+    
+    /**
+     * Keeps only the newest row per ticket. A client past that row has seen the ticket's
+     * latest state and a client before it will still receive it, so nothing is lost.
+     */
+    @Modifying
+    @Query(value = """
+            delete from ticket_changes
+            where seq < (select max(c.seq) from ticket_changes c where c.ticket_id = ticket_changes.ticket_id)
+            """, nativeQuery = true)
+    int deleteSuperseded();
+    
+    @Modifying
+    @Query("delete from TicketChange c where c.type = :type and c.changedAt < :cutoff")
+    int deleteByTypeBefore(@Param("type") ChangeType type, @Param("cutoff") LocalDateTime cutoff);
+}
@@ -4,11 +4,24 @@ import com.ticketsystem.entity.Ticket;
 import com.ticketsystem.entity.TicketStatus;
 import com.ticketsystem.entity.Priority;
 import com.ticketsystem.entity.User;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TicketRepository extends JpaRepository<Ticket, Long>, JpaSpecificationExecutor<Ticket> {
@@ -16,4 +29,155 @@ public interface TicketRepository extends JpaRepository<Ticket, Long>, JpaSpecif
     List<Ticket> findByAssignedTo(User user);
     List<Ticket> findByStatus(TicketStatus status);
     List<Ticket> findByPriority(Priority priority);
+    
+    @Query("""
+            select t from Ticket t
+            where t.createdAt > :createdAt or (t.createdAt = :createdAt and t.id > :id)
+            order by t.createdAt asc, t.id asc
+            """)
+    List<Ticket> findPageAfter(@Param("createdAt") LocalDateTime createdAt,
+                               @Param("id") Long id,
+                               Pageable pageable);
+    
+    @Query("""
+            select t from Ticket t
+            where t.createdBy.id = :userId
+              and (t.createdAt > :createdAt or (t.createdAt = :createdAt and t.id > :id))
+            order by t.createdAt asc, t.id asc
+            """)
+    List<Ticket> findPageByCreatedByAfter(@Param("userId") Long userId,
+                                          @Param("createdAt") LocalDateTime createdAt,
+                                          @Param("id") Long id,
+                                          Pageable pageable);
+    
+    @Query("""
+            select t from Ticket t
+            where t.assignedTo.id = :userId
+              and (t.createdAt > :createdAt or (t.createdAt = :createdAt and t.id > :id))
+            order by t.createdAt asc, t.id asc
+            """)
+    List<Ticket> findPageByAssignedToAfter(@Param("userId") Long userId,
+                                           @Param("createdAt") LocalDateTime createdAt,
+                                           @Param("id") Long id,
+                                           Pageable pageable);
+    
+    @Query("""
+            select t from Ticket t
+            where (:status is null or t.status = :status)
+              and (:priority is null or t.priority = :priority)
+              and (t.createdAt > :createdAt or (t.createdAt = :createdAt and t.id > :id))
+            order by t.createdAt asc, t.id asc
+            """)
+    List<Ticket> findPageByFiltersAfter(@Param("status") TicketStatus status,
+                                        @Param("priority") Priority priority,
+                                        @Param("createdAt") LocalDateTime createdAt,
+                                        @Param("id") Long id,
+                                        Pageable pageable);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+            select t from Ticket t
+            where (:status is null or t.status = :status)
+              and (:priority is null or t.priority = :priority)
+            order by t.createdAt asc, t.id asc
+            """)
+    Stream<Ticket> streamByFilters(@Param("status") TicketStatus status,
+                                   @Param("priority") Priority priority);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select t from Ticket t")
+    Stream<Ticket> streamAll();
+    
+    /**
+     * Forward-only scroll for report exports. Read-only, so Hibernate keeps no snapshots of
+     * the rows; bounds are inclusive from and exclusive to.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select t from Ticket t
+            where (:status is null or t.status = :status)
+              and (:priority is null or t.priority = :priority)
+              and (:createdFrom is null or t.createdAt >= :createdFrom)
+              and (:createdTo is null or t.createdAt < :createdTo)
+              and (:updatedFrom is null or t.updatedAt >= :updatedFrom)
+              and (:updatedTo is null or t.updatedAt < :updatedTo)
+            order by t.createdAt asc, t.id asc
+            """)
+    Stream<Ticket> streamForExport(@Param("status") TicketStatus status,
+                                   @Param("priority") Priority priority,
+                                   @Param("createdFrom") LocalDateTime createdFrom,
+                                   @Param("createdTo") LocalDateTime createdTo,
+                                   @Param("updatedFrom") LocalDateTime updatedFrom,
+                                   @Param("updatedTo") LocalDateTime updatedTo);
+    
+    /**
+     * Reads only what the ticket ETag is built from, so conditional GETs skip loading the entity.
+     */
+    @Query("""
+            select t.version as version, t.commentCount as commentCount,
+                   c.version as createdByVersion, a.version as assignedToVersion
+            from Ticket t join t.createdBy c left join t.assignedTo a
+            where t.id = :id
+            """)
+    Optional<VersionView> findVersionById(@Param("id") Long id);
+    
+    /**
+     * Tickets that reached the given status before the cutoff and got no comment since,
+     * locked so they cannot be reopened or commented on while the archive job moves them.
+     * The time comes from the latest transition into the status; tickets closed before the
+     * status history existed fall back to their resolution time, which V5 filled in for
+     * them. {@code updatedAt} is no guide here, comments do not touch it.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+            select t from Ticket t
+            where t.status = :status
+              and coalesce((select max(s.changedAt) from TicketStatusChange s
+                            where s.ticketId = t.id and s.toStatus = :status),
+                           t.resolvedAt) < :before
+              and not exists (select c.id from Comment c where c.ticket = t and c.createdAt >= :before)
+            order by t.id asc
+            """)
+    List<Ticket> findArchivable(@Param("status") TicketStatus status,
+                                @Param("before") LocalDateTime before,
+                                Pageable pageable);
+    
+    @Query("select t.status, count(t) from Ticket t group by t.status")
+    List<Object[]> countByStatus();
+    
+    @Query("select t.priority, count(t) from Ticket t where t.status in :statuses group by t.priority")
+    List<Object[]> countByPriority(@Param("statuses") Collection<TicketStatus> statuses);
+    
+    /** Unassigned tickets come back under a null key. */
+    @Query("""
+            select a.id, count(t) from Ticket t left join t.assignedTo a
+            where t.status in :statuses
+            group by a.id
+            """)
+    List<Object[]> countByAssignee(@Param("statuses") Collection<TicketStatus> statuses);
+    
+    @Query("select t.createdBy.id, count(t) from Ticket t where t.status in :statuses group by t.createdBy.id")
+    List<Object[]> countByCreator(@Param("statuses") Collection<TicketStatus> statuses);
+    
+    @Modifying
+    @Query(value = "update tickets set comment_count = comment_count + :delta where id = :id", nativeQuery = true)
+    int adjustCommentCount(@Param("id") Long id, @Param("delta") int delta);
+    
+    @Modifying
+    @Query(value = """
+            update tickets
+            set comment_count = (select count(*) from comments c where c.ticket_id = tickets.id)
+            where comment_count <> (select count(*) from comments c where c.ticket_id = tickets.id)
+            """, nativeQuery = true)
+    int reconcileCommentCounts();
+    
+    interface VersionView {
+        Long getVersion();
+        Integer getCommentCount();
+        Long getCreatedByVersion();
+        Long getAssignedToVersion();
+    }
 }
@@ -0,0 +1,28 @@
+package com.ticketsystem.repository;
+
+import com.ticketsystem.entity.TicketStatusChange;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface TicketStatusChangeRepository extends JpaRepository<TicketStatusChange, Long> {
+    
+    List<TicketStatusChange> findByTicketIdOrderByChangedAtAsc(Long ticketId);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+            select c from TicketStatusChange c
+            where c.changedAt >= :since
+              and (c.responseMillis is not null or c.resolutionMillis is not null)
+            """)
+    Stream<TicketStatusChange> streamMilestonesSince(@Param("since") LocalDateTime since);
+}
@@ -0,0 +1,189 @@
+package com.ticketsystem.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ticketsystem.entity.Role;
+import com.ticketsystem.entity.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token-bucket limits for authenticated API requests: one bucket per user, sized by the
+ * user's role, and one shared bucket per role that caps all users of that role together.
+ * <p>
+ * Buckets are kept in the GCRA form, a single "theoretical arrival time" per bucket that
+ * a request advances by one emission interval with a compare-and-set, so a check takes no
+ * lock and allocates nothing. The shared role buckets are striped, each stripe holding an
+ * equal share of the role's rate and burst, so concurrent requests rarely retry the same CAS.
+ */
+@Component
+public class ApiRateLimiter {
+    
+    private static final String[] SCOPES = {"user", "role"};
+    
+    @Value("${app.ratelimit.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${app.ratelimit.max-tracked-users:100000}")
+    private long maxTrackedUsers;
+    
+    @Autowired
+    private Environment environment;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private final Map<Role, Limit> userLimits = new EnumMap<>(Role.class);
+    private final Map<Role, Limit> stripeLimits = new EnumMap<>(Role.class);
+    private final Map<Role, Bucket[]> roleStripes = new EnumMap<>(Role.class);
+    private final Map<Role, Counter[]> rejections = new EnumMap<>(Role.class);
+    private Cache<Long, Bucket> userBuckets;
+    
+    @PostConstruct
+    public void init() {
+        int stripes = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1);
+        long idleNanos = 0;
+        for (Role role : Role.values()) {
+            Limit perUser = limit("user", role);
+            Limit perRole = limit("role", role);
+            userLimits.put(role, perUser);
+            idleNanos = Math.max(idleNanos, perUser.burstNanos);
+            
+            stripeLimits.put(role, perRole.share(stripes));
+            Bucket[] buckets = new Bucket[stripes];
+            for (int i = 0; i < stripes; i++) {
+                buckets[i] = new Bucket(System.nanoTime());
+            }
+            roleStripes.put(role, buckets);
+            
+            Counter[] counters = new Counter[SCOPES.length];
+            for (int i = 0; i < SCOPES.length; i++) {
+                counters[i] = Counter.builder("ticketsystem.ratelimit.rejected")
+                        .description("API requests refused with 429 by the rate limiter")
+                        .tag("role", role.name())
+                        .tag("scope", SCOPES[i])
+                        .register(meterRegistry);
+            }
+            rejections.put(role, counters);
+        }
+        
+        // A bucket left alone for its full burst window is back at capacity, so dropping it loses nothing
+        userBuckets = Caffeine.newBuilder()
+                .maximumSize(maxTrackedUsers)
+                .expireAfterAccess(Duration.ofNanos(Math.max(idleNanos, TimeUnit.SECONDS.toNanos(1))))
+                .build();
+        Gauge.builder("ticketsystem.ratelimit.users", userBuckets, Cache::estimatedSize)
+                .description("Users with a live rate-limit bucket")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Takes one token for the user and one from the user's role.
+     *
+     * @return 0 if the request may proceed, otherwise the nanoseconds until it would be admitted
+     */
+    public long tryAcquire(User user) {
+        if (!enabled || user.getId() == null || user.getRole() == null) {
+            return 0;
+        }
+        Role role = user.getRole();
+        long now = System.nanoTime();
+        
+        long wait = userBuckets.get(user.getId(), id -> new Bucket(now)).acquire(now, userLimits.get(role));
+        if (wait > 0) {
+            rejections.get(role)[0].increment();
+            return wait;
+        }
+        
+        Bucket[] stripes = roleStripes.get(role);
+        Bucket stripe = stripes[ThreadLocalRandom.current().nextInt() & (stripes.length - 1)];
+        wait = stripe.acquire(now, stripeLimits.get(role));
+        if (wait > 0) {
+            rejections.get(role)[1].increment();
+        }
+        return wait;
+    }
+    
+    private Limit limit(String scope, Role role) {
+        String prefix = "app.ratelimit." + scope + "." + role.name().toLowerCase(Locale.ROOT);
+        double rate = environment.getProperty(prefix + ".rate-per-second", Double.class,
+                defaultRate(scope, role));
+        int burst = environment.getProperty(prefix + ".burst", Integer.class, (int) Math.ceil(rate * 2));
+        return new Limit(rate, burst);
+    }
+    
+    private static double defaultRate(String scope, Role role) {
+        double perUser = switch (role) {
+            case USER -> 10;
+            case SUPPORT -> 30;
+            case ADMIN -> 50;
+        };
+        return "user".equals(scope) ? perUser : perUser * 50;
+    }
+    
+    /**
+     * Emission interval and burst window of a bucket, both in nanoseconds.
+     */
+    private static final class Limit {
+        private final long intervalNanos;
+        private final long burstNanos;
+        
+        private Limit(double ratePerSecond, int burst) {
+            this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / Math.max(ratePerSecond, 1e-3)));
+            this.burstNanos = intervalNanos * Math.max(burst, 1);
+        }
+        
+        private Limit(long intervalNanos, long burstNanos) {
+            this.intervalNanos = intervalNanos;
+            this.burstNanos = burstNanos;
+        }
+        
+        /**
+         * One of {@code parts} equal shares: the same burst window at a longer interval.
+         */
+        private Limit share(int parts) {
+            long interval = intervalNanos * parts;
+            return new Limit(interval, Math.max(interval, burstNanos));
+        }
+    }
+    
+    /**
+     * Starts full as of {@code start}, which must not be later than the first call's {@code now}.
+     * The limit is passed per call, so a role change applies to existing buckets.
+     */
+    private static final class Bucket {
+        private final AtomicLong theoreticalArrival;
+        
+        private Bucket(long start) {
+            this.theoreticalArrival = new AtomicLong(start);
+        }
+        
+        private long acquire(long now, Limit limit) {
+            while (true) {
+                long current = theoreticalArrival.get();
+                long next = Math.max(current, now) + limit.intervalNanos;
+                long wait = next - now - limit.burstNanos;
+                if (wait > 0) {
+                    return wait;
+                }
+                if (theoreticalArrival.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
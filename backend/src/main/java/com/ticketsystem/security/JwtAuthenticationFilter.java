@@ -1,5 +1,9 @@
 package com.ticketsystem.security;
 
+import com.ticketsystem.entity.User;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -7,7 +11,6 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
@@ -15,28 +18,49 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
+    private static final String EVENTS_PATH = "/api/events";
+    private static final String TOKEN_PARAMETER = "access_token";
+    
     @Autowired
     private JwtTokenProvider tokenProvider;
     
     @Autowired
     private UserDetailsService userDetailsService;
     
+    @Autowired
+    private JwtPrincipalCache principalCache;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, 
                                     FilterChain filterChain) throws ServletException, IOException {
         try {
             String jwt = getJwtFromRequest(request);
+            String streamToken = StringUtils.hasText(jwt) ? null : getStreamTokenFromRequest(request);
             
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String username = tokenProvider.getUsernameFromToken(jwt);
-                
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            Timer.Sample sample = Timer.start(meterRegistry);
+            User user = null;
+            if (StringUtils.hasText(jwt)) {
+                user = resolveUser(jwt);
+            } else if (StringUtils.hasText(streamToken)) {
+                user = resolveStreamUser(streamToken);
+            }
+            sample.stop(Timer.builder("ticketsystem.auth.jwt")
+                    .description("Time spent resolving the bearer token to a user")
+                    .tag("token", StringUtils.hasText(jwt) || StringUtils.hasText(streamToken) ? "present" : "absent")
+                    .tag("outcome", user != null ? "authenticated" : "anonymous")
+                    .register(meterRegistry));
+            
+            if (user != null && user.isEnabled()) {
                 UsernamePasswordAuthenticationToken authentication = 
-                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                        new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 
                 SecurityContextHolder.getContext().setAuthentication(authentication);
@@ -48,6 +72,35 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
     
+    private User resolveUser(String jwt) {
+        User cached = principalCache.get(jwt);
+        if (cached != null) {
+            return cached;
+        }
+        
+        Optional<Claims> claims = tokenProvider.parseToken(jwt);
+        if (claims.isEmpty() || tokenProvider.isStreamToken(claims.get())) {
+            return null;
+        }
+        
+        long generation = principalCache.currentGeneration();
+        User user = (User) userDetailsService.loadUserByUsername(claims.get().getSubject());
+        principalCache.put(jwt, user, claims.get().getExpiration(), generation);
+        return user;
+    }
+    
+    /**
+     * Stream tokens are checked once per connection and not cached, so they can never be
+     * found in the principal cache by a request that presents one as a bearer token.
+     */
+    private User resolveStreamUser(String token) {
+        Optional<Claims> claims = tokenProvider.parseToken(token);
+        if (claims.isEmpty() || !tokenProvider.isStreamToken(claims.get())) {
+            return null;
+        }
+        return (User) userDetailsService.loadUserByUsername(claims.get().getSubject());
+    }
+    
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
@@ -55,4 +108,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         return null;
     }
+    
+    /**
+     * EventSource cannot set headers, so the change feed alone accepts a stream token as a
+     * parameter. Login tokens are refused there, see {@link JwtTokenProvider#generateStreamToken}.
+     */
+    private String getStreamTokenFromRequest(HttpServletRequest request) {
+        if (EVENTS_PATH.equals(request.getServletPath())) {
+            return request.getParameter(TOKEN_PARAMETER);
+        }
+        return null;
+    }
 }
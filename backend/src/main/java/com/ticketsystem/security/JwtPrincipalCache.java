@@ -0,0 +1,118 @@
+package com.ticketsystem.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.ticketsystem.entity.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of verified token to authenticated user, so repeat requests with the
+ * same token skip signature verification and the user lookup. Entries never outlive
+ * the token itself and are evicted when the user's role changes or the user is deleted.
+ * <p>
+ * A request may have loaded the user just before such a change and store it just after
+ * the eviction. Every entry is therefore stamped with the generation read before the user
+ * was loaded, and {@link #get} drops entries stamped before the user's last eviction.
+ */
+@Component
+public class JwtPrincipalCache {
+    
+    @Value("${app.jwt.cache.max-size:10000}")
+    private long maxSize;
+    
+    @Value("${app.jwt.cache.ttl-seconds:300}")
+    private long ttlSeconds;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private Cache<String, CachedPrincipal> cache;
+    
+    private final AtomicLong generation = new AtomicLong();
+    
+    /** Generation of the last eviction per user; users are rarely changed, so it stays small. */
+    private final Map<Long, Long> evictedAt = new ConcurrentHashMap<>();
+    
+    @PostConstruct
+    public void init() {
+        long ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .expireAfter(new Expiry<String, CachedPrincipal>() {
+                    @Override
+                    public long expireAfterCreate(String token, CachedPrincipal value, long currentTime) {
+                        long untilTokenExpiry = TimeUnit.MILLISECONDS.toNanos(
+                                value.getExpiresAtMillis() - System.currentTimeMillis());
+                        return Math.max(0, Math.min(ttlNanos, untilTokenExpiry));
+                    }
+                    
+                    @Override
+                    public long expireAfterUpdate(String token, CachedPrincipal value, long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(token, value, currentTime);
+                    }
+                    
+                    @Override
+                    public long expireAfterRead(String token, CachedPrincipal value, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwtPrincipals");
+    }
+    
+    public User get(String token) {
+        CachedPrincipal cached = cache.getIfPresent(token);
+        if (cached == null) {
+            return null;
+        }
+        if (cached.getGeneration() < evictedAt.getOrDefault(cached.getUser().getId(), 0L)) {
+            cache.asMap().remove(token, cached);
+            return null;
+        }
+        return cached.getUser();
+    }
+    
+    /**
+     * Read before loading the user from the database and pass the value to {@link #put}.
+     */
+    public long currentGeneration() {
+        return generation.get();
+    }
+    
+    public void put(String token, User user, Date expiration, long loadedAtGeneration) {
+        cache.put(token, new CachedPrincipal(user, expiration.getTime(), loadedAtGeneration));
+    }
+    
+    /**
+     * Call after the change to the user has been committed.
+     */
+    public void evictUser(Long userId) {
+        evictedAt.put(userId, generation.incrementAndGet());
+        cache.asMap().values().removeIf(cached -> userId.equals(cached.getUser().getId()));
+    }
+    
+    @Getter
+    @AllArgsConstructor
+    private static class CachedPrincipal {
+        private final User user;
+        private final long expiresAtMillis;
+        private final long generation;
+    }
+}
@@ -3,24 +3,41 @@ package com.ticketsystem.security;
 import com.ticketsystem.entity.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.util.Date;
+import java.util.Optional;
 
 @Component
 public class JwtTokenProvider {
     
+    private static final String SCOPE_CLAIM = "scope";
+    private static final String STREAM_SCOPE = "events";
+    
     @Value("${app.jwt.secret:mySecretKeyForJWTTokenGenerationAndValidationPurposes12345678901234567890}")
     private String jwtSecret;
     
     @Value("${app.jwt.expiration:86400000}")
     private long jwtExpirationMs;
     
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    @Value("${app.jwt.stream-expiration:60000}")
+    private long streamExpirationMs;
+    
+    private Key signingKey;
+    
+    private JwtParser parser;
+    
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
     }
     
     public String generateToken(Authentication authentication) {
@@ -33,30 +50,41 @@ public class JwtTokenProvider {
                 .setSubject(userPrincipal.getUsername())
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .signWith(signingKey, SignatureAlgorithm.HS512)
                 .compact();
     }
     
-    public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        
-        return claims.getSubject();
+    /**
+     * Short-lived token that only opens the change feed. EventSource cannot send headers, so
+     * this token travels in the URL, where access logs, proxies and browser history keep it.
+     */
+    public String generateStreamToken(User user) {
+        Date now = new Date();
+        return Jwts.builder()
+                .setSubject(user.getUsername())
+                .claim(SCOPE_CLAIM, STREAM_SCOPE)
+                .setIssuedAt(now)
+                .setExpiration(new Date(now.getTime() + streamExpirationMs))
+                .signWith(signingKey, SignatureAlgorithm.HS512)
+                .compact();
+    }
+    
+    public boolean isStreamToken(Claims claims) {
+        return STREAM_SCOPE.equals(claims.get(SCOPE_CLAIM, String.class));
+    }
+    
+    public long getStreamExpirationMs() {
+        return streamExpirationMs;
     }
     
-    public boolean validateToken(String authToken) {
+    /**
+     * Verifies the signature and expiry once and returns the claims, or empty if the token is invalid.
+     */
+    public Optional<Claims> parseToken(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(authToken);
-            return true;
-        } catch (SecurityException | MalformedJwtException | ExpiredJwtException | 
-                 UnsupportedJwtException | IllegalArgumentException ex) {
-            return false;
+            return Optional.of(parser.parseClaimsJws(token).getBody());
+        } catch (JwtException | IllegalArgumentException ex) {
+            return Optional.empty();
         }
     }
 }
@@ -0,0 +1,86 @@
+package com.ticketsystem.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ticketsystem.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts failed logins per username and per client address in fixed windows. Once either
+ * limit is reached further attempts are refused before any password is hashed, which keeps
+ * credential stuffing from burning the hashing pool.
+ */
+@Component
+public class LoginAttemptLimiter {
+    
+    @Value("${app.security.login.max-failures-per-user:5}")
+    private int maxFailuresPerUser;
+    
+    @Value("${app.security.login.max-failures-per-ip:20}")
+    private int maxFailuresPerIp;
+    
+    @Value("${app.security.login.window-seconds:900}")
+    private long windowSeconds;
+    
+    @Value("${app.security.login.max-tracked-keys:100000}")
+    private long maxTrackedKeys;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private Cache<String, AtomicInteger> failuresByUser;
+    private Cache<String, AtomicInteger> failuresByIp;
+    
+    @PostConstruct
+    public void init() {
+        // Entries expire a full window after the first failure, giving a fixed window per key
+        failuresByUser = Caffeine.newBuilder()
+                .maximumSize(maxTrackedKeys)
+                .expireAfterWrite(Duration.ofSeconds(windowSeconds))
+                .build();
+        failuresByIp = Caffeine.newBuilder()
+                .maximumSize(maxTrackedKeys)
+                .expireAfterWrite(Duration.ofSeconds(windowSeconds))
+                .build();
+    }
+    
+    public void checkAllowed(String username, String clientIp) {
+        if (exceeded(failuresByUser, normalize(username), maxFailuresPerUser)) {
+            throw throttled("username");
+        }
+        if (exceeded(failuresByIp, clientIp, maxFailuresPerIp)) {
+            throw throttled("ip");
+        }
+    }
+    
+    public void recordFailure(String username, String clientIp) {
+        failuresByUser.get(normalize(username), key -> new AtomicInteger()).incrementAndGet();
+        failuresByIp.get(clientIp, key -> new AtomicInteger()).incrementAndGet();
+    }
+    
+    public void recordSuccess(String username) {
+        failuresByUser.invalidate(normalize(username));
+    }
+    
+    private boolean exceeded(Cache<String, AtomicInteger> failures, String key, int limit) {
+        AtomicInteger count = failures.getIfPresent(key);
+        return count != null && count.get() >= limit;
+    }
+    
+    private TooManyRequestsException throttled(String reason) {
+        meterRegistry.counter("ticketsystem.auth.login.throttled", "reason", reason).increment();
+        return new TooManyRequestsException("Too many failed login attempts, please try again later", windowSeconds);
+    }
+    
+    private String normalize(String username) {
+        return username == null ? "" : username.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,122 @@
+package com.ticketsystem.security;
+
+import com.ticketsystem.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Fixed-size pool that runs all BCrypt work. Hashing is CPU-bound, so the pool caps how
+ * many cores a login storm can take from ticket traffic; once the queue is full further
+ * attempts fail fast with 429 instead of piling up request threads.
+ */
+@Component
+public class PasswordHashingExecutor {
+    
+    private static final long RETRY_AFTER_SECONDS = 1;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${app.security.hash-threads:0}")
+    private int threads;
+    
+    @Value("${app.security.hash-queue-capacity:64}")
+    private int queueCapacity;
+    
+    @Value("${app.security.hash-timeout-ms:5000}")
+    private long timeoutMs;
+    
+    private ThreadPoolExecutor executor;
+    private Timer hashTimer;
+    private Timer waitTimer;
+    private Counter rejected;
+    
+    @PostConstruct
+    public void init() {
+        int size = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadIds = new AtomicInteger();
+        executor = new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadIds.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        
+        Gauge.builder("ticketsystem.auth.hash.queue", executor, pool -> pool.getQueue().size())
+                .description("Password hashing tasks waiting for a thread")
+                .register(meterRegistry);
+        Gauge.builder("ticketsystem.auth.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password hashing tasks currently running")
+                .register(meterRegistry);
+        hashTimer = Timer.builder("ticketsystem.auth.hash")
+                .description("Time spent computing password hashes")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        waitTimer = Timer.builder("ticketsystem.auth.hash.wait")
+                .description("Time password hashing tasks spent queued")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        rejected = Counter.builder("ticketsystem.auth.hash.rejected")
+                .description("Password hashing tasks refused because the pool was saturated")
+                .register(meterRegistry);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+    
+    public <T> T execute(Supplier<T> work) {
+        long enqueuedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                waitTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+                return hashTimer.record(work);
+            });
+        } catch (RejectedExecutionException ex) {
+            rejected.increment();
+            throw overloaded();
+        }
+        
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            future.cancel(true);
+            rejected.increment();
+            throw overloaded();
+        } catch (InterruptedException ex) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new IllegalStateException("Password hashing failed", ex.getCause());
+        }
+    }
+    
+    private TooManyRequestsException overloaded() {
+        return new TooManyRequestsException("Too many sign-ins in progress, please retry shortly", RETRY_AFTER_SECONDS);
+    }
+}
@@ -0,0 +1,314 @@
+package com.ticketsystem.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Admission control for API requests by traffic class. Each class may run a bounded number
+ * of requests at once and queue a bounded number more; all classes together share a global
+ * limit. When a slot frees up it goes to a waiting class by smooth weighted round robin, so
+ * support and admin traffic gets most of the capacity while end users keep a share.
+ * Requests that find their queue full, or wait longer than their class allows, are shed.
+ * <p>
+ * Waiting takes no thread: a queued request is told through its {@link Waiter} when it got
+ * a slot or timed out, so the servlet layer can park it asynchronously and hand its worker
+ * back to Tomcat. Otherwise a flood of user reads would hold every worker and staff requests
+ * would queue in Tomcat before ever reaching this scheduler.
+ */
+@Component
+public class RequestScheduler {
+    
+    public enum TrafficClass {
+        STAFF_WRITE(8, 16, 64, 10_000),
+        STAFF_READ(4, 24, 64, 10_000),
+        USER_WRITE(2, 12, 32, 5_000),
+        USER_READ(1, 12, 32, 2_000);
+        
+        private final int weight;
+        private final int maxConcurrent;
+        private final int queueCapacity;
+        private final long maxWaitMs;
+        
+        TrafficClass(int weight, int maxConcurrent, int queueCapacity, long maxWaitMs) {
+            this.weight = weight;
+            this.maxConcurrent = maxConcurrent;
+            this.queueCapacity = queueCapacity;
+            this.maxWaitMs = maxWaitMs;
+        }
+        
+        public static TrafficClass of(boolean staff, boolean mutation) {
+            if (staff) {
+                return mutation ? STAFF_WRITE : STAFF_READ;
+            }
+            return mutation ? USER_WRITE : USER_READ;
+        }
+        
+        private String propertyName() {
+            return name().toLowerCase(Locale.ROOT).replace('_', '-');
+        }
+    }
+    
+    public enum Admission {
+        /** A slot was taken; {@link #release} must follow. */
+        RUN,
+        /** The waiter will be called back with the outcome. */
+        QUEUED,
+        /** The class queue is full. */
+        SHED
+    }
+    
+    /**
+     * Receives the outcome for a queued request, exactly once, on the thread that freed the
+     * slot or on the timeout thread. Implementations must not block.
+     */
+    public interface Waiter {
+        /** The request may run now; {@link #release} must follow. */
+        void granted();
+        
+        /** The request waited longer than its class allows and was shed. */
+        void timedOut();
+    }
+    
+    @Value("${app.scheduler.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${app.scheduler.max-concurrent:40}")
+    private int maxConcurrent;
+    
+    @Autowired
+    private Environment environment;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<TrafficClass, Lane> lanes = new EnumMap<>(TrafficClass.class);
+    private int running;
+    private ScheduledExecutorService timeouts;
+    
+    @PostConstruct
+    public void init() {
+        timeouts = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "request-scheduler-timeouts");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (TrafficClass trafficClass : TrafficClass.values()) {
+            String prefix = "app.scheduler." + trafficClass.propertyName();
+            Lane lane = new Lane(
+                    environment.getProperty(prefix + ".weight", Integer.class, trafficClass.weight),
+                    environment.getProperty(prefix + ".max-concurrent", Integer.class, trafficClass.maxConcurrent),
+                    environment.getProperty(prefix + ".queue-capacity", Integer.class, trafficClass.queueCapacity),
+                    environment.getProperty(prefix + ".max-wait-ms", Long.class, trafficClass.maxWaitMs));
+            lanes.put(trafficClass, lane);
+            
+            String tag = trafficClass.name();
+            Gauge.builder("ticketsystem.scheduler.running", lane, l -> l.running)
+                    .description("Requests of the class currently running")
+                    .tag("class", tag)
+                    .register(meterRegistry);
+            Gauge.builder("ticketsystem.scheduler.queued", lane, l -> l.queue.size())
+                    .description("Requests of the class waiting for a slot")
+                    .tag("class", tag)
+                    .register(meterRegistry);
+            lane.waitTimer = Timer.builder("ticketsystem.scheduler.wait")
+                    .description("Time requests spent queued before running")
+                    .tag("class", tag)
+                    .register(meterRegistry);
+            lane.shedQueueFull = shedCounter(tag, "queue_full");
+            lane.shedTimeout = shedCounter(tag, "timeout");
+        }
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        timeouts.shutdownNow();
+    }
+    
+    /**
+     * Takes a slot right away if the class and the global limit allow it, otherwise queues
+     * the waiter, or sheds the request if the class queue is full.
+     */
+    public Admission admit(TrafficClass trafficClass, Waiter waiter) {
+        Lane lane = lanes.get(trafficClass);
+        lock.lock();
+        try {
+            if (lane.queue.isEmpty() && lane.running < lane.maxConcurrent && running < maxConcurrent) {
+                lane.running++;
+                running++;
+                return Admission.RUN;
+            }
+            if (lane.queue.size() >= lane.queueCapacity) {
+                lane.shedQueueFull.increment();
+                return Admission.SHED;
+            }
+            Entry entry = new Entry(lane, waiter);
+            lane.queue.addLast(entry);
+            entry.timeout = timeouts.schedule(() -> expire(entry), lane.maxWaitMs, TimeUnit.MILLISECONDS);
+            return Admission.QUEUED;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Takes a queued waiter out again, for a request whose client went away.
+     *
+     * @return true if it was still queued; otherwise its callback has run or is about to
+     */
+    public boolean withdraw(TrafficClass trafficClass, Waiter waiter) {
+        Lane lane = lanes.get(trafficClass);
+        lock.lock();
+        try {
+            Iterator<Entry> queued = lane.queue.iterator();
+            while (queued.hasNext()) {
+                Entry entry = queued.next();
+                if (entry.waiter == waiter) {
+                    queued.remove();
+                    entry.timeout.cancel(false);
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public void release(TrafficClass trafficClass) {
+        Lane lane = lanes.get(trafficClass);
+        List<Entry> granted;
+        lock.lock();
+        try {
+            lane.running--;
+            running--;
+            granted = dispatch();
+        } finally {
+            lock.unlock();
+        }
+        for (Entry entry : granted) {
+            entry.timeout.cancel(false);
+            entry.lane.waitTimer.record(System.nanoTime() - entry.queuedAt, TimeUnit.NANOSECONDS);
+            entry.waiter.granted();
+        }
+    }
+    
+    private void expire(Entry entry) {
+        lock.lock();
+        try {
+            if (!entry.lane.queue.remove(entry)) {
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        entry.lane.waitTimer.record(System.nanoTime() - entry.queuedAt, TimeUnit.NANOSECONDS);
+        entry.lane.shedTimeout.increment();
+        entry.waiter.timedOut();
+    }
+    
+    /**
+     * Hands free slots to waiting requests. Among the classes with a waiter and room to run,
+     * each round adds every class's weight to its credit and picks the one with the most,
+     * which then pays back the total; over time each class gets slots in proportion to its weight.
+     * Returns the granted entries, whose waiters are called once the lock is released.
+     */
+    private List<Entry> dispatch() {
+        List<Entry> granted = new ArrayList<>();
+        while (running < maxConcurrent) {
+            Lane next = null;
+            int totalWeight = 0;
+            for (Lane lane : lanes.values()) {
+                if (lane.queue.isEmpty()) {
+                    // An idle class does not bank credit to burst with later
+                    lane.credit = 0;
+                    continue;
+                }
+                if (lane.running >= lane.maxConcurrent) {
+                    continue;
+                }
+                lane.credit += lane.weight;
+                totalWeight += lane.weight;
+                if (next == null || lane.credit > next.credit) {
+                    next = lane;
+                }
+            }
+            if (next == null) {
+                break;
+            }
+            next.credit -= totalWeight;
+            granted.add(next.queue.pollFirst());
+            next.running++;
+            running++;
+        }
+        return granted;
+    }
+    
+    private Counter shedCounter(String trafficClass, String reason) {
+        return Counter.builder("ticketsystem.scheduler.shed")
+                .description("Requests refused with 503 by the request scheduler")
+                .tag("class", trafficClass)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Per-class state, guarded by the scheduler lock.
+     */
+    private static final class Lane {
+        private final int weight;
+        private final int maxConcurrent;
+        private final int queueCapacity;
+        private final long maxWaitMs;
+        private final ArrayDeque<Entry> queue = new ArrayDeque<>();
+        private int running;
+        private int credit;
+        private Timer waitTimer;
+        private Counter shedQueueFull;
+        private Counter shedTimeout;
+        
+        private Lane(int weight, int maxConcurrent, int queueCapacity, long maxWaitMs) {
+            this.weight = Math.max(weight, 1);
+            this.maxConcurrent = Math.max(maxConcurrent, 1);
+            this.queueCapacity = Math.max(queueCapacity, 0);
+            this.maxWaitMs = maxWaitMs;
+        }
+    }
+    
+    private static final class Entry {
+        private final Lane lane;
+        private final Waiter waiter;
+        private final long queuedAt = System.nanoTime();
+        private ScheduledFuture<?> timeout;
+        
+        private Entry(Lane lane, Waiter waiter) {
+            this.lane = lane;
+            this.waiter = waiter;
+        }
+    }
+}
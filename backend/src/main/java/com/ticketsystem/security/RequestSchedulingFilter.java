@@ -0,0 +1,239 @@
+package com.ticketsystem.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ticketsystem.entity.Role;
+import com.ticketsystem.entity.User;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs authenticated API requests through the {@link RequestScheduler}, classified by the
+ * caller's role and by whether the request reads or changes data. Anonymous requests pass
+ * through. For streaming and other async responses only the synchronous part is scheduled.
+ * <p>
+ * A request that has to queue is parked with {@code startAsync()}, so its worker thread
+ * goes back to Tomcat while it waits. Once the scheduler grants it a slot the request is
+ * dispatched again and runs the rest of the chain with the caller restored; if it times out
+ * instead, the 503 is written to the parked response.
+ */
+@Component
+public class RequestSchedulingFilter extends OncePerRequestFilter {
+    
+    private static final String API_PATH = "/api/";
+    private static final String SLOT_ATTRIBUTE = RequestSchedulingFilter.class.getName() + ".SLOT";
+    
+    @Autowired
+    private RequestScheduler scheduler;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !scheduler.isEnabled() || !request.getServletPath().startsWith(API_PATH);
+    }
+    
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        // The dispatch of a granted request has to come through here to run and release
+        return false;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (isAsyncDispatch(request)) {
+            Object parked = request.getAttribute(SLOT_ATTRIBUTE);
+            if (parked instanceof Slot slot) {
+                request.removeAttribute(SLOT_ATTRIBUTE);
+                runGranted(slot, request, response, filterChain);
+            } else {
+                filterChain.doFilter(request, response);
+            }
+            return;
+        }
+        
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof User user)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        
+        RequestScheduler.TrafficClass trafficClass = RequestScheduler.TrafficClass.of(
+                user.getRole() == Role.SUPPORT || user.getRole() == Role.ADMIN, isMutation(request));
+        Slot slot = new Slot(trafficClass, authentication);
+        switch (scheduler.admit(trafficClass, slot)) {
+            case RUN -> {
+                try {
+                    filterChain.doFilter(request, response);
+                } finally {
+                    scheduler.release(trafficClass);
+                }
+            }
+            case SHED -> reject(response);
+            case QUEUED -> {
+                AsyncContext context = request.startAsync(request, response);
+                context.setTimeout(0);
+                context.addListener(slot);
+                slot.park(context);
+            }
+        }
+    }
+    
+    private void runGranted(Slot slot, HttpServletRequest request, HttpServletResponse response,
+                            FilterChain filterChain) throws ServletException, IOException {
+        SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+        securityContext.setAuthentication(slot.authentication);
+        SecurityContextHolder.setContext(securityContext);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            slot.release();
+        }
+    }
+    
+    private boolean isMutation(HttpServletRequest request) {
+        String method = request.getMethod();
+        return !HttpMethod.GET.matches(method) && !HttpMethod.HEAD.matches(method)
+                && !HttpMethod.OPTIONS.matches(method);
+    }
+    
+    private void reject(HttpServletResponse response) throws IOException {
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("message", "Server is busy, please try again shortly");
+        
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+    
+    private enum Outcome { GRANTED, TIMED_OUT }
+    
+    /**
+     * A queued request. Scheduler callbacks can arrive before the request is parked, so the
+     * outcome is kept until {@link #park} and applied there.
+     */
+    private final class Slot implements RequestScheduler.Waiter, AsyncListener {
+        
+        private final RequestScheduler.TrafficClass trafficClass;
+        private final Authentication authentication;
+        private final AtomicBoolean released = new AtomicBoolean();
+        private AsyncContext context;
+        private Outcome outcome;
+        private boolean gone;
+        
+        private Slot(RequestScheduler.TrafficClass trafficClass, Authentication authentication) {
+            this.trafficClass = trafficClass;
+            this.authentication = authentication;
+        }
+        
+        private synchronized void park(AsyncContext context) {
+            this.context = context;
+            if (outcome != null) {
+                apply();
+            }
+        }
+        
+        @Override
+        public synchronized void granted() {
+            outcome = Outcome.GRANTED;
+            if (gone) {
+                release();
+            } else if (context != null) {
+                apply();
+            }
+        }
+        
+        @Override
+        public synchronized void timedOut() {
+            outcome = Outcome.TIMED_OUT;
+            if (!gone && context != null) {
+                apply();
+            }
+        }
+        
+        private void apply() {
+            if (outcome == Outcome.GRANTED) {
+                try {
+                    context.getRequest().setAttribute(SLOT_ATTRIBUTE, this);
+                    context.dispatch();
+                } catch (IllegalStateException ex) {
+                    // The request ended while it was being granted
+                    release();
+                }
+                return;
+            }
+            AsyncContext parked = context;
+            parked.start(() -> {
+                try {
+                    reject((HttpServletResponse) parked.getResponse());
+                } catch (IOException ex) {
+                    logger.debug("Could not write 503 to a timed out request", ex);
+                } finally {
+                    parked.complete();
+                }
+            });
+        }
+        
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                scheduler.release(trafficClass);
+            }
+        }
+        
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            leave();
+            event.getAsyncContext().complete();
+        }
+        
+        @Override
+        public void onError(AsyncEvent event) {
+            leave();
+            event.getAsyncContext().complete();
+        }
+        
+        @Override
+        public void onComplete(AsyncEvent event) {
+            // Normally the dispatched request has released already; this covers a grant whose dispatch never ran
+            leave();
+        }
+        
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+        
+        private void leave() {
+            synchronized (this) {
+                gone = true;
+                if (outcome == Outcome.GRANTED) {
+                    release();
+                }
+            }
+            scheduler.withdraw(trafficClass, this);
+        }
+    }
+}
@@ -0,0 +1,610 @@
+package com.ticketsystem.service;
+
+import com.ticketsystem.entity.Comment;
+import com.ticketsystem.entity.Priority;
+import com.ticketsystem.entity.Ticket;
+import com.ticketsystem.entity.TicketStatus;
+import com.ticketsystem.entity.User;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Immutable columnar file of archived tickets and their comments. Every field is stored
+ * as its own deflated column: ids and timestamps delta-encoded as varints, enums and user
+ * ids dictionary-encoded, strings length-prefixed UTF-8. The header carries the row counts
+ * and the id and close-time ranges, so lookups skip segments without reading their columns.
+ * Enums are stored by name in the dictionaries, so reordering constants is safe.
+ */
+final class ArchiveSegment {
+    
+    static final String EXTENSION = ".tka";
+    static final String PENDING_EXTENSION = ".pending";
+    
+    private static final int MAGIC = 0x544B4152;
+    private static final int FORMAT = 1;
+    
+    private enum Column {
+        ID, TITLE, DESCRIPTION, STATUS, PRIORITY, CREATED_BY, ASSIGNED_TO,
+        CREATED_AT, UPDATED_AT, FIRST_RESPONSE_AT, RESOLVED_AT, VERSION, COMMENT_COUNT,
+        COMMENT_ROW, COMMENT_ID, COMMENT_CONTENT, COMMENT_USER, COMMENT_CREATED_AT, COMMENT_VERSION
+    }
+    
+    private volatile Path path;
+    private final int rowCount;
+    private final int commentCount;
+    private final long minId;
+    private final long maxId;
+    private final LocalDateTime minUpdatedAt;
+    private final LocalDateTime maxUpdatedAt;
+    private final long[] columnOffsets;
+    private final int[] columnLengths;
+    
+    private ArchiveSegment(Path path, int rowCount, int commentCount, long minId, long maxId,
+                           LocalDateTime minUpdatedAt, LocalDateTime maxUpdatedAt,
+                           long[] columnOffsets, int[] columnLengths) {
+        this.path = path;
+        this.rowCount = rowCount;
+        this.commentCount = commentCount;
+        this.minId = minId;
+        this.maxId = maxId;
+        this.minUpdatedAt = minUpdatedAt;
+        this.maxUpdatedAt = maxUpdatedAt;
+        this.columnOffsets = columnOffsets;
+        this.columnLengths = columnLengths;
+    }
+    
+    Path getPath() {
+        return path;
+    }
+    
+    int getRowCount() {
+        return rowCount;
+    }
+    
+    long getMinId() {
+        return minId;
+    }
+    
+    long getMaxId() {
+        return maxId;
+    }
+    
+    boolean mayContain(long id) {
+        return id >= minId && id <= maxId;
+    }
+    
+    boolean isPending() {
+        return path.getFileName().toString().endsWith(PENDING_EXTENSION);
+    }
+    
+    /**
+     * Writes the tickets, which must be sorted by id, and their comments to a new segment.
+     * Comments are stored per ticket in creation order, the order the comments API returns.
+     * The file is written under a temporary name, forced to disk and then renamed to its
+     * pending name, so a crash never leaves a half-written segment behind. The caller
+     * {@link #publish publishes} it once the rows are gone from the table.
+     */
+    static ArchiveSegment write(Path directory, List<Ticket> tickets, List<Comment> comments) throws IOException {
+        Map<Long, Integer> rowOf = new HashMap<>();
+        for (int row = 0; row < tickets.size(); row++) {
+            rowOf.put(tickets.get(row).getId(), row);
+        }
+        List<Comment> sortedComments = new ArrayList<>(comments);
+        sortedComments.sort((a, b) -> {
+            int byRow = Integer.compare(rowOf.get(a.getTicket().getId()), rowOf.get(b.getTicket().getId()));
+            if (byRow != 0) {
+                return byRow;
+            }
+            int byTime = a.getCreatedAt().compareTo(b.getCreatedAt());
+            return byTime != 0 ? byTime : Long.compare(a.getId(), b.getId());
+        });
+        
+        byte[][] columns = new byte[Column.values().length][];
+        columns[Column.ID.ordinal()] = deltas(tickets, Ticket::getId);
+        columns[Column.TITLE.ordinal()] = strings(tickets, Ticket::getTitle);
+        columns[Column.DESCRIPTION.ordinal()] = strings(tickets, Ticket::getDescription);
+        columns[Column.STATUS.ordinal()] = dictionary(tickets, ticket -> ticket.getStatus().name());
+        columns[Column.PRIORITY.ordinal()] = dictionary(tickets, ticket -> ticket.getPriority().name());
+        columns[Column.CREATED_BY.ordinal()] = dictionary(tickets, ticket -> String.valueOf(ticket.getCreatedBy().getId()));
+        columns[Column.ASSIGNED_TO.ordinal()] = dictionary(tickets, ticket ->
+                ticket.getAssignedTo() != null ? String.valueOf(ticket.getAssignedTo().getId()) : null);
+        columns[Column.CREATED_AT.ordinal()] = times(tickets, Ticket::getCreatedAt);
+        columns[Column.UPDATED_AT.ordinal()] = times(tickets, Ticket::getUpdatedAt);
+        columns[Column.FIRST_RESPONSE_AT.ordinal()] = times(tickets, Ticket::getFirstResponseAt);
+        columns[Column.RESOLVED_AT.ordinal()] = times(tickets, Ticket::getResolvedAt);
+        columns[Column.VERSION.ordinal()] = deltas(tickets, Ticket::getVersion);
+        columns[Column.COMMENT_COUNT.ordinal()] = deltas(tickets, ticket -> (long) ticket.getCommentCount());
+        columns[Column.COMMENT_ROW.ordinal()] = deltas(sortedComments, comment -> (long) rowOf.get(comment.getTicket().getId()));
+        columns[Column.COMMENT_ID.ordinal()] = deltas(sortedComments, Comment::getId);
+        columns[Column.COMMENT_CONTENT.ordinal()] = strings(sortedComments, Comment::getContent);
+        columns[Column.COMMENT_USER.ordinal()] = dictionary(sortedComments, comment -> String.valueOf(comment.getUser().getId()));
+        columns[Column.COMMENT_CREATED_AT.ordinal()] = times(sortedComments, Comment::getCreatedAt);
+        columns[Column.COMMENT_VERSION.ordinal()] = deltas(sortedComments, Comment::getVersion);
+        
+        LocalDateTime minUpdatedAt = null;
+        LocalDateTime maxUpdatedAt = null;
+        for (Ticket ticket : tickets) {
+            LocalDateTime updatedAt = ticket.getUpdatedAt() != null ? ticket.getUpdatedAt() : ticket.getCreatedAt();
+            minUpdatedAt = minUpdatedAt == null || updatedAt.isBefore(minUpdatedAt) ? updatedAt : minUpdatedAt;
+            maxUpdatedAt = maxUpdatedAt == null || updatedAt.isAfter(maxUpdatedAt) ? updatedAt : maxUpdatedAt;
+        }
+        long minId = tickets.get(0).getId();
+        long maxId = tickets.get(tickets.size() - 1).getId();
+        
+        ByteArrayOutputStream headerBytes = new ByteArrayOutputStream();
+        DataOutputStream header = new DataOutputStream(headerBytes);
+        header.writeInt(MAGIC);
+        header.writeByte(FORMAT);
+        header.writeInt(tickets.size());
+        header.writeInt(sortedComments.size());
+        header.writeLong(minId);
+        header.writeLong(maxId);
+        writeTime(header, minUpdatedAt);
+        writeTime(header, maxUpdatedAt);
+        header.writeInt(columns.length);
+        long[] offsets = new long[columns.length];
+        int[] lengths = new int[columns.length];
+        long offset = headerBytes.size() + 4L * columns.length;
+        for (int i = 0; i < columns.length; i++) {
+            header.writeInt(columns[i].length);
+            offsets[i] = offset;
+            lengths[i] = columns[i].length;
+            offset += columns[i].length;
+        }
+        header.flush();
+        
+        String name = "segment-" + System.currentTimeMillis() + "-" + minId;
+        Path temporary = directory.resolve(name + ".tmp");
+        Path target = directory.resolve(name + PENDING_EXTENSION);
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            writeFully(channel, headerBytes.toByteArray());
+            for (byte[] column : columns) {
+                writeFully(channel, column);
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+        return new ArchiveSegment(target, tickets.size(), sortedComments.size(), minId, maxId,
+                minUpdatedAt, maxUpdatedAt, offsets, lengths);
+    }
+    
+    /**
+     * Reads the header only; columns are read by {@link #load()}.
+     */
+    static ArchiveSegment open(Path path) throws IOException {
+        try (InputStream file = Files.newInputStream(path);
+             DataInputStream in = new DataInputStream(file)) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not an archive segment: " + path);
+            }
+            int format = in.readUnsignedByte();
+            if (format != FORMAT) {
+                throw new IOException("Unsupported archive segment format " + format + ": " + path);
+            }
+            int rowCount = in.readInt();
+            int commentCount = in.readInt();
+            long minId = in.readLong();
+            long maxId = in.readLong();
+            LocalDateTime minUpdatedAt = readTime(in);
+            LocalDateTime maxUpdatedAt = readTime(in);
+            int columnCount = in.readInt();
+            if (columnCount != Column.values().length) {
+                throw new IOException("Unexpected column count " + columnCount + ": " + path);
+            }
+            int headerLength = 4 + 1 + 4 + 4 + 8 + 8 + 12 + 12 + 4 + 4 * columnCount;
+            long[] offsets = new long[columnCount];
+            int[] lengths = new int[columnCount];
+            long offset = headerLength;
+            for (int i = 0; i < columnCount; i++) {
+                lengths[i] = in.readInt();
+                offsets[i] = offset;
+                offset += lengths[i];
+            }
+            return new ArchiveSegment(path, rowCount, commentCount, minId, maxId,
+                    minUpdatedAt, maxUpdatedAt, offsets, lengths);
+        }
+    }
+    
+    /**
+     * Renames a pending segment to its final name.
+     */
+    void publish() throws IOException {
+        String name = path.getFileName().toString();
+        Path target = path.resolveSibling(name.substring(0, name.length() - PENDING_EXTENSION.length()) + EXTENSION);
+        Files.move(path, target, StandardCopyOption.ATOMIC_MOVE);
+        path = target;
+    }
+    
+    void delete() throws IOException {
+        Files.deleteIfExists(path);
+    }
+    
+    Rows load() throws IOException {
+        Path current = path;
+        try (FileChannel channel = FileChannel.open(current, StandardOpenOption.READ)) {
+            return new Rows(this, channel);
+        } catch (NoSuchFileException ex) {
+            if (current == path) {
+                throw ex;
+            }
+            // Published while we were opening it
+            return load();
+        }
+    }
+    
+    private byte[] readColumn(FileChannel channel, Column column) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(columnLengths[column.ordinal()]);
+        long position = columnOffsets[column.ordinal()];
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("Truncated archive segment: " + path);
+            }
+        }
+        return inflate(buffer.array());
+    }
+    
+    /**
+     * Decoded columns of one segment. Strings stay UTF-8 encoded until a row is materialized.
+     */
+    static final class Rows {
+        private final long[] ids;
+        private final Utf8Column titles;
+        private final Utf8Column descriptions;
+        private final String[] statuses;
+        private final String[] priorities;
+        private final String[] createdBy;
+        private final String[] assignedTo;
+        private final LocalDateTime[] createdAt;
+        private final LocalDateTime[] updatedAt;
+        private final LocalDateTime[] firstResponseAt;
+        private final LocalDateTime[] resolvedAt;
+        private final long[] versions;
+        private final long[] commentCounts;
+        private final int[] commentStart;
+        private final long[] commentIds;
+        private final Utf8Column commentContent;
+        private final String[] commentUsers;
+        private final LocalDateTime[] commentCreatedAt;
+        private final long[] commentVersions;
+        
+        private Rows(ArchiveSegment segment, FileChannel channel) throws IOException {
+            int rows = segment.rowCount;
+            int comments = segment.commentCount;
+            ids = readDeltas(segment.readColumn(channel, Column.ID), rows);
+            titles = new Utf8Column(segment.readColumn(channel, Column.TITLE), rows);
+            descriptions = new Utf8Column(segment.readColumn(channel, Column.DESCRIPTION), rows);
+            statuses = readDictionary(segment.readColumn(channel, Column.STATUS), rows);
+            priorities = readDictionary(segment.readColumn(channel, Column.PRIORITY), rows);
+            createdBy = readDictionary(segment.readColumn(channel, Column.CREATED_BY), rows);
+            assignedTo = readDictionary(segment.readColumn(channel, Column.ASSIGNED_TO), rows);
+            createdAt = readTimes(segment.readColumn(channel, Column.CREATED_AT), rows);
+            updatedAt = readTimes(segment.readColumn(channel, Column.UPDATED_AT), rows);
+            firstResponseAt = readTimes(segment.readColumn(channel, Column.FIRST_RESPONSE_AT), rows);
+            resolvedAt = readTimes(segment.readColumn(channel, Column.RESOLVED_AT), rows);
+            versions = readDeltas(segment.readColumn(channel, Column.VERSION), rows);
+            commentCounts = readDeltas(segment.readColumn(channel, Column.COMMENT_COUNT), rows);
+            
+            long[] commentRows = readDeltas(segment.readColumn(channel, Column.COMMENT_ROW), comments);
+            commentStart = new int[rows + 1];
+            for (long row : commentRows) {
+                commentStart[(int) row + 1]++;
+            }
+            for (int row = 0; row < rows; row++) {
+                commentStart[row + 1] += commentStart[row];
+            }
+            commentIds = readDeltas(segment.readColumn(channel, Column.COMMENT_ID), comments);
+            commentContent = new Utf8Column(segment.readColumn(channel, Column.COMMENT_CONTENT), comments);
+            commentUsers = readDictionary(segment.readColumn(channel, Column.COMMENT_USER), comments);
+            commentCreatedAt = readTimes(segment.readColumn(channel, Column.COMMENT_CREATED_AT), comments);
+            commentVersions = readDeltas(segment.readColumn(channel, Column.COMMENT_VERSION), comments);
+        }
+        
+        int size() {
+            return ids.length;
+        }
+        
+        int indexOf(long id) {
+            return Arrays.binarySearch(ids, id);
+        }
+        
+        /**
+         * Rebuilds a detached ticket with its comments. Users are id-only references, which
+         * is all the response mapping reads. The result must never be persisted.
+         */
+        Ticket toTicket(int row) {
+            Ticket ticket = new Ticket();
+            ticket.setId(ids[row]);
+            ticket.setTitle(titles.get(row));
+            ticket.setDescription(descriptions.get(row));
+            ticket.setStatus(TicketStatus.valueOf(statuses[row]));
+            ticket.setPriority(Priority.valueOf(priorities[row]));
+            ticket.setCreatedBy(userRef(createdBy[row]));
+            ticket.setAssignedTo(userRef(assignedTo[row]));
+            ticket.setCreatedAt(createdAt[row]);
+            ticket.setUpdatedAt(updatedAt[row]);
+            ticket.setFirstResponseAt(firstResponseAt[row]);
+            ticket.setResolvedAt(resolvedAt[row]);
+            ticket.setVersion(versions[row]);
+            ticket.setCommentCount((int) commentCounts[row]);
+            List<Comment> comments = new ArrayList<>(commentStart[row + 1] - commentStart[row]);
+            for (int i = commentStart[row]; i < commentStart[row + 1]; i++) {
+                Comment comment = new Comment();
+                comment.setId(commentIds[i]);
+                comment.setContent(commentContent.get(i));
+                comment.setTicket(ticket);
+                comment.setUser(userRef(commentUsers[i]));
+                comment.setCreatedAt(commentCreatedAt[i]);
+                comment.setVersion(commentVersions[i]);
+                comments.add(comment);
+            }
+            ticket.setComments(comments);
+            return ticket;
+        }
+        
+        private static User userRef(String id) {
+            if (id == null) {
+                return null;
+            }
+            User user = new User();
+            user.setId(Long.valueOf(id));
+            return user;
+        }
+    }
+    
+    private static final class Utf8Column {
+        private final byte[] data;
+        private final int[] offsets;
+        
+        private Utf8Column(byte[] column, int count) {
+            VarIn in = new VarIn(column);
+            offsets = new int[count + 1];
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(column.length);
+            for (int i = 0; i < count; i++) {
+                int length = (int) in.readVarLong();
+                bytes.write(column, in.position, length);
+                in.position += length;
+                offsets[i + 1] = offsets[i] + length;
+            }
+            data = bytes.toByteArray();
+        }
+        
+        private String get(int index) {
+            return new String(data, offsets[index], offsets[index + 1] - offsets[index], StandardCharsets.UTF_8);
+        }
+    }
+    
+    private static <T> byte[] deltas(List<T> rows, Function<T, Long> value) {
+        VarOut out = new VarOut();
+        long previous = 0;
+        for (T row : rows) {
+            long current = value.apply(row);
+            out.writeZigZag(current - previous);
+            previous = current;
+        }
+        return out.deflate();
+    }
+    
+    private static long[] readDeltas(byte[] column, int count) {
+        VarIn in = new VarIn(column);
+        long[] values = new long[count];
+        long previous = 0;
+        for (int i = 0; i < count; i++) {
+            previous += in.readZigZag();
+            values[i] = previous;
+        }
+        return values;
+    }
+    
+    private static <T> byte[] strings(List<T> rows, Function<T, String> value) {
+        VarOut out = new VarOut();
+        for (T row : rows) {
+            out.writeString(value.apply(row));
+        }
+        return out.deflate();
+    }
+    
+    /**
+     * Distinct values first, then one code per row; code 0 stands for null.
+     */
+    private static <T> byte[] dictionary(List<T> rows, Function<T, String> value) {
+        Map<String, Integer> codes = new HashMap<>();
+        List<String> entries = new ArrayList<>();
+        int[] rowCodes = new int[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            String entry = value.apply(rows.get(i));
+            if (entry != null) {
+                rowCodes[i] = codes.computeIfAbsent(entry, key -> {
+                    entries.add(key);
+                    return entries.size();
+                });
+            }
+        }
+        VarOut out = new VarOut();
+        out.writeVarLong(entries.size());
+        entries.forEach(out::writeString);
+        for (int code : rowCodes) {
+            out.writeVarLong(code);
+        }
+        return out.deflate();
+    }
+    
+    private static String[] readDictionary(byte[] column, int count) {
+        VarIn in = new VarIn(column);
+        String[] entries = new String[(int) in.readVarLong() + 1];
+        for (int i = 1; i < entries.length; i++) {
+            entries[i] = in.readString();
+        }
+        String[] values = new String[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = entries[(int) in.readVarLong()];
+        }
+        return values;
+    }
+    
+    /**
+     * Presence flag, then seconds as a delta to the previous value and nanos as a varint.
+     */
+    private static <T> byte[] times(List<T> rows, Function<T, LocalDateTime> value) {
+        VarOut out = new VarOut();
+        long previous = 0;
+        for (T row : rows) {
+            LocalDateTime time = value.apply(row);
+            if (time == null) {
+                out.writeVarLong(0);
+                continue;
+            }
+            long seconds = time.toEpochSecond(ZoneOffset.UTC);
+            out.writeVarLong(1);
+            out.writeZigZag(seconds - previous);
+            out.writeVarLong(time.getNano());
+            previous = seconds;
+        }
+        return out.deflate();
+    }
+    
+    private static LocalDateTime[] readTimes(byte[] column, int count) {
+        VarIn in = new VarIn(column);
+        LocalDateTime[] values = new LocalDateTime[count];
+        long previous = 0;
+        for (int i = 0; i < count; i++) {
+            if (in.readVarLong() == 0) {
+                continue;
+            }
+            previous += in.readZigZag();
+            values[i] = LocalDateTime.ofEpochSecond(previous, (int) in.readVarLong(), ZoneOffset.UTC);
+        }
+        return values;
+    }
+    
+    private static void writeTime(DataOutputStream out, LocalDateTime time) throws IOException {
+        out.writeLong(time.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(time.getNano());
+    }
+    
+    private static LocalDateTime readTime(DataInputStream in) throws IOException {
+        return LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+    }
+    
+    private static void writeFully(FileChannel channel, byte[] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+    
+    private static byte[] inflate(byte[] compressed) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(compressed.length * 4);
+            byte[] chunk = new byte[8192];
+            while (!inflater.finished()) {
+                int inflated = inflater.inflate(chunk);
+                if (inflated == 0 && !inflater.finished() && inflater.needsInput()) {
+                    throw new IOException("Truncated archive column");
+                }
+                out.write(chunk, 0, inflated);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException ex) {
+            throw new IOException("Corrupt archive column", ex);
+        } finally {
+            inflater.end();
+        }
+    }
+    
+    private static final class VarOut {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        
+        private void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                bytes.write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            bytes.write((int) value);
+        }
+        
+        private void writeZigZag(long value) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+        
+        private void writeString(String value) {
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(utf8.length);
+            bytes.write(utf8, 0, utf8.length);
+        }
+        
+        private byte[] deflate() {
+            Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+            try {
+                deflater.setInput(bytes.toByteArray());
+                deflater.finish();
+                ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(bytes.size() / 2, 64));
+                byte[] chunk = new byte[8192];
+                while (!deflater.finished()) {
+                    out.write(chunk, 0, deflater.deflate(chunk));
+                }
+                return out.toByteArray();
+            } finally {
+                deflater.end();
+            }
+        }
+    }
+    
+    private static final class VarIn {
+        private final byte[] bytes;
+        private int position;
+        
+        private VarIn(byte[] bytes) {
+            this.bytes = bytes;
+        }
+        
+        private long readVarLong() {
+            long value = 0;
+            int shift = 0;
+            byte current;
+            do {
+                current = bytes[position++];
+                value |= (long) (current & 0x7F) << shift;
+                shift += 7;
+            } while ((current & 0x80) != 0);
+            return value;
+        }
+        
+        private long readZigZag() {
+            long raw = readVarLong();
+            return (raw >>> 1) ^ -(raw & 1);
+        }
+        
+        private String readString() {
+            int length = (int) readVarLong();
+            String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
+}
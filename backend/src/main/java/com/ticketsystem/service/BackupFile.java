@@ -0,0 +1,348 @@
+package com.ticketsystem.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Binary backup of users, tickets and comments. After a file header come chunks of up to
+ * about a megabyte of records, each deflated on its own and framed by its section, record
+ * count, raw and compressed length and a CRC of the raw bytes; an empty END chunk closes
+ * the file, so truncation is detected. Every record is length-prefixed, so a reader can
+ * skip fields appended by a later format version. Sections come in dependency order:
+ * all users, then all tickets, then all comments.
+ * <p>
+ * The writer appends through a {@link FileChannel}; the reader memory-maps the file in
+ * windows, so neither holds more than one chunk regardless of the file size.
+ */
+final class BackupFile {
+    
+    static final String EXTENSION = ".tkb";
+    
+    private static final int MAGIC = 0x544B424B;
+    private static final int FORMAT = 1;
+    private static final int FILE_HEADER_LENGTH = 4 + 1 + 8;
+    private static final int CHUNK_HEADER_LENGTH = 1 + 4 + 4 + 4 + 8;
+    private static final int CHUNK_SIZE = 1 << 20;
+    private static final long MAP_WINDOW = 64L << 20;
+    
+    enum Section {
+        END, USERS, TICKETS, COMMENTS
+    }
+    
+    private BackupFile() {
+    }
+    
+    @FunctionalInterface
+    interface RecordWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+    
+    static final class Writer implements Closeable {
+        private final FileChannel channel;
+        private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        private final Buffer chunk = new Buffer(CHUNK_SIZE + CHUNK_SIZE / 4);
+        private final Buffer record = new Buffer(4096);
+        private final DataOutputStream recordOut = new DataOutputStream(record);
+        private final DataOutputStream chunkOut = new DataOutputStream(chunk);
+        private byte[] compressed = new byte[CHUNK_SIZE];
+        private Section section;
+        private int count;
+        private long bytesWritten;
+        
+        Writer(Path path) throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_LENGTH);
+            header.putInt(MAGIC).put((byte) FORMAT).putLong(System.currentTimeMillis()).flip();
+            writeFully(header);
+        }
+        
+        void write(Section section, RecordWriter fields) throws IOException {
+            if (section != this.section) {
+                flushChunk();
+                this.section = section;
+            }
+            record.reset();
+            fields.write(recordOut);
+            recordOut.flush();
+            chunkOut.writeInt(record.size());
+            chunk.write(record.bytes(), 0, record.size());
+            count++;
+            if (chunk.size() >= CHUNK_SIZE) {
+                flushChunk();
+            }
+        }
+        
+        long getBytesWritten() {
+            return bytesWritten;
+        }
+        
+        /**
+         * Writes the END chunk and forces the file to disk.
+         */
+        void finish() throws IOException {
+            flushChunk();
+            section = Section.END;
+            writeChunk();
+            channel.force(true);
+        }
+        
+        @Override
+        public void close() throws IOException {
+            deflater.end();
+            channel.close();
+        }
+        
+        private void flushChunk() throws IOException {
+            if (count > 0) {
+                writeChunk();
+            }
+        }
+        
+        private void writeChunk() throws IOException {
+            chunkOut.flush();
+            CRC32 crc = new CRC32();
+            crc.update(chunk.bytes(), 0, chunk.size());
+            
+            deflater.reset();
+            deflater.setInput(chunk.bytes(), 0, chunk.size());
+            deflater.finish();
+            int length = 0;
+            while (!deflater.finished()) {
+                if (length == compressed.length) {
+                    compressed = Arrays.copyOf(compressed, compressed.length * 2);
+                }
+                length += deflater.deflate(compressed, length, compressed.length - length);
+            }
+            
+            ByteBuffer header = ByteBuffer.allocate(CHUNK_HEADER_LENGTH);
+            header.put((byte) section.ordinal()).putInt(count).putInt(chunk.size()).putInt(length)
+                    .putLong(crc.getValue()).flip();
+            writeFully(header);
+            writeFully(ByteBuffer.wrap(compressed, 0, length));
+            chunk.reset();
+            count = 0;
+        }
+        
+        private void writeFully(ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                bytesWritten += channel.write(buffer);
+            }
+        }
+    }
+    
+    /**
+     * One inflated chunk; {@link #next()} positions {@link #record()} on each record in turn.
+     * The buffer is reused, so a chunk is only valid until the reader returns the next one.
+     */
+    static final class Chunk {
+        private final Section section;
+        private final int count;
+        private final ByteBuffer data;
+        private int read;
+        private int recordEnd;
+        
+        private Chunk(Section section, int count, ByteBuffer data) {
+            this.section = section;
+            this.count = count;
+            this.data = data;
+        }
+        
+        Section getSection() {
+            return section;
+        }
+        
+        int getCount() {
+            return count;
+        }
+        
+        boolean next() {
+            if (read > 0) {
+                data.position(recordEnd);
+            }
+            if (read == count) {
+                return false;
+            }
+            int length = data.getInt();
+            recordEnd = data.position() + length;
+            read++;
+            return true;
+        }
+        
+        ByteBuffer record() {
+            return data;
+        }
+    }
+    
+    static final class Reader implements Closeable {
+        private final FileChannel channel;
+        private final long size;
+        private final Inflater inflater = new Inflater();
+        private MappedByteBuffer window;
+        private long windowStart;
+        private long position;
+        private byte[] raw = new byte[CHUNK_SIZE + CHUNK_SIZE / 4];
+        private boolean ended;
+        
+        Reader(Path path) throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+            size = channel.size();
+            try {
+                ByteBuffer header = slice(0, FILE_HEADER_LENGTH);
+                if (header.getInt() != MAGIC) {
+                    throw new IOException("Not a ticket backup: " + path.getFileName());
+                }
+                int format = Byte.toUnsignedInt(header.get());
+                if (format != FORMAT) {
+                    throw new IOException("Unsupported backup format " + format);
+                }
+            } catch (IOException ex) {
+                close();
+                throw ex;
+            }
+            position = FILE_HEADER_LENGTH;
+        }
+        
+        long getSize() {
+            return size;
+        }
+        
+        /**
+         * The next chunk, or null after the END chunk.
+         */
+        Chunk next() throws IOException {
+            if (ended) {
+                return null;
+            }
+            ByteBuffer header = slice(position, CHUNK_HEADER_LENGTH);
+            int sectionIndex = Byte.toUnsignedInt(header.get());
+            int count = header.getInt();
+            int rawLength = header.getInt();
+            int compressedLength = header.getInt();
+            long checksum = header.getLong();
+            if (sectionIndex >= Section.values().length || count < 0 || rawLength < 0 || compressedLength < 0) {
+                throw new IOException("Corrupt backup chunk at byte " + position);
+            }
+            ByteBuffer compressed = slice(position + CHUNK_HEADER_LENGTH, compressedLength);
+            position += CHUNK_HEADER_LENGTH + compressedLength;
+            
+            Section section = Section.values()[sectionIndex];
+            if (section == Section.END) {
+                ended = true;
+                return null;
+            }
+            if (raw.length < rawLength) {
+                raw = new byte[rawLength];
+            }
+            inflater.reset();
+            inflater.setInput(compressed);
+            try {
+                int inflated = 0;
+                while (inflated < rawLength && !inflater.finished()) {
+                    int n = inflater.inflate(raw, inflated, rawLength - inflated);
+                    if (n == 0 && inflater.needsInput()) {
+                        break;
+                    }
+                    inflated += n;
+                }
+                if (inflated != rawLength) {
+                    throw new IOException("Truncated backup chunk at byte " + position);
+                }
+            } catch (DataFormatException ex) {
+                throw new IOException("Corrupt backup chunk at byte " + position, ex);
+            }
+            CRC32 crc = new CRC32();
+            crc.update(raw, 0, rawLength);
+            if (crc.getValue() != checksum) {
+                throw new IOException("Checksum mismatch in backup chunk at byte " + position);
+            }
+            return new Chunk(section, count, ByteBuffer.wrap(raw, 0, rawLength));
+        }
+        
+        @Override
+        public void close() throws IOException {
+            inflater.end();
+            window = null;
+            channel.close();
+        }
+        
+        private ByteBuffer slice(long offset, int length) throws IOException {
+            if (offset + length > size) {
+                throw new IOException("Backup file is truncated at byte " + offset);
+            }
+            if (window == null || offset < windowStart || offset + length > windowStart + window.capacity()) {
+                long mapped = Math.min(size - offset, Math.max(MAP_WINDOW, length));
+                window = channel.map(FileChannel.MapMode.READ_ONLY, offset, mapped);
+                windowStart = offset;
+            }
+            return window.slice((int) (offset - windowStart), length);
+        }
+    }
+    
+    static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(utf8.length);
+            out.write(utf8);
+        }
+    }
+    
+    static String readString(ByteBuffer in) {
+        if (in.get() == 0) {
+            return null;
+        }
+        int length = in.getInt();
+        String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+    
+    static void writeLong(DataOutputStream out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+    
+    static Long readLong(ByteBuffer in) {
+        return in.get() != 0 ? in.getLong() : null;
+    }
+    
+    static void writeTime(DataOutputStream out, LocalDateTime value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(value.getNano());
+        }
+    }
+    
+    static LocalDateTime readTime(ByteBuffer in) {
+        return in.get() != 0 ? LocalDateTime.ofEpochSecond(in.getLong(), in.getInt(), ZoneOffset.UTC) : null;
+    }
+    
+    /** Exposes its array so chunks are compressed and written without a copy. */
+    private static final class Buffer extends ByteArrayOutputStream {
+        private Buffer(int size) {
+            super(size);
+        }
+        
+        private byte[] bytes() {
+            return buf;
+        }
+    }
+}
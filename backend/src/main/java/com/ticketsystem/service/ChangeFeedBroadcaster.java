@@ -0,0 +1,195 @@
+package com.ticketsystem.service;
+
+import com.ticketsystem.dto.ChangeEvent;
+import com.ticketsystem.entity.Role;
+import com.ticketsystem.entity.User;
+import com.ticketsystem.event.CommentChangedEvent;
+import com.ticketsystem.event.TicketChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes committed ticket and comment changes to server-sent-event subscribers.
+ * <p>
+ * Connections are held by servlet async processing, so idle subscribers cost no thread.
+ * Publishing only enqueues into a bounded per-subscriber queue; a small sender pool drains
+ * queues with at most one task per subscriber. A subscriber whose queue overflows is
+ * disconnected rather than slowing everybody else down; EventSource reconnects on its own.
+ */
+@Component
+public class ChangeFeedBroadcaster {
+    
+    private static final Logger log = LoggerFactory.getLogger(ChangeFeedBroadcaster.class);
+    
+    private static final String CHANGE_EVENT = "change";
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${app.events.queue-capacity:256}")
+    private int queueCapacity;
+    
+    @Value("${app.events.sender-threads:4}")
+    private int senderThreads;
+    
+    @Value("${app.events.timeout-ms:1800000}")
+    private long timeoutMs;
+    
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong eventIds = new AtomicLong();
+    private ExecutorService senders;
+    private Counter dropped;
+    
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadIds = new AtomicInteger();
+        senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "change-feed-" + threadIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("ticketsystem.events.subscribers", subscribers, Set::size)
+                .description("Open change feed connections")
+                .register(meterRegistry);
+        dropped = Counter.builder("ticketsystem.events.dropped")
+                .description("Subscribers disconnected because their queue overflowed")
+                .register(meterRegistry);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+        senders.shutdownNow();
+    }
+    
+    public SseEmitter subscribe(User user) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(user.getId(), user.getRole() != Role.USER,
+                emitter, new ArrayBlockingQueue<>(queueCapacity));
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(ex -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        offer(subscriber, SseEmitter.event().comment("connected"));
+        return emitter;
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketChanged(TicketChangedEvent event) {
+        broadcast(new ChangeEvent("TICKET", event.getType().name(), event.getTicketId(), null),
+                event.getTicket().getCreatedById(), event.getTicket().getAssignedToId());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentChanged(CommentChangedEvent event) {
+        broadcast(new ChangeEvent("COMMENT", event.getType().name(), event.getTicketId(), event.getCommentId()),
+                event.getTicketCreatedById(), event.getTicketAssignedToId());
+    }
+    
+    /**
+     * Keeps proxies from closing idle connections and flushes out clients that went away.
+     */
+    @Scheduled(fixedDelayString = "${app.events.heartbeat-ms:25000}")
+    public void heartbeat() {
+        subscribers.forEach(subscriber -> offer(subscriber, SseEmitter.event().comment("ping")));
+    }
+    
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+    
+    private void broadcast(ChangeEvent change, Long createdById, Long assignedToId) {
+        String id = String.valueOf(eventIds.incrementAndGet());
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.canSee(createdById, assignedToId)) {
+                offer(subscriber, SseEmitter.event()
+                        .id(id)
+                        .name(CHANGE_EVENT)
+                        .data(change, MediaType.APPLICATION_JSON));
+            }
+        }
+    }
+    
+    private void offer(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        if (!subscriber.queue.offer(event)) {
+            if (subscribers.remove(subscriber)) {
+                dropped.increment();
+                log.debug("Dropping slow change feed subscriber for user {}", subscriber.userId);
+                subscriber.emitter.complete();
+            }
+            return;
+        }
+        schedule(subscriber);
+    }
+    
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+    
+    private void drain(Subscriber subscriber) {
+        try {
+            SseEmitter.SseEventBuilder event;
+            while ((event = subscriber.queue.poll()) != null) {
+                subscriber.emitter.send(event);
+            }
+        } catch (IOException | IllegalStateException ex) {
+            subscribers.remove(subscriber);
+            subscriber.queue.clear();
+            subscriber.emitter.completeWithError(ex);
+            return;
+        } finally {
+            subscriber.draining.set(false);
+        }
+        // An offer may have landed between the last poll and releasing the flag
+        if (!subscriber.queue.isEmpty()) {
+            schedule(subscriber);
+        }
+    }
+    
+    private static final class Subscriber {
+        private final Long userId;
+        private final boolean seesEverything;
+        private final SseEmitter emitter;
+        private final Queue<SseEmitter.SseEventBuilder> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        
+        private Subscriber(Long userId, boolean seesEverything, SseEmitter emitter,
+                           Queue<SseEmitter.SseEventBuilder> queue) {
+            this.userId = userId;
+            this.seesEverything = seesEverything;
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+        
+        private boolean canSee(Long createdById, Long assignedToId) {
+            return seesEverything || Objects.equals(userId, createdById) || Objects.equals(userId, assignedToId);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.ticketsystem.service;
+
+import com.ticketsystem.repository.TicketRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Repairs drift between the denormalized ticket comment counter and the comments table.
+ */
+@Component
+public class CommentCountReconciler {
+    
+    private static final Logger log = LoggerFactory.getLogger(CommentCountReconciler.class);
+    
+    @Autowired
+    private TicketRepository ticketRepository;
+    
+    @Scheduled(cron = "${app.comments.count-reconcile-cron:0 0 3 * * *}")
+    @Transactional
+    public int reconcile() {
+        int repaired = ticketRepository.reconcileCommentCounts();
+        if (repaired > 0) {
+            log.warn("Repaired comment count on {} tickets", repaired);
+        }
+        return repaired;
+    }
+}
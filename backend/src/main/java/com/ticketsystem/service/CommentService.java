@@ -2,17 +2,23 @@ package com.ticketsystem.service;
 
 import com.ticketsystem.dto.CommentRequest;
 import com.ticketsystem.dto.CommentResponse;
+import com.ticketsystem.dto.UserDTO;
 import com.ticketsystem.entity.Comment;
 import com.ticketsystem.entity.Ticket;
 import com.ticketsystem.entity.User;
+import com.ticketsystem.event.CommentChangedEvent;
 import com.ticketsystem.exception.ResourceNotFoundException;
 import com.ticketsystem.repository.CommentRepository;
 import com.ticketsystem.repository.TicketRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,12 +30,19 @@ public class CommentService {
     @Autowired
     private TicketRepository ticketRepository;
     
+    @Autowired
+    private TicketArchive ticketArchive;
+    
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Transactional
     public CommentResponse addComment(Long ticketId, CommentRequest request, User user) {
         Ticket ticket = ticketRepository.findById(ticketId)
-                .orElseThrow(() -> new ResourceNotFoundException("Ticket not found with id: " + ticketId));
+                .orElseThrow(() -> ticketArchive.missingTicket(ticketId));
         
         Comment comment = new Comment();
         comment.setContent(request.getContent());
@@ -37,29 +50,67 @@ public class CommentService {
         comment.setUser(user);
         comment.setCreatedAt(LocalDateTime.now());
         
-        return convertToResponse(commentRepository.save(comment));
+        Comment saved = commentRepository.save(comment);
+        ticketRepository.adjustCommentCount(ticketId, 1);
+        eventPublisher.publishEvent(commentEvent(CommentChangedEvent.Type.ADDED, saved.getId(), ticket));
+        return convertToResponse(saved, userService.getCachedUser(user.getId()));
+    }
+    
+    public String getCommentsETag(Long ticketId) {
+        if (!ticketRepository.existsById(ticketId)) {
+            Ticket archived = ticketArchive.find(ticketId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Ticket not found with id: " + ticketId));
+            List<Comment> comments = archived.getComments();
+            return threadETag(comments.size(),
+                    comments.stream().mapToLong(Comment::getId).max().orElse(0),
+                    comments.stream().mapToLong(Comment::getVersion).sum());
+        }
+        CommentRepository.ThreadVersionView thread = commentRepository.findThreadVersion(ticketId);
+        return threadETag(thread.getCount(), thread.getMaxId(), thread.getVersionSum());
     }
     
+    /**
+     * Archived tickets carry their comments in the archive, already in creation order.
+     */
     public List<CommentResponse> getCommentsByTicket(Long ticketId) {
-        Ticket ticket = ticketRepository.findById(ticketId)
+        List<Comment> comments = ticketRepository.findById(ticketId)
+                .map(commentRepository::findByTicketOrderByCreatedAtAsc)
+                .or(() -> ticketArchive.find(ticketId).map(Ticket::getComments))
                 .orElseThrow(() -> new ResourceNotFoundException("Ticket not found with id: " + ticketId));
-        
-        return commentRepository.findByTicketOrderByCreatedAtAsc(ticket).stream()
-                .map(this::convertToResponse)
+        Set<Long> userIds = comments.stream()
+                .map(comment -> comment.getUser().getId())
+                .collect(Collectors.toSet());
+        Map<Long, UserDTO> users = userService.getCachedUsers(userIds);
+        return comments.stream()
+                .map(comment -> convertToResponse(comment, users.get(comment.getUser().getId())))
                 .collect(Collectors.toList());
     }
     
+    @Transactional
     public void deleteComment(Long id) {
         Comment comment = commentRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Comment not found with id: " + id));
+        Ticket ticket = comment.getTicket();
         commentRepository.delete(comment);
+        ticketRepository.adjustCommentCount(ticket.getId(), -1);
+        eventPublisher.publishEvent(commentEvent(CommentChangedEvent.Type.DELETED, id, ticket));
+    }
+    
+    private static String threadETag(long count, long maxId, long versionSum) {
+        return "\"" + count + "." + maxId + "." + versionSum + "\"";
+    }
+    
+    private CommentChangedEvent commentEvent(CommentChangedEvent.Type type, Long commentId, Ticket ticket) {
+        return new CommentChangedEvent(type, commentId, ticket.getId(),
+                ticket.getCreatedBy().getId(),
+                ticket.getAssignedTo() != null ? ticket.getAssignedTo().getId() : null);
     }
     
-    private CommentResponse convertToResponse(Comment comment) {
+    private CommentResponse convertToResponse(Comment comment, UserDTO user) {
         CommentResponse response = new CommentResponse();
         response.setId(comment.getId());
         response.setContent(comment.getContent());
-        response.setUser(userService.convertToDTO(comment.getUser()));
+        response.setUser(user);
         response.setCreatedAt(comment.getCreatedAt());
         return response;
     }
@@ -0,0 +1,65 @@
+package com.ticketsystem.service;
+
+import com.ticketsystem.entity.ChangeLogLock;
+import com.ticketsystem.repository.ChangeLogLockRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Makes rows of the change log and the journal become visible in sequence order. Before a
+ * transaction draws a sequence value for either, it locks one shared row and keeps the lock
+ * until it commits, so no transaction can draw a higher value and commit while one holding
+ * a lower value is still open. Readers follow the sequence and never skip a late commit.
+ * <p>
+ * The price is that writing transactions commit one at a time, for the few statements
+ * between taking the lock and the commit. Appends happen right before commit, and the
+ * transaction's own changes are flushed before it queues for the lock, so it never waits
+ * on another row lock while holding this one.
+ */
+@Component
+public class CommitOrder {
+    
+    private static final Integer LOCK_ROW = 1;
+    
+    @Autowired
+    private ChangeLogLockRepository lockRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    /**
+     * Creates the lock row in the dev database; in production the migration inserts it.
+     */
+    @PostConstruct
+    public void init() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            if (!lockRepository.existsById(LOCK_ROW)) {
+                lockRepository.save(new ChangeLogLock(LOCK_ROW));
+            }
+        });
+    }
+    
+    /**
+     * Runs the append in the current transaction once it holds the lock, or in a
+     * transaction of its own if there is none. Taking the lock again is a no-op.
+     */
+    public void append(Runnable append) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> append(append));
+            return;
+        }
+        entityManager.flush();
+        lockRepository.lockById(LOCK_ROW)
+                .orElseThrow(() -> new IllegalStateException("Change log lock row is missing"));
+        append.run();
+    }
+}
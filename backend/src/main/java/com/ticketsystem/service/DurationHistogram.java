@@ -0,0 +1,87 @@
+package com.ticketsystem.service;
+
+/**
+ * Log-linear histogram of durations in seconds in the spirit of HdrHistogram: exact below
+ * 32 seconds, then 16 buckets per power of two, so any reported value is within about 6%
+ * of the true one. Histograms share one bucket layout, which makes merging a plain array
+ * sum. Counts are ints to keep the many per-day histograms small. Not thread-safe;
+ * callers synchronize.
+ */
+final class DurationHistogram {
+    
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int HALF_SUB_BUCKETS = SUB_BUCKETS / 2;
+    /** Highest power of two tracked; 2^32 seconds is well over a century. */
+    private static final int MAX_MAGNITUDE = 31;
+    private static final long MAX_VALUE = (1L << (MAX_MAGNITUDE + 1)) - 1;
+    private static final int BUCKETS = SUB_BUCKETS + (MAX_MAGNITUDE - SUB_BUCKET_BITS + 1) * HALF_SUB_BUCKETS;
+    
+    private final int[] counts = new int[BUCKETS];
+    private long count;
+    private long sum;
+    private long max;
+    
+    void record(long seconds) {
+        long value = Math.min(Math.max(seconds, 0), MAX_VALUE);
+        counts[indexOf(value)]++;
+        count++;
+        sum += value;
+        max = Math.max(max, value);
+    }
+    
+    void add(DurationHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        sum += other.sum;
+        max = Math.max(max, other.max);
+    }
+    
+    long getCount() {
+        return count;
+    }
+    
+    double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+    
+    /**
+     * Upper edge of the bucket holding the given percentile, capped at the largest value
+     * seen, so the answer errs on the slow side.
+     */
+    long valueAtPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), max);
+            }
+        }
+        return max;
+    }
+    
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (magnitude - SUB_BUCKET_BITS + 1));
+        return SUB_BUCKETS + (magnitude - SUB_BUCKET_BITS) * HALF_SUB_BUCKETS + subBucket - HALF_SUB_BUCKETS;
+    }
+    
+    private static long upperBoundOf(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int offset = index - SUB_BUCKETS;
+        int magnitude = offset / HALF_SUB_BUCKETS + SUB_BUCKET_BITS;
+        long subBucket = offset % HALF_SUB_BUCKETS + HALF_SUB_BUCKETS;
+        return ((subBucket + 1) << (magnitude - SUB_BUCKET_BITS + 1)) - 1;
+    }
+}
@@ -0,0 +1,176 @@
+package com.ticketsystem.service;
+
+import com.ticketsystem.entity.Priority;
+import com.ticketsystem.entity.TicketStatus;
+import com.ticketsystem.event.JournalEvent;
+import com.ticketsystem.event.TicketSnapshot;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Binary format of journal batches and snapshot parts: a version byte, a count, then
+ * fixed-order fields written with {@link DataOutputStream}, the whole thing deflated.
+ * Nullable values are prefixed with a presence flag. Enums are written by ordinal, so
+ * new constants only ever go at the end. Timestamps are stored as UTC seconds and nanos
+ * of the local date-time, which round-trips exactly.
+ */
+final class JournalCodec {
+    
+    private static final int EVENTS_FORMAT = 1;
+    private static final int SNAPSHOT_FORMAT = 1;
+    
+    private JournalCodec() {
+    }
+    
+    static byte[] encodeEvents(List<JournalEvent> events) {
+        return encode(out -> {
+            out.writeByte(EVENTS_FORMAT);
+            out.writeInt(events.size());
+            for (JournalEvent event : events) {
+                out.writeByte(event.getType().ordinal());
+                out.writeLong(event.getTicketId());
+                writeLong(out, event.getActorId());
+                writeTime(out, event.getOccurredAt());
+                out.writeShort(event.getChanges().size());
+                for (JournalEvent.Change change : event.getChanges()) {
+                    out.writeByte(change.getField().ordinal());
+                    writeString(out, change.getOldValue());
+                    writeString(out, change.getNewValue());
+                }
+            }
+        });
+    }
+    
+    static List<JournalEvent> decodeEvents(long offset, byte[] payload) {
+        try (DataInputStream in = open(payload, EVENTS_FORMAT)) {
+            int count = in.readInt();
+            List<JournalEvent> events = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                JournalEvent.Type type = JournalEvent.Type.values()[in.readUnsignedByte()];
+                long ticketId = in.readLong();
+                Long actorId = readLong(in);
+                LocalDateTime occurredAt = readTime(in);
+                int changeCount = in.readUnsignedShort();
+                List<JournalEvent.Change> changes = new ArrayList<>(changeCount);
+                for (int j = 0; j < changeCount; j++) {
+                    changes.add(new JournalEvent.Change(JournalEvent.Field.values()[in.readUnsignedByte()],
+                            readString(in), readString(in)));
+                }
+                events.add(new JournalEvent(offset, type, ticketId, actorId, occurredAt, changes));
+            }
+            return events;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Corrupt journal batch " + offset, ex);
+        }
+    }
+    
+    static byte[] encodeSnapshot(List<TicketSnapshot> tickets) {
+        return encode(out -> {
+            out.writeByte(SNAPSHOT_FORMAT);
+            out.writeInt(tickets.size());
+            for (TicketSnapshot ticket : tickets) {
+                out.writeLong(ticket.getId());
+                out.writeUTF(ticket.getTitle());
+                out.writeUTF(ticket.getDescription());
+                out.writeByte(ticket.getStatus().ordinal());
+                out.writeByte(ticket.getPriority().ordinal());
+                out.writeLong(ticket.getCreatedById());
+                writeLong(out, ticket.getAssignedToId());
+                writeTime(out, ticket.getCreatedAt());
+            }
+        });
+    }
+    
+    static List<TicketSnapshot> decodeSnapshot(byte[] payload) {
+        try (DataInputStream in = open(payload, SNAPSHOT_FORMAT)) {
+            int count = in.readInt();
+            List<TicketSnapshot> tickets = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                tickets.add(new TicketSnapshot(
+                        in.readLong(),
+                        in.readUTF(),
+                        in.readUTF(),
+                        TicketStatus.values()[in.readUnsignedByte()],
+                        Priority.values()[in.readUnsignedByte()],
+                        in.readLong(),
+                        readLong(in),
+                        readTime(in)
+                ));
+            }
+            return tickets;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Corrupt journal snapshot", ex);
+        }
+    }
+    
+    private static byte[] encode(Writer writer) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes, deflater))) {
+            writer.write(out);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            deflater.end();
+        }
+        return bytes.toByteArray();
+    }
+    
+    private static DataInputStream open(byte[] payload, int expectedFormat) throws IOException {
+        DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(payload)));
+        int format = in.readUnsignedByte();
+        if (format != expectedFormat) {
+            in.close();
+            throw new IOException("Unsupported journal format " + format);
+        }
+        return in;
+    }
+    
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+    
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+    
+    private static void writeLong(DataOutputStream out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+    
+    private static Long readLong(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readLong() : null;
+    }
+    
+    private static void writeTime(DataOutputStream out, LocalDateTime value) throws IOException {
+        out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(value.getNano());
+    }
+    
+    private static LocalDateTime readTime(DataInputStream in) throws IOException {
+        return LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+    }
+    
+    @FunctionalInterface
+    private interface Writer {
+        void write(DataOutputStream out) throws IOException;
+    }
+}
@@ -0,0 +1,16 @@
+package com.ticketsystem.service;
+
+import com.ticketsystem.event.JournalEvent;
+import com.ticketsystem.event.TicketSnapshot;
+
+/**
+ * A view that can be rebuilt from the ticket journal with {@link TicketJournal#rebuild}.
+ * The projection is first handed every ticket of the newest snapshot, then every event
+ * recorded after it, in journal order.
+ */
+public interface JournalProjection {
+    
+    void restore(TicketSnapshot ticket);
+    
+    void apply(JournalEvent event);
+}
@@ -0,0 +1,393 @@
+package com.ticketsystem.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ticketsystem.dto.ChangeEvent;
+import com.ticketsystem.entity.OutboxDeadLetter;
+import com.ticketsystem.entity.OutboxMessage;
+import com.ticketsystem.exception.ResourceNotFoundException;
+import com.ticketsystem.repository.OutboxDeadLetterRepository;
+import com.ticketsystem.repository.OutboxMessageRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Drains the outbox in batches. A batch is claimed in a short transaction that skips rows
+ * other dispatchers hold, handed to every handler on its own lanes, and settled in a
+ * second transaction: finished messages are deleted, failed ones are retried with
+ * exponential backoff, and after the last attempt the failing handlers get a dead letter.
+ * A crash between claim and settle only means the claim expires and the batch runs again.
+ * <p>
+ * Deliveries that overrun the handler timeout count as failed, and their lane is replaced
+ * so one hung call cannot stall every later message on it. The timeout is kept below the
+ * lease, so a batch is always settled before another dispatcher may claim it again.
+ */
+@Component
+public class OutboxDispatcher {
+    
+    private static final Logger log = LoggerFactory.getLogger(OutboxDispatcher.class);
+    
+    private static final String DELIVERED_SEPARATOR = ",";
+    private static final int MAX_ERROR_LENGTH = 2000;
+    private static final String TIMED_OUT = "Timed out";
+    
+    @Autowired
+    private OutboxMessageRepository outboxRepository;
+    
+    @Autowired
+    private OutboxDeadLetterRepository deadLetterRepository;
+    
+    @Autowired
+    private List<OutboxHandler> handlers;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private Environment environment;
+    
+    @Value("${app.outbox.batch-size:100}")
+    private int batchSize;
+    
+    @Value("${app.outbox.lease-ms:60000}")
+    private long leaseMs;
+    
+    @Value("${app.outbox.handler-timeout-ms:30000}")
+    private long handlerTimeoutMs;
+    
+    @Value("${app.outbox.max-attempts:10}")
+    private int maxAttempts;
+    
+    @Value("${app.outbox.retry-base-ms:1000}")
+    private long retryBaseMs;
+    
+    @Value("${app.outbox.retry-max-ms:300000}")
+    private long retryMaxMs;
+    
+    private final Map<String, ExecutorService[]> lanes = new HashMap<>();
+    private final AtomicBoolean wakeUpPending = new AtomicBoolean();
+    private ExecutorService poller;
+    
+    @PostConstruct
+    public void init() {
+        if (handlerTimeoutMs <= 0 || handlerTimeoutMs >= leaseMs) {
+            long capped = leaseMs / 2;
+            log.warn("Outbox handler timeout {} ms must be below the lease of {} ms, using {} ms",
+                    handlerTimeoutMs, leaseMs, capped);
+            handlerTimeoutMs = capped;
+        }
+        poller = Executors.newSingleThreadExecutor(daemon("outbox-dispatcher"));
+        for (OutboxHandler handler : handlers) {
+            int parallelism = environment.getProperty("app.outbox.parallelism." + handler.getName(),
+                    Integer.class, handler.getParallelism());
+            ExecutorService[] handlerLanes = new ExecutorService[Math.max(parallelism, 1)];
+            for (int i = 0; i < handlerLanes.length; i++) {
+                handlerLanes[i] = newLane(handler.getName(), i);
+            }
+            lanes.put(handler.getName(), handlerLanes);
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        poller.shutdownNow();
+        lanes.values().forEach(handlerLanes -> Arrays.stream(handlerLanes).forEach(ExecutorService::shutdownNow));
+    }
+    
+    /**
+     * Schedules a drain on the dispatcher thread. Calls that arrive while one is already
+     * queued collapse into it, so waking up after every commit stays cheap.
+     */
+    public void wakeUp() {
+        if (wakeUpPending.compareAndSet(false, true)) {
+            poller.execute(() -> {
+                wakeUpPending.set(false);
+                drain();
+            });
+        }
+    }
+    
+    /**
+     * Picks up retries that came due and anything a missed wake-up left behind.
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:1000}")
+    public void poll() {
+        wakeUp();
+    }
+    
+    public long getPendingCount() {
+        return outboxRepository.count();
+    }
+    
+    public long getDeadLetterCount() {
+        return deadLetterRepository.count();
+    }
+    
+    /**
+     * Puts a dead letter back into the outbox for its handler only.
+     */
+    public void requeue(Long deadLetterId) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            OutboxDeadLetter deadLetter = deadLetterRepository.findById(deadLetterId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Dead letter not found with id: " + deadLetterId));
+            LocalDateTime now = LocalDateTime.now();
+            OutboxMessage message = new OutboxMessage();
+            message.setPayload(deadLetter.getPayload());
+            message.setCreatedAt(now);
+            message.setNextAttemptAt(now);
+            message.setDeliveredTo(handlers.stream()
+                    .map(OutboxHandler::getName)
+                    .filter(name -> !name.equals(deadLetter.getHandler()))
+                    .collect(Collectors.joining(DELIVERED_SEPARATOR)));
+            outboxRepository.save(message);
+            deadLetterRepository.delete(deadLetter);
+        });
+        wakeUp();
+    }
+    
+    private void drain() {
+        try {
+            List<OutboxMessage> claimed;
+            do {
+                claimed = claim();
+                if (!claimed.isEmpty()) {
+                    settle(claimed, deliver(claimed));
+                }
+            } while (claimed.size() == batchSize && !Thread.currentThread().isInterrupted());
+        } catch (RuntimeException ex) {
+            log.error("Outbox drain failed, retrying on the next poll", ex);
+        }
+    }
+    
+    private List<OutboxMessage> claim() {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxMessage> due = outboxRepository.findDueForUpdate(now, PageRequest.of(0, batchSize));
+            LocalDateTime lockedUntil = now.plus(Duration.ofMillis(leaseMs));
+            due.forEach(message -> message.setLockedUntil(lockedUntil));
+            return due;
+        });
+    }
+    
+    /**
+     * Runs the batch through every handler that has not yet succeeded on each message and
+     * returns, per message id, the error of each handler that failed.
+     */
+    private Map<Long, Map<String, String>> deliver(List<OutboxMessage> batch) {
+        List<Delivery> deliveries = new ArrayList<>();
+        Map<Long, Map<String, String>> failures = new HashMap<>();
+        for (OutboxMessage message : batch) {
+            ChangeEvent change;
+            try {
+                change = objectMapper.readValue(message.getPayload(), ChangeEvent.class);
+            } catch (Exception ex) {
+                Map<String, String> unreadable = new HashMap<>();
+                pendingHandlers(message).forEach(handler -> unreadable.put(handler.getName(), describe(ex)));
+                failures.put(message.getId(), unreadable);
+                continue;
+            }
+            for (OutboxHandler handler : pendingHandlers(message)) {
+                if (!handler.accepts(change)) {
+                    continue;
+                }
+                ExecutorService[] handlerLanes = lanes.get(handler.getName());
+                int index = Math.floorMod(change.getTicketId().hashCode(), handlerLanes.length);
+                ExecutorService lane = handlerLanes[index];
+                CompletableFuture<Void> result = CompletableFuture.runAsync(() -> {
+                    try {
+                        handler.handle(change);
+                    } catch (Exception ex) {
+                        throw new HandlerFailedException(ex);
+                    }
+                }, lane);
+                deliveries.add(new Delivery(message.getId(), handler.getName(), index, lane, result));
+            }
+        }
+        
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(handlerTimeoutMs);
+        for (Delivery delivery : deliveries) {
+            String error = await(delivery.result, deadline);
+            if (error == TIMED_OUT) {
+                abandon(delivery);
+            }
+            meterRegistry.counter("ticketsystem.outbox.deliveries",
+                    "handler", delivery.handler, "outcome", error == null ? "success" : "failure").increment();
+            if (error != null) {
+                failures.computeIfAbsent(delivery.messageId, id -> new HashMap<>()).put(delivery.handler, error);
+            }
+        }
+        return failures;
+    }
+    
+    /**
+     * Cancels a delivery that overran the timeout, so it never starts if it is still queued,
+     * and replaces its lane. Shutting the old lane down interrupts the running handler; if
+     * the handler ignores that, only the abandoned thread stays stuck.
+     */
+    private void abandon(Delivery delivery) {
+        delivery.result.cancel(false);
+        ExecutorService[] handlerLanes = lanes.get(delivery.handler);
+        if (handlerLanes[delivery.laneIndex] != delivery.lane) {
+            return;
+        }
+        delivery.lane.shutdownNow();
+        handlerLanes[delivery.laneIndex] = newLane(delivery.handler, delivery.laneIndex);
+        meterRegistry.counter("ticketsystem.outbox.lanes.replaced", "handler", delivery.handler).increment();
+        log.warn("Outbox handler {} overran {} ms, replaced lane {}", delivery.handler, handlerTimeoutMs,
+                delivery.laneIndex);
+    }
+    
+    private void settle(List<OutboxMessage> batch, Map<Long, Map<String, String>> failures) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> done = new ArrayList<>();
+            for (OutboxMessage message : batch) {
+                Map<String, String> failed = failures.get(message.getId());
+                if (failed == null) {
+                    done.add(message.getId());
+                    continue;
+                }
+                int attempts = message.getAttempts() + 1;
+                if (attempts >= maxAttempts) {
+                    failed.forEach((handler, error) -> {
+                        deadLetterRepository.save(new OutboxDeadLetter(null, message.getId(), handler,
+                                message.getPayload(), attempts, error, message.getCreatedAt(), now));
+                        meterRegistry.counter("ticketsystem.outbox.deliveries",
+                                "handler", handler, "outcome", "dead_letter").increment();
+                    });
+                    log.warn("Outbox message {} dead-lettered for {} after {} attempts",
+                            message.getId(), failed.keySet(), attempts);
+                    done.add(message.getId());
+                    continue;
+                }
+                Set<String> delivered = deliveredTo(message);
+                handlers.stream()
+                        .map(OutboxHandler::getName)
+                        .filter(name -> !failed.containsKey(name))
+                        .forEach(delivered::add);
+                message.setDeliveredTo(String.join(DELIVERED_SEPARATOR, delivered));
+                message.setAttempts(attempts);
+                message.setNextAttemptAt(now.plus(backoff(attempts)));
+                message.setLockedUntil(null);
+                message.setLastError(truncate(String.join("; ", failed.values())));
+                outboxRepository.save(message);
+            }
+            if (!done.isEmpty()) {
+                outboxRepository.deleteAllByIdInBatch(done);
+            }
+        });
+    }
+    
+    private List<OutboxHandler> pendingHandlers(OutboxMessage message) {
+        Set<String> delivered = deliveredTo(message);
+        return handlers.stream()
+                .filter(handler -> !delivered.contains(handler.getName()))
+                .collect(Collectors.toList());
+    }
+    
+    private Set<String> deliveredTo(OutboxMessage message) {
+        Set<String> delivered = new LinkedHashSet<>();
+        if (message.getDeliveredTo() != null && !message.getDeliveredTo().isEmpty()) {
+            delivered.addAll(Arrays.asList(message.getDeliveredTo().split(DELIVERED_SEPARATOR)));
+        }
+        return delivered;
+    }
+    
+    private Duration backoff(int attempts) {
+        long delay = retryBaseMs << Math.min(attempts - 1, 30);
+        return Duration.ofMillis(delay <= 0 ? retryMaxMs : Math.min(delay, retryMaxMs));
+    }
+    
+    private static String await(CompletableFuture<Void> result, long deadline) {
+        try {
+            result.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+            return null;
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause() instanceof HandlerFailedException ? ex.getCause().getCause() : ex.getCause();
+            return describe(cause);
+        } catch (TimeoutException ex) {
+            return TIMED_OUT;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return "Interrupted";
+        }
+    }
+    
+    private static String describe(Throwable ex) {
+        return truncate(ex.getClass().getSimpleName() + ": " + ex.getMessage());
+    }
+    
+    private static String truncate(String text) {
+        return text.length() <= MAX_ERROR_LENGTH ? text : text.substring(0, MAX_ERROR_LENGTH);
+    }
+    
+    private static ExecutorService newLane(String handler, int index) {
+        return Executors.newSingleThreadExecutor(daemon("outbox-" + handler + "-" + index));
+    }
+    
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+    
+    private static final class Delivery {
+        private final Long messageId;
+        private final String handler;
+        private final int laneIndex;
+        private final ExecutorService lane;
+        private final CompletableFuture<Void> result;
+        
+        private Delivery(Long messageId, String handler, int laneIndex, ExecutorService lane,
+                         CompletableFuture<Void> result) {
+            this.messageId = messageId;
+            this.handler = handler;
+            this.laneIndex = laneIndex;
+            this.lane = lane;
+            this.result = result;
+        }
+    }
+    
+    private static final class HandlerFailedException extends RuntimeException {
+        private HandlerFailedException(Throwable cause) {
+            super(cause);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.ticketsystem.service;
+
+import com.ticketsystem.dto.ChangeEvent;
+
+/**
+ * A side effect of ticket and comment changes that runs after commit, off the request
+ * thread. Delivery is at least once, so handlers must be idempotent; reading the current
+ * state of the ticket instead of trusting the event makes that easy.
+ */
+public interface OutboxHandler {
+    
+    /** Stable name; it is stored with pending messages to remember who is done. */
+    String getName();
+    
+    /**
+     * Number of lanes the handler runs on, overridable with {@code app.outbox.parallelism.<name>}.
+     * Changes to one ticket always use the same lane and are handled in order.
+     */
+    default int getParallelism() {
+        return 1;
+    }
+    
+    default boolean accepts(ChangeEvent change) {
+        return true;
+    }
+    
+    void handle(ChangeEvent change) throws Exception;
+}
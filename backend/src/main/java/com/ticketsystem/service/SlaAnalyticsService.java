@@ -0,0 +1,217 @@
+package com.ticketsystem.service;
+
+import com.ticketsystem.dto.DurationStats;
+import com.ticketsystem.dto.SlaStatsResponse;
+import com.ticketsystem.dto.SlaSummary;
+import com.ticketsystem.entity.Priority;
+import com.ticketsystem.entity.TicketStatusChange;
+import com.ticketsystem.event.TicketStatusChangedEvent;
+import com.ticketsystem.repository.TicketStatusChangeRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
+
+/**
+ * Time to first response and time to resolution per priority and per agent. Samples come
+ * from the status history and land in one set of mergeable histograms per day, so a query
+ * over any window merges at most a few hundred small histograms instead of scanning rows.
+ * The days are rebuilt from the history once the application is up, and older days are
+ * evicted nightly.
+ */
+@Service
+public class SlaAnalyticsService {
+    
+    private static final Logger log = LoggerFactory.getLogger(SlaAnalyticsService.class);
+    
+    private static final int DEFAULT_WINDOW_DAYS = 30;
+    private static final int REBUILD_CLEAR_INTERVAL = 500;
+    
+    @Autowired
+    private TicketStatusChangeRepository statusChangeRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Value("${app.sla.retention-days:400}")
+    private int retentionDays;
+    
+    private volatile ConcurrentMap<Long, Breakdown> days = new ConcurrentHashMap<>();
+    
+    private final Object loadLock = new Object();
+    /** Live samples seen while {@link #load} replays, null otherwise. Guarded by {@code loadLock}. */
+    private List<TicketStatusChangedEvent> pending;
+    
+    /**
+     * Replays the retained history. Traffic is already being served, so samples committed
+     * meanwhile keep going into the current days and are also buffered; those the replay did
+     * not see are added to the rebuilt days before they replace the current ones. Which ones
+     * it saw is decided by change id, not by an id bound: ids come from pooled sequence blocks,
+     * so a change committed after the replay started can still have a lower id than one
+     * committed before.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        LocalDateTime since = LocalDate.now().minusDays(retentionDays - 1L).atStartOfDay();
+        ConcurrentMap<Long, Breakdown> rebuilt = new ConcurrentHashMap<>();
+        synchronized (loadLock) {
+            pending = new ArrayList<>();
+        }
+        try {
+            Set<Long> replayed = new HashSet<>();
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            readOnly.executeWithoutResult(status -> {
+                try (Stream<TicketStatusChange> changes = statusChangeRepository.streamMilestonesSince(since)) {
+                    Iterator<TicketStatusChange> iterator = changes.iterator();
+                    while (iterator.hasNext()) {
+                        TicketStatusChange change = iterator.next();
+                        replayed.add(change.getId());
+                        record(rebuilt, TicketStatusChangedEvent.of(change));
+                        if (replayed.size() % REBUILD_CLEAR_INTERVAL == 0) {
+                            entityManager.clear();
+                        }
+                    }
+                }
+            });
+            synchronized (loadLock) {
+                for (TicketStatusChangedEvent event : pending) {
+                    if (!replayed.contains(event.getChangeId())) {
+                        record(rebuilt, event);
+                    }
+                }
+                days = rebuilt;
+            }
+            log.info("SLA analytics loaded {} samples over {} days", replayed.size(), rebuilt.size());
+        } finally {
+            synchronized (loadLock) {
+                pending = null;
+            }
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStatusChanged(TicketStatusChangedEvent event) {
+        if (event.getResponseMillis() == null && event.getResolutionMillis() == null) {
+            return;
+        }
+        synchronized (loadLock) {
+            record(days, event);
+            if (pending != null) {
+                pending.add(event);
+            }
+        }
+    }
+    
+    @Scheduled(cron = "${app.sla.evict-cron:0 15 3 * * *}")
+    public void evictExpired() {
+        long oldest = LocalDate.now().minusDays(retentionDays - 1L).toEpochDay();
+        days.keySet().removeIf(day -> day < oldest);
+    }
+    
+    /**
+     * Figures for the last {@code windowDays} days including today.
+     */
+    public SlaStatsResponse getSla(Integer windowDays) {
+        int window = windowDays == null ? DEFAULT_WINDOW_DAYS : Math.min(Math.max(windowDays, 1), retentionDays);
+        LocalDate to = LocalDate.now();
+        LocalDate from = to.minusDays(window - 1L);
+        
+        Breakdown merged = new Breakdown();
+        for (long day = from.toEpochDay(); day <= to.toEpochDay(); day++) {
+            Breakdown bucket = days.get(day);
+            if (bucket != null) {
+                bucket.mergeInto(merged);
+            }
+        }
+        
+        SlaHistograms overall = new SlaHistograms();
+        Map<Priority, SlaSummary> byPriority = new EnumMap<>(Priority.class);
+        merged.byPriority.forEach((priority, histograms) -> {
+            overall.add(histograms);
+            byPriority.put(priority, histograms.toSummary());
+        });
+        Map<Long, SlaSummary> byAgent = new TreeMap<>();
+        merged.byAgent.forEach((agentId, histograms) -> byAgent.put(agentId, histograms.toSummary()));
+        return new SlaStatsResponse(from, to, overall.toSummary(), byPriority, byAgent);
+    }
+    
+    private static void record(ConcurrentMap<Long, Breakdown> target, TicketStatusChangedEvent event) {
+        target.computeIfAbsent(event.getChangedAt().toLocalDate().toEpochDay(), day -> new Breakdown())
+                .record(event);
+    }
+    
+    private static final class Breakdown {
+        private final Map<Priority, SlaHistograms> byPriority = new EnumMap<>(Priority.class);
+        private final Map<Long, SlaHistograms> byAgent = new HashMap<>();
+        
+        private synchronized void record(TicketStatusChangedEvent event) {
+            byPriority.computeIfAbsent(event.getPriority(), priority -> new SlaHistograms()).record(event);
+            if (event.getAgentId() != null) {
+                byAgent.computeIfAbsent(event.getAgentId(), agentId -> new SlaHistograms()).record(event);
+            }
+        }
+        
+        private synchronized void mergeInto(Breakdown target) {
+            byPriority.forEach((priority, histograms) ->
+                    target.byPriority.computeIfAbsent(priority, key -> new SlaHistograms()).add(histograms));
+            byAgent.forEach((agentId, histograms) ->
+                    target.byAgent.computeIfAbsent(agentId, key -> new SlaHistograms()).add(histograms));
+        }
+    }
+    
+    private static final class SlaHistograms {
+        private final DurationHistogram firstResponse = new DurationHistogram();
+        private final DurationHistogram resolution = new DurationHistogram();
+        
+        private void record(TicketStatusChangedEvent event) {
+            if (event.getResponseMillis() != null) {
+                firstResponse.record(event.getResponseMillis() / 1000);
+            }
+            if (event.getResolutionMillis() != null) {
+                resolution.record(event.getResolutionMillis() / 1000);
+            }
+        }
+        
+        private void add(SlaHistograms other) {
+            firstResponse.add(other.firstResponse);
+            resolution.add(other.resolution);
+        }
+        
+        private SlaSummary toSummary() {
+            return new SlaSummary(toStats(firstResponse), toStats(resolution));
+        }
+        
+        private static DurationStats toStats(DurationHistogram histogram) {
+            return new DurationStats(histogram.getCount(), histogram.getMean(),
+                    histogram.valueAtPercentile(50), histogram.valueAtPercentile(95));
+        }
+    }
+}
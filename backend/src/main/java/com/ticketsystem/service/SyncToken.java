@@ -0,0 +1,60 @@
+package com.ticketsystem.service;
+
+import com.ticketsystem.exception.BadRequestException;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Opaque delta-sync watermark: the last change-log sequence a client has seen plus the time
+ * the token was issued, so tokens older than the tombstone retention can be rejected.
+ */
+@Getter
+public class SyncToken {
+    
+    private final long seq;
+    private final Instant issuedAt;
+    
+    private SyncToken(long seq, Instant issuedAt) {
+        this.seq = seq;
+        this.issuedAt = issuedAt;
+    }
+    
+    public static SyncToken start() {
+        return new SyncToken(0L, Instant.now());
+    }
+    
+    public static SyncToken at(long seq) {
+        return new SyncToken(seq, Instant.now());
+    }
+    
+    public static SyncToken decode(String token) {
+        if (token == null || token.isEmpty()) {
+            return start();
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            long seq = Long.parseLong(raw.substring(0, separator));
+            long issuedAt = Long.parseLong(raw.substring(separator + 1));
+            if (seq < 0) {
+                throw new BadRequestException("Invalid sync token");
+            }
+            return new SyncToken(seq, Instant.ofEpochMilli(issuedAt));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException ex) {
+            throw new BadRequestException("Invalid sync token");
+        }
+    }
+    
+    public boolean isOlderThan(Duration age) {
+        return issuedAt.isBefore(Instant.now().minus(age));
+    }
+    
+    public String encode() {
+        String raw = seq + "|" + issuedAt.toEpochMilli();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
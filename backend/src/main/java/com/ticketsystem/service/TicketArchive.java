@@ -0,0 +1,288 @@
+package com.ticketsystem.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.ticketsystem.entity.Comment;
+import com.ticketsystem.entity.Ticket;
+import com.ticketsystem.entity.TicketStatus;
+import com.ticketsystem.event.TicketsArchivedEvent;
+import com.ticketsystem.exception.ConflictException;
+import com.ticketsystem.exception.ResourceNotFoundException;
+import com.ticketsystem.repository.CommentRepository;
+import com.ticketsystem.repository.TicketRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Cold tier for closed tickets. A nightly job moves tickets that have been closed for
+ * longer than the configured age, together with their comments, out of the tickets table
+ * into append-only {@link ArchiveSegment} files, so the hot table and every query over it
+ * stay small. Archived tickets are read-only; lookups by id still find them through the
+ * segment headers' id ranges and a small cache of decoded segments.
+ * <p>
+ * Segments live on local disk, like the search index, so every instance needs the same
+ * directory (or only one instance runs the job and the others mount its output).
+ */
+@Service
+public class TicketArchive {
+    
+    private static final Logger log = LoggerFactory.getLogger(TicketArchive.class);
+    
+    @Autowired
+    private TicketRepository ticketRepository;
+    
+    @Autowired
+    private CommentRepository commentRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Value("${app.archive.enabled:false}")
+    private boolean enabled;
+    
+    @Value("${app.archive.dir:data/archive}")
+    private String archiveDir;
+    
+    @Value("${app.archive.closed-days:90}")
+    private long closedDays;
+    
+    @Value("${app.archive.segment-size:5000}")
+    private int segmentSize;
+    
+    @Value("${app.archive.cached-segments:8}")
+    private long cachedSegments;
+    
+    private Path directory;
+    /** Oldest first; replaced on every change so readers iterate a stable list. */
+    private volatile List<ArchiveSegment> segments = Collections.emptyList();
+    private LoadingCache<ArchiveSegment, ArchiveSegment.Rows> rowCache;
+    
+    /**
+     * Opens the headers of existing segments. This happens even with the job disabled,
+     * so tickets archived earlier stay reachable. A pending segment is one whose batch was
+     * still in flight when the application stopped: if its tickets are gone from the table
+     * the batch committed and the segment is published, otherwise it is dropped.
+     */
+    @PostConstruct
+    public void open() throws IOException {
+        directory = Paths.get(archiveDir);
+        rowCache = Caffeine.newBuilder()
+                .maximumSize(cachedSegments)
+                .recordStats()
+                .build(ArchiveSegment::load);
+        CaffeineCacheMetrics.monitor(meterRegistry, rowCache, "archive-segments");
+        Gauge.builder("ticketsystem.archive.tickets", this, TicketArchive::getTicketCount)
+                .description("Tickets moved to the archive")
+                .register(meterRegistry);
+        
+        if (enabled) {
+            Files.createDirectories(directory);
+        }
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        List<ArchiveSegment> opened = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.sorted().collect(Collectors.toList())) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(".tmp")) {
+                    Files.delete(file);
+                } else if (name.endsWith(ArchiveSegment.EXTENSION)) {
+                    opened.add(ArchiveSegment.open(file));
+                } else if (name.endsWith(ArchiveSegment.PENDING_EXTENSION)) {
+                    ArchiveSegment pending = ArchiveSegment.open(file);
+                    if (ticketRepository.existsById(pending.getMinId())) {
+                        log.warn("Dropping archive segment {} of a batch that did not commit", file);
+                        pending.delete();
+                    } else {
+                        pending.publish();
+                        opened.add(pending);
+                    }
+                }
+            }
+        }
+        segments = Collections.unmodifiableList(opened);
+        log.info("Ticket archive opened with {} segments, {} tickets", opened.size(), getTicketCount());
+    }
+    
+    public long getTicketCount() {
+        return segments.stream().mapToLong(ArchiveSegment::getRowCount).sum();
+    }
+    
+    /**
+     * The archived ticket with its comments, detached and read-only.
+     */
+    public Optional<Ticket> find(Long ticketId) {
+        for (ArchiveSegment segment : segments) {
+            if (!segment.mayContain(ticketId)) {
+                continue;
+            }
+            ArchiveSegment.Rows rows = rowCache.get(segment);
+            int row = rows.indexOf(ticketId);
+            if (row >= 0) {
+                return Optional.of(rows.toTicket(row));
+            }
+        }
+        return Optional.empty();
+    }
+    
+    public boolean contains(Long ticketId) {
+        return find(ticketId).isPresent();
+    }
+    
+    /**
+     * The error for a ticket that is not in the tickets table: 409 if it was archived,
+     * since it exists but can no longer change, otherwise 404.
+     */
+    public RuntimeException missingTicket(Long ticketId) {
+        if (contains(ticketId)) {
+            return new ConflictException("Ticket " + ticketId + " is archived and read-only");
+        }
+        return new ResourceNotFoundException("Ticket not found with id: " + ticketId);
+    }
+    
+    /**
+     * Visits every archived ticket, one segment at a time and bypassing the cache so a
+     * full scan does not evict the segments lookups are using.
+     */
+    public void forEach(Consumer<Ticket> consumer) {
+        forEach(segments, consumer);
+    }
+    
+    /**
+     * The segments at this moment, oldest first; later archive runs do not change the list.
+     */
+    List<ArchiveSegment> getSegments() {
+        return segments;
+    }
+    
+    void forEach(List<ArchiveSegment> segments, Consumer<Ticket> consumer) {
+        for (ArchiveSegment segment : segments) {
+            ArchiveSegment.Rows rows;
+            try {
+                rows = segment.load();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            for (int row = 0; row < rows.size(); row++) {
+                consumer.accept(rows.toTicket(row));
+            }
+        }
+    }
+    
+    /**
+     * Moves eligible tickets in batches of one segment each. Every batch is its own
+     * transaction: the rows are locked, the segment is written and synced under a pending
+     * name, then the rows are deleted. The segment gets its final name after the commit and
+     * is dropped again if the transaction rolls back; until it commits, readers still find
+     * the tickets in the table first.
+     */
+    @Scheduled(cron = "${app.archive.cron:0 30 2 * * *}")
+    public void archive() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime closedBefore = LocalDateTime.now().minusDays(closedDays);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        long archived = 0;
+        int batch;
+        do {
+            Integer moved = transaction.execute(status -> archiveBatch(closedBefore));
+            batch = moved != null ? moved : 0;
+            archived += batch;
+        } while (batch == segmentSize);
+        if (archived > 0) {
+            log.info("Archived {} tickets closed before {}", archived, closedBefore);
+        }
+    }
+    
+    private int archiveBatch(LocalDateTime closedBefore) {
+        List<Ticket> tickets = ticketRepository.findArchivable(TicketStatus.CLOSED, closedBefore,
+                PageRequest.of(0, segmentSize));
+        if (tickets.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = tickets.stream().map(Ticket::getId).collect(Collectors.toList());
+        List<Comment> comments = commentRepository.findByTicketIds(ids);
+        
+        ArchiveSegment segment;
+        try {
+            segment = ArchiveSegment.write(directory, tickets, comments);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not write archive segment", ex);
+        }
+        addSegment(segment);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    removeSegment(segment);
+                    return;
+                }
+                try {
+                    segment.publish();
+                } catch (IOException ex) {
+                    // Left pending, the next startup publishes it
+                    log.error("Could not publish archive segment {}", segment.getPath(), ex);
+                }
+            }
+        });
+        
+        commentRepository.deleteByTicketIds(ids);
+        ticketRepository.deleteAllByIdInBatch(ids);
+        eventPublisher.publishEvent(new TicketsArchivedEvent(ids));
+        return tickets.size();
+    }
+    
+    private synchronized void addSegment(ArchiveSegment segment) {
+        List<ArchiveSegment> updated = new ArrayList<>(segments);
+        updated.add(segment);
+        segments = Collections.unmodifiableList(updated);
+    }
+    
+    private synchronized void removeSegment(ArchiveSegment segment) {
+        List<ArchiveSegment> updated = new ArrayList<>(segments);
+        updated.remove(segment);
+        segments = Collections.unmodifiableList(updated);
+        rowCache.invalidate(segment);
+        try {
+            segment.delete();
+        } catch (IOException ex) {
+            log.warn("Could not delete rolled back archive segment {}", segment.getPath(), ex);
+        }
+    }
+}
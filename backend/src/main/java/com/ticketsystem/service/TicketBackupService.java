@@ -0,0 +1,554 @@
+package com.ticketsystem.service;
+
+import com.ticketsystem.dto.BackupResult;
+import com.ticketsystem.entity.Comment;
+import com.ticketsystem.entity.Priority;
+import com.ticketsystem.entity.Role;
+import com.ticketsystem.entity.Ticket;
+import com.ticketsystem.entity.TicketStatus;
+import com.ticketsystem.entity.User;
+import com.ticketsystem.exception.BadRequestException;
+import com.ticketsystem.exception.ConflictException;
+import com.ticketsystem.exception.ResourceNotFoundException;
+import com.ticketsystem.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Full export and import of users, tickets and comments as a {@link BackupFile}, for
+ * backups and for moving a system to another database. The export reads one consistent
+ * snapshot with plain JDBC and a fetch size, so rows stream through without entities or a
+ * persistence context; archived tickets are read from their segments. The import bulk-loads
+ * one chunk at a time with JDBC batches, in a single transaction. Both run in memory bounded
+ * by one chunk plus a map of user ids.
+ * <p>
+ * Tickets and comments keep their ids; users are matched by username, and users that do not
+ * exist yet get fresh ids. The import is meant for a fresh installation and refuses to run
+ * when there are tickets already. It bypasses the domain events, so it logs every imported
+ * ticket as created for delta sync and writes a new journal snapshot in the same transaction,
+ * and rebuilds the search index and the dashboard counters afterwards. Status history and
+ * the journal itself are not part of the backup.
+ */
+@Service
+public class TicketBackupService {
+    
+    private static final Logger log = LoggerFactory.getLogger(TicketBackupService.class);
+    
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final Pattern FILE_NAME = Pattern.compile("[A-Za-z0-9._-]+");
+    private static final int FETCH_SIZE = 1000;
+    private static final int USER_FLUSH_INTERVAL = 500;
+    /** Sequences restart this far past the highest imported id; matches the entities' allocationSize. */
+    private static final long SEQUENCE_HEADROOM = 50;
+    private static final String CHANGE_SEQUENCE = "ticket_changes_seq";
+    
+    private static final String SELECT_USERS =
+            "select id, username, password, email, full_name, role, enabled, version from users order by id";
+    private static final String SELECT_TICKETS = """
+            select id, title, description, status, priority, created_by_id, assigned_to_id, created_at,
+                   updated_at, first_response_at, resolved_at, comment_count, version
+            from tickets order by id
+            """;
+    private static final String SELECT_COMMENTS =
+            "select id, ticket_id, user_id, content, created_at, version from comments order by id";
+    private static final String INSERT_TICKET = """
+            insert into tickets (id, title, description, status, priority, created_by_id, assigned_to_id, created_at,
+                                 updated_at, first_response_at, resolved_at, comment_count, version)
+            values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+    private static final int[] TICKET_TYPES = {
+            Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.BIGINT, Types.BIGINT,
+            Types.TIMESTAMP, Types.TIMESTAMP, Types.TIMESTAMP, Types.TIMESTAMP, Types.INTEGER, Types.BIGINT
+    };
+    private static final String INSERT_COMMENT =
+            "insert into comments (id, content, ticket_id, user_id, created_at, version) values (?, ?, ?, ?, ?, ?)";
+    private static final int[] COMMENT_TYPES = {
+            Types.BIGINT, Types.VARCHAR, Types.BIGINT, Types.BIGINT, Types.TIMESTAMP, Types.BIGINT
+    };
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private TicketArchive ticketArchive;
+    
+    @Autowired
+    private TicketJournal ticketJournal;
+    
+    @Autowired
+    private TicketSearchIndex searchIndex;
+    
+    @Autowired
+    private TicketStatsService ticketStatsService;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Value("${app.backup.dir:data/backups}")
+    private String backupDir;
+    
+    private final AtomicBoolean running = new AtomicBoolean();
+    private JdbcTemplate jdbc;
+    
+    @PostConstruct
+    public void init() {
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.setFetchSize(FETCH_SIZE);
+    }
+    
+    /**
+     * Writes a new backup file into the backup directory. It appears under its final name
+     * only once it is complete and synced.
+     */
+    public BackupResult export() {
+        begin();
+        try {
+            Path directory = Paths.get(backupDir);
+            String name = "tickets-" + LocalDateTime.now().format(FILE_TIMESTAMP) + BackupFile.EXTENSION;
+            Path temporary = directory.resolve(name + ".tmp");
+            long started = System.nanoTime();
+            Counts counts = new Counts();
+            long bytes;
+            try {
+                Files.createDirectories(directory);
+                try (BackupFile.Writer writer = new BackupFile.Writer(temporary)) {
+                    exportSnapshot(writer, counts);
+                    writer.finish();
+                    bytes = writer.getBytesWritten();
+                }
+                Files.move(temporary, directory.resolve(name), StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException ex) {
+                deleteQuietly(temporary);
+                throw new UncheckedIOException("Export to " + name + " failed", ex);
+            } catch (RuntimeException ex) {
+                deleteQuietly(temporary);
+                throw ex;
+            }
+            return result("Exported", name, counts, bytes, started);
+        } finally {
+            running.set(false);
+        }
+    }
+    
+    /**
+     * Loads a backup file from the backup directory in one transaction together with the
+     * change log entries and the journal snapshot, then rebuilds the search index and the
+     * dashboard counters.
+     */
+    public BackupResult importFile(String fileName) {
+        if (fileName == null || !FILE_NAME.matcher(fileName).matches()) {
+            throw new BadRequestException("Invalid backup file name");
+        }
+        Path file = Paths.get(backupDir).resolve(fileName);
+        if (!Files.isRegularFile(file)) {
+            throw new ResourceNotFoundException("Backup file not found: " + fileName);
+        }
+        begin();
+        try {
+            long started = System.nanoTime();
+            Counts counts = new Counts();
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            Long bytes = transaction.execute(status -> {
+                requireNoTickets();
+                try (BackupFile.Reader reader = new BackupFile.Reader(file)) {
+                    importChunks(reader, counts);
+                    logImportedTickets();
+                    ticketJournal.snapshotTable();
+                    return reader.getSize();
+                } catch (IOException ex) {
+                    throw new BadRequestException("Backup file " + fileName + " is not readable: " + ex.getMessage());
+                }
+            });
+            searchIndex.rebuild();
+            ticketStatsService.load();
+            return result("Imported", fileName, counts, bytes != null ? bytes : 0, started);
+        } finally {
+            running.set(false);
+        }
+    }
+    
+    /**
+     * All three sections come from one repeatable-read snapshot, so every comment's ticket
+     * and user are in the file. The snapshot starts with the first query; segments that the
+     * archive job added around that moment, or had not yet committed, may hold tickets the
+     * snapshot still sees in the table, and those are skipped.
+     */
+    private void exportSnapshot(BackupFile.Writer writer, Counts counts) {
+        List<ArchiveSegment> settledSegments = ticketArchive.getSegments().stream()
+                .filter(segment -> !segment.isPending())
+                .collect(Collectors.toList());
+        TransactionTemplate snapshot = new TransactionTemplate(transactionManager);
+        snapshot.setReadOnly(true);
+        snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        snapshot.executeWithoutResult(status -> {
+            jdbc.query(SELECT_USERS, (RowCallbackHandler) rs -> {
+                User user = toUser(rs);
+                write(writer, BackupFile.Section.USERS, out -> writeUser(out, user));
+                counts.users++;
+            });
+            
+            List<ArchiveSegment> segments = ticketArchive.getSegments();
+            Map<ArchiveSegment, Set<Long>> stillInTable = new IdentityHashMap<>();
+            for (ArchiveSegment segment : segments) {
+                if (!settledSegments.contains(segment)) {
+                    stillInTable.put(segment, new HashSet<>(jdbc.queryForList(
+                            "select id from tickets where id between ? and ?", Long.class,
+                            segment.getMinId(), segment.getMaxId())));
+                }
+            }
+            
+            jdbc.query(SELECT_TICKETS, (RowCallbackHandler) rs -> {
+                Ticket ticket = toTicket(rs);
+                write(writer, BackupFile.Section.TICKETS, out -> writeTicket(out, ticket));
+                counts.tickets++;
+            });
+            forEachArchived(segments, stillInTable, ticket -> {
+                write(writer, BackupFile.Section.TICKETS, out -> writeTicket(out, ticket));
+                counts.tickets++;
+            });
+            
+            jdbc.query(SELECT_COMMENTS, (RowCallbackHandler) rs -> {
+                Comment comment = toComment(rs);
+                write(writer, BackupFile.Section.COMMENTS, out -> writeComment(out, comment));
+                counts.comments++;
+            });
+            forEachArchived(segments, stillInTable, ticket -> {
+                for (Comment comment : ticket.getComments()) {
+                    write(writer, BackupFile.Section.COMMENTS, out -> writeComment(out, comment));
+                    counts.comments++;
+                }
+            });
+        });
+    }
+    
+    private void forEachArchived(List<ArchiveSegment> segments, Map<ArchiveSegment, Set<Long>> stillInTable,
+                                 Consumer<Ticket> consumer) {
+        for (ArchiveSegment segment : segments) {
+            Set<Long> skipped = stillInTable.getOrDefault(segment, Set.of());
+            ticketArchive.forEach(List.of(segment), ticket -> {
+                if (!skipped.contains(ticket.getId())) {
+                    consumer.accept(ticket);
+                }
+            });
+        }
+    }
+    
+    private void importChunks(BackupFile.Reader reader, Counts counts) throws IOException {
+        Map<String, Long> existingUsers = new HashMap<>();
+        jdbc.query("select id, username from users", (RowCallbackHandler) rs ->
+                existingUsers.put(rs.getString("username"), rs.getLong("id")));
+        Map<Long, Long> userIds = new HashMap<>();
+        long maxTicketId = 0;
+        long maxCommentId = 0;
+        
+        BackupFile.Chunk chunk;
+        while ((chunk = reader.next()) != null) {
+            switch (chunk.getSection()) {
+                case USERS -> counts.users += importUsers(chunk, existingUsers, userIds);
+                case TICKETS -> {
+                    List<Object[]> rows = new ArrayList<>(chunk.getCount());
+                    while (chunk.next()) {
+                        ByteBuffer in = chunk.record();
+                        long id = in.getLong();
+                        maxTicketId = Math.max(maxTicketId, id);
+                        rows.add(new Object[]{
+                                id,
+                                BackupFile.readString(in),
+                                BackupFile.readString(in),
+                                BackupFile.readString(in),
+                                BackupFile.readString(in),
+                                mapUser(userIds, in.getLong()),
+                                mapUser(userIds, BackupFile.readLong(in)),
+                                BackupFile.readTime(in),
+                                BackupFile.readTime(in),
+                                BackupFile.readTime(in),
+                                BackupFile.readTime(in),
+                                in.getInt(),
+                                in.getLong()
+                        });
+                    }
+                    jdbc.batchUpdate(INSERT_TICKET, rows, TICKET_TYPES);
+                    counts.tickets += rows.size();
+                }
+                case COMMENTS -> {
+                    List<Object[]> rows = new ArrayList<>(chunk.getCount());
+                    while (chunk.next()) {
+                        ByteBuffer in = chunk.record();
+                        long id = in.getLong();
+                        maxCommentId = Math.max(maxCommentId, id);
+                        long ticketId = in.getLong();
+                        Long userId = mapUser(userIds, in.getLong());
+                        rows.add(new Object[]{
+                                id, BackupFile.readString(in), ticketId, userId, BackupFile.readTime(in), in.getLong()
+                        });
+                    }
+                    jdbc.batchUpdate(INSERT_COMMENT, rows, COMMENT_TYPES);
+                    counts.comments += rows.size();
+                }
+                default -> throw new IOException("Unexpected section " + chunk.getSection());
+            }
+        }
+        
+        if (maxTicketId > 0) {
+            jdbc.execute("alter sequence tickets_seq restart with " + (maxTicketId + SEQUENCE_HEADROOM + 1));
+        }
+        if (maxCommentId > 0) {
+            jdbc.execute("alter sequence comments_seq restart with " + (maxCommentId + SEQUENCE_HEADROOM + 1));
+        }
+    }
+    
+    /**
+     * One CREATED change per ticket, so a delta sync from the start or from an older token
+     * picks the imported tickets up. Sequence values are taken as one block, like the
+     * migration that introduced the log does for existing tickets.
+     */
+    private void logImportedTickets() {
+        Dialect dialect = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect();
+        Long first = jdbc.queryForObject(
+                dialect.getSequenceSupport().getSequenceNextValString(CHANGE_SEQUENCE), Long.class);
+        int logged = jdbc.update("insert into ticket_changes (seq, ticket_id, change_type, changed_at) "
+                + "select " + (first - 1) + " + row_number() over (order by created_at, id), id, 'CREATED', created_at "
+                + "from tickets");
+        jdbc.execute("alter sequence " + CHANGE_SEQUENCE + " restart with " + (first + logged));
+    }
+    
+    /**
+     * Users go through JPA so new ones take ids from the same sequence allocation as users
+     * registered afterwards; existing usernames keep their row.
+     */
+    private long importUsers(BackupFile.Chunk chunk, Map<String, Long> existingUsers, Map<Long, Long> userIds) {
+        long imported = 0;
+        List<User> pending = new ArrayList<>();
+        List<Long> pendingIds = new ArrayList<>();
+        while (chunk.next()) {
+            ByteBuffer in = chunk.record();
+            long exportedId = in.getLong();
+            User user = new User();
+            user.setUsername(BackupFile.readString(in));
+            user.setPassword(BackupFile.readString(in));
+            user.setEmail(BackupFile.readString(in));
+            user.setFullName(BackupFile.readString(in));
+            user.setRole(Role.valueOf(BackupFile.readString(in)));
+            user.setEnabled(in.get() != 0);
+            imported++;
+            
+            Long existingId = existingUsers.get(user.getUsername());
+            if (existingId != null) {
+                userIds.put(exportedId, existingId);
+                continue;
+            }
+            pending.add(user);
+            pendingIds.add(exportedId);
+            if (pending.size() == USER_FLUSH_INTERVAL) {
+                saveUsers(pending, pendingIds, userIds);
+            }
+        }
+        saveUsers(pending, pendingIds, userIds);
+        return imported;
+    }
+    
+    private void saveUsers(List<User> users, List<Long> exportedIds, Map<Long, Long> userIds) {
+        List<User> saved = userRepository.saveAll(users);
+        entityManager.flush();
+        for (int i = 0; i < saved.size(); i++) {
+            userIds.put(exportedIds.get(i), saved.get(i).getId());
+        }
+        entityManager.clear();
+        users.clear();
+        exportedIds.clear();
+    }
+    
+    private void requireNoTickets() {
+        Long tickets = jdbc.queryForObject("select count(*) from tickets", Long.class);
+        Long comments = jdbc.queryForObject("select count(*) from comments", Long.class);
+        long archived = ticketArchive.getTicketCount();
+        if ((tickets != null && tickets > 0) || (comments != null && comments > 0) || archived > 0) {
+            throw new ConflictException("Import needs an installation without tickets, this one has "
+                    + tickets + " tickets, " + comments + " comments and " + archived + " archived tickets");
+        }
+    }
+    
+    private static Long mapUser(Map<Long, Long> userIds, Long exportedId) throws IOException {
+        if (exportedId == null) {
+            return null;
+        }
+        Long id = userIds.get(exportedId);
+        if (id == null) {
+            throw new IOException("Backup references unknown user " + exportedId);
+        }
+        return id;
+    }
+    
+    private void begin() {
+        if (!running.compareAndSet(false, true)) {
+            throw new ConflictException("A backup export or import is already running");
+        }
+    }
+    
+    private BackupResult result(String action, String file, Counts counts, long bytes, long startedNanos) {
+        long nanos = Math.max(System.nanoTime() - startedNanos, 1);
+        long records = counts.users + counts.tickets + counts.comments;
+        long perSecond = records * 1_000_000_000L / nanos;
+        double megabytesPerSecond = bytes / (1024.0 * 1024.0) / (nanos / 1_000_000_000.0);
+        log.info("{} {}: {} users, {} tickets, {} comments, {} bytes in {} ms ({} records/s, {} MB/s)",
+                action, file, counts.users, counts.tickets, counts.comments, bytes, nanos / 1_000_000,
+                perSecond, String.format("%.1f", megabytesPerSecond));
+        return new BackupResult(file, counts.users, counts.tickets, counts.comments, bytes,
+                nanos / 1_000_000, perSecond, Math.round(megabytesPerSecond * 10) / 10.0);
+    }
+    
+    private static void write(BackupFile.Writer writer, BackupFile.Section section, BackupFile.RecordWriter fields) {
+        try {
+            writer.write(section, fields);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+    
+    private static void writeUser(DataOutputStream out, User user) throws IOException {
+        out.writeLong(user.getId());
+        BackupFile.writeString(out, user.getUsername());
+        BackupFile.writeString(out, user.getPassword());
+        BackupFile.writeString(out, user.getEmail());
+        BackupFile.writeString(out, user.getFullName());
+        BackupFile.writeString(out, user.getRole().name());
+        out.writeBoolean(user.isEnabled());
+        out.writeLong(user.getVersion());
+    }
+    
+    private static void writeTicket(DataOutputStream out, Ticket ticket) throws IOException {
+        out.writeLong(ticket.getId());
+        BackupFile.writeString(out, ticket.getTitle());
+        BackupFile.writeString(out, ticket.getDescription());
+        BackupFile.writeString(out, ticket.getStatus().name());
+        BackupFile.writeString(out, ticket.getPriority().name());
+        out.writeLong(ticket.getCreatedBy().getId());
+        BackupFile.writeLong(out, ticket.getAssignedTo() != null ? ticket.getAssignedTo().getId() : null);
+        BackupFile.writeTime(out, ticket.getCreatedAt());
+        BackupFile.writeTime(out, ticket.getUpdatedAt());
+        BackupFile.writeTime(out, ticket.getFirstResponseAt());
+        BackupFile.writeTime(out, ticket.getResolvedAt());
+        out.writeInt(ticket.getCommentCount());
+        out.writeLong(ticket.getVersion());
+    }
+    
+    private static void writeComment(DataOutputStream out, Comment comment) throws IOException {
+        out.writeLong(comment.getId());
+        out.writeLong(comment.getTicket().getId());
+        out.writeLong(comment.getUser().getId());
+        BackupFile.writeString(out, comment.getContent());
+        BackupFile.writeTime(out, comment.getCreatedAt());
+        out.writeLong(comment.getVersion());
+    }
+    
+    private static User toUser(ResultSet rs) throws SQLException {
+        User user = new User();
+        user.setId(rs.getLong("id"));
+        user.setUsername(rs.getString("username"));
+        user.setPassword(rs.getString("password"));
+        user.setEmail(rs.getString("email"));
+        user.setFullName(rs.getString("full_name"));
+        user.setRole(Role.valueOf(rs.getString("role")));
+        user.setEnabled(rs.getBoolean("enabled"));
+        user.setVersion(rs.getLong("version"));
+        return user;
+    }
+    
+    private static Ticket toTicket(ResultSet rs) throws SQLException {
+        Ticket ticket = new Ticket();
+        ticket.setId(rs.getLong("id"));
+        ticket.setTitle(rs.getString("title"));
+        ticket.setDescription(rs.getString("description"));
+        ticket.setStatus(TicketStatus.valueOf(rs.getString("status")));
+        ticket.setPriority(Priority.valueOf(rs.getString("priority")));
+        ticket.setCreatedBy(userRef(rs.getLong("created_by_id")));
+        long assignedToId = rs.getLong("assigned_to_id");
+        ticket.setAssignedTo(rs.wasNull() ? null : userRef(assignedToId));
+        ticket.setCreatedAt(rs.getObject("created_at", LocalDateTime.class));
+        ticket.setUpdatedAt(rs.getObject("updated_at", LocalDateTime.class));
+        ticket.setFirstResponseAt(rs.getObject("first_response_at", LocalDateTime.class));
+        ticket.setResolvedAt(rs.getObject("resolved_at", LocalDateTime.class));
+        ticket.setCommentCount(rs.getInt("comment_count"));
+        ticket.setVersion(rs.getLong("version"));
+        return ticket;
+    }
+    
+    private static Comment toComment(ResultSet rs) throws SQLException {
+        Comment comment = new Comment();
+        comment.setId(rs.getLong("id"));
+        Ticket ticket = new Ticket();
+        ticket.setId(rs.getLong("ticket_id"));
+        comment.setTicket(ticket);
+        comment.setUser(userRef(rs.getLong("user_id")));
+        comment.setContent(rs.getString("content"));
+        comment.setCreatedAt(rs.getObject("created_at", LocalDateTime.class));
+        comment.setVersion(rs.getLong("version"));
+        return comment;
+    }
+    
+    private static User userRef(long id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+    
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ex) {
+            log.warn("Could not delete {}", path, ex);
+        }
+    }
+    
+    private static final class Counts {
+        private long users;
+        private long tickets;
+        private long comments;
+    }
+}
@@ -0,0 +1,227 @@
+package com.ticketsystem.service;
+
+import com.ticketsystem.dto.BatchItemResult;
+import com.ticketsystem.dto.BatchResponse;
+import com.ticketsystem.dto.TicketRequest;
+import com.ticketsystem.entity.Ticket;
+import com.ticketsystem.entity.TicketStatus;
+import com.ticketsystem.entity.User;
+import com.ticketsystem.event.TicketChangedEvent;
+import com.ticketsystem.event.TicketSnapshot;
+import com.ticketsystem.exception.ResourceNotFoundException;
+import com.ticketsystem.repository.TicketRepository;
+import com.ticketsystem.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk ticket creation and mutation. Items are validated up front, referenced users are
+ * resolved with a single query, and writes go out in chunked transactions so one bad
+ * chunk does not roll back the whole batch. Every item gets its own result entry.
+ */
+@Service
+public class TicketBatchService {
+    
+    private static final Logger log = LoggerFactory.getLogger(TicketBatchService.class);
+    
+    /** Rows per transaction; a multiple of hibernate.jdbc.batch_size. */
+    private static final int CHUNK_SIZE = 500;
+    
+    /** Per-item error for a rolled back chunk; the cause is logged, not returned to the client. */
+    private static final String ROLLED_BACK = "Not saved, the chunk containing this item was rolled back";
+    
+    @Autowired
+    private TicketService ticketService;
+    
+    @Autowired
+    private TicketRepository ticketRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private Validator validator;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    public BatchResponse createTickets(List<TicketRequest> requests, User currentUser) {
+        BatchItemResult[] results = new BatchItemResult[requests.size()];
+        List<Integer> accepted = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            String problem = validate(requests.get(i));
+            if (problem != null) {
+                results[i] = failed(i, null, problem);
+            } else {
+                accepted.add(i);
+            }
+        }
+        
+        Set<Long> assigneeIds = accepted.stream()
+                .map(i -> requests.get(i).getAssignedToId())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, User> assignees = userRepository.findAllById(assigneeIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        accepted.removeIf(i -> {
+            Long assigneeId = requests.get(i).getAssignedToId();
+            if (assigneeId != null && !assignees.containsKey(assigneeId)) {
+                results[i] = failed(i, null, "User not found");
+                return true;
+            }
+            return false;
+        });
+        
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        for (List<Integer> chunk : chunks(accepted)) {
+            try {
+                transaction.executeWithoutResult(status -> {
+                    List<Ticket> tickets = new ArrayList<>(chunk.size());
+                    for (int i : chunk) {
+                        TicketRequest request = requests.get(i);
+                        User assignedTo = request.getAssignedToId() != null
+                                ? assignees.get(request.getAssignedToId()) : null;
+                        tickets.add(ticketService.newTicket(request, currentUser, assignedTo));
+                    }
+                    ticketRepository.saveAll(tickets);
+                    entityManager.flush();
+                    for (int j = 0; j < chunk.size(); j++) {
+                        Ticket ticket = tickets.get(j);
+                        results[chunk.get(j)] = new BatchItemResult(chunk.get(j), ticket.getId(), BatchItemResult.CREATED, null);
+                        eventPublisher.publishEvent(TicketChangedEvent.created(TicketSnapshot.of(ticket)));
+                    }
+                    entityManager.clear();
+                });
+            } catch (RuntimeException ex) {
+                log.warn("Batch create chunk of {} tickets rolled back", chunk.size(), ex);
+                for (int i : chunk) {
+                    results[i] = failed(i, null, ROLLED_BACK);
+                }
+            }
+        }
+        return toResponse(results);
+    }
+    
+    public BatchResponse updateStatuses(List<Long> ticketIds, TicketStatus status, User changedBy) {
+        return mutate(ticketIds, ticket -> ticketService.applyStatus(ticket, status, changedBy),
+                TicketChangedEvent.Type.STATUS_CHANGED);
+    }
+    
+    public BatchResponse assignTickets(List<Long> ticketIds, Long assignedToId) {
+        User assignedTo = userRepository.findById(assignedToId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        return mutate(ticketIds, ticket -> ticketService.applyAssignee(ticket, assignedTo),
+                TicketChangedEvent.Type.UPDATED);
+    }
+    
+    /**
+     * Loads each chunk of tickets with one query, applies the change and lets the dirty
+     * checks flush as batched updates before the persistence context is cleared.
+     */
+    private BatchResponse mutate(List<Long> ticketIds, Consumer<Ticket> change, TicketChangedEvent.Type type) {
+        BatchItemResult[] results = new BatchItemResult[ticketIds.size()];
+        List<Integer> accepted = new ArrayList<>();
+        for (int i = 0; i < ticketIds.size(); i++) {
+            if (ticketIds.get(i) == null) {
+                results[i] = failed(i, null, "Ticket id is required");
+            } else {
+                accepted.add(i);
+            }
+        }
+        
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        for (List<Integer> chunk : chunks(accepted)) {
+            try {
+                transaction.executeWithoutResult(status -> {
+                    Set<Long> ids = new HashSet<>();
+                    chunk.forEach(i -> ids.add(ticketIds.get(i)));
+                    Map<Long, Ticket> tickets = ticketRepository.findAllById(ids).stream()
+                            .collect(Collectors.toMap(Ticket::getId, Function.identity()));
+                    Map<Long, TicketSnapshot> before = new HashMap<>();
+                    for (int i : chunk) {
+                        Long id = ticketIds.get(i);
+                        Ticket ticket = tickets.get(id);
+                        if (ticket == null) {
+                            results[i] = new BatchItemResult(i, id, BatchItemResult.NOT_FOUND, "Ticket not found with id: " + id);
+                            continue;
+                        }
+                        before.putIfAbsent(id, TicketSnapshot.of(ticket));
+                        change.accept(ticket);
+                        results[i] = new BatchItemResult(i, id, BatchItemResult.UPDATED, null);
+                    }
+                    entityManager.flush();
+                    before.forEach((id, previous) -> eventPublisher.publishEvent(
+                            TicketChangedEvent.changed(type, previous, TicketSnapshot.of(tickets.get(id)))));
+                    entityManager.clear();
+                });
+            } catch (RuntimeException ex) {
+                log.warn("Batch update chunk of {} tickets rolled back", chunk.size(), ex);
+                for (int i : chunk) {
+                    results[i] = failed(i, ticketIds.get(i), ROLLED_BACK);
+                }
+            }
+        }
+        return toResponse(results);
+    }
+    
+    private String validate(TicketRequest request) {
+        if (request == null) {
+            return "Ticket is required";
+        }
+        Set<ConstraintViolation<TicketRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+    
+    private List<List<Integer>> chunks(List<Integer> indexes) {
+        List<List<Integer>> chunks = new ArrayList<>();
+        for (int from = 0; from < indexes.size(); from += CHUNK_SIZE) {
+            chunks.add(indexes.subList(from, Math.min(from + CHUNK_SIZE, indexes.size())));
+        }
+        return chunks;
+    }
+    
+    private BatchItemResult failed(int index, Long ticketId, String message) {
+        return new BatchItemResult(index, ticketId, BatchItemResult.FAILED, message);
+    }
+    
+    private BatchResponse toResponse(BatchItemResult[] results) {
+        int succeeded = (int) Arrays.stream(results)
+                .filter(result -> BatchItemResult.CREATED.equals(result.getStatus())
+                        || BatchItemResult.UPDATED.equals(result.getStatus()))
+                .count();
+        return new BatchResponse(succeeded, results.length - succeeded, Arrays.asList(results));
+    }
+}
@@ -0,0 +1,63 @@
+package com.ticketsystem.service;
+
+import com.ticketsystem.entity.ChangeType;
+import com.ticketsystem.entity.TicketChange;
+import com.ticketsystem.event.CommentChangedEvent;
+import com.ticketsystem.event.TicketChangedEvent;
+import com.ticketsystem.repository.TicketChangeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * Appends to the ticket change log inside the transaction that made the change, right
+ * before it commits. The append goes through {@link CommitOrder}, so rows become visible
+ * in sequence order and delta sync can hand out the newest sequence as its watermark.
+ */
+@Component
+public class TicketChangeLog {
+    
+    private static final Logger log = LoggerFactory.getLogger(TicketChangeLog.class);
+    
+    @Autowired
+    private TicketChangeRepository ticketChangeRepository;
+    
+    @Autowired
+    private CommitOrder commitOrder;
+    
+    @Value("${app.sync.tombstone-retention-days:30}")
+    private long tombstoneRetentionDays;
+    
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onTicketChanged(TicketChangedEvent event) {
+        append(event.getTicketId(), ChangeType.valueOf(event.getType().name()));
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onCommentChanged(CommentChangedEvent event) {
+        append(event.getTicketId(), event.getType() == CommentChangedEvent.Type.ADDED
+                ? ChangeType.COMMENT_ADDED
+                : ChangeType.COMMENT_DELETED);
+    }
+    
+    @Scheduled(cron = "${app.sync.compact-cron:0 30 3 * * *}")
+    @Transactional
+    public void compact() {
+        int superseded = ticketChangeRepository.deleteSuperseded();
+        int tombstones = ticketChangeRepository.deleteByTypeBefore(ChangeType.DELETED,
+                LocalDateTime.now().minusDays(tombstoneRetentionDays));
+        log.info("Compacted ticket change log: {} superseded rows, {} expired tombstones", superseded, tombstones);
+    }
+    
+    private void append(Long ticketId, ChangeType type) {
+        commitOrder.append(() -> ticketChangeRepository.save(new TicketChange(null, ticketId, type, LocalDateTime.now())));
+    }
+}
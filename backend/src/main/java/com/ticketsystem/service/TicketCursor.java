@@ -0,0 +1,88 @@
+package com.ticketsystem.service;
+
+import com.ticketsystem.entity.Ticket;
+import com.ticketsystem.exception.BadRequestException;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque continuation token for keyset pagination over tickets ordered by (createdAt, id).
+ * Relevance-ranked full-text results have no stable key and page by offset instead, up to
+ * {@link #MAX_OFFSET}; deeper result sets need a narrower query or the streaming export.
+ */
+@Getter
+public class TicketCursor {
+    
+    private static final String OFFSET_PREFIX = "r|";
+    
+    public static final int MAX_OFFSET = 10_000;
+    
+    public static final TicketCursor START = new TicketCursor(LocalDateTime.of(1970, 1, 1, 0, 0), 0L);
+    
+    private final LocalDateTime createdAt;
+    private final Long id;
+    
+    private TicketCursor(LocalDateTime createdAt, Long id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+    
+    public static TicketCursor after(Ticket ticket) {
+        return new TicketCursor(ticket.getCreatedAt(), ticket.getId());
+    }
+    
+    static TicketCursor at(LocalDateTime createdAt, Long id) {
+        return new TicketCursor(createdAt, id);
+    }
+    
+    public static TicketCursor decode(String token) {
+        if (token == null || token.isEmpty()) {
+            return START;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new TicketCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException ex) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+    
+    public static int decodeOffset(String token) {
+        if (token == null || token.isEmpty()) {
+            return 0;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            if (!raw.startsWith(OFFSET_PREFIX)) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            int offset = Integer.parseInt(raw.substring(OFFSET_PREFIX.length()));
+            if (offset < 0) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            if (offset > MAX_OFFSET) {
+                throw new BadRequestException("Cursor is too deep, narrow the search");
+            }
+            return offset;
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+    
+    public static String encodeOffset(int offset) {
+        String raw = OFFSET_PREFIX + offset;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
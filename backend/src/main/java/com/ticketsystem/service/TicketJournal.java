@@ -0,0 +1,323 @@
+package com.ticketsystem.service;
+
+import com.ticketsystem.dto.JournalPageResponse;
+import com.ticketsystem.entity.JournalBatch;
+import com.ticketsystem.entity.JournalSnapshot;
+import com.ticketsystem.entity.Ticket;
+import com.ticketsystem.entity.User;
+import com.ticketsystem.event.CommentChangedEvent;
+import com.ticketsystem.event.JournalEvent;
+import com.ticketsystem.event.TicketChangedEvent;
+import com.ticketsystem.event.TicketSnapshot;
+import com.ticketsystem.repository.JournalBatchRepository;
+import com.ticketsystem.repository.JournalSnapshotRepository;
+import com.ticketsystem.repository.TicketRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Append-only journal of ticket and comment changes. Events are collected while the
+ * writing transaction runs and stored as a single compressed batch right before it
+ * commits, so the journal and the tables it describes commit or roll back together.
+ * <p>
+ * Projections are rebuilt from the newest snapshot plus the batches after it. Batches are
+ * appended under {@link CommitOrder}, so they become visible in offset order and a reader
+ * never moves past a transaction that took a lower offset but has not committed yet.
+ */
+@Component
+public class TicketJournal {
+    
+    private static final Logger log = LoggerFactory.getLogger(TicketJournal.class);
+    
+    private static final Object BUFFER_KEY = new Object();
+    private static final int REPLAY_PAGE_SIZE = 200;
+    private static final int DEFAULT_READ_SIZE = 50;
+    private static final int MAX_READ_SIZE = 500;
+    private static final int SNAPSHOT_PART_SIZE = 1000;
+    
+    @Autowired
+    private JournalBatchRepository journalRepository;
+    
+    @Autowired
+    private JournalSnapshotRepository snapshotRepository;
+    
+    @Autowired
+    private TicketRepository ticketRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private CommitOrder commitOrder;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Value("${app.journal.snapshots-kept:2}")
+    private int snapshotsKept;
+    
+    @EventListener
+    public void onTicketChanged(TicketChangedEvent event) {
+        append(toJournalEvents(event));
+    }
+    
+    @EventListener
+    public void onCommentChanged(CommentChangedEvent event) {
+        JournalEvent.Type type = event.getType() == CommentChangedEvent.Type.ADDED
+                ? JournalEvent.Type.COMMENT_ADDED
+                : JournalEvent.Type.COMMENT_REMOVED;
+        String commentId = String.valueOf(event.getCommentId());
+        append(List.of(journalEvent(type, event.getTicketId(), List.of(new JournalEvent.Change(
+                JournalEvent.Field.COMMENT,
+                type == JournalEvent.Type.COMMENT_REMOVED ? commentId : null,
+                type == JournalEvent.Type.COMMENT_ADDED ? commentId : null)))));
+    }
+    
+    /**
+     * Feeds every committed event after {@code afterOffset} to the consumer, one batch of
+     * rows at a time, and returns the offset of the last batch read.
+     */
+    public long replay(long afterOffset, Consumer<JournalEvent> consumer) {
+        long offset = afterOffset;
+        List<JournalBatch> page;
+        do {
+            page = journalRepository.findPageAfter(offset, PageRequest.of(0, REPLAY_PAGE_SIZE));
+            for (JournalBatch batch : page) {
+                JournalCodec.decodeEvents(batch.getSeq(), batch.getPayload()).forEach(consumer);
+                offset = batch.getSeq();
+            }
+        } while (page.size() == REPLAY_PAGE_SIZE);
+        return offset;
+    }
+    
+    /**
+     * Restores the projection from the newest snapshot and replays the journal after it.
+     * Returns the offset the projection is now at.
+     */
+    public long rebuild(JournalProjection projection) {
+        List<Long> snapshots = snapshotRepository.findJournalSeqsNewestFirst();
+        long offset = 0;
+        if (!snapshots.isEmpty()) {
+            offset = snapshots.get(0);
+            for (Long partId : snapshotRepository.findPartIds(offset)) {
+                snapshotRepository.findById(partId).ifPresent(part ->
+                        JournalCodec.decodeSnapshot(part.getPayload()).forEach(projection::restore));
+            }
+        }
+        return replay(offset, projection::apply);
+    }
+    
+    /**
+     * A page of journal events for auditing. {@code size} counts transactions, not events.
+     */
+    public JournalPageResponse read(Long after, Integer size) {
+        int pageSize = size == null ? DEFAULT_READ_SIZE : Math.min(Math.max(size, 1), MAX_READ_SIZE);
+        long from = after == null ? 0 : after;
+        List<JournalBatch> batches = journalRepository.findPageAfter(from, PageRequest.of(0, pageSize + 1));
+        boolean hasMore = batches.size() > pageSize;
+        List<JournalBatch> page = hasMore ? batches.subList(0, pageSize) : batches;
+        List<JournalEvent> events = new ArrayList<>();
+        page.forEach(batch -> events.addAll(JournalCodec.decodeEvents(batch.getSeq(), batch.getPayload())));
+        long nextOffset = page.isEmpty() ? from : page.get(page.size() - 1).getSeq();
+        return new JournalPageResponse(events, nextOffset, hasMore);
+    }
+    
+    /**
+     * Seeds the first snapshot from the tickets table, so tickets that predate the
+     * journal are part of every rebuild.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedSnapshot() {
+        if (snapshotRepository.findJournalSeqsNewestFirst().isEmpty()) {
+            snapshotTable();
+        }
+    }
+    
+    /**
+     * Snapshots the tickets table at the current offset, replacing a snapshot already taken
+     * there. For writes that bypass the journal, such as a backup import; joins the caller's
+     * transaction if there is one.
+     */
+    public void snapshotTable() {
+        long offset = journalRepository.findMaxSeq();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Integer count = transaction.execute(status -> {
+            snapshotRepository.deleteByJournalSeq(offset);
+            List<TicketSnapshot> part = new ArrayList<>(SNAPSHOT_PART_SIZE);
+            int parts = 0;
+            int seeded = 0;
+            try (Stream<Ticket> tickets = ticketRepository.streamAll()) {
+                Iterator<Ticket> iterator = tickets.iterator();
+                while (iterator.hasNext()) {
+                    part.add(TicketSnapshot.of(iterator.next()));
+                    if (part.size() == SNAPSHOT_PART_SIZE) {
+                        saveSnapshotPart(offset, parts++, part);
+                        seeded += part.size();
+                        part.clear();
+                        entityManager.flush();
+                        entityManager.clear();
+                    }
+                }
+            }
+            if (!part.isEmpty() || parts == 0) {
+                saveSnapshotPart(offset, parts, part);
+                seeded += part.size();
+            }
+            return seeded;
+        });
+        log.info("Wrote ticket journal snapshot from the tickets table at offset {} with {} tickets", offset, count);
+    }
+    
+    /**
+     * Folds the journal since the newest snapshot into a new one and drops snapshots
+     * beyond the configured number.
+     */
+    @Scheduled(cron = "${app.journal.snapshot-cron:0 45 3 * * *}")
+    public void snapshot() {
+        List<Long> snapshots = snapshotRepository.findJournalSeqsNewestFirst();
+        if (!snapshots.isEmpty() && !journalRepository.existsBySeqGreaterThan(snapshots.get(0))) {
+            return;
+        }
+        TicketStateProjection state = new TicketStateProjection();
+        long offset = rebuild(state);
+        if (!snapshots.isEmpty() && offset == snapshots.get(0)) {
+            return;
+        }
+        List<TicketSnapshot> tickets = state.tickets();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            for (int from = 0, part = 0; from < tickets.size() || part == 0; from += SNAPSHOT_PART_SIZE, part++) {
+                saveSnapshotPart(offset, part, tickets.subList(from, Math.min(from + SNAPSHOT_PART_SIZE, tickets.size())));
+            }
+            List<Long> kept = snapshotRepository.findJournalSeqsNewestFirst();
+            if (kept.size() > snapshotsKept) {
+                snapshotRepository.deleteOlderThan(kept.get(snapshotsKept - 1));
+            }
+        });
+        log.info("Wrote ticket journal snapshot at offset {} with {} tickets", offset, tickets.size());
+    }
+    
+    private void saveSnapshotPart(long offset, int part, List<TicketSnapshot> tickets) {
+        snapshotRepository.save(new JournalSnapshot(null, offset, part, tickets.size(),
+                LocalDateTime.now(), JournalCodec.encodeSnapshot(tickets)));
+    }
+    
+    private void append(List<JournalEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            write(events);
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<JournalEvent> buffer = (List<JournalEvent>) TransactionSynchronizationManager.getResource(BUFFER_KEY);
+        if (buffer == null) {
+            List<JournalEvent> pending = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(BUFFER_KEY, pending);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    write(pending);
+                }
+                
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(BUFFER_KEY);
+                }
+            });
+            buffer = pending;
+        }
+        buffer.addAll(events);
+    }
+    
+    private void write(List<JournalEvent> events) {
+        if (!events.isEmpty()) {
+            commitOrder.append(() -> journalRepository.save(new JournalBatch(null, LocalDateTime.now(),
+                    events.size(), JournalCodec.encodeEvents(events))));
+        }
+    }
+    
+    private List<JournalEvent> toJournalEvents(TicketChangedEvent event) {
+        TicketSnapshot ticket = event.getTicket();
+        TicketSnapshot previous = event.getPrevious();
+        List<JournalEvent> events = new ArrayList<>(2);
+        switch (event.getType()) {
+            case CREATED -> events.add(journalEvent(JournalEvent.Type.CREATED, ticket.getId(), List.of(
+                    change(JournalEvent.Field.TITLE, null, ticket.getTitle()),
+                    change(JournalEvent.Field.DESCRIPTION, null, ticket.getDescription()),
+                    change(JournalEvent.Field.STATUS, null, ticket.getStatus()),
+                    change(JournalEvent.Field.PRIORITY, null, ticket.getPriority()),
+                    change(JournalEvent.Field.CREATED_BY, null, ticket.getCreatedById()),
+                    change(JournalEvent.Field.ASSIGNED_TO, null, ticket.getAssignedToId()),
+                    change(JournalEvent.Field.CREATED_AT, null, ticket.getCreatedAt()))));
+            case DELETED -> events.add(journalEvent(JournalEvent.Type.DELETED, ticket.getId(), List.of()));
+            default -> {
+                List<JournalEvent.Change> fields = new ArrayList<>();
+                addIfChanged(fields, JournalEvent.Field.TITLE, previous.getTitle(), ticket.getTitle());
+                addIfChanged(fields, JournalEvent.Field.DESCRIPTION, previous.getDescription(), ticket.getDescription());
+                addIfChanged(fields, JournalEvent.Field.PRIORITY, previous.getPriority(), ticket.getPriority());
+                if (!fields.isEmpty()) {
+                    events.add(journalEvent(JournalEvent.Type.FIELD_CHANGED, ticket.getId(), fields));
+                }
+                if (previous.getStatus() != ticket.getStatus()) {
+                    events.add(journalEvent(JournalEvent.Type.STATUS_CHANGED, ticket.getId(), List.of(
+                            change(JournalEvent.Field.STATUS, previous.getStatus(), ticket.getStatus()))));
+                }
+                if (!Objects.equals(previous.getAssignedToId(), ticket.getAssignedToId())) {
+                    events.add(journalEvent(JournalEvent.Type.ASSIGNED, ticket.getId(), List.of(
+                            change(JournalEvent.Field.ASSIGNED_TO, previous.getAssignedToId(), ticket.getAssignedToId()))));
+                }
+            }
+        }
+        return events;
+    }
+    
+    private JournalEvent journalEvent(JournalEvent.Type type, Long ticketId, List<JournalEvent.Change> changes) {
+        return new JournalEvent(null, type, ticketId, currentActorId(), LocalDateTime.now(), changes);
+    }
+    
+    private static void addIfChanged(List<JournalEvent.Change> changes, JournalEvent.Field field,
+                                     Object oldValue, Object newValue) {
+        if (!Objects.equals(oldValue, newValue)) {
+            changes.add(change(field, oldValue, newValue));
+        }
+    }
+    
+    private static JournalEvent.Change change(JournalEvent.Field field, Object oldValue, Object newValue) {
+        return new JournalEvent.Change(field,
+                oldValue != null ? oldValue.toString() : null,
+                newValue != null ? newValue.toString() : null);
+    }
+    
+    private static Long currentActorId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User user) {
+            return user.getId();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,351 @@
+package com.ticketsystem.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ticketsystem.dto.TicketExportFilter;
+import com.ticketsystem.dto.UserDTO;
+import com.ticketsystem.entity.Ticket;
+import com.ticketsystem.entity.User;
+import com.ticketsystem.exception.BadRequestException;
+import com.ticketsystem.repository.TicketRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Report exports of tickets as CSV or NDJSON. Rows are written one at a time while a
+ * forward-only cursor scrolls the table, each entity is detached once written, and the
+ * output is flushed every few hundred rows, so heap use does not grow with the export and
+ * the first bytes leave right after the header. Archived tickets are merged into the scroll
+ * in the same order. Full-text filters are answered from the search index in rank order,
+ * like the search endpoint.
+ */
+@Service
+public class TicketReportService {
+    
+    private static final int FLUSH_INTERVAL = 500;
+    private static final int SEARCH_BATCH = 500;
+    private static final int WRITE_BUFFER = 16 * 1024;
+    
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+        
+        private final String mediaType;
+        private final String extension;
+        
+        Format(String mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+        
+        public String getMediaType() {
+            return mediaType;
+        }
+        
+        public String fileName() {
+            return "tickets-" + LocalDate.now() + "." + extension;
+        }
+        
+        public static Format parse(String value) {
+            for (Format format : values()) {
+                if (format.extension.equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new BadRequestException("Unknown export format '" + value + "', use csv or ndjson");
+        }
+    }
+    
+    public enum Column {
+        ID("id"),
+        TITLE("title"),
+        DESCRIPTION("description"),
+        STATUS("status"),
+        PRIORITY("priority"),
+        CREATED_BY("createdBy"),
+        ASSIGNED_TO("assignedTo"),
+        CREATED_AT("createdAt"),
+        UPDATED_AT("updatedAt"),
+        FIRST_RESPONSE_AT("firstResponseAt"),
+        RESOLVED_AT("resolvedAt"),
+        COMMENT_COUNT("commentCount");
+        
+        private final String key;
+        
+        Column(String key) {
+            this.key = key;
+        }
+        
+        public String getKey() {
+            return key;
+        }
+        
+        /**
+         * Comma-separated column keys in output order; all columns if none are given.
+         */
+        public static List<Column> parse(String columns) {
+            if (columns == null || columns.isBlank()) {
+                return Arrays.asList(values());
+            }
+            Set<Column> selected = new LinkedHashSet<>();
+            for (String key : columns.split(",")) {
+                String trimmed = key.trim();
+                Column column = Arrays.stream(values())
+                        .filter(candidate -> candidate.key.equalsIgnoreCase(trimmed))
+                        .findFirst()
+                        .orElseThrow(() -> new BadRequestException("Unknown export column '" + trimmed + "'"));
+                selected.add(column);
+            }
+            return new ArrayList<>(selected);
+        }
+    }
+    
+    @Autowired
+    private TicketRepository ticketRepository;
+    
+    @Autowired
+    private TicketSearchIndex searchIndex;
+    
+    @Autowired
+    private TicketService ticketService;
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    /**
+     * Checks the filter up front; once streaming has started, errors can no longer become a 400.
+     */
+    public void validate(TicketExportFilter filter) {
+        checkRange(filter.getCreatedFrom(), filter.getCreatedTo(), "created");
+        checkRange(filter.getUpdatedFrom(), filter.getUpdatedTo(), "updated");
+    }
+    
+    /**
+     * Writes the export to the response stream, gzip-compressed if asked to. Compression
+     * uses sync flushes, so every flush still reaches the client immediately.
+     */
+    @Transactional(readOnly = true)
+    public void export(TicketExportFilter filter, Format format, List<Column> columns,
+                       boolean gzip, OutputStream out) throws IOException {
+        GZIPOutputStream compressed = gzip ? new GZIPOutputStream(out, WRITE_BUFFER, true) : null;
+        Writer text = new BufferedWriter(new OutputStreamWriter(
+                compressed != null ? compressed : out, StandardCharsets.UTF_8), WRITE_BUFFER);
+        RowWriter rows = format == Format.CSV ? new CsvRows(text, columns) : new NdjsonRows(text, columns);
+        rows.start();
+        rows.flush();
+        
+        if (filter.getSearch() == null || filter.getSearch().isBlank()) {
+            try (Stream<Ticket> tickets = ticketRepository.streamForExport(filter.getStatus(), filter.getPriority(),
+                    startOf(filter.getCreatedFrom()), endOf(filter.getCreatedTo()),
+                    startOf(filter.getUpdatedFrom()), endOf(filter.getUpdatedTo()))) {
+                Iterator<Ticket> archived = ticketService.archivedTickets(filter.getStatus(), filter.getPriority(),
+                        startOf(filter.getCreatedFrom()), endOf(filter.getCreatedTo()),
+                        startOf(filter.getUpdatedFrom()), endOf(filter.getUpdatedTo()),
+                        TicketCursor.START, SEARCH_BATCH);
+                writeAll(TicketService.inCreationOrder(tickets.iterator(), archived), rows);
+            }
+        } else {
+            searchIndex.scan(filter.getSearch(), filter.getStatus(), filter.getPriority(),
+                    startOf(filter.getCreatedFrom()), endOf(filter.getCreatedTo()),
+                    startOf(filter.getUpdatedFrom()), endOf(filter.getUpdatedTo()), SEARCH_BATCH,
+                    ticketIds -> writeAll(ticketService.loadInRankOrder(ticketIds).iterator(), rows));
+        }
+        
+        rows.flush();
+        if (compressed != null) {
+            compressed.finish();
+        }
+        out.flush();
+    }
+    
+    private void writeAll(Iterator<Ticket> tickets, RowWriter rows) throws IOException {
+        int written = 0;
+        while (tickets.hasNext()) {
+            Ticket ticket = tickets.next();
+            rows.write(ticket);
+            if (entityManager.contains(ticket)) {
+                entityManager.detach(ticket);
+            }
+            if (++written % FLUSH_INTERVAL == 0) {
+                rows.flush();
+            }
+        }
+    }
+    
+    private static LocalDateTime startOf(LocalDate day) {
+        return day != null ? day.atStartOfDay() : null;
+    }
+    
+    private static LocalDateTime endOf(LocalDate day) {
+        return day != null ? day.plusDays(1).atStartOfDay() : null;
+    }
+    
+    private static void checkRange(LocalDate from, LocalDate to, String field) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new BadRequestException(field + "From must not be after " + field + "To");
+        }
+    }
+    
+    private String username(User user) {
+        if (user == null) {
+            return null;
+        }
+        UserDTO cached = userService.getCachedUser(user.getId());
+        return cached != null ? cached.getUsername() : null;
+    }
+    
+    private Object value(Ticket ticket, Column column) {
+        return switch (column) {
+            case ID -> ticket.getId();
+            case TITLE -> ticket.getTitle();
+            case DESCRIPTION -> ticket.getDescription();
+            case STATUS -> ticket.getStatus().name();
+            case PRIORITY -> ticket.getPriority().name();
+            case CREATED_BY -> username(ticket.getCreatedBy());
+            case ASSIGNED_TO -> username(ticket.getAssignedTo());
+            case CREATED_AT -> ticket.getCreatedAt();
+            case UPDATED_AT -> ticket.getUpdatedAt();
+            case FIRST_RESPONSE_AT -> ticket.getFirstResponseAt();
+            case RESOLVED_AT -> ticket.getResolvedAt();
+            case COMMENT_COUNT -> ticket.getCommentCount();
+        };
+    }
+    
+    private interface RowWriter {
+        void start() throws IOException;
+        
+        void write(Ticket ticket) throws IOException;
+        
+        void flush() throws IOException;
+    }
+    
+    /**
+     * RFC 4180 with CRLF line ends. Text that a spreadsheet would evaluate as a formula is
+     * prefixed with an apostrophe.
+     */
+    private final class CsvRows implements RowWriter {
+        private final Writer out;
+        private final List<Column> columns;
+        
+        private CsvRows(Writer out, List<Column> columns) {
+            this.out = out;
+            this.columns = columns;
+        }
+        
+        @Override
+        public void start() throws IOException {
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                out.write(columns.get(i).getKey());
+            }
+            out.write("\r\n");
+        }
+        
+        @Override
+        public void write(Ticket ticket) throws IOException {
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                Object value = value(ticket, columns.get(i));
+                if (value instanceof String text) {
+                    writeText(text);
+                } else if (value != null) {
+                    out.write(value.toString());
+                }
+            }
+            out.write("\r\n");
+        }
+        
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+        
+        private void writeText(String text) throws IOException {
+            if (!text.isEmpty() && "=+-@\t\r".indexOf(text.charAt(0)) >= 0) {
+                text = "'" + text;
+            }
+            boolean quote = text.indexOf(',') >= 0 || text.indexOf('"') >= 0
+                    || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0;
+            if (!quote) {
+                out.write(text);
+                return;
+            }
+            out.write('"');
+            out.write(text.replace("\"", "\"\""));
+            out.write('"');
+        }
+    }
+    
+    private final class NdjsonRows implements RowWriter {
+        private final JsonGenerator generator;
+        private final List<Column> columns;
+        
+        private NdjsonRows(Writer out, List<Column> columns) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Lines are separated by the newline written after each row
+            this.generator.setRootValueSeparator(null);
+            this.columns = columns;
+        }
+        
+        @Override
+        public void start() {
+            // NDJSON has no header line
+        }
+        
+        @Override
+        public void write(Ticket ticket) throws IOException {
+            generator.writeStartObject();
+            for (Column column : columns) {
+                Object value = value(ticket, column);
+                generator.writeFieldName(column.getKey());
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof Long number) {
+                    generator.writeNumber(number);
+                } else if (value instanceof Integer number) {
+                    generator.writeNumber(number);
+                } else {
+                    generator.writeString(value.toString());
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+        
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+    }
+}
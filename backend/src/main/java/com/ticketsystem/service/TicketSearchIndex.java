@@ -0,0 +1,560 @@
+package com.ticketsystem.service;
+
+import com.ticketsystem.dto.ChangeEvent;
+import com.ticketsystem.entity.Priority;
+import com.ticketsystem.entity.Ticket;
+import com.ticketsystem.entity.TicketStatus;
+import com.ticketsystem.event.TicketsArchivedEvent;
+import com.ticketsystem.repository.TicketRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FieldDoc;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Embedded Lucene index over ticket title and description, kept in sync with
+ * {@link TicketService} as an {@link OutboxHandler}. Each change re-reads the ticket, so
+ * redelivered or late messages still leave the index at the ticket's current state.
+ * The index is local to the instance, like the rebuild on startup assumes. Archived
+ * tickets stay indexed and are marked as archived, so search keeps finding them after they
+ * leave the table and the listings can merge them back in with {@link #findArchived}.
+ */
+@Component
+public class TicketSearchIndex implements OutboxHandler {
+    
+    private static final Logger log = LoggerFactory.getLogger(TicketSearchIndex.class);
+    
+    private static final String ID = "id";
+    private static final String TITLE = "title";
+    private static final String DESCRIPTION = "description";
+    private static final String STATUS = "status";
+    private static final String PRIORITY = "priority";
+    private static final String GENERATION = "generation";
+    private static final String CREATED_AT = "createdAt";
+    private static final String UPDATED_AT = "updatedAt";
+    private static final String CREATED_ORDER = "createdAtOrder";
+    private static final String ID_ORDER = "idOrder";
+    private static final String ARCHIVED = "archived";
+    private static final String SCHEMA = "schema";
+    private static final String SCHEMA_VERSION = "3";
+    private static final Sort CREATION_ORDER = new Sort(
+            new SortField(CREATED_ORDER, SortField.Type.LONG), new SortField(ID_ORDER, SortField.Type.LONG));
+    private static final float TITLE_BOOST = 2.0f;
+    private static final int REBUILD_CLEAR_INTERVAL = 500;
+    
+    @Autowired
+    private TicketRepository ticketRepository;
+    
+    @Autowired
+    private TicketArchive ticketArchive;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${app.search.index-dir:}")
+    private String indexDir;
+    
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    private volatile String generation = UUID.randomUUID().toString();
+    private volatile boolean rebuilding;
+    private final Set<Long> touchedDuringRebuild = new HashSet<>();
+    
+    @PostConstruct
+    public void open() throws IOException {
+        directory = indexDir.isBlank() ? new ByteBuffersDirectory() : FSDirectory.open(Paths.get(indexDir));
+        writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        searcherManager = new SearcherManager(writer, null);
+        if (writer.getDocStats().numDocs == 0) {
+            writer.setLiveCommitData(Map.of(SCHEMA, SCHEMA_VERSION).entrySet());
+        }
+    }
+    
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+    
+    /**
+     * Rebuilds an empty index, and one written before the current document layout, whose
+     * documents would otherwise miss fields that filters rely on.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIfEmpty() {
+        if (writer.getDocStats().numDocs == 0 && ticketRepository.count() > 0) {
+            log.info("Search index is empty, rebuilding from database");
+            rebuild();
+        } else if (writer.getDocStats().numDocs > 0 && !SCHEMA_VERSION.equals(schemaVersion())) {
+            log.info("Search index has an older document layout, rebuilding from database");
+            rebuild();
+        }
+    }
+    
+    private String schemaVersion() {
+        Iterable<Map.Entry<String, String>> commitData = writer.getLiveCommitData();
+        if (commitData != null) {
+            for (Map.Entry<String, String> entry : commitData) {
+                if (SCHEMA.equals(entry.getKey())) {
+                    return entry.getValue();
+                }
+            }
+        }
+        return null;
+    }
+    
+    @Override
+    public String getName() {
+        return "search-index";
+    }
+    
+    @Override
+    public boolean accepts(ChangeEvent change) {
+        return "TICKET".equals(change.getEntity());
+    }
+    
+    @Override
+    public void handle(ChangeEvent change) {
+        reindex(change.getTicketId());
+        touched(change.getTicketId());
+    }
+    
+    public void index(Ticket ticket) {
+        write(ticket, false);
+        touched(ticket.getId());
+    }
+    
+    public void delete(Long ticketId) {
+        remove(ticketId);
+        touched(ticketId);
+    }
+    
+    /**
+     * Marks archived tickets as such once their batch has committed, so listings find them
+     * through {@link #findArchived}. Reads the archive rather than the table: the batch's
+     * persistence context is still open here and would hand back the deleted rows.
+     */
+    @TransactionalEventListener
+    public void onArchived(TicketsArchivedEvent event) {
+        for (Long ticketId : event.getTicketIds()) {
+            Optional<Ticket> archived = ticketArchive.find(ticketId);
+            if (archived.isPresent()) {
+                write(archived.get(), true);
+            } else {
+                remove(ticketId);
+            }
+            touched(ticketId);
+        }
+    }
+    
+    private void reindex(Long ticketId) {
+        Optional<Ticket> live = ticketRepository.findById(ticketId);
+        if (live.isPresent()) {
+            write(live.get(), false);
+            return;
+        }
+        Optional<Ticket> archived = ticketArchive.find(ticketId);
+        if (archived.isPresent()) {
+            write(archived.get(), true);
+        } else {
+            remove(ticketId);
+        }
+    }
+    
+    private void write(Ticket ticket, boolean archived) {
+        try {
+            writer.updateDocument(new Term(ID, String.valueOf(ticket.getId())), toDocument(ticket, archived));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+    
+    private void remove(Long ticketId) {
+        try {
+            writer.deleteDocuments(new Term(ID, String.valueOf(ticketId)));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+    
+    private void touched(Long ticketId) {
+        synchronized (touchedDuringRebuild) {
+            if (rebuilding) {
+                touchedDuringRebuild.add(ticketId);
+            }
+        }
+    }
+    
+    /**
+     * Rewrites every ticket in place, the archived ones segment by segment and then the
+     * table, scrolled so memory stays flat. Searches keep seeing the previous index until
+     * the rebuild commits: documents are replaced rather than dropped, and the scheduled
+     * refresh is held back meanwhile. Documents the rebuild did not write belong to
+     * tickets that no longer exist and are removed by their older generation. Tickets
+     * the outbox indexed while the scroll ran may have been overwritten with the state
+     * the scroll read earlier, so they are read once more at the end.
+     */
+    public synchronized long rebuild() {
+        generation = UUID.randomUUID().toString();
+        rebuilding = true;
+        try {
+            long indexed = rewriteAll();
+            writer.deleteDocuments(new BooleanQuery.Builder()
+                    .add(new MatchAllDocsQuery(), BooleanClause.Occur.MUST)
+                    .add(new TermQuery(new Term(GENERATION, generation)), BooleanClause.Occur.MUST_NOT)
+                    .build());
+            reindexTouched();
+            writer.setLiveCommitData(Map.of(SCHEMA, SCHEMA_VERSION).entrySet());
+            writer.commit();
+            searcherManager.maybeRefreshBlocking();
+            log.info("Search index rebuilt with {} tickets", indexed);
+            return indexed;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            synchronized (touchedDuringRebuild) {
+                rebuilding = false;
+                touchedDuringRebuild.clear();
+            }
+        }
+    }
+    
+    private long rewriteAll() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        return readOnly.execute(status -> {
+            ticketArchive.forEach(ticket -> write(ticket, true));
+            long count = ticketArchive.getTicketCount();
+            try (Stream<Ticket> tickets = ticketRepository.streamAll()) {
+                Iterator<Ticket> iterator = tickets.iterator();
+                while (iterator.hasNext()) {
+                    write(iterator.next(), false);
+                    if (++count % REBUILD_CLEAR_INTERVAL == 0) {
+                        entityManager.clear();
+                    }
+                }
+            }
+            return count;
+        });
+    }
+    
+    private void reindexTouched() {
+        while (true) {
+            List<Long> ticketIds;
+            synchronized (touchedDuringRebuild) {
+                if (touchedDuringRebuild.isEmpty()) {
+                    rebuilding = false;
+                    return;
+                }
+                ticketIds = new ArrayList<>(touchedDuringRebuild);
+                touchedDuringRebuild.clear();
+            }
+            ticketIds.forEach(this::reindex);
+        }
+    }
+    
+    /**
+     * Reopens the searcher at most once per interval instead of once per write, so a batch
+     * of thousands of tickets costs a handful of near-real-time reopens rather than one each.
+     * Skipped while a rebuild runs, which refreshes once it has committed. Waits for a
+     * refresh already in progress, so every write made before the call is visible after it.
+     */
+    @Scheduled(fixedDelayString = "${app.search.refresh-interval-ms:250}")
+    public void refresh() throws IOException {
+        if (!rebuilding) {
+            searcherManager.maybeRefreshBlocking();
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${app.search.commit-interval-ms:5000}")
+    public void commit() throws IOException {
+        if (writer.hasUncommittedChanges()) {
+            writer.commit();
+        }
+    }
+    
+    /**
+     * Returns ticket ids ordered by relevance. Every token must match the title or the
+     * description; the last token is matched as a prefix so partially typed words hit.
+     * The offset is bounded by {@link TicketCursor#MAX_OFFSET}; full result sets are read
+     * with {@link #scan}.
+     */
+    public SearchResult search(String text, TicketStatus status, Priority priority, int offset, int limit) {
+        if (offset < 0 || offset > TicketCursor.MAX_OFFSET) {
+            throw new IllegalArgumentException("Search offset out of range: " + offset);
+        }
+        Query query = buildQuery(text, status, priority);
+        IndexSearcher searcher = null;
+        try {
+            searcher = searcherManager.acquire();
+            TopDocs topDocs = searcher.search(query, offset + limit + 1);
+            ScoreDoc[] hits = topDocs.scoreDocs;
+            StoredFields storedFields = searcher.storedFields();
+            List<Long> ids = new ArrayList<>();
+            for (int i = offset; i < Math.min(hits.length, offset + limit); i++) {
+                ids.add(Long.valueOf(storedFields.document(hits[i].doc).get(ID)));
+            }
+            return new SearchResult(ids, hits.length > offset + limit);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            if (searcher != null) {
+                try {
+                    searcherManager.release(searcher);
+                } catch (IOException ex) {
+                    log.warn("Could not release index searcher", ex);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Hands every match to the consumer in rank order, batch by batch. Each batch continues
+     * after the last hit of the previous one on the same searcher, so the cost per batch
+     * does not grow with the depth and the result set is a consistent point in time.
+     */
+    public void scan(String text, TicketStatus status, Priority priority, int batchSize,
+                     BatchConsumer consumer) throws IOException {
+        scan(text, status, priority, null, null, null, null, batchSize, consumer);
+    }
+    
+    /**
+     * Like {@link #scan(String, TicketStatus, Priority, int, BatchConsumer)}, restricted to
+     * tickets created and updated within the given bounds; lower bounds are inclusive,
+     * upper bounds exclusive, and null leaves a side open.
+     */
+    public void scan(String text, TicketStatus status, Priority priority,
+                     LocalDateTime createdFrom, LocalDateTime createdBefore,
+                     LocalDateTime updatedFrom, LocalDateTime updatedBefore,
+                     int batchSize, BatchConsumer consumer) throws IOException {
+        BooleanQuery.Builder builder = new BooleanQuery.Builder()
+                .add(buildQuery(text, status, priority), BooleanClause.Occur.MUST);
+        addRange(builder, CREATED_AT, createdFrom, createdBefore);
+        addRange(builder, UPDATED_AT, updatedFrom, updatedBefore);
+        Query query = builder.build();
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            StoredFields storedFields = searcher.storedFields();
+            ScoreDoc after = null;
+            while (true) {
+                ScoreDoc[] hits = searcher.searchAfter(after, query, batchSize).scoreDocs;
+                if (hits.length == 0) {
+                    return;
+                }
+                List<Long> ids = new ArrayList<>(hits.length);
+                for (ScoreDoc hit : hits) {
+                    ids.add(Long.valueOf(storedFields.document(hit.doc).get(ID)));
+                }
+                consumer.accept(ids);
+                if (hits.length < batchSize) {
+                    return;
+                }
+                after = hits[hits.length - 1];
+            }
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+    
+    /**
+     * Keys of archived tickets matching the filters, in (createdAt, id) order and starting
+     * after the given key; the order of the listings, which merge them with the table.
+     * Bounds work as in {@link #scan(String, TicketStatus, Priority, LocalDateTime,
+     * LocalDateTime, LocalDateTime, LocalDateTime, int, BatchConsumer)}.
+     */
+    public List<TicketCursor> findArchived(TicketStatus status, Priority priority,
+                                           LocalDateTime createdFrom, LocalDateTime createdBefore,
+                                           LocalDateTime updatedFrom, LocalDateTime updatedBefore,
+                                           TicketCursor after, int limit) {
+        BooleanQuery.Builder builder = new BooleanQuery.Builder()
+                .add(buildQuery("", status, priority), BooleanClause.Occur.MUST)
+                .add(new TermQuery(new Term(ARCHIVED, "true")), BooleanClause.Occur.FILTER);
+        addRange(builder, CREATED_AT, createdFrom, createdBefore);
+        addRange(builder, UPDATED_AT, updatedFrom, updatedBefore);
+        IndexSearcher searcher = null;
+        try {
+            searcher = searcherManager.acquire();
+            // Keys are unique, so the doc id only matters for the key itself, which it excludes
+            FieldDoc start = new FieldDoc(searcher.getIndexReader().maxDoc() - 1, Float.NaN,
+                    new Object[]{epochNanos(after.getCreatedAt()), after.getId()});
+            ScoreDoc[] hits = searcher.searchAfter(start, builder.build(), limit, CREATION_ORDER).scoreDocs;
+            List<TicketCursor> keys = new ArrayList<>(hits.length);
+            for (ScoreDoc hit : hits) {
+                Object[] fields = ((FieldDoc) hit).fields;
+                long nanos = (Long) fields[0];
+                keys.add(TicketCursor.at(LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L),
+                        (int) Math.floorMod(nanos, 1_000_000_000L), ZoneOffset.UTC), (Long) fields[1]));
+            }
+            return keys;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            if (searcher != null) {
+                try {
+                    searcherManager.release(searcher);
+                } catch (IOException ex) {
+                    log.warn("Could not release index searcher", ex);
+                }
+            }
+        }
+    }
+    
+    private Query buildQuery(String text, TicketStatus status, Priority priority) {
+        List<String> tokens = tokenize(text);
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        for (int i = 0; i < tokens.size(); i++) {
+            boolean last = i == tokens.size() - 1;
+            builder.add(new BooleanQuery.Builder()
+                    .add(new BoostQuery(termQuery(TITLE, tokens.get(i), last), TITLE_BOOST), BooleanClause.Occur.SHOULD)
+                    .add(termQuery(DESCRIPTION, tokens.get(i), last), BooleanClause.Occur.SHOULD)
+                    .build(), BooleanClause.Occur.MUST);
+        }
+        if (tokens.isEmpty()) {
+            builder.add(new MatchAllDocsQuery(), BooleanClause.Occur.MUST);
+        }
+        if (status != null) {
+            builder.add(new TermQuery(new Term(STATUS, status.name())), BooleanClause.Occur.FILTER);
+        }
+        if (priority != null) {
+            builder.add(new TermQuery(new Term(PRIORITY, priority.name())), BooleanClause.Occur.FILTER);
+        }
+        return builder.build();
+    }
+    
+    private void addRange(BooleanQuery.Builder builder, String field, LocalDateTime from, LocalDateTime before) {
+        if (from == null && before == null) {
+            return;
+        }
+        long lower = from != null ? epochMillis(from) : Long.MIN_VALUE;
+        long upper = before != null ? epochMillis(before) - 1 : Long.MAX_VALUE;
+        builder.add(LongPoint.newRangeQuery(field, lower, upper), BooleanClause.Occur.FILTER);
+    }
+    
+    private static long epochMillis(LocalDateTime value) {
+        return value.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+    
+    /**
+     * Full precision, so the index orders tickets exactly like the table does.
+     */
+    private static long epochNanos(LocalDateTime value) {
+        return value.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + value.getNano();
+    }
+    
+    private Query termQuery(String field, String token, boolean prefix) {
+        Term term = new Term(field, token);
+        return prefix ? new PrefixQuery(term) : new TermQuery(term);
+    }
+    
+    private List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        try (TokenStream stream = analyzer.tokenStream(TITLE, text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                tokens.add(term.toString());
+            }
+            stream.end();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return tokens;
+    }
+    
+    private Document toDocument(Ticket ticket, boolean archived) {
+        Document document = new Document();
+        document.add(new StringField(ID, String.valueOf(ticket.getId()), Field.Store.YES));
+        document.add(new NumericDocValuesField(ID_ORDER, ticket.getId()));
+        document.add(new TextField(TITLE, ticket.getTitle(), Field.Store.NO));
+        document.add(new TextField(DESCRIPTION, ticket.getDescription(), Field.Store.NO));
+        document.add(new StringField(STATUS, ticket.getStatus().name(), Field.Store.NO));
+        document.add(new StringField(PRIORITY, ticket.getPriority().name(), Field.Store.NO));
+        document.add(new StringField(GENERATION, generation, Field.Store.NO));
+        if (ticket.getCreatedAt() != null) {
+            document.add(new LongPoint(CREATED_AT, epochMillis(ticket.getCreatedAt())));
+            document.add(new NumericDocValuesField(CREATED_ORDER, epochNanos(ticket.getCreatedAt())));
+        }
+        if (ticket.getUpdatedAt() != null) {
+            document.add(new LongPoint(UPDATED_AT, epochMillis(ticket.getUpdatedAt())));
+        }
+        if (archived) {
+            document.add(new StringField(ARCHIVED, "true", Field.Store.NO));
+        }
+        return document;
+    }
+    
+    @FunctionalInterface
+    public interface BatchConsumer {
+        void accept(List<Long> ticketIds) throws IOException;
+    }
+    
+    @lombok.Value
+    public static class SearchResult {
+        List<Long> ticketIds;
+        boolean hasMore;
+    }
+}
@@ -1,23 +1,64 @@
 package com.ticketsystem.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.ticketsystem.dto.TicketPageResponse;
 import com.ticketsystem.dto.TicketRequest;
 import com.ticketsystem.dto.TicketResponse;
+import com.ticketsystem.dto.TicketSyncResponse;
 import com.ticketsystem.dto.UserDTO;
 import com.ticketsystem.entity.*;
+import com.ticketsystem.event.TicketChangedEvent;
+import com.ticketsystem.event.TicketSnapshot;
+import com.ticketsystem.event.TicketStatusChangedEvent;
+import com.ticketsystem.exception.BadRequestException;
+import com.ticketsystem.exception.ConflictException;
+import com.ticketsystem.exception.GoneException;
+import com.ticketsystem.exception.PreconditionFailedException;
 import com.ticketsystem.exception.ResourceNotFoundException;
+import com.ticketsystem.repository.TicketChangeRepository;
 import com.ticketsystem.repository.TicketRepository;
+import com.ticketsystem.repository.TicketStatusChangeRepository;
 import com.ticketsystem.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.jpa.domain.Specification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class TicketService {
     
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int STREAM_FLUSH_INTERVAL = 100;
+    private static final int STREAM_SEARCH_BATCH = 500;
+    private static final int DEFAULT_SYNC_SIZE = 500;
+    private static final int MAX_SYNC_SIZE = 2000;
+    
     @Autowired
     private TicketRepository ticketRepository;
     
@@ -27,28 +68,57 @@ public class TicketService {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private TicketSearchIndex searchIndex;
+    
+    @Autowired
+    private TicketArchive ticketArchive;
+    
+    @Autowired
+    private TicketChangeRepository ticketChangeRepository;
+    
+    @Autowired
+    private TicketStatusChangeRepository statusChangeRepository;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Value("${app.sync.tombstone-retention-days:30}")
+    private long tombstoneRetentionDays;
+    
+    @Transactional
     public TicketResponse createTicket(TicketRequest request, User currentUser) {
-        Ticket ticket = new Ticket();
-        ticket.setTitle(request.getTitle());
-        ticket.setDescription(request.getDescription());
-        ticket.setPriority(request.getPriority());
-        ticket.setStatus(TicketStatus.OPEN);
-        ticket.setCreatedBy(currentUser);
-        ticket.setCreatedAt(LocalDateTime.now());
-        
+        User assignedTo = null;
         if (request.getAssignedToId() != null) {
-            User assignedTo = userRepository.findById(request.getAssignedToId())
+            assignedTo = userRepository.findById(request.getAssignedToId())
                     .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-            ticket.setAssignedTo(assignedTo);
         }
         
-        return convertToResponse(ticketRepository.save(ticket));
+        Ticket ticket = newTicket(request, currentUser, assignedTo);
+        Ticket saved = ticketRepository.save(ticket);
+        eventPublisher.publishEvent(TicketChangedEvent.created(TicketSnapshot.of(saved)));
+        return convertToResponse(saved);
     }
     
-    public TicketResponse updateTicket(Long id, TicketRequest request, User currentUser) {
+    @Transactional
+    public TicketResponse updateTicket(Long id, TicketRequest request, User currentUser, String ifMatch) {
         Ticket ticket = ticketRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Ticket not found with id: " + id));
+                .orElseThrow(() -> ticketArchive.missingTicket(id));
         
+        if (ifMatch != null && !matchesVersion(ifMatch, ticket.getVersion())) {
+            throw new PreconditionFailedException("Ticket " + id + " has changed since it was read");
+        }
+        if (request.getVersion() != null && !request.getVersion().equals(ticket.getVersion())) {
+            throw new ConflictException("Ticket " + id + " was modified by someone else, reload it and try again");
+        }
+        
+        TicketSnapshot previous = TicketSnapshot.of(ticket);
         ticket.setTitle(request.getTitle());
         ticket.setDescription(request.getDescription());
         ticket.setPriority(request.getPriority());
@@ -60,86 +130,448 @@ public class TicketService {
             ticket.setAssignedTo(assignedTo);
         }
         
-        return convertToResponse(ticketRepository.save(ticket));
+        Ticket saved = ticketRepository.saveAndFlush(ticket);
+        eventPublisher.publishEvent(TicketChangedEvent.changed(TicketChangedEvent.Type.UPDATED, previous, TicketSnapshot.of(saved)));
+        return convertToResponse(saved);
     }
     
-    public TicketResponse updateTicketStatus(Long id, TicketStatus status) {
+    @Transactional
+    public TicketResponse updateTicketStatus(Long id, TicketStatus status, User changedBy) {
         Ticket ticket = ticketRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Ticket not found with id: " + id));
+                .orElseThrow(() -> ticketArchive.missingTicket(id));
         
-        ticket.setStatus(status);
-        ticket.setUpdatedAt(LocalDateTime.now());
+        TicketSnapshot previous = TicketSnapshot.of(ticket);
+        applyStatus(ticket, status, changedBy);
         
-        return convertToResponse(ticketRepository.save(ticket));
+        Ticket saved = ticketRepository.saveAndFlush(ticket);
+        eventPublisher.publishEvent(TicketChangedEvent.changed(TicketChangedEvent.Type.STATUS_CHANGED, previous, TicketSnapshot.of(saved)));
+        return convertToResponse(saved);
+    }
+    
+    /**
+     * Strong ETag of a ticket: its version plus the comment count, which is maintained by a
+     * counter update that does not touch the version, plus the versions of the embedded
+     * creator and assignee, so a renamed or re-roled user does not leave a stale body cached.
+     * Only those columns are read; archived tickets are answered from their segment.
+     */
+    public String getTicketETag(Long id) {
+        return ticketRepository.findVersionById(id)
+                .map(view -> eTag(view.getVersion(), view.getCommentCount(),
+                        view.getCreatedByVersion(), view.getAssignedToVersion()))
+                .or(() -> ticketArchive.find(id).map(ticket -> eTag(ticket.getVersion(), ticket.getCommentCount(),
+                        userVersion(ticket.getCreatedBy()), userVersion(ticket.getAssignedTo()))))
+                .orElseThrow(() -> new ResourceNotFoundException("Ticket not found with id: " + id));
+    }
+    
+    public static String eTag(TicketResponse ticket) {
+        return eTag(ticket.getVersion(), ticket.getCommentCount(),
+                ticket.getCreatedBy() != null ? ticket.getCreatedBy().getVersion() : null,
+                ticket.getAssignedTo() != null ? ticket.getAssignedTo().getVersion() : null);
+    }
+    
+    private static String eTag(Long version, int commentCount, Long createdByVersion, Long assignedToVersion) {
+        return "\"" + version + "." + commentCount + "." + (createdByVersion != null ? createdByVersion : "-")
+                + "." + (assignedToVersion != null ? assignedToVersion : "-") + "\"";
+    }
+    
+    /**
+     * Archived tickets only keep user ids, so the versions are looked up.
+     */
+    private Long userVersion(User user) {
+        return user != null ? userRepository.findVersionById(user.getId()).orElse(null) : null;
     }
     
+    /**
+     * Falls back to the archive, so closed tickets stay readable after they were moved out.
+     */
     public TicketResponse getTicketById(Long id) {
         Ticket ticket = ticketRepository.findById(id)
+                .or(() -> ticketArchive.find(id))
                 .orElseThrow(() -> new ResourceNotFoundException("Ticket not found with id: " + id));
         return convertToResponse(ticket);
     }
     
-    public List<TicketResponse> getAllTickets() {
-        return ticketRepository.findAll().stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+    /**
+     * Includes archived tickets, merged in from the search index in the same order.
+     */
+    public TicketPageResponse getAllTickets(String cursor, Integer size) {
+        TicketCursor after = TicketCursor.decode(cursor);
+        int pageSize = resolvePageSize(size);
+        List<Ticket> live = ticketRepository.findPageAfter(
+                after.getCreatedAt(), after.getId(), PageRequest.of(0, pageSize + 1));
+        return toPage(withArchived(live, null, null, after, pageSize + 1), pageSize);
+    }
+    
+    public TicketPageResponse searchTickets(String search, TicketStatus status, Priority priority,
+                                            String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        if (search == null || search.isBlank()) {
+            TicketCursor after = TicketCursor.decode(cursor);
+            List<Ticket> live = ticketRepository.findPageByFiltersAfter(
+                    status, priority, after.getCreatedAt(), after.getId(), PageRequest.of(0, pageSize + 1));
+            return toPage(withArchived(live, status, priority, after, pageSize + 1), pageSize);
+        }
+        
+        int offset = TicketCursor.decodeOffset(cursor);
+        TicketSearchIndex.SearchResult result = searchIndex.search(search, status, priority, offset, pageSize);
+        List<TicketResponse> content = convertAll(loadInRankOrder(result.getTicketIds()));
+        boolean hasMore = result.isHasMore() && offset + pageSize <= TicketCursor.MAX_OFFSET;
+        String nextCursor = hasMore ? TicketCursor.encodeOffset(offset + pageSize) : null;
+        return new TicketPageResponse(content, nextCursor, hasMore);
+    }
+    
+    public TicketPageResponse getMyTickets(User user, String cursor, Integer size) {
+        TicketCursor after = TicketCursor.decode(cursor);
+        int pageSize = resolvePageSize(size);
+        return toPage(ticketRepository.findPageByCreatedByAfter(
+                user.getId(), after.getCreatedAt(), after.getId(), PageRequest.of(0, pageSize + 1)), pageSize);
     }
     
-    public List<TicketResponse> searchTickets(String search, TicketStatus status, Priority priority) {
-        Specification<Ticket> spec = Specification.where(null);
+    public TicketPageResponse getAssignedTickets(User user, String cursor, Integer size) {
+        TicketCursor after = TicketCursor.decode(cursor);
+        int pageSize = resolvePageSize(size);
+        return toPage(ticketRepository.findPageByAssignedToAfter(
+                user.getId(), after.getCreatedAt(), after.getId(), PageRequest.of(0, pageSize + 1)), pageSize);
+    }
+    
+    /**
+     * Streams matching tickets as NDJSON. Full-text queries are answered from the
+     * search index in rank order; everything else scrolls the tickets table and merges
+     * in the archived tickets.
+     */
+    @Transactional(readOnly = true)
+    public void streamTickets(String search, TicketStatus status, Priority priority,
+                              OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(TicketResponse.class);
+        if (search == null || search.isBlank()) {
+            try (Stream<Ticket> tickets = ticketRepository.streamByFilters(status, priority)) {
+                writeLines(inCreationOrder(tickets.iterator(), archivedTickets(status, priority,
+                        null, null, null, null, TicketCursor.START, STREAM_SEARCH_BATCH)), writer, out);
+            }
+        } else {
+            searchIndex.scan(search, status, priority, STREAM_SEARCH_BATCH,
+                    ticketIds -> writeLines(loadInRankOrder(ticketIds).iterator(), writer, out));
+        }
+        out.flush();
+    }
+    
+    /**
+     * Tickets created, updated, commented on or deleted after the given watermark, newest
+     * state only. Change rows become visible in sequence order (see {@link CommitOrder}), so
+     * the watermark never passes a transaction that is still about to commit.
+     */
+    public TicketSyncResponse getChanges(String since, Integer size) {
+        SyncToken token = SyncToken.decode(since);
+        if (token.isOlderThan(Duration.ofDays(tombstoneRetentionDays))) {
+            throw new GoneException("Sync token is older than the change log retention, start over without 'since'");
+        }
+        int pageSize = size == null ? DEFAULT_SYNC_SIZE : Math.min(Math.max(size, 1), MAX_SYNC_SIZE);
         
-        if (search != null && !search.isEmpty()) {
-            spec = spec.and((root, query, cb) -> 
-                cb.or(
-                    cb.like(cb.lower(root.get("title")), "%" + search.toLowerCase() + "%"),
-                    cb.like(cb.lower(root.get("description")), "%" + search.toLowerCase() + "%")
-                )
-            );
+        List<TicketChange> changes = ticketChangeRepository.findPageAfter(token.getSeq(), PageRequest.of(0, pageSize + 1));
+        boolean hasMore = changes.size() > pageSize;
+        List<TicketChange> page = hasMore ? changes.subList(0, pageSize) : changes;
+        if (page.isEmpty()) {
+            return new TicketSyncResponse(Collections.emptyList(), Collections.emptyList(),
+                    SyncToken.at(token.getSeq()).encode(), false);
         }
         
-        if (status != null) {
-            spec = spec.and((root, query, cb) -> cb.equal(root.get("status"), status));
+        Set<Long> ticketIds = new LinkedHashSet<>();
+        page.forEach(change -> ticketIds.add(change.getTicketId()));
+        Map<Long, Ticket> live = ticketRepository.findAllById(ticketIds).stream()
+                .collect(Collectors.toMap(Ticket::getId, Function.identity()));
+        List<Ticket> updated = new ArrayList<>();
+        List<Long> deleted = new ArrayList<>();
+        for (Long ticketId : ticketIds) {
+            // Archiving removes the row without a change entry of its own; the ticket still exists
+            Optional<Ticket> ticket = Optional.ofNullable(live.get(ticketId)).or(() -> ticketArchive.find(ticketId));
+            if (ticket.isPresent()) {
+                updated.add(ticket.get());
+            } else {
+                deleted.add(ticketId);
+            }
         }
+        String nextToken = SyncToken.at(page.get(page.size() - 1).getSeq()).encode();
+        return new TicketSyncResponse(convertAll(updated), deleted, nextToken, hasMore);
+    }
+    
+    @Transactional
+    public void deleteTicket(Long id) {
+        Ticket ticket = ticketRepository.findById(id)
+                .orElseThrow(() -> ticketArchive.missingTicket(id));
+        TicketSnapshot snapshot = TicketSnapshot.of(ticket);
+        ticketRepository.delete(ticket);
+        eventPublisher.publishEvent(TicketChangedEvent.deleted(snapshot));
+    }
+    
+    /**
+     * Builds a new open ticket. Shared with {@link TicketBatchService} so single and
+     * bulk creation produce identical rows.
+     */
+    Ticket newTicket(TicketRequest request, User createdBy, User assignedTo) {
+        Ticket ticket = new Ticket();
+        ticket.setTitle(request.getTitle());
+        ticket.setDescription(request.getDescription());
+        ticket.setPriority(request.getPriority());
+        ticket.setStatus(TicketStatus.OPEN);
+        ticket.setCreatedBy(createdBy);
+        ticket.setAssignedTo(assignedTo);
+        ticket.setCreatedAt(LocalDateTime.now());
+        return ticket;
+    }
+    
+    /**
+     * Moves the ticket to a new status and records the transition. The first move out of
+     * OPEN and every move into RESOLVED or CLOSED carry the elapsed time since creation,
+     * which is what the SLA figures are built from.
+     */
+    void applyStatus(Ticket ticket, TicketStatus status, User changedBy) {
+        TicketStatus from = ticket.getStatus();
+        LocalDateTime now = LocalDateTime.now();
+        ticket.setStatus(status);
+        ticket.setUpdatedAt(now);
+        if (from == status) {
+            return;
+        }
+        
+        TicketStatusChange change = new TicketStatusChange();
+        change.setTicketId(ticket.getId());
+        change.setFromStatus(from);
+        change.setToStatus(status);
+        change.setPriority(ticket.getPriority());
+        change.setChangedById(changedBy != null ? changedBy.getId() : null);
+        change.setAssignedToId(ticket.getAssignedTo() != null ? ticket.getAssignedTo().getId() : null);
+        change.setChangedAt(now);
         
-        if (priority != null) {
-            spec = spec.and((root, query, cb) -> cb.equal(root.get("priority"), priority));
+        long elapsedMillis = Duration.between(ticket.getCreatedAt(), now).toMillis();
+        if (ticket.getFirstResponseAt() == null && status != TicketStatus.OPEN) {
+            ticket.setFirstResponseAt(now);
+            change.setResponseMillis(elapsedMillis);
+        }
+        boolean resolved = status == TicketStatus.RESOLVED || status == TicketStatus.CLOSED;
+        if (resolved && ticket.getResolvedAt() == null) {
+            ticket.setResolvedAt(now);
+            change.setResolutionMillis(elapsedMillis);
+        } else if (!resolved) {
+            ticket.setResolvedAt(null);
         }
         
-        return ticketRepository.findAll(spec).stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        statusChangeRepository.save(change);
+        eventPublisher.publishEvent(TicketStatusChangedEvent.of(change));
     }
     
-    public List<TicketResponse> getMyTickets(User user) {
-        return ticketRepository.findByCreatedBy(user).stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+    void applyAssignee(Ticket ticket, User assignedTo) {
+        ticket.setAssignedTo(assignedTo);
+        ticket.setUpdatedAt(LocalDateTime.now());
+    }
+    
+    /**
+     * Writes one JSON line per ticket, detaching rows as they are written so the
+     * persistence context stays empty while the result set is scrolled.
+     */
+    private void writeLines(Iterator<Ticket> tickets, ObjectWriter writer, OutputStream out) throws IOException {
+        int written = 0;
+        while (tickets.hasNext()) {
+            Ticket ticket = tickets.next();
+            out.write(writer.writeValueAsBytes(convertToResponse(ticket)));
+            out.write('\n');
+            if (entityManager.contains(ticket)) {
+                entityManager.detach(ticket);
+            }
+            if (++written % STREAM_FLUSH_INTERVAL == 0) {
+                out.flush();
+            }
+        }
     }
     
-    public List<TicketResponse> getAssignedTickets(User user) {
-        return ticketRepository.findByAssignedTo(user).stream()
-                .map(this::convertToResponse)
+    /**
+     * Loads search hits in rank order; shared with {@link TicketReportService}.
+     */
+    List<Ticket> loadInRankOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, Ticket> byId = ticketRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Ticket::getId, Function.identity()));
+        if (byId.size() < ids.size()) {
+            // Search keeps archived tickets in the index; read those from the archive
+            for (Long id : ids) {
+                if (!byId.containsKey(id)) {
+                    ticketArchive.find(id).ifPresent(ticket -> byId.put(id, ticket));
+                }
+            }
+        }
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
     
-    public void deleteTicket(Long id) {
-        Ticket ticket = ticketRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Ticket not found with id: " + id));
-        ticketRepository.delete(ticket);
+    /**
+     * Archived tickets matching the filters in (createdAt, id) order after the given key,
+     * located through the search index a batch at a time and read from the archive. Shared
+     * with {@link TicketReportService}; without an archive the index is not asked at all.
+     */
+    Iterator<Ticket> archivedTickets(TicketStatus status, Priority priority,
+                                     LocalDateTime createdFrom, LocalDateTime createdBefore,
+                                     LocalDateTime updatedFrom, LocalDateTime updatedBefore,
+                                     TicketCursor after, int batchSize) {
+        if (ticketArchive.getTicketCount() == 0) {
+            return Collections.emptyIterator();
+        }
+        return new Iterator<>() {
+            private TicketCursor next = after;
+            private Iterator<Ticket> batch = Collections.emptyIterator();
+            private boolean exhausted;
+            
+            @Override
+            public boolean hasNext() {
+                while (!batch.hasNext() && !exhausted) {
+                    List<TicketCursor> keys = searchIndex.findArchived(status, priority,
+                            createdFrom, createdBefore, updatedFrom, updatedBefore, next, batchSize);
+                    exhausted = keys.size() < batchSize;
+                    if (!keys.isEmpty()) {
+                        next = keys.get(keys.size() - 1);
+                        batch = keys.stream()
+                                .map(key -> ticketArchive.find(key.getId()))
+                                .flatMap(Optional::stream)
+                                .iterator();
+                    }
+                }
+                return batch.hasNext();
+            }
+            
+            @Override
+            public Ticket next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return batch.next();
+            }
+        };
+    }
+    
+    /**
+     * Merges two iterators that are each in (createdAt, id) order.
+     */
+    static Iterator<Ticket> inCreationOrder(Iterator<Ticket> live, Iterator<Ticket> archived) {
+        Comparator<Ticket> order = Comparator.comparing(Ticket::getCreatedAt).thenComparing(Ticket::getId);
+        return new Iterator<>() {
+            private Ticket nextLive;
+            private Ticket nextArchived;
+            
+            @Override
+            public boolean hasNext() {
+                if (nextLive == null && live.hasNext()) {
+                    nextLive = live.next();
+                }
+                if (nextArchived == null && archived.hasNext()) {
+                    nextArchived = archived.next();
+                }
+                return nextLive != null || nextArchived != null;
+            }
+            
+            @Override
+            public Ticket next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Ticket next;
+                if (nextArchived == null || (nextLive != null && order.compare(nextLive, nextArchived) <= 0)) {
+                    next = nextLive;
+                    nextLive = null;
+                } else {
+                    next = nextArchived;
+                    nextArchived = null;
+                }
+                return next;
+            }
+        };
+    }
+    
+    private List<Ticket> withArchived(List<Ticket> live, TicketStatus status, Priority priority,
+                                      TicketCursor after, int limit) {
+        Iterator<Ticket> archived = archivedTickets(status, priority, null, null, null, null, after, limit);
+        if (!archived.hasNext()) {
+            return live;
+        }
+        List<Ticket> merged = new ArrayList<>(limit);
+        Iterator<Ticket> tickets = inCreationOrder(live.iterator(), archived);
+        while (merged.size() < limit && tickets.hasNext()) {
+            merged.add(tickets.next());
+        }
+        return merged;
+    }
+    
+    /**
+     * If-Match carries one or more ETags; only the version part has to match, so a comment
+     * added or a user edited in the meantime does not block an edit.
+     */
+    private boolean matchesVersion(String ifMatch, Long version) {
+        for (String tag : ifMatch.split(",")) {
+            String value = tag.trim();
+            if (value.equals("*")) {
+                return true;
+            }
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            value = value.replace("\"", "");
+            int dot = value.indexOf('.');
+            if ((dot >= 0 ? value.substring(0, dot) : value).equals(String.valueOf(version))) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private TicketPageResponse toPage(List<Ticket> tickets, int pageSize) {
+        boolean hasMore = tickets.size() > pageSize;
+        List<Ticket> page = hasMore ? tickets.subList(0, pageSize) : tickets;
+        String nextCursor = hasMore ? TicketCursor.after(page.get(page.size() - 1)).encode() : null;
+        return new TicketPageResponse(convertAll(page), nextCursor, hasMore);
+    }
+    
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (size < 1) {
+            throw new BadRequestException("Page size must be positive");
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+    
+    private List<TicketResponse> convertAll(List<Ticket> tickets) {
+        Set<Long> userIds = new HashSet<>();
+        for (Ticket ticket : tickets) {
+            userIds.add(ticket.getCreatedBy().getId());
+            if (ticket.getAssignedTo() != null) {
+                userIds.add(ticket.getAssignedTo().getId());
+            }
+        }
+        Map<Long, UserDTO> users = userService.getCachedUsers(userIds);
+        return tickets.stream()
+                .map(ticket -> convertToResponse(ticket, users))
+                .collect(Collectors.toList());
     }
     
     private TicketResponse convertToResponse(Ticket ticket) {
+        return convertAll(Collections.singletonList(ticket)).get(0);
+    }
+    
+    private TicketResponse convertToResponse(Ticket ticket, Map<Long, UserDTO> users) {
         TicketResponse response = new TicketResponse();
         response.setId(ticket.getId());
         response.setTitle(ticket.getTitle());
         response.setDescription(ticket.getDescription());
         response.setStatus(ticket.getStatus());
         response.setPriority(ticket.getPriority());
-        response.setCreatedBy(userService.convertToDTO(ticket.getCreatedBy()));
-        response.setAssignedTo(ticket.getAssignedTo() != null ? userService.convertToDTO(ticket.getAssignedTo()) : null);
+        response.setCreatedBy(users.get(ticket.getCreatedBy().getId()));
+        response.setAssignedTo(ticket.getAssignedTo() != null ? users.get(ticket.getAssignedTo().getId()) : null);
         response.setCreatedAt(ticket.getCreatedAt());
         response.setUpdatedAt(ticket.getUpdatedAt());
-        response.setCommentCount(ticket.getComments() != null ? ticket.getComments().size() : 0);
+        response.setCommentCount(ticket.getCommentCount());
+        response.setVersion(ticket.getVersion());
         return response;
     }
 }
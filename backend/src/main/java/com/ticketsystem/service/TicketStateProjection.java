@@ -0,0 +1,71 @@
+package com.ticketsystem.service;
+
+import com.ticketsystem.entity.Priority;
+import com.ticketsystem.entity.TicketStatus;
+import com.ticketsystem.event.JournalEvent;
+import com.ticketsystem.event.TicketSnapshot;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Current state of every ticket, folded from the journal. Snapshots are written from this
+ * projection, so each snapshot follows from the previous one and the events after it.
+ */
+class TicketStateProjection implements JournalProjection {
+    
+    private final Map<Long, TicketSnapshot> tickets = new TreeMap<>();
+    
+    @Override
+    public void restore(TicketSnapshot ticket) {
+        tickets.put(ticket.getId(), ticket);
+    }
+    
+    @Override
+    public void apply(JournalEvent event) {
+        switch (event.getType()) {
+            case CREATED -> tickets.put(event.getTicketId(), applyChanges(
+                    new TicketSnapshot(event.getTicketId(), null, null, null, null, null, null, null), event));
+            case FIELD_CHANGED, STATUS_CHANGED, ASSIGNED -> tickets.computeIfPresent(event.getTicketId(),
+                    (id, ticket) -> applyChanges(ticket, event));
+            case DELETED -> tickets.remove(event.getTicketId());
+            default -> {
+                // Comments are not part of the ticket state
+            }
+        }
+    }
+    
+    List<TicketSnapshot> tickets() {
+        return new ArrayList<>(tickets.values());
+    }
+    
+    private static TicketSnapshot applyChanges(TicketSnapshot ticket, JournalEvent event) {
+        String title = ticket.getTitle();
+        String description = ticket.getDescription();
+        TicketStatus status = ticket.getStatus();
+        Priority priority = ticket.getPriority();
+        Long createdById = ticket.getCreatedById();
+        Long assignedToId = ticket.getAssignedToId();
+        LocalDateTime createdAt = ticket.getCreatedAt();
+        for (JournalEvent.Change change : event.getChanges()) {
+            String value = change.getNewValue();
+            switch (change.getField()) {
+                case TITLE -> title = value;
+                case DESCRIPTION -> description = value;
+                case STATUS -> status = TicketStatus.valueOf(value);
+                case PRIORITY -> priority = Priority.valueOf(value);
+                case CREATED_BY -> createdById = Long.valueOf(value);
+                case ASSIGNED_TO -> assignedToId = value != null ? Long.valueOf(value) : null;
+                case CREATED_AT -> createdAt = LocalDateTime.parse(value);
+                default -> {
+                    // Not ticket state
+                }
+            }
+        }
+        return new TicketSnapshot(ticket.getId(), title, description, status, priority,
+                createdById, assignedToId, createdAt);
+    }
+}
@@ -0,0 +1,184 @@
+package com.ticketsystem.service;
+
+import com.ticketsystem.dto.TicketStatsResponse;
+import com.ticketsystem.entity.Priority;
+import com.ticketsystem.entity.TicketStatus;
+import com.ticketsystem.event.TicketChangedEvent;
+import com.ticketsystem.event.TicketSnapshot;
+import com.ticketsystem.repository.TicketRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Dashboard counters kept in memory and moved by the committed {@link TicketChangedEvent}s,
+ * so reading them never touches the database. Each event subtracts the previous state and
+ * adds the new one. Counts are rebuilt from grouped queries on startup and reconciled on a
+ * schedule; changes committed while a rebuild is running can be missed until the next one.
+ */
+@Service
+public class TicketStatsService {
+    
+    private static final Logger log = LoggerFactory.getLogger(TicketStatsService.class);
+    
+    static final Set<TicketStatus> OPEN_STATUSES = EnumSet.of(TicketStatus.OPEN, TicketStatus.IN_PROGRESS);
+    
+    @Autowired
+    private TicketRepository ticketRepository;
+    
+    @Autowired
+    private TicketArchive ticketArchive;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private volatile Counters counters = new Counters();
+    
+    @PostConstruct
+    public void init() {
+        Gauge.builder("ticketsystem.tickets.open", this, stats -> stats.counters.open())
+                .description("Tickets in an open status")
+                .register(meterRegistry);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        counters = loadFromDatabase();
+        log.info("Ticket stats loaded: {} tickets, {} open", counters.total(), counters.open());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketChanged(TicketChangedEvent event) {
+        Counters current = counters;
+        if (event.getType() == TicketChangedEvent.Type.DELETED) {
+            current.add(event.getTicket(), -1);
+            return;
+        }
+        if (event.getPrevious() != null) {
+            current.add(event.getPrevious(), -1);
+        }
+        current.add(event.getTicket(), 1);
+    }
+    
+    /**
+     * Recounts from the database and swaps the result in, logging any drift that
+     * crept in through missed events or the rebuild window.
+     */
+    @Scheduled(fixedDelayString = "${app.stats.reconcile-interval-ms:600000}",
+            initialDelayString = "${app.stats.reconcile-interval-ms:600000}")
+    @Transactional(readOnly = true)
+    public void reconcile() {
+        Counters fresh = loadFromDatabase();
+        TicketStatsResponse before = counters.toResponse();
+        TicketStatsResponse after = fresh.toResponse();
+        if (!before.equals(after)) {
+            log.warn("Ticket stats drifted (total {} -> {}, open {} -> {}), replacing counters",
+                    before.getTotal(), after.getTotal(), before.getOpen(), after.getOpen());
+            counters = fresh;
+        }
+    }
+    
+    public TicketStatsResponse getStats() {
+        return counters.toResponse();
+    }
+    
+    private Counters loadFromDatabase() {
+        Counters fresh = new Counters();
+        for (Object[] row : ticketRepository.countByStatus()) {
+            fresh.byStatus.get((TicketStatus) row[0]).add((Long) row[1]);
+        }
+        // Archived tickets are all closed and never change again, so only their number matters
+        fresh.byStatus.get(TicketStatus.CLOSED).add(ticketArchive.getTicketCount());
+        for (Object[] row : ticketRepository.countByPriority(OPEN_STATUSES)) {
+            fresh.openByPriority.get((Priority) row[0]).add((Long) row[1]);
+        }
+        for (Object[] row : ticketRepository.countByAssignee(OPEN_STATUSES)) {
+            if (row[0] == null) {
+                fresh.openUnassigned.add((Long) row[1]);
+            } else {
+                fresh.openByAssignee.computeIfAbsent((Long) row[0], id -> new LongAdder()).add((Long) row[1]);
+            }
+        }
+        for (Object[] row : ticketRepository.countByCreator(OPEN_STATUSES)) {
+            fresh.openByCreator.computeIfAbsent((Long) row[0], id -> new LongAdder()).add((Long) row[1]);
+        }
+        return fresh;
+    }
+    
+    private static final class Counters {
+        private final Map<TicketStatus, LongAdder> byStatus = new EnumMap<>(TicketStatus.class);
+        private final Map<Priority, LongAdder> openByPriority = new EnumMap<>(Priority.class);
+        private final Map<Long, LongAdder> openByAssignee = new ConcurrentHashMap<>();
+        private final Map<Long, LongAdder> openByCreator = new ConcurrentHashMap<>();
+        private final LongAdder openUnassigned = new LongAdder();
+        
+        private Counters() {
+            // Enum maps are filled once and only read afterwards, so they are safe to share
+            for (TicketStatus status : TicketStatus.values()) {
+                byStatus.put(status, new LongAdder());
+            }
+            for (Priority priority : Priority.values()) {
+                openByPriority.put(priority, new LongAdder());
+            }
+        }
+        
+        private void add(TicketSnapshot ticket, int delta) {
+            byStatus.get(ticket.getStatus()).add(delta);
+            if (!OPEN_STATUSES.contains(ticket.getStatus())) {
+                return;
+            }
+            openByPriority.get(ticket.getPriority()).add(delta);
+            if (ticket.getAssignedToId() == null) {
+                openUnassigned.add(delta);
+            } else {
+                openByAssignee.computeIfAbsent(ticket.getAssignedToId(), id -> new LongAdder()).add(delta);
+            }
+            openByCreator.computeIfAbsent(ticket.getCreatedById(), id -> new LongAdder()).add(delta);
+        }
+        
+        private long total() {
+            return byStatus.values().stream().mapToLong(LongAdder::sum).sum();
+        }
+        
+        private long open() {
+            return OPEN_STATUSES.stream().mapToLong(status -> byStatus.get(status).sum()).sum();
+        }
+        
+        private TicketStatsResponse toResponse() {
+            Map<TicketStatus, Long> statuses = new EnumMap<>(TicketStatus.class);
+            byStatus.forEach((status, count) -> statuses.put(status, count.sum()));
+            Map<Priority, Long> priorities = new EnumMap<>(Priority.class);
+            openByPriority.forEach((priority, count) -> priorities.put(priority, count.sum()));
+            return new TicketStatsResponse(total(), open(), statuses, priorities,
+                    nonZero(openByAssignee), openUnassigned.sum(), nonZero(openByCreator));
+        }
+        
+        private static Map<Long, Long> nonZero(Map<Long, LongAdder> counts) {
+            Map<Long, Long> result = new TreeMap<>();
+            counts.forEach((id, count) -> {
+                long sum = count.sum();
+                if (sum != 0) {
+                    result.put(id, sum);
+                }
+            });
+            return result;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.ticketsystem.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ticketsystem.dto.ChangeEvent;
+import com.ticketsystem.entity.OutboxMessage;
+import com.ticketsystem.event.CommentChangedEvent;
+import com.ticketsystem.event.TicketChangedEvent;
+import com.ticketsystem.repository.OutboxMessageRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * Writes one outbox row per ticket or comment change right before the transaction commits,
+ * however many handlers there are, and wakes the dispatcher once it has committed.
+ */
+@Component
+public class TransactionalOutbox {
+    
+    @Autowired
+    private OutboxMessageRepository outboxRepository;
+    
+    @Autowired
+    private OutboxDispatcher dispatcher;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onTicketChanged(TicketChangedEvent event) {
+        append(new ChangeEvent("TICKET", event.getType().name(), event.getTicketId(), null));
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onCommentChanged(CommentChangedEvent event) {
+        append(new ChangeEvent("COMMENT", event.getType().name(), event.getTicketId(), event.getCommentId()));
+    }
+    
+    @TransactionalEventListener(classes = {TicketChangedEvent.class, CommentChangedEvent.class}, fallbackExecution = true)
+    public void afterCommit() {
+        dispatcher.wakeUp();
+    }
+    
+    void append(ChangeEvent change) {
+        LocalDateTime now = LocalDateTime.now();
+        OutboxMessage message = new OutboxMessage();
+        message.setPayload(toJson(change));
+        message.setCreatedAt(now);
+        message.setNextAttemptAt(now);
+        outboxRepository.save(message);
+    }
+    
+    private String toJson(ChangeEvent change) {
+        try {
+            return objectMapper.writeValueAsString(change);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize outbox message", ex);
+        }
+    }
+}
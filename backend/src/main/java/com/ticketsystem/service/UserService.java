@@ -1,16 +1,29 @@
 package com.ticketsystem.service;
 
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import com.ticketsystem.dto.RegisterRequest;
 import com.ticketsystem.dto.UserDTO;
 import com.ticketsystem.entity.Role;
 import com.ticketsystem.entity.User;
 import com.ticketsystem.exception.ResourceNotFoundException;
 import com.ticketsystem.repository.UserRepository;
+import com.ticketsystem.security.JwtPrincipalCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,6 +35,39 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
     
+    @Autowired
+    private JwtPrincipalCache principalCache;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${app.users.cache.max-size:10000}")
+    private long userCacheMaxSize;
+    
+    private LoadingCache<Long, UserDTO> userCache;
+    
+    @PostConstruct
+    public void initUserCache() {
+        userCache = Caffeine.newBuilder()
+                .maximumSize(userCacheMaxSize)
+                .recordStats()
+                .build(new CacheLoader<Long, UserDTO>() {
+                    @Override
+                    public UserDTO load(Long id) {
+                        return userRepository.findById(id)
+                                .map(user -> convertToDTO(user))
+                                .orElse(null);
+                    }
+                    
+                    @Override
+                    public Map<Long, UserDTO> loadAll(Set<? extends Long> ids) {
+                        return userRepository.findAllById(new ArrayList<Long>(ids)).stream()
+                                .collect(Collectors.toMap(User::getId, user -> convertToDTO(user)));
+                    }
+                });
+        CaffeineCacheMetrics.monitor(meterRegistry, userCache, "users");
+    }
+    
     public User createUser(RegisterRequest request, Role role) {
         User user = new User();
         user.setUsername(request.getUsername());
@@ -31,7 +77,9 @@ public class UserService {
         user.setRole(role);
         user.setEnabled(true);
         
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userCache.invalidate(saved.getId());
+        return saved;
     }
     
     public List<UserDTO> getAllUsers() {
@@ -40,6 +88,12 @@ public class UserService {
                 .collect(Collectors.toList());
     }
     
+    public String getUserETag(Long id) {
+        return userRepository.findVersionById(id)
+                .map(version -> "\"" + version + "\"")
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
+    }
+    
     public UserDTO getUserById(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
@@ -50,13 +104,18 @@ public class UserService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
         user.setRole(role);
-        return convertToDTO(userRepository.save(user));
+        UserDTO updated = convertToDTO(userRepository.save(user));
+        userCache.invalidate(id);
+        principalCache.evictUser(id);
+        return updated;
     }
     
     public void deleteUser(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
         userRepository.delete(user);
+        userCache.invalidate(id);
+        principalCache.evictUser(id);
     }
     
     public boolean existsByUsername(String username) {
@@ -67,13 +126,36 @@ public class UserService {
         return userRepository.existsByEmail(email);
     }
     
+    /**
+     * Read-through lookup used when embedding users in ticket and comment responses.
+     */
+    public UserDTO getCachedUser(Long id) {
+        return userCache.get(id);
+    }
+    
+    /**
+     * Resolves a whole page worth of users at once; misses are loaded with a single query.
+     */
+    public Map<Long, UserDTO> getCachedUsers(Collection<Long> ids) {
+        return userCache.getAll(ids);
+    }
+    
+    public CacheStats getUserCacheStats() {
+        return userCache.stats();
+    }
+    
+    public long getUserCacheSize() {
+        return userCache.estimatedSize();
+    }
+    
     public UserDTO convertToDTO(User user) {
         return new UserDTO(
                 user.getId(),
                 user.getUsername(),
                 user.getEmail(),
                 user.getFullName(),
-                user.getRole().name()
+                user.getRole().name(),
+                user.getVersion()
         );
     }
 }
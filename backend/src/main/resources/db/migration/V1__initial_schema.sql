@@ -0,0 +1,37 @@
+create sequence users_seq start with 1 increment by 50;
+create sequence tickets_seq start with 1 increment by 50;
+create sequence comments_seq start with 1 increment by 50;
+
+create table users (
+    id         bigint       not null primary key,
+    username   varchar(255) not null unique,
+    password   varchar(255) not null,
+    email      varchar(255) not null,
+    full_name  varchar(255) not null,
+    role       varchar(255) not null,
+    enabled    boolean      not null
+);
+
+create table tickets (
+    id             bigint        not null primary key,
+    title          varchar(255)  not null,
+    description    varchar(2000) not null,
+    status         varchar(255)  not null,
+    priority       varchar(255)  not null,
+    created_by_id  bigint        not null references users (id),
+    assigned_to_id bigint        references users (id),
+    created_at     timestamp(6)  not null,
+    updated_at     timestamp(6),
+    comment_count  integer       not null default 0
+);
+
+create table comments (
+    id         bigint        not null primary key,
+    content    varchar(2000) not null,
+    ticket_id  bigint        not null references tickets (id),
+    user_id    bigint        not null references users (id),
+    created_at timestamp(6)  not null
+);
+
+create index idx_tickets_created_at_id on tickets (created_at, id);
+create index idx_comments_ticket_id on comments (ticket_id);
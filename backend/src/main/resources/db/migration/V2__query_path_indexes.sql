@@ -0,0 +1,11 @@
+-- One index per access path in TicketRepository and CommentRepository.
+-- Trailing (created_at, id) columns match the keyset pagination order.
+create index idx_tickets_created_by_created_at on tickets (created_by_id, created_at, id);
+create index idx_tickets_assigned_created_at on tickets (assigned_to_id, created_at, id);
+create index idx_tickets_assigned_status_created_at on tickets (assigned_to_id, status, created_at);
+create index idx_tickets_status_created_at on tickets (status, created_at, id);
+create index idx_tickets_priority_created_at on tickets (priority, created_at, id);
+
+-- Comment threads are always read in creation order for one ticket.
+drop index idx_comments_ticket_id;
+create index idx_comments_ticket_created_at on comments (ticket_id, created_at);
@@ -0,0 +1,4 @@
+-- @Version columns: drive optimistic locking on updates and the ETags of single resources.
+alter table users add column version bigint not null default 0;
+alter table tickets add column version bigint not null default 0;
+alter table comments add column version bigint not null default 0;
@@ -0,0 +1,19 @@
+-- Change log behind GET /api/tickets/changes. seq is the sync watermark, so the sequence
+-- hands out single values instead of blocks.
+create sequence ticket_changes_seq start with 1 increment by 1;
+
+create table ticket_changes (
+    seq         bigint       not null primary key,
+    ticket_id   bigint       not null,
+    change_type varchar(255) not null,
+    changed_at  timestamp(6) not null
+);
+
+create index idx_ticket_changes_ticket_id on ticket_changes (ticket_id);
+
+-- Existing tickets enter the log once so a sync from the start sees all of them
+insert into ticket_changes (seq, ticket_id, change_type, changed_at)
+select row_number() over (order by created_at, id), id, 'CREATED', created_at
+from tickets;
+
+select setval('ticket_changes_seq', (select coalesce(max(seq), 0) + 1 from ticket_changes), false);
@@ -0,0 +1,26 @@
+-- Status transition history behind the SLA figures (GET /api/tickets/sla)
+create sequence ticket_status_changes_seq start with 1 increment by 50;
+
+create table ticket_status_changes (
+    id                bigint       not null primary key,
+    ticket_id         bigint       not null,
+    from_status       varchar(255),
+    to_status         varchar(255) not null,
+    priority          varchar(255) not null,
+    changed_by_id     bigint,
+    assigned_to_id    bigint,
+    changed_at        timestamp(6) not null,
+    response_millis   bigint,
+    resolution_millis bigint
+);
+
+create index idx_ticket_status_changes_ticket_id on ticket_status_changes (ticket_id, changed_at);
+create index idx_ticket_status_changes_changed_at on ticket_status_changes (changed_at);
+
+alter table tickets add column first_response_at timestamp(6);
+alter table tickets add column resolved_at timestamp(6);
+
+-- When existing tickets got there is unknown, so they produce no samples; marking the
+-- milestones as reached keeps their next transition from being counted as one
+update tickets set first_response_at = coalesce(updated_at, created_at) where status <> 'OPEN';
+update tickets set resolved_at = coalesce(updated_at, created_at) where status in ('RESOLVED', 'CLOSED');
@@ -0,0 +1,23 @@
+-- Append-only ticket journal: one deflated batch of events per committed transaction.
+-- seq is the replay offset, so the sequence hands out single values.
+create sequence ticket_journal_seq start with 1 increment by 1;
+
+create table ticket_journal (
+    seq         bigint       not null primary key,
+    recorded_at timestamp(6) not null,
+    event_count integer      not null,
+    payload     bytea        not null
+);
+
+create sequence ticket_journal_snapshots_seq start with 1 increment by 50;
+
+create table ticket_journal_snapshots (
+    id           bigint       not null primary key,
+    journal_seq  bigint       not null,
+    part         integer      not null,
+    ticket_count integer      not null,
+    created_at   timestamp(6) not null,
+    payload      bytea        not null
+);
+
+create index idx_ticket_journal_snapshots_seq on ticket_journal_snapshots (journal_seq, part);
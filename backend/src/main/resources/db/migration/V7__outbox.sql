@@ -0,0 +1,28 @@
+-- Transactional outbox drained by OutboxDispatcher, plus the messages handlers gave up on
+create sequence outbox_messages_seq start with 1 increment by 50;
+
+create table outbox_messages (
+    id              bigint        not null primary key,
+    payload         varchar(1000) not null,
+    created_at      timestamp(6)  not null,
+    next_attempt_at timestamp(6)  not null,
+    locked_until    timestamp(6),
+    attempts        integer       not null,
+    delivered_to    varchar(1000),
+    last_error      varchar(2000)
+);
+
+create index idx_outbox_messages_next_attempt on outbox_messages (next_attempt_at, id);
+
+create sequence outbox_dead_letters_seq start with 1 increment by 50;
+
+create table outbox_dead_letters (
+    id         bigint        not null primary key,
+    message_id bigint        not null,
+    handler    varchar(255)  not null,
+    payload    varchar(1000) not null,
+    attempts   integer       not null,
+    last_error varchar(2000),
+    created_at timestamp(6)  not null,
+    failed_at  timestamp(6)  not null
+);
@@ -0,0 +1,7 @@
+-- Row locked by every transaction that appends to ticket_changes or ticket_journal, from
+-- drawing its sequence values until it commits, so rows become visible in sequence order
+create table change_log_lock (
+    id integer not null primary key
+);
+
+insert into change_log_lock (id) values (1);
@@ -0,0 +1,131 @@
+package com.ticketsystem.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ticketsystem.dto.TicketRequest;
+import com.ticketsystem.dto.TicketResponse;
+import com.ticketsystem.entity.Priority;
+import com.ticketsystem.entity.Role;
+import com.ticketsystem.entity.User;
+import com.ticketsystem.repository.UserRepository;
+import com.ticketsystem.service.TicketService;
+import com.ticketsystem.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class TicketControllerTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private TicketService ticketService;
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    private User creator;
+    
+    private TicketResponse ticket;
+    
+    @BeforeEach
+    void setUp() {
+        String name = "etag" + UUID.randomUUID().toString().replace("-", "");
+        creator = new User();
+        creator.setUsername(name);
+        creator.setPassword("unused");
+        creator.setEmail(name + "@example.com");
+        creator.setFullName(name);
+        creator.setRole(Role.USER);
+        creator = userRepository.save(creator);
+        ticket = ticketService.createTicket(request("first", null), creator);
+    }
+    
+    @Test
+    void unchangedTicketIsNotModified() throws Exception {
+        String eTag = eTag();
+        
+        mockMvc.perform(asCreator(get("/api/tickets/{id}", ticket.getId())).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag));
+    }
+    
+    @Test
+    void changedCreatorInvalidatesTheETag() throws Exception {
+        String eTag = eTag();
+        
+        userService.updateUserRole(creator.getId(), Role.SUPPORT);
+        
+        mockMvc.perform(asCreator(get("/api/tickets/{id}", ticket.getId())).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.createdBy.role").value("SUPPORT"));
+        assertThat(eTag()).isNotEqualTo(eTag);
+    }
+    
+    @Test
+    void staleIfMatchIsRejected() throws Exception {
+        String eTag = eTag();
+        ticketService.updateTicket(ticket.getId(), request("second", null), creator, null);
+        
+        mockMvc.perform(asCreator(put("/api/tickets/{id}", ticket.getId())).header(HttpHeaders.IF_MATCH, eTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request("third", null))))
+                .andExpect(status().isPreconditionFailed());
+        
+        mockMvc.perform(asCreator(put("/api/tickets/{id}", ticket.getId())).header(HttpHeaders.IF_MATCH, eTag())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request("third", null))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("third"));
+    }
+    
+    @Test
+    void staleBodyVersionIsAConflict() throws Exception {
+        ticketService.updateTicket(ticket.getId(), request("second", null), creator, null);
+        
+        mockMvc.perform(asCreator(put("/api/tickets/{id}", ticket.getId()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request("third", ticket.getVersion()))))
+                .andExpect(status().isConflict());
+    }
+    
+    private String eTag() throws Exception {
+        String eTag = mockMvc.perform(asCreator(get("/api/tickets/{id}", ticket.getId())))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).isEqualTo(ticketService.getTicketETag(ticket.getId()));
+        return eTag;
+    }
+    
+    private MockHttpServletRequestBuilder asCreator(MockHttpServletRequestBuilder request) {
+        return request.with(user(creator));
+    }
+    
+    private TicketRequest request(String title, Long version) {
+        return new TicketRequest(title, title, Priority.MEDIUM, null, version);
+    }
+}
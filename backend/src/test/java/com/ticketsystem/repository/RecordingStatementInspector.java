@@ -0,0 +1,25 @@
+package com.ticketsystem.repository;
+
+import com.ticketsystem.metrics.SqlStatementCounter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Statement inspector for tests that need the SQL Hibernate generates for a repository call.
+ * Statements are kept per thread, so background jobs do not mix into a test's capture.
+ */
+public class RecordingStatementInspector extends SqlStatementCounter {
+    
+    private static final ThreadLocal<List<String>> STATEMENTS = ThreadLocal.withInitial(ArrayList::new);
+    
+    static List<String> statements() {
+        return STATEMENTS.get();
+    }
+    
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.get().add(sql);
+        return super.inspect(sql);
+    }
+}
@@ -0,0 +1,193 @@
+package com.ticketsystem.repository;
+
+import com.ticketsystem.entity.Comment;
+import com.ticketsystem.entity.Priority;
+import com.ticketsystem.entity.Role;
+import com.ticketsystem.entity.Ticket;
+import com.ticketsystem.entity.TicketStatus;
+import com.ticketsystem.entity.User;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs EXPLAIN for the SQL behind every repository query at a seeded volume and fails if
+ * the planner falls back to a table scan. Queries that aggregate or rewrite the whole table
+ * by design (stats counters, the full reindex scroll, the comment count reconciliation) are
+ * left out.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.ticketsystem.repository.RecordingStatementInspector")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RepositoryQueryPlanTest {
+    
+    private static final int TICKETS = 3000;
+    private static final int USERS = 50;
+    private static final String TABLE_SCAN = ".tableScan";
+    
+    @Autowired
+    private TicketRepository ticketRepository;
+    
+    @Autowired
+    private CommentRepository commentRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    private User user;
+    private Ticket ticket;
+    
+    @BeforeAll
+    void seed() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            User seeded = new User();
+            seeded.setUsername("plan-user-" + i);
+            seeded.setPassword("unused");
+            seeded.setEmail("plan-user-" + i + "@example.com");
+            seeded.setFullName("Plan User " + i);
+            seeded.setRole(i % 5 == 0 ? Role.SUPPORT : Role.USER);
+            users.add(seeded);
+        }
+        users = userRepository.saveAll(users);
+        
+        List<Ticket> tickets = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.now().minusDays(TICKETS);
+        for (int i = 0; i < TICKETS; i++) {
+            Ticket seeded = new Ticket();
+            seeded.setTitle("Plan ticket " + i);
+            seeded.setDescription("Seeded for query plans");
+            seeded.setStatus(TicketStatus.values()[i % TicketStatus.values().length]);
+            seeded.setPriority(Priority.values()[i % Priority.values().length]);
+            seeded.setCreatedBy(users.get(i % USERS));
+            seeded.setAssignedTo(i % 3 == 0 ? null : users.get((i * 7) % USERS));
+            seeded.setCreatedAt(start.plusDays(i));
+            seeded.setUpdatedAt(start.plusDays(i).plusHours(1));
+            tickets.add(seeded);
+        }
+        tickets = ticketRepository.saveAll(tickets);
+        
+        List<Comment> comments = new ArrayList<>();
+        for (int i = 0; i < TICKETS; i++) {
+            Comment comment = new Comment();
+            comment.setContent("Seeded comment");
+            comment.setTicket(tickets.get(i));
+            comment.setUser(users.get(i % USERS));
+            comment.setCreatedAt(tickets.get(i).getCreatedAt().plusMinutes(5));
+            comments.add(comment);
+        }
+        commentRepository.saveAll(comments);
+        jdbcTemplate.execute("ANALYZE");
+        
+        user = users.get(1);
+        ticket = tickets.get(TICKETS / 2);
+    }
+    
+    @TestFactory
+    Stream<DynamicTest> repositoryQueriesUseAnIndex() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cursor = now.minusDays(TICKETS / 2);
+        PageRequest page = PageRequest.of(0, 50);
+        
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("findById", () -> ticketRepository.findById(ticket.getId()));
+        queries.put("findByCreatedBy", () -> ticketRepository.findByCreatedBy(user));
+        queries.put("findByAssignedTo", () -> ticketRepository.findByAssignedTo(user));
+        queries.put("findByStatus", () -> ticketRepository.findByStatus(TicketStatus.OPEN));
+        queries.put("findByPriority", () -> ticketRepository.findByPriority(Priority.HIGH));
+        queries.put("findPageAfter", () -> ticketRepository.findPageAfter(cursor, 0L, page));
+        queries.put("findPageByCreatedByAfter",
+                () -> ticketRepository.findPageByCreatedByAfter(user.getId(), cursor, 0L, page));
+        queries.put("findPageByAssignedToAfter",
+                () -> ticketRepository.findPageByAssignedToAfter(user.getId(), cursor, 0L, page));
+        queries.put("findPageByFiltersAfter",
+                () -> ticketRepository.findPageByFiltersAfter(TicketStatus.OPEN, Priority.HIGH, cursor, 0L, page));
+        queries.put("streamByFilters", () -> {
+            try (Stream<Ticket> tickets = ticketRepository.streamByFilters(TicketStatus.OPEN, null)) {
+                tickets.findFirst();
+            }
+        });
+        queries.put("streamForExport", () -> {
+            try (Stream<Ticket> tickets = ticketRepository.streamForExport(null, null,
+                    cursor, now, null, null)) {
+                tickets.findFirst();
+            }
+        });
+        queries.put("findVersionById", () -> ticketRepository.findVersionById(ticket.getId()));
+        queries.put("findArchivable",
+                () -> ticketRepository.findArchivable(TicketStatus.CLOSED, cursor, page));
+        queries.put("findByTicketOrderByCreatedAtAsc",
+                () -> commentRepository.findByTicketOrderByCreatedAtAsc(ticket));
+        queries.put("findByTicketIds", () -> commentRepository.findByTicketIds(List.of(ticket.getId())));
+        queries.put("findThreadVersion", () -> commentRepository.findThreadVersion(ticket.getId()));
+        
+        return queries.entrySet().stream().map(query -> DynamicTest.dynamicTest(query.getKey(), () -> {
+            String sql = capture(query.getValue());
+            String plan = explain(sql);
+            assertThat(plan).as("Plan for %s:%n%s", query.getKey(), plan).doesNotContain(TABLE_SCAN);
+        }));
+    }
+    
+    /**
+     * Runs the repository call and returns the select it issued last.
+     */
+    private String capture(Runnable call) {
+        List<String> statements = RecordingStatementInspector.statements();
+        statements.clear();
+        transactionTemplate.executeWithoutResult(status -> call.run());
+        for (int i = statements.size() - 1; i >= 0; i--) {
+            if (statements.get(i).trim().toLowerCase(Locale.ROOT).startsWith("select")) {
+                return statements.get(i);
+            }
+        }
+        throw new AssertionError("No select was issued, statements: " + statements);
+    }
+    
+    /**
+     * H2 plans parameterized statements without their values, so binding nulls yields the
+     * same plan the real call used.
+     */
+    private String explain(String sql) {
+        return jdbcTemplate.execute((Connection connection) -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                int parameters = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameters; i++) {
+                    statement.setNull(i, Types.NULL);
+                }
+                try (ResultSet result = statement.executeQuery()) {
+                    StringBuilder plan = new StringBuilder();
+                    while (result.next()) {
+                        plan.append(result.getString(1)).append('\n');
+                    }
+                    return plan.toString();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,114 @@
+package com.ticketsystem.security;
+
+import com.ticketsystem.entity.Role;
+import com.ticketsystem.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ApiRateLimiterTest {
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    
+    @Test
+    void admitsTheBurstThenRejectsWithTheWaitForTheNextToken() {
+        ApiRateLimiter limiter = limiter(true, 1, 5, 1000, 1000);
+        User user = user(1L);
+        
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire(user)).as("request %d", i).isZero();
+        }
+        long wait = limiter.tryAcquire(user);
+        
+        assertThat(wait).isPositive().isLessThanOrEqualTo(TimeUnit.SECONDS.toNanos(1));
+        assertThat(rejected("user")).isEqualTo(1);
+    }
+    
+    @Test
+    void rejectedRequestIsAdmittedAfterTheReturnedWait() throws InterruptedException {
+        ApiRateLimiter limiter = limiter(true, 20, 2, 1000, 1000);
+        User user = user(1L);
+        limiter.tryAcquire(user);
+        limiter.tryAcquire(user);
+        
+        long wait = limiter.tryAcquire(user);
+        assertThat(wait).isPositive();
+        TimeUnit.NANOSECONDS.sleep(wait + TimeUnit.MILLISECONDS.toNanos(5));
+        
+        assertThat(limiter.tryAcquire(user)).isZero();
+    }
+    
+    @Test
+    void usersHaveSeparateBuckets() {
+        ApiRateLimiter limiter = limiter(true, 1, 1, 1000, 1000);
+        
+        assertThat(limiter.tryAcquire(user(1L))).isZero();
+        assertThat(limiter.tryAcquire(user(1L))).isPositive();
+        
+        assertThat(limiter.tryAcquire(user(2L))).isZero();
+    }
+    
+    @Test
+    void roleBucketCapsAllUsersOfTheRoleTogether() {
+        int burst = 4;
+        ApiRateLimiter limiter = limiter(true, 1000, 1000, 0.01, burst);
+        int stripes = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1);
+        
+        int admitted = 0;
+        for (long id = 1; id <= 200; id++) {
+            if (limiter.tryAcquire(user(id)) == 0) {
+                admitted++;
+            }
+        }
+        
+        // Each stripe holds an equal share of the burst, but at least one request
+        assertThat(admitted).isPositive().isLessThanOrEqualTo(Math.max(burst, stripes));
+        assertThat(rejected("role")).isEqualTo(200 - admitted);
+    }
+    
+    @Test
+    void disabledLimiterAdmitsEverything() {
+        ApiRateLimiter limiter = limiter(false, 1, 1, 1, 1);
+        User user = user(1L);
+        
+        for (int i = 0; i < 50; i++) {
+            assertThat(limiter.tryAcquire(user)).isZero();
+        }
+    }
+    
+    private ApiRateLimiter limiter(boolean enabled, double userRate, int userBurst, double roleRate, int roleBurst) {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("app.ratelimit.user.user.rate-per-second", String.valueOf(userRate))
+                .withProperty("app.ratelimit.user.user.burst", String.valueOf(userBurst))
+                .withProperty("app.ratelimit.role.user.rate-per-second", String.valueOf(roleRate))
+                .withProperty("app.ratelimit.role.user.burst", String.valueOf(roleBurst));
+        ApiRateLimiter limiter = new ApiRateLimiter();
+        ReflectionTestUtils.setField(limiter, "enabled", enabled);
+        ReflectionTestUtils.setField(limiter, "maxTrackedUsers", 1000L);
+        ReflectionTestUtils.setField(limiter, "environment", environment);
+        ReflectionTestUtils.setField(limiter, "meterRegistry", meterRegistry);
+        limiter.init();
+        return limiter;
+    }
+    
+    private double rejected(String scope) {
+        return meterRegistry.get("ticketsystem.ratelimit.rejected")
+                .tag("role", Role.USER.name())
+                .tag("scope", scope)
+                .counter()
+                .count();
+    }
+    
+    private User user(Long id) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername("user" + id);
+        user.setRole(Role.USER);
+        return user;
+    }
+}
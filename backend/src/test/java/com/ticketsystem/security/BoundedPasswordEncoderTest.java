@@ -0,0 +1,107 @@
+package com.ticketsystem.security;
+
+import com.ticketsystem.exception.GlobalExceptionHandler;
+import com.ticketsystem.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedPasswordEncoderTest {
+    
+    private PasswordHashingExecutor executor;
+    private BoundedPasswordEncoder encoder;
+    
+    @BeforeEach
+    void setUp() {
+        executor = new PasswordHashingExecutor();
+        ReflectionTestUtils.setField(executor, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(executor, "threads", 1);
+        ReflectionTestUtils.setField(executor, "queueCapacity", 1);
+        ReflectionTestUtils.setField(executor, "timeoutMs", 5000L);
+        executor.init();
+        encoder = new BoundedPasswordEncoder(4, executor);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+    
+    @Test
+    void hashesAndMatchesOnThePool() {
+        String hash = encoder.encode("secret");
+        
+        assertThat(encoder.matches("secret", hash)).isTrue();
+        assertThat(encoder.matches("wrong", hash)).isFalse();
+    }
+    
+    @Test
+    void saturatedPoolRejectsWith429() throws InterruptedException {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread busy = new Thread(() -> executor.execute(() -> {
+            running.countDown();
+            await(release);
+            return null;
+        }));
+        Thread queued = new Thread(() -> executor.execute(() -> null));
+        busy.start();
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+        queued.start();
+        ThreadPoolExecutor pool = (ThreadPoolExecutor) ReflectionTestUtils.getField(executor, "executor");
+        while (pool.getQueue().isEmpty()) {
+            Thread.sleep(5);
+        }
+        
+        try {
+            assertThatThrownBy(() -> encoder.encode("secret"))
+                    .isInstanceOfSatisfying(TooManyRequestsException.class, ex -> {
+                        ResponseEntity<Map<String, Object>> response =
+                                new GlobalExceptionHandler().handleTooManyRequestsException(ex);
+                        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+                        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+                    });
+        } finally {
+            release.countDown();
+            busy.join(5000);
+            queued.join(5000);
+        }
+    }
+    
+    @Test
+    void hashOfAnotherCostNeedsAnUpgrade() {
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(5).encode("secret"))).isTrue();
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("secret"))).isFalse();
+        assertThat(encoder.upgradeEncoding(encoder.encode("secret"))).isFalse();
+    }
+    
+    @Test
+    void unreadableHashIsLeftAlone() {
+        assertThat(encoder.upgradeEncoding(null)).isFalse();
+        assertThat(encoder.upgradeEncoding("")).isFalse();
+        assertThat(encoder.upgradeEncoding("plaintext")).isFalse();
+        assertThat(encoder.upgradeEncoding("$2a$xx$abcdefghijklmnopqrstuv")).isFalse();
+    }
+    
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.ticketsystem.security;
+
+import com.ticketsystem.entity.Role;
+import com.ticketsystem.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtPrincipalCacheTest {
+    
+    private final Date expiration = new Date(System.currentTimeMillis() + 3_600_000);
+    
+    private JwtPrincipalCache cache;
+    
+    @BeforeEach
+    void setUp() {
+        cache = new JwtPrincipalCache();
+        ReflectionTestUtils.setField(cache, "maxSize", 100L);
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 300L);
+        ReflectionTestUtils.setField(cache, "meterRegistry", new SimpleMeterRegistry());
+        cache.init();
+    }
+    
+    @Test
+    void evictionRemovesCachedPrincipals() {
+        cache.put("token", user(1L, Role.ADMIN), expiration, cache.currentGeneration());
+        
+        cache.evictUser(1L);
+        
+        assertThat(cache.get("token")).isNull();
+    }
+    
+    @Test
+    void principalLoadedBeforeEvictionIsNotServedWhenStoredAfterIt() {
+        long generation = cache.currentGeneration();
+        User loadedBeforeRoleChange = user(1L, Role.ADMIN);
+        
+        cache.evictUser(1L);
+        cache.put("token", loadedBeforeRoleChange, expiration, generation);
+        
+        assertThat(cache.get("token")).isNull();
+    }
+    
+    @Test
+    void principalLoadedAfterEvictionIsServed() {
+        cache.evictUser(1L);
+        User reloaded = user(1L, Role.USER);
+        cache.put("token", reloaded, expiration, cache.currentGeneration());
+        
+        assertThat(cache.get("token")).isSameAs(reloaded);
+    }
+    
+    @Test
+    void evictingOneUserKeepsOthers() {
+        long generation = cache.currentGeneration();
+        User other = user(2L, Role.USER);
+        cache.put("other", other, expiration, generation);
+        
+        cache.evictUser(1L);
+        
+        assertThat(cache.get("other")).isSameAs(other);
+    }
+    
+    private User user(Long id, Role role) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername("user" + id);
+        user.setRole(role);
+        return user;
+    }
+}
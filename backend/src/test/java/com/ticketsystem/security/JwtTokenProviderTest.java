@@ -0,0 +1,61 @@
+package com.ticketsystem.security;
+
+import com.ticketsystem.entity.Role;
+import com.ticketsystem.entity.User;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtTokenProviderTest {
+    
+    private JwtTokenProvider tokenProvider;
+    private User user;
+    
+    @BeforeEach
+    void setUp() {
+        tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret",
+                "testSecretKeyForJWTTokenGenerationAndValidationPurposes123456789012345678901234");
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpirationMs", 86_400_000L);
+        ReflectionTestUtils.setField(tokenProvider, "streamExpirationMs", 60_000L);
+        tokenProvider.init();
+        
+        user = new User();
+        user.setId(7L);
+        user.setUsername("alice");
+        user.setRole(Role.USER);
+    }
+    
+    @Test
+    void loginTokensAreNotStreamTokens() {
+        String token = tokenProvider.generateToken(new UsernamePasswordAuthenticationToken(user, null));
+        
+        Claims claims = tokenProvider.parseToken(token).orElseThrow();
+        
+        assertThat(claims.getSubject()).isEqualTo("alice");
+        assertThat(tokenProvider.isStreamToken(claims)).isFalse();
+    }
+    
+    @Test
+    void streamTokensAreScopedAndShortLived() {
+        long before = System.currentTimeMillis();
+        
+        Claims claims = tokenProvider.parseToken(tokenProvider.generateStreamToken(user)).orElseThrow();
+        
+        assertThat(claims.getSubject()).isEqualTo("alice");
+        assertThat(tokenProvider.isStreamToken(claims)).isTrue();
+        assertThat(claims.getExpiration().getTime()).isBetween(before + 59_000, before + 61_000);
+    }
+    
+    @Test
+    void tamperedTokensAreRejected() {
+        String token = tokenProvider.generateStreamToken(user);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+        
+        assertThat(tokenProvider.parseToken(tampered)).isEmpty();
+    }
+}
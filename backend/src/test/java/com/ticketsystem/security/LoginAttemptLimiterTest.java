@@ -0,0 +1,72 @@
+package com.ticketsystem.security;
+
+import com.ticketsystem.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoginAttemptLimiterTest {
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    
+    private LoginAttemptLimiter limiter;
+    
+    @BeforeEach
+    void setUp() {
+        limiter = new LoginAttemptLimiter();
+        ReflectionTestUtils.setField(limiter, "maxFailuresPerUser", 3);
+        ReflectionTestUtils.setField(limiter, "maxFailuresPerIp", 5);
+        ReflectionTestUtils.setField(limiter, "windowSeconds", 900L);
+        ReflectionTestUtils.setField(limiter, "maxTrackedKeys", 1000L);
+        ReflectionTestUtils.setField(limiter, "meterRegistry", meterRegistry);
+        limiter.init();
+    }
+    
+    @Test
+    void usernameIsLockedAfterTooManyFailuresFromAnyAddress() {
+        limiter.recordFailure("alice", "10.0.0.1");
+        limiter.recordFailure("alice", "10.0.0.2");
+        limiter.recordFailure(" Alice ", "10.0.0.3");
+        
+        assertThatThrownBy(() -> limiter.checkAllowed("ALICE", "10.0.0.4"))
+                .isInstanceOf(TooManyRequestsException.class)
+                .satisfies(ex -> assertThat(((TooManyRequestsException) ex).getRetryAfterSeconds()).isEqualTo(900));
+        assertThatCode(() -> limiter.checkAllowed("bob", "10.0.0.4")).doesNotThrowAnyException();
+        assertThat(throttled("username")).isEqualTo(1);
+    }
+    
+    @Test
+    void addressIsLockedAfterTooManyFailuresAcrossUsernames() {
+        for (int i = 0; i < 5; i++) {
+            limiter.recordFailure("user" + i, "10.0.0.1");
+        }
+        
+        assertThatThrownBy(() -> limiter.checkAllowed("someone-else", "10.0.0.1"))
+                .isInstanceOf(TooManyRequestsException.class);
+        assertThatCode(() -> limiter.checkAllowed("someone-else", "10.0.0.2")).doesNotThrowAnyException();
+        assertThat(throttled("ip")).isEqualTo(1);
+    }
+    
+    @Test
+    void successfulLoginClearsTheUsernameButNotTheAddress() {
+        limiter.recordFailure("alice", "10.0.0.1");
+        limiter.recordFailure("alice", "10.0.0.1");
+        limiter.recordSuccess("alice");
+        limiter.recordFailure("alice", "10.0.0.1");
+        limiter.recordFailure("alice", "10.0.0.1");
+        
+        assertThatCode(() -> limiter.checkAllowed("alice", "10.0.0.2")).doesNotThrowAnyException();
+        limiter.recordFailure("alice", "10.0.0.1");
+        assertThatThrownBy(() -> limiter.checkAllowed("bob", "10.0.0.1"))
+                .isInstanceOf(TooManyRequestsException.class);
+    }
+    
+    private double throttled(String reason) {
+        return meterRegistry.counter("ticketsystem.auth.login.throttled", "reason", reason).count();
+    }
+}
@@ -0,0 +1,171 @@
+package com.ticketsystem.security;
+
+import com.ticketsystem.security.RequestScheduler.Admission;
+import com.ticketsystem.security.RequestScheduler.TrafficClass;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestSchedulerTest {
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RequestScheduler scheduler;
+    
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+    
+    @Test
+    void runsUpToTheClassLimitThenQueues() throws Exception {
+        scheduler = scheduler(40, new MockEnvironment()
+                .withProperty("app.scheduler.user-read.max-concurrent", "2"));
+        assertThat(scheduler.admit(TrafficClass.USER_READ, new RecordingWaiter())).isEqualTo(Admission.RUN);
+        assertThat(scheduler.admit(TrafficClass.USER_READ, new RecordingWaiter())).isEqualTo(Admission.RUN);
+        
+        RecordingWaiter waiter = new RecordingWaiter();
+        assertThat(scheduler.admit(TrafficClass.USER_READ, waiter)).isEqualTo(Admission.QUEUED);
+        assertThat(queued(TrafficClass.USER_READ)).isEqualTo(1);
+        assertThat(waiter.outcome.getCount()).isEqualTo(1);
+        
+        scheduler.release(TrafficClass.USER_READ);
+        assertThat(waiter.await()).isEqualTo("granted");
+        assertThat(running(TrafficClass.USER_READ)).isEqualTo(2);
+    }
+    
+    @Test
+    void shedsWhenTheQueueIsFull() {
+        scheduler = scheduler(40, new MockEnvironment()
+                .withProperty("app.scheduler.user-write.max-concurrent", "1")
+                .withProperty("app.scheduler.user-write.queue-capacity", "0"));
+        assertThat(scheduler.admit(TrafficClass.USER_WRITE, new RecordingWaiter())).isEqualTo(Admission.RUN);
+        
+        assertThat(scheduler.admit(TrafficClass.USER_WRITE, new RecordingWaiter())).isEqualTo(Admission.SHED);
+        
+        assertThat(shed(TrafficClass.USER_WRITE, "queue_full")).isEqualTo(1);
+        assertThat(running(TrafficClass.USER_WRITE)).isEqualTo(1);
+    }
+    
+    @Test
+    void shedsAfterTheMaximumWait() throws Exception {
+        scheduler = scheduler(40, new MockEnvironment()
+                .withProperty("app.scheduler.user-read.max-concurrent", "1")
+                .withProperty("app.scheduler.user-read.max-wait-ms", "50"));
+        assertThat(scheduler.admit(TrafficClass.USER_READ, new RecordingWaiter())).isEqualTo(Admission.RUN);
+        
+        RecordingWaiter waiter = new RecordingWaiter();
+        assertThat(scheduler.admit(TrafficClass.USER_READ, waiter)).isEqualTo(Admission.QUEUED);
+        assertThat(waiter.await()).isEqualTo("timedOut");
+        
+        assertThat(shed(TrafficClass.USER_READ, "timeout")).isEqualTo(1);
+        assertThat(queued(TrafficClass.USER_READ)).isZero();
+        scheduler.release(TrafficClass.USER_READ);
+        assertThat(scheduler.admit(TrafficClass.USER_READ, new RecordingWaiter())).isEqualTo(Admission.RUN);
+    }
+    
+    @Test
+    void withdrawnWaiterLeavesNoSlotBehind() {
+        scheduler = scheduler(1, new MockEnvironment());
+        assertThat(scheduler.admit(TrafficClass.STAFF_READ, new RecordingWaiter())).isEqualTo(Admission.RUN);
+        RecordingWaiter waiter = new RecordingWaiter();
+        assertThat(scheduler.admit(TrafficClass.USER_READ, waiter)).isEqualTo(Admission.QUEUED);
+        
+        assertThat(scheduler.withdraw(TrafficClass.USER_READ, waiter)).isTrue();
+        scheduler.release(TrafficClass.STAFF_READ);
+        
+        assertThat(waiter.outcome.getCount()).isEqualTo(1);
+        assertThat(running(TrafficClass.USER_READ)).isZero();
+        assertThat(scheduler.withdraw(TrafficClass.USER_READ, waiter)).isFalse();
+        assertThat(scheduler.admit(TrafficClass.STAFF_READ, new RecordingWaiter())).isEqualTo(Admission.RUN);
+    }
+    
+    /**
+     * With a single slot, every release hands it to exactly one waiter, so the grant order
+     * shows the weights: staff reads (4) get four slots for every user read (1).
+     */
+    @Test
+    void freedSlotsGoToClassesInProportionToTheirWeight() {
+        int waiters = 20;
+        scheduler = scheduler(1, new MockEnvironment()
+                .withProperty("app.scheduler.user-read.max-wait-ms", "10000"));
+        assertThat(scheduler.admit(TrafficClass.STAFF_READ, new RecordingWaiter())).isEqualTo(Admission.RUN);
+        
+        List<TrafficClass> grants = new ArrayList<>();
+        for (int i = 0; i < waiters; i++) {
+            for (TrafficClass trafficClass : List.of(TrafficClass.STAFF_READ, TrafficClass.USER_READ)) {
+                RequestScheduler.Waiter waiter = new RecordingWaiter() {
+                    @Override
+                    public void granted() {
+                        grants.add(trafficClass);
+                        scheduler.release(trafficClass);
+                    }
+                };
+                assertThat(scheduler.admit(trafficClass, waiter)).isEqualTo(Admission.QUEUED);
+            }
+        }
+        
+        scheduler.release(TrafficClass.STAFF_READ);
+        
+        assertThat(grants.subList(0, 10)).filteredOn(c -> c == TrafficClass.STAFF_READ).hasSize(8);
+        assertThat(grants).hasSize(2 * waiters);
+        assertThat(running(TrafficClass.STAFF_READ) + running(TrafficClass.USER_READ)).isZero();
+    }
+    
+    private RequestScheduler scheduler(int maxConcurrent, MockEnvironment environment) {
+        RequestScheduler scheduler = new RequestScheduler();
+        ReflectionTestUtils.setField(scheduler, "enabled", true);
+        ReflectionTestUtils.setField(scheduler, "maxConcurrent", maxConcurrent);
+        ReflectionTestUtils.setField(scheduler, "environment", environment);
+        ReflectionTestUtils.setField(scheduler, "meterRegistry", meterRegistry);
+        scheduler.init();
+        return scheduler;
+    }
+    
+    private double queued(TrafficClass trafficClass) {
+        return meterRegistry.get("ticketsystem.scheduler.queued").tag("class", trafficClass.name()).gauge().value();
+    }
+    
+    private double running(TrafficClass trafficClass) {
+        return meterRegistry.get("ticketsystem.scheduler.running").tag("class", trafficClass.name()).gauge().value();
+    }
+    
+    private double shed(TrafficClass trafficClass, String reason) {
+        return meterRegistry.get("ticketsystem.scheduler.shed")
+                .tag("class", trafficClass.name())
+                .tag("reason", reason)
+                .counter()
+                .count();
+    }
+    
+    private static class RecordingWaiter implements RequestScheduler.Waiter {
+        
+        private final CountDownLatch outcome = new CountDownLatch(1);
+        private volatile String result;
+        
+        @Override
+        public void granted() {
+            result = "granted";
+            outcome.countDown();
+        }
+        
+        @Override
+        public void timedOut() {
+            result = "timedOut";
+            outcome.countDown();
+        }
+        
+        private String await() throws InterruptedException {
+            assertThat(outcome.await(5, TimeUnit.SECONDS)).isTrue();
+            return result;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.ticketsystem.service;
+
+import com.ticketsystem.entity.Comment;
+import com.ticketsystem.entity.Priority;
+import com.ticketsystem.entity.Ticket;
+import com.ticketsystem.entity.TicketStatus;
+import com.ticketsystem.entity.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArchiveSegmentTest {
+    
+    private static final LocalDateTime CREATED = LocalDateTime.of(2023, 1, 9, 8, 15, 30, 250_000_000);
+    
+    @TempDir
+    Path directory;
+    
+    @Test
+    void ticketsAndCommentsRoundTrip() throws IOException {
+        Ticket first = ticket(10L, "Drucker im 2. OG", "Papierstau – seit Montag 🖨 日本語", 4L, 9L);
+        first.setUpdatedAt(CREATED.plusDays(3));
+        first.setFirstResponseAt(CREATED.plusHours(2));
+        first.setResolvedAt(CREATED.plusDays(2).withNano(0));
+        first.setCommentCount(2);
+        Ticket second = ticket(11L, "VPN", "Kein Zugang", 5L, null);
+        Ticket third = ticket(25L, "Ärger mit Outlook", "Öffnet nicht", 4L, 4L);
+        third.setCommentCount(1);
+        List<Comment> comments = List.of(
+                comment(101L, third, 5L, "Neustart hilft ✓", CREATED.plusMinutes(1)),
+                comment(102L, first, 9L, "Später", CREATED.plusMinutes(30)),
+                comment(100L, first, 4L, "Erste Antwort", CREATED.plusMinutes(5)));
+        
+        ArchiveSegment written = ArchiveSegment.write(directory, List.of(first, second, third), comments);
+        ArchiveSegment.Rows rows = ArchiveSegment.open(written.getPath()).load();
+        
+        assertThat(rows.size()).isEqualTo(3);
+        assertThat(rows.indexOf(11L)).isEqualTo(1);
+        assertThat(rows.indexOf(12L)).isNegative();
+        
+        Ticket loaded = rows.toTicket(0);
+        assertSameTicket(loaded, first);
+        assertThat(loaded.getComments()).extracting(Comment::getId).containsExactly(100L, 102L);
+        assertThat(loaded.getComments()).extracting(Comment::getContent).containsExactly("Erste Antwort", "Später");
+        assertThat(loaded.getComments().get(0).getUser().getId()).isEqualTo(4L);
+        assertThat(loaded.getComments().get(1).getCreatedAt()).isEqualTo(CREATED.plusMinutes(30));
+        
+        Ticket withoutComments = rows.toTicket(1);
+        assertSameTicket(withoutComments, second);
+        assertThat(withoutComments.getAssignedTo()).isNull();
+        assertThat(withoutComments.getUpdatedAt()).isNull();
+        assertThat(withoutComments.getFirstResponseAt()).isNull();
+        assertThat(withoutComments.getComments()).isEmpty();
+        
+        Ticket last = rows.toTicket(2);
+        assertSameTicket(last, third);
+        assertThat(last.getComments()).extracting(Comment::getContent).containsExactly("Neustart hilft ✓");
+    }
+    
+    @Test
+    void headerCarriesTheIdRange() throws IOException {
+        ArchiveSegment written = ArchiveSegment.write(directory,
+                List.of(ticket(3L, "a", "b", 1L, null), ticket(70L, "c", "d", 1L, null)), List.of());
+        
+        ArchiveSegment opened = ArchiveSegment.open(written.getPath());
+        
+        assertThat(opened.getRowCount()).isEqualTo(2);
+        assertThat(opened.getMinId()).isEqualTo(3L);
+        assertThat(opened.getMaxId()).isEqualTo(70L);
+        assertThat(opened.mayContain(50L)).isTrue();
+        assertThat(opened.mayContain(71L)).isFalse();
+    }
+    
+    @Test
+    void segmentStaysPendingUntilPublished() throws IOException {
+        ArchiveSegment segment = ArchiveSegment.write(directory, List.of(ticket(1L, "a", "b", 1L, null)), List.of());
+        Path pending = segment.getPath();
+        assertThat(segment.isPending()).isTrue();
+        
+        segment.publish();
+        
+        assertThat(segment.isPending()).isFalse();
+        assertThat(segment.getPath().getFileName().toString()).endsWith(ArchiveSegment.EXTENSION);
+        assertThat(Files.exists(pending)).isFalse();
+        assertThat(segment.load().toTicket(0).getTitle()).isEqualTo("a");
+        try (var files = Files.list(directory)) {
+            assertThat(files).containsExactly(segment.getPath());
+        }
+    }
+    
+    private void assertSameTicket(Ticket actual, Ticket expected) {
+        assertThat(actual.getId()).isEqualTo(expected.getId());
+        assertThat(actual.getTitle()).isEqualTo(expected.getTitle());
+        assertThat(actual.getDescription()).isEqualTo(expected.getDescription());
+        assertThat(actual.getStatus()).isEqualTo(expected.getStatus());
+        assertThat(actual.getPriority()).isEqualTo(expected.getPriority());
+        assertThat(actual.getCreatedBy().getId()).isEqualTo(expected.getCreatedBy().getId());
+        assertThat(actual.getAssignedTo() != null ? actual.getAssignedTo().getId() : null)
+                .isEqualTo(expected.getAssignedTo() != null ? expected.getAssignedTo().getId() : null);
+        assertThat(actual.getCreatedAt()).isEqualTo(expected.getCreatedAt());
+        assertThat(actual.getUpdatedAt()).isEqualTo(expected.getUpdatedAt());
+        assertThat(actual.getFirstResponseAt()).isEqualTo(expected.getFirstResponseAt());
+        assertThat(actual.getResolvedAt()).isEqualTo(expected.getResolvedAt());
+        assertThat(actual.getVersion()).isEqualTo(expected.getVersion());
+        assertThat(actual.getCommentCount()).isEqualTo(expected.getCommentCount());
+    }
+    
+    private Ticket ticket(Long id, String title, String description, Long createdBy, Long assignedTo) {
+        Ticket ticket = new Ticket();
+        ticket.setId(id);
+        ticket.setTitle(title);
+        ticket.setDescription(description);
+        ticket.setStatus(TicketStatus.CLOSED);
+        ticket.setPriority(id % 2 == 0 ? Priority.HIGH : Priority.LOW);
+        ticket.setCreatedBy(user(createdBy));
+        ticket.setAssignedTo(assignedTo != null ? user(assignedTo) : null);
+        ticket.setCreatedAt(CREATED.plusDays(id));
+        ticket.setVersion(id * 3);
+        return ticket;
+    }
+    
+    private Comment comment(Long id, Ticket ticket, Long userId, String content, LocalDateTime createdAt) {
+        Comment comment = new Comment();
+        comment.setId(id);
+        comment.setTicket(ticket);
+        comment.setUser(user(userId));
+        comment.setContent(content);
+        comment.setCreatedAt(createdAt);
+        comment.setVersion(0L);
+        return comment;
+    }
+    
+    private User user(Long id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+}
@@ -0,0 +1,164 @@
+package com.ticketsystem.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BackupFileTest {
+    
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 2, 29, 23, 59, 59, 999_999_999);
+    
+    @TempDir
+    Path directory;
+    
+    @Test
+    void recordsRoundTripAcrossChunks() throws IOException {
+        Path file = directory.resolve("backup" + BackupFile.EXTENSION);
+        int tickets = 20_000;
+        String description = "Beschreibung mit Umlauten äöü, Emoji 🎫 und 日本語 ".repeat(4);
+        try (BackupFile.Writer writer = new BackupFile.Writer(file)) {
+            writer.write(BackupFile.Section.USERS, out -> {
+                out.writeLong(1L);
+                BackupFile.writeString(out, "jürgen");
+                BackupFile.writeString(out, null);
+            });
+            for (long id = 1; id <= tickets; id++) {
+                long ticketId = id;
+                writer.write(BackupFile.Section.TICKETS, out -> {
+                    out.writeLong(ticketId);
+                    BackupFile.writeString(out, description + ticketId);
+                    BackupFile.writeLong(out, ticketId % 3 == 0 ? null : ticketId * 7);
+                    BackupFile.writeTime(out, ticketId % 5 == 0 ? null : CREATED.plusSeconds(ticketId));
+                });
+            }
+            writer.finish();
+            assertThat(writer.getBytesWritten()).isEqualTo(Files.size(file));
+        }
+        
+        List<BackupFile.Section> sections = new ArrayList<>();
+        int ticketChunks = 0;
+        long ticketsRead = 0;
+        try (BackupFile.Reader reader = new BackupFile.Reader(file)) {
+            BackupFile.Chunk chunk;
+            while ((chunk = reader.next()) != null) {
+                sections.add(chunk.getSection());
+                if (chunk.getSection() == BackupFile.Section.USERS) {
+                    assertThat(chunk.next()).isTrue();
+                    ByteBuffer in = chunk.record();
+                    assertThat(in.getLong()).isEqualTo(1L);
+                    assertThat(BackupFile.readString(in)).isEqualTo("jürgen");
+                    assertThat(BackupFile.readString(in)).isNull();
+                    assertThat(chunk.next()).isFalse();
+                    continue;
+                }
+                ticketChunks++;
+                while (chunk.next()) {
+                    ByteBuffer in = chunk.record();
+                    long id = in.getLong();
+                    assertThat(id).isEqualTo(++ticketsRead);
+                    assertThat(BackupFile.readString(in)).isEqualTo(description + id);
+                    assertThat(BackupFile.readLong(in)).isEqualTo(id % 3 == 0 ? null : id * 7);
+                    assertThat(BackupFile.readTime(in)).isEqualTo(id % 5 == 0 ? null : CREATED.plusSeconds(id));
+                }
+            }
+            assertThat(reader.next()).isNull();
+        }
+        
+        assertThat(ticketsRead).isEqualTo(tickets);
+        assertThat(ticketChunks).isGreaterThan(1);
+        assertThat(sections.get(0)).isEqualTo(BackupFile.Section.USERS);
+        assertThat(sections.subList(1, sections.size())).containsOnly(BackupFile.Section.TICKETS);
+    }
+    
+    @Test
+    void readerSkipsFieldsItDoesNotKnow() throws IOException {
+        Path file = directory.resolve("newer" + BackupFile.EXTENSION);
+        try (BackupFile.Writer writer = new BackupFile.Writer(file)) {
+            for (long id = 1; id <= 2; id++) {
+                long commentId = id;
+                writer.write(BackupFile.Section.COMMENTS, out -> {
+                    out.writeLong(commentId);
+                    BackupFile.writeString(out, "field added by a later version");
+                });
+            }
+            writer.finish();
+        }
+        
+        try (BackupFile.Reader reader = new BackupFile.Reader(file)) {
+            BackupFile.Chunk chunk = reader.next();
+            assertThat(chunk.next()).isTrue();
+            assertThat(chunk.record().getLong()).isEqualTo(1L);
+            assertThat(chunk.next()).isTrue();
+            assertThat(chunk.record().getLong()).isEqualTo(2L);
+            assertThat(chunk.next()).isFalse();
+        }
+    }
+    
+    @Test
+    void truncatedFileIsDetected() throws IOException {
+        Path file = writeSmallBackup("full");
+        byte[] bytes = Files.readAllBytes(file);
+        Path truncated = directory.resolve("truncated" + BackupFile.EXTENSION);
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 10));
+        
+        assertThatThrownBy(() -> readAll(truncated)).isInstanceOf(IOException.class);
+    }
+    
+    @Test
+    void corruptedChunkIsDetected() throws IOException {
+        Path file = writeSmallBackup("corrupt");
+        byte[] bytes = Files.readAllBytes(file);
+        // Inside the first chunk's compressed data, past the file and chunk headers
+        bytes[4 + 1 + 8 + 21 + 3] ^= 0x5A;
+        Files.write(file, bytes);
+        
+        assertThatThrownBy(() -> readAll(file)).isInstanceOf(IOException.class);
+    }
+    
+    @Test
+    void otherFilesAreRejected() throws IOException {
+        Path file = directory.resolve("notes.txt");
+        Files.writeString(file, "not a backup, just some text");
+        
+        assertThatThrownBy(() -> new BackupFile.Reader(file))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Not a ticket backup");
+    }
+    
+    private Path writeSmallBackup(String name) throws IOException {
+        Path file = directory.resolve(name + BackupFile.EXTENSION);
+        try (BackupFile.Writer writer = new BackupFile.Writer(file)) {
+            for (long id = 1; id <= 100; id++) {
+                long ticketId = id;
+                writer.write(BackupFile.Section.TICKETS, out -> {
+                    out.writeLong(ticketId);
+                    BackupFile.writeString(out, "Ticket " + ticketId);
+                });
+            }
+            writer.finish();
+        }
+        return file;
+    }
+    
+    private void readAll(Path file) throws IOException {
+        try (BackupFile.Reader reader = new BackupFile.Reader(file)) {
+            BackupFile.Chunk chunk;
+            while ((chunk = reader.next()) != null) {
+                while (chunk.next()) {
+                    chunk.record().getLong();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.ticketsystem.service;
+
+import com.ticketsystem.dto.CommentRequest;
+import com.ticketsystem.dto.CommentResponse;
+import com.ticketsystem.entity.Priority;
+import com.ticketsystem.entity.Role;
+import com.ticketsystem.entity.Ticket;
+import com.ticketsystem.entity.TicketStatus;
+import com.ticketsystem.entity.User;
+import com.ticketsystem.repository.TicketRepository;
+import com.ticketsystem.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class CommentServiceTest {
+    
+    @Autowired
+    private CommentService commentService;
+    
+    @Autowired
+    private CommentCountReconciler reconciler;
+    
+    @Autowired
+    private TicketRepository ticketRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    private User author;
+    
+    private Ticket ticket;
+    
+    @BeforeEach
+    void setUp() {
+        String name = "comment" + UUID.randomUUID().toString().replace("-", "");
+        author = new User();
+        author.setUsername(name);
+        author.setPassword("unused");
+        author.setEmail(name + "@example.com");
+        author.setFullName(name);
+        author.setRole(Role.USER);
+        author = userRepository.save(author);
+        
+        ticket = new Ticket();
+        ticket.setTitle(name);
+        ticket.setDescription(name);
+        ticket.setStatus(TicketStatus.OPEN);
+        ticket.setPriority(Priority.LOW);
+        ticket.setCreatedBy(author);
+        ticket.setCreatedAt(LocalDateTime.now());
+        ticket.setUpdatedAt(LocalDateTime.now());
+        ticket = ticketRepository.save(ticket);
+    }
+    
+    @Test
+    void addAndDeleteKeepTheCountAndETagInStep() {
+        String emptyETag = commentService.getCommentsETag(ticket.getId());
+        CommentResponse first = commentService.addComment(ticket.getId(), new CommentRequest("first"), author);
+        commentService.addComment(ticket.getId(), new CommentRequest("second"), author);
+        assertThat(commentCount()).isEqualTo(2);
+        String twoETag = commentService.getCommentsETag(ticket.getId());
+        
+        commentService.deleteComment(first.getId());
+        
+        assertThat(commentCount()).isEqualTo(1);
+        assertThat(commentService.getCommentsByTicket(ticket.getId())).extracting(CommentResponse::getContent)
+                .containsExactly("second");
+        assertThat(commentService.getCommentsETag(ticket.getId())).isNotIn(emptyETag, twoETag);
+    }
+    
+    @Test
+    void concurrentAddsAreAllCounted() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<CommentResponse>> adds = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                String content = "comment " + i;
+                adds.add(executor.submit(() -> commentService.addComment(ticket.getId(), new CommentRequest(content), author)));
+            }
+            for (Future<CommentResponse> add : adds) {
+                add.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        
+        assertThat(commentCount()).isEqualTo(20);
+        assertThat(commentService.getCommentsByTicket(ticket.getId())).hasSize(20);
+    }
+    
+    @Test
+    void reconcilerRepairsDrift() {
+        commentService.addComment(ticket.getId(), new CommentRequest("only"), author);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                ticketRepository.adjustCommentCount(ticket.getId(), 5));
+        assertThat(commentCount()).isEqualTo(6);
+        
+        assertThat(reconciler.reconcile()).isPositive();
+        
+        assertThat(commentCount()).isEqualTo(1);
+        assertThat(reconciler.reconcile()).isZero();
+    }
+    
+    private int commentCount() {
+        return ticketRepository.findVersionById(ticket.getId()).orElseThrow().getCommentCount();
+    }
+}
@@ -0,0 +1,161 @@
+package com.ticketsystem.service;
+
+import com.ticketsystem.dto.JournalPageResponse;
+import com.ticketsystem.dto.TicketSyncResponse;
+import com.ticketsystem.entity.ChangeType;
+import com.ticketsystem.entity.TicketChange;
+import com.ticketsystem.event.CommentChangedEvent;
+import com.ticketsystem.event.JournalEvent;
+import com.ticketsystem.repository.TicketChangeRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The changes point at tickets that do not exist, so delta sync reports them as deleted,
+ * in sequence order.
+ */
+@SpringBootTest
+class CommitOrderTest {
+    
+    @Autowired
+    private CommitOrder commitOrder;
+    
+    @Autowired
+    private TicketChangeRepository ticketChangeRepository;
+    
+    @Autowired
+    private TicketService ticketService;
+    
+    @Autowired
+    private TicketJournal journal;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Test
+    void laterTransactionWaitsForAnEarlierOneThatCommitsSlowly() throws Exception {
+        String watermark = latestToken();
+        long slowTicket = -ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE);
+        long fastTicket = slowTicket - 1;
+        CountDownLatch appended = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        
+        Thread slow = new Thread(() -> inTransaction(() -> {
+            append(slowTicket);
+            appended.countDown();
+            await(commit);
+        }));
+        slow.start();
+        assertThat(appended.await(10, TimeUnit.SECONDS)).isTrue();
+        
+        Thread fast = new Thread(() -> inTransaction(() -> append(fastTicket)));
+        fast.start();
+        fast.join(300);
+        
+        // The fast transaction cannot commit past the open one, so there is nothing to read yet
+        assertThat(fast.isAlive()).isTrue();
+        assertThat(ticketService.getChanges(watermark, 10).getDeleted()).isEmpty();
+        
+        commit.countDown();
+        slow.join(10_000);
+        fast.join(10_000);
+        
+        assertThat(ticketService.getChanges(watermark, 10).getDeleted()).containsExactly(slowTicket, fastTicket);
+    }
+    
+    @Test
+    void journalBatchOfASlowCommitIsNotSkipped() throws Exception {
+        long offset = latestOffset();
+        long slowTicket = -ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE);
+        long fastTicket = slowTicket - 1;
+        CountDownLatch appended = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        
+        Thread slow = new Thread(() -> inTransaction(() -> {
+            commentAdded(slowTicket);
+            // Registered after the journal's own synchronization, so it runs once the batch is written
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    appended.countDown();
+                    await(commit);
+                }
+            });
+        }));
+        slow.start();
+        assertThat(appended.await(10, TimeUnit.SECONDS)).isTrue();
+        
+        Thread fast = new Thread(() -> inTransaction(() -> commentAdded(fastTicket)));
+        fast.start();
+        fast.join(300);
+        
+        assertThat(fast.isAlive()).isTrue();
+        assertThat(journal.read(offset, 10).getEvents()).isEmpty();
+        
+        commit.countDown();
+        slow.join(10_000);
+        fast.join(10_000);
+        
+        assertThat(journal.read(offset, 10).getEvents().stream().map(JournalEvent::getTicketId)
+                .collect(Collectors.toList())).containsExactly(slowTicket, fastTicket);
+    }
+    
+    private String latestToken() {
+        String token = null;
+        TicketSyncResponse page;
+        do {
+            page = ticketService.getChanges(token, 500);
+            token = page.getNextToken();
+        } while (page.isHasMore());
+        return token;
+    }
+    
+    private long latestOffset() {
+        long offset = 0;
+        JournalPageResponse page;
+        do {
+            page = journal.read(offset, 500);
+            offset = page.getNextOffset();
+        } while (page.isHasMore());
+        return offset;
+    }
+    
+    private void commentAdded(long ticketId) {
+        eventPublisher.publishEvent(new CommentChangedEvent(CommentChangedEvent.Type.ADDED,
+                ticketId, ticketId, null, null));
+    }
+    
+    private void append(long ticketId) {
+        commitOrder.append(() -> ticketChangeRepository.save(
+                new TicketChange(null, ticketId, ChangeType.UPDATED, LocalDateTime.now())));
+    }
+    
+    private void inTransaction(Runnable work) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> work.run());
+    }
+    
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
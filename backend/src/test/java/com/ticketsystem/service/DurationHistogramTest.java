@@ -0,0 +1,82 @@
+package com.ticketsystem.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DurationHistogramTest {
+    
+    @Test
+    void emptyHistogramReportsZero() {
+        DurationHistogram histogram = new DurationHistogram();
+        
+        assertThat(histogram.getCount()).isZero();
+        assertThat(histogram.getMean()).isZero();
+        assertThat(histogram.valueAtPercentile(95)).isZero();
+    }
+    
+    @Test
+    void smallValuesAreExact() {
+        DurationHistogram histogram = new DurationHistogram();
+        for (long seconds = 1; seconds <= 31; seconds++) {
+            histogram.record(seconds);
+        }
+        
+        assertThat(histogram.valueAtPercentile(50)).isEqualTo(16);
+        assertThat(histogram.valueAtPercentile(100)).isEqualTo(31);
+        assertThat(histogram.getMean()).isEqualTo(16.0);
+    }
+    
+    @Test
+    void largeValuesErrOnTheSlowSideByAtMostABucket() {
+        DurationHistogram histogram = new DurationHistogram();
+        for (long i = 1; i <= 1000; i++) {
+            histogram.record(i * 97);
+        }
+        
+        for (int percentile : new int[]{50, 90, 95, 99}) {
+            long exact = percentile * 10L * 97;
+            assertThat(histogram.valueAtPercentile(percentile))
+                    .as("p%d", percentile)
+                    .isBetween(exact, (long) (exact * 1.0625));
+        }
+    }
+    
+    @Test
+    void percentileIsCappedAtTheLargestValueSeen() {
+        DurationHistogram histogram = new DurationHistogram();
+        histogram.record(1000);
+        
+        assertThat(histogram.valueAtPercentile(50)).isEqualTo(1000);
+    }
+    
+    @Test
+    void outOfRangeValuesAreClamped() {
+        DurationHistogram histogram = new DurationHistogram();
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+        
+        assertThat(histogram.valueAtPercentile(50)).isZero();
+        assertThat(histogram.valueAtPercentile(100)).isEqualTo((1L << 32) - 1);
+    }
+    
+    @Test
+    void mergedHistogramMatchesOneFedAllSamples() {
+        DurationHistogram first = new DurationHistogram();
+        DurationHistogram second = new DurationHistogram();
+        DurationHistogram all = new DurationHistogram();
+        for (long i = 0; i < 500; i++) {
+            long seconds = i * i;
+            (i % 2 == 0 ? first : second).record(seconds);
+            all.record(seconds);
+        }
+        
+        first.add(second);
+        
+        assertThat(first.getCount()).isEqualTo(all.getCount());
+        assertThat(first.getMean()).isEqualTo(all.getMean());
+        for (int percentile : new int[]{1, 50, 95, 100}) {
+            assertThat(first.valueAtPercentile(percentile)).isEqualTo(all.valueAtPercentile(percentile));
+        }
+    }
+}
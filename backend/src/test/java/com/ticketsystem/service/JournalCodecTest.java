@@ -0,0 +1,62 @@
+package com.ticketsystem.service;
+
+import com.ticketsystem.entity.Priority;
+import com.ticketsystem.entity.TicketStatus;
+import com.ticketsystem.event.JournalEvent;
+import com.ticketsystem.event.TicketSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JournalCodecTest {
+    
+    private static final LocalDateTime OCCURRED_AT = LocalDateTime.of(2024, 5, 17, 9, 45, 3, 123_456_789);
+    
+    @Test
+    void eventsRoundTrip() {
+        List<JournalEvent> events = List.of(
+                new JournalEvent(null, JournalEvent.Type.FIELD_CHANGED, 7L, 3L, OCCURRED_AT, List.of(
+                        new JournalEvent.Change(JournalEvent.Field.TITLE, "Drucker defekt", "Drucker läuft nicht 🖨"),
+                        new JournalEvent.Change(JournalEvent.Field.ASSIGNED_TO, null, "12"))),
+                new JournalEvent(null, JournalEvent.Type.DELETED, 8L, null, OCCURRED_AT.minusYears(30), List.of()));
+        
+        List<JournalEvent> decoded = JournalCodec.decodeEvents(41L, JournalCodec.encodeEvents(events));
+        
+        assertThat(decoded).containsExactly(events.get(0).atOffset(41L), events.get(1).atOffset(41L));
+    }
+    
+    @Test
+    void emptyBatchRoundTrips() {
+        assertThat(JournalCodec.decodeEvents(1L, JournalCodec.encodeEvents(List.of()))).isEmpty();
+    }
+    
+    @Test
+    void snapshotRoundTrips() {
+        List<TicketSnapshot> tickets = List.of(
+                new TicketSnapshot(1L, "Zugang gesperrt", "Passwort zurücksetzen – 日本語 ✓".repeat(60),
+                        TicketStatus.IN_PROGRESS, Priority.HIGH, 2L, 5L, OCCURRED_AT),
+                new TicketSnapshot(2L, "", "", TicketStatus.values()[TicketStatus.values().length - 1],
+                        Priority.values()[Priority.values().length - 1], 3L, null, OCCURRED_AT.withNano(0)));
+        
+        assertThat(JournalCodec.decodeSnapshot(JournalCodec.encodeSnapshot(tickets))).isEqualTo(tickets);
+    }
+    
+    @Test
+    void corruptPayloadIsReported() {
+        byte[] payload = JournalCodec.encodeEvents(List.of(
+                new JournalEvent(null, JournalEvent.Type.CREATED, 1L, 1L, OCCURRED_AT, List.of())));
+        byte[] truncated = Arrays.copyOf(payload, payload.length / 2);
+        
+        assertThatThrownBy(() -> JournalCodec.decodeEvents(9L, truncated))
+                .isInstanceOf(UncheckedIOException.class)
+                .hasMessageContaining("9");
+        assertThatThrownBy(() -> JournalCodec.decodeSnapshot(new byte[]{1, 2, 3}))
+                .isInstanceOf(UncheckedIOException.class);
+    }
+}
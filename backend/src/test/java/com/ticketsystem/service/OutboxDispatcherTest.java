@@ -0,0 +1,197 @@
+package com.ticketsystem.service;
+
+import com.ticketsystem.dto.ChangeEvent;
+import com.ticketsystem.entity.OutboxDeadLetter;
+import com.ticketsystem.entity.OutboxMessage;
+import com.ticketsystem.repository.OutboxDeadLetterRepository;
+import com.ticketsystem.repository.OutboxMessageRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drains are run directly on the test thread; nothing in the test wakes the dispatcher,
+ * and the poll interval is long enough that it stays out of the way. Messages are comment
+ * changes, which only the recording handler accepts. The context gets a database of its
+ * own, or the dispatchers of other cached test contexts would drain its messages too.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outbox-dispatcher-test;LOCK_TIMEOUT=10000",
+        "app.outbox.poll-interval-ms=3600000",
+        "app.outbox.max-attempts=3",
+        "app.outbox.retry-base-ms=1",
+        "app.outbox.lease-ms=500",
+        "app.outbox.handler-timeout-ms=250",
+        "app.outbox.parallelism.recording=4"
+})
+class OutboxDispatcherTest {
+    
+    private static final AtomicLong TICKET_IDS = new AtomicLong(-ThreadLocalRandom.current().nextLong(1, 1L << 40));
+    
+    @Autowired
+    private OutboxDispatcher dispatcher;
+    
+    @Autowired
+    private TransactionalOutbox outbox;
+    
+    @Autowired
+    private OutboxMessageRepository outboxRepository;
+    
+    @Autowired
+    private OutboxDeadLetterRepository deadLetterRepository;
+    
+    @Autowired
+    private RecordingHandler handler;
+    
+    @Test
+    void failingMessageIsRetriedThenDeadLettered() {
+        long recovering = TICKET_IDS.decrementAndGet();
+        long broken = TICKET_IDS.decrementAndGet();
+        handler.failures.put(recovering, 1);
+        handler.failures.put(broken, Integer.MAX_VALUE);
+        outbox.append(change(recovering, 1L));
+        outbox.append(change(broken, 1L));
+        
+        drainUntil(() -> handler.calls(broken) == 3 && pending(broken).isEmpty());
+        
+        assertThat(handler.calls(recovering)).isEqualTo(2);
+        assertThat(handler.handled(recovering)).containsExactly(1L);
+        assertThat(pending(recovering)).isEmpty();
+        List<OutboxDeadLetter> deadLetters = deadLetterRepository.findAll().stream()
+                .filter(deadLetter -> deadLetter.getPayload().contains(String.valueOf(broken)))
+                .collect(Collectors.toList());
+        assertThat(deadLetters).singleElement().satisfies(deadLetter -> {
+            assertThat(deadLetter.getHandler()).isEqualTo("recording");
+            assertThat(deadLetter.getAttempts()).isEqualTo(3);
+            assertThat(deadLetter.getLastError()).contains("Ticket " + broken + " is broken");
+        });
+    }
+    
+    @Test
+    void claimOfACrashedDispatcherIsPickedUpOnceItsLeaseExpires() throws InterruptedException {
+        long ticketId = TICKET_IDS.decrementAndGet();
+        outbox.append(change(ticketId, 1L));
+        
+        // Claimed, then never settled
+        List<OutboxMessage> claimed = ReflectionTestUtils.invokeMethod(dispatcher, "claim");
+        assertThat(claimed).extracting(OutboxMessage::getPayload).anyMatch(payload -> payload.contains(String.valueOf(ticketId)));
+        
+        drain();
+        assertThat(handler.calls(ticketId)).isZero();
+        
+        Thread.sleep(600);
+        drain();
+        assertThat(handler.handled(ticketId)).containsExactly(1L);
+        assertThat(pending(ticketId)).isEmpty();
+    }
+    
+    @Test
+    void changesToOneTicketAreHandledInOrderOnOneLane() {
+        List<Long> ticketIds = List.of(TICKET_IDS.decrementAndGet(), TICKET_IDS.decrementAndGet(),
+                TICKET_IDS.decrementAndGet(), TICKET_IDS.decrementAndGet());
+        for (long commentId = 1; commentId <= 20; commentId++) {
+            for (Long ticketId : ticketIds) {
+                outbox.append(change(ticketId, commentId));
+            }
+        }
+        
+        drainUntil(() -> ticketIds.stream().allMatch(ticketId -> handler.handled(ticketId).size() == 20));
+        
+        for (Long ticketId : ticketIds) {
+            assertThat(handler.handled(ticketId)).isSorted().doesNotHaveDuplicates();
+            assertThat(handler.threads.get(ticketId)).hasSize(1);
+        }
+    }
+    
+    private void drainUntil(BooleanSupplier done) {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!done.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("drained in time").isLessThan(deadline);
+            drain();
+        }
+    }
+    
+    private void drain() {
+        ReflectionTestUtils.invokeMethod(dispatcher, "drain");
+    }
+    
+    private List<OutboxMessage> pending(long ticketId) {
+        return outboxRepository.findAll().stream()
+                .filter(message -> message.getPayload().contains(String.valueOf(ticketId)))
+                .collect(Collectors.toList());
+    }
+    
+    private static ChangeEvent change(long ticketId, long commentId) {
+        return new ChangeEvent("COMMENT", "ADDED", ticketId, commentId);
+    }
+    
+    /**
+     * Records the comment ids it handled per ticket, and the lanes it ran on. Fails as
+     * often as configured for a ticket before it succeeds.
+     */
+    static class RecordingHandler implements OutboxHandler {
+        
+        private final Map<Long, Integer> failures = new ConcurrentHashMap<>();
+        private final Map<Long, Integer> calls = new ConcurrentHashMap<>();
+        private final Map<Long, List<Long>> handled = new ConcurrentHashMap<>();
+        private final Map<Long, List<String>> threads = new ConcurrentHashMap<>();
+        
+        @Override
+        public String getName() {
+            return "recording";
+        }
+        
+        @Override
+        public boolean accepts(ChangeEvent change) {
+            return "COMMENT".equals(change.getEntity());
+        }
+        
+        @Override
+        public void handle(ChangeEvent change) throws Exception {
+            Long ticketId = change.getTicketId();
+            calls.merge(ticketId, 1, Integer::sum);
+            if (failures.getOrDefault(ticketId, 0) > 0) {
+                failures.merge(ticketId, -1, Integer::sum);
+                throw new IllegalStateException("Ticket " + ticketId + " is broken");
+            }
+            // Gives a later message a chance to overtake if lanes were not per ticket
+            Thread.sleep(ThreadLocalRandom.current().nextInt(3));
+            handled.computeIfAbsent(ticketId, id -> new CopyOnWriteArrayList<>()).add(change.getCommentId());
+            List<String> lanes = threads.computeIfAbsent(ticketId, id -> new CopyOnWriteArrayList<>());
+            String lane = Thread.currentThread().getName();
+            if (!lanes.contains(lane)) {
+                lanes.add(lane);
+            }
+        }
+        
+        int calls(long ticketId) {
+            return calls.getOrDefault(ticketId, 0);
+        }
+        
+        List<Long> handled(long ticketId) {
+            return handled.getOrDefault(ticketId, List.of());
+        }
+    }
+    
+    @TestConfiguration
+    static class Handlers {
+        @Bean
+        RecordingHandler recordingHandler() {
+            return new RecordingHandler();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.ticketsystem.service;
+
+import com.ticketsystem.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SyncTokenTest {
+    
+    @Test
+    void tokenRoundTrips() {
+        SyncToken token = SyncToken.at(1234L);
+        
+        SyncToken decoded = SyncToken.decode(token.encode());
+        
+        assertThat(decoded.getSeq()).isEqualTo(1234L);
+        assertThat(decoded.getIssuedAt()).isEqualTo(Instant.ofEpochMilli(token.getIssuedAt().toEpochMilli()));
+    }
+    
+    @Test
+    void missingTokenStartsAtTheBeginning() {
+        assertThat(SyncToken.decode(null).getSeq()).isZero();
+        assertThat(SyncToken.decode("").getSeq()).isZero();
+    }
+    
+    @Test
+    void ageIsMeasuredFromTheIssueTime() {
+        long issuedAt = Instant.now().minus(Duration.ofDays(10)).toEpochMilli();
+        SyncToken old = SyncToken.decode(encode("5|" + issuedAt));
+        
+        assertThat(old.isOlderThan(Duration.ofDays(7))).isTrue();
+        assertThat(old.isOlderThan(Duration.ofDays(30))).isFalse();
+        assertThat(SyncToken.at(5L).isOlderThan(Duration.ofDays(7))).isFalse();
+    }
+    
+    @Test
+    void malformedTokensAreRejected() {
+        assertThatThrownBy(() -> SyncToken.decode("not base64!")).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> SyncToken.decode(encode("12"))).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> SyncToken.decode(encode("x|1"))).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> SyncToken.decode(encode("-1|1"))).isInstanceOf(BadRequestException.class);
+    }
+    
+    private String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,174 @@
+package com.ticketsystem.service;
+
+import com.ticketsystem.dto.TicketExportFilter;
+import com.ticketsystem.dto.TicketResponse;
+import com.ticketsystem.entity.Comment;
+import com.ticketsystem.entity.Priority;
+import com.ticketsystem.entity.Role;
+import com.ticketsystem.entity.Ticket;
+import com.ticketsystem.entity.TicketStatus;
+import com.ticketsystem.entity.TicketStatusChange;
+import com.ticketsystem.entity.User;
+import com.ticketsystem.repository.CommentRepository;
+import com.ticketsystem.repository.TicketRepository;
+import com.ticketsystem.repository.TicketStatusChangeRepository;
+import com.ticketsystem.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tickets created in 1980 sort ahead of everything else in the shared database, so the
+ * first page of the listing is exactly the tickets of the listing test.
+ */
+@SpringBootTest
+class TicketArchiveTest {
+    
+    private static final LocalDateTime CLOSED_AT = LocalDateTime.of(1990, 2, 1, 0, 0);
+    
+    @Autowired
+    private TicketArchive ticketArchive;
+    
+    @Autowired
+    private TicketService ticketService;
+    
+    @Autowired
+    private TicketReportService reportService;
+    
+    @Autowired
+    private TicketSearchIndex searchIndex;
+    
+    @Autowired
+    private TicketRepository ticketRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private CommentRepository commentRepository;
+    
+    @Autowired
+    private TicketStatusChangeRepository statusChangeRepository;
+    
+    @BeforeEach
+    void enableArchive() throws IOException {
+        // Segments have to outlive the test, later tests in the same context may still read them
+        Path directory = Paths.get("target", "test-archive");
+        Files.createDirectories(directory);
+        ReflectionTestUtils.setField(ticketArchive, "directory", directory);
+        ReflectionTestUtils.setField(ticketArchive, "enabled", true);
+        ReflectionTestUtils.setField(ticketArchive, "closedDays",
+                ChronoUnit.DAYS.between(CLOSED_AT.plusDays(30), LocalDateTime.now()));
+    }
+    
+    @AfterEach
+    void disableArchive() {
+        ReflectionTestUtils.setField(ticketArchive, "enabled", false);
+    }
+    
+    @Test
+    void listingsFiltersAndExportsIncludeArchivedTickets() throws IOException {
+        String word = uniqueWord();
+        User creator = creator(word);
+        Ticket first = save(word, TicketStatus.CLOSED, creator, LocalDateTime.of(1980, 1, 1, 9, 0));
+        Ticket live = save(word, TicketStatus.OPEN, creator, LocalDateTime.of(1980, 1, 2, 9, 0));
+        Ticket second = save(word, TicketStatus.CLOSED, creator, LocalDateTime.of(1980, 1, 3, 9, 0));
+        Ticket third = save(word, TicketStatus.CLOSED, creator, LocalDateTime.of(1980, 1, 4, 9, 0));
+        
+        ticketArchive.archive();
+        searchIndex.refresh();
+        
+        assertThat(ticketRepository.findById(first.getId())).isEmpty();
+        assertThat(ticketArchive.contains(first.getId())).isTrue();
+        assertThat(ids(ticketService.getAllTickets(null, 4).getContent()))
+                .containsExactly(first.getId(), live.getId(), second.getId(), third.getId());
+        
+        String cursor = ticketService.getAllTickets(null, 2).getNextCursor();
+        assertThat(ids(ticketService.getAllTickets(cursor, 2).getContent()))
+                .containsExactly(second.getId(), third.getId());
+        
+        assertThat(ids(ticketService.searchTickets(null, TicketStatus.CLOSED, Priority.LOW, null, 200).getContent()))
+                .contains(first.getId(), second.getId(), third.getId());
+        assertThat(ids(ticketService.searchTickets(null, TicketStatus.OPEN, Priority.LOW, null, 200).getContent()))
+                .doesNotContain(first.getId(), second.getId(), third.getId());
+        
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        reportService.export(new TicketExportFilter(null, null, Priority.LOW,
+                        LocalDate.of(1980, 1, 1), LocalDate.of(1980, 1, 3), null, null),
+                TicketReportService.Format.CSV, TicketReportService.Column.parse("id"), false, out);
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("id\r\n"
+                + first.getId() + "\r\n" + live.getId() + "\r\n" + second.getId() + "\r\n");
+    }
+    
+    @Test
+    void archivesByClosingTimeAndKeepsRecentlyCommentedTickets() {
+        String word = uniqueWord();
+        User creator = creator(word);
+        LocalDateTime createdAt = LocalDateTime.of(1990, 1, 1, 9, 0);
+        Ticket touchedLater = save(word, TicketStatus.CLOSED, creator, createdAt);
+        touchedLater.setUpdatedAt(LocalDateTime.now());
+        touchedLater = ticketRepository.save(touchedLater);
+        Ticket closedAgain = save(word, TicketStatus.CLOSED, creator, createdAt);
+        statusChangeRepository.save(new TicketStatusChange(null, closedAgain.getId(), TicketStatus.OPEN,
+                TicketStatus.CLOSED, Priority.LOW, null, null, LocalDateTime.now(), null, null));
+        Ticket commented = save(word, TicketStatus.CLOSED, creator, createdAt);
+        commentRepository.save(new Comment(null, word, commented, creator, LocalDateTime.now(), null));
+        
+        ticketArchive.archive();
+        
+        assertThat(ticketArchive.contains(touchedLater.getId())).isTrue();
+        assertThat(ticketRepository.findById(closedAgain.getId())).isPresent();
+        assertThat(ticketRepository.findById(commented.getId())).isPresent();
+    }
+    
+    private List<Long> ids(List<TicketResponse> tickets) {
+        return tickets.stream().map(TicketResponse::getId).collect(Collectors.toList());
+    }
+    
+    private Ticket save(String word, TicketStatus status, User creator, LocalDateTime createdAt) {
+        Ticket ticket = new Ticket();
+        ticket.setTitle(word);
+        ticket.setDescription(word);
+        ticket.setStatus(status);
+        ticket.setPriority(Priority.LOW);
+        ticket.setCreatedBy(creator);
+        ticket.setCreatedAt(createdAt);
+        ticket.setUpdatedAt(status == TicketStatus.CLOSED ? CLOSED_AT : createdAt);
+        ticket.setResolvedAt(status == TicketStatus.CLOSED ? CLOSED_AT : null);
+        ticket = ticketRepository.save(ticket);
+        searchIndex.index(ticket);
+        return ticket;
+    }
+    
+    private User creator(String word) {
+        User creator = new User();
+        creator.setUsername(word);
+        creator.setPassword("unused");
+        creator.setEmail(word + "@example.com");
+        creator.setFullName(word);
+        creator.setRole(Role.USER);
+        return userRepository.save(creator);
+    }
+    
+    private String uniqueWord() {
+        return "w" + UUID.randomUUID().toString().replace("-", "");
+    }
+}
@@ -0,0 +1,106 @@
+package com.ticketsystem.service;
+
+import com.ticketsystem.dto.BatchItemResult;
+import com.ticketsystem.dto.BatchResponse;
+import com.ticketsystem.dto.TicketRequest;
+import com.ticketsystem.entity.Priority;
+import com.ticketsystem.entity.Role;
+import com.ticketsystem.entity.User;
+import com.ticketsystem.repository.TicketRepository;
+import com.ticketsystem.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class TicketBatchServiceTest {
+    
+    @Autowired
+    private TicketBatchService batchService;
+    
+    @Autowired
+    private TicketRepository ticketRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    private User creator;
+    
+    @BeforeEach
+    void setUp() {
+        String name = "batch" + UUID.randomUUID().toString().replace("-", "");
+        creator = new User();
+        creator.setUsername(name);
+        creator.setPassword("unused");
+        creator.setEmail(name + "@example.com");
+        creator.setFullName(name);
+        creator.setRole(Role.SUPPORT);
+        creator = userRepository.save(creator);
+    }
+    
+    @Test
+    void invalidItemsFailWithoutStoppingTheValidOnes() {
+        BatchResponse response = batchService.createTickets(List.of(
+                request("first", null),
+                new TicketRequest("", "no title", Priority.LOW, null, null),
+                request("third", creator.getId())), creator);
+        
+        assertThat(response.getSucceeded()).isEqualTo(2);
+        assertThat(response.getFailed()).isEqualTo(1);
+        assertThat(response.getResults()).extracting(BatchItemResult::getStatus)
+                .containsExactly(BatchItemResult.CREATED, BatchItemResult.FAILED, BatchItemResult.CREATED);
+        assertThat(response.getResults().get(1).getMessage()).isEqualTo("Title is required");
+        assertThat(ticketRepository.findById(response.getResults().get(2).getTicketId()))
+                .hasValueSatisfying(ticket -> assertThat(ticket.getAssignedTo().getId()).isEqualTo(creator.getId()));
+    }
+    
+    @Test
+    void unknownAssigneeFailsOnlyItsItem() {
+        BatchResponse response = batchService.createTickets(List.of(
+                request("assigned to nobody", Long.MAX_VALUE),
+                request("unassigned", null)), creator);
+        
+        BatchItemResult unknown = response.getResults().get(0);
+        assertThat(unknown.getStatus()).isEqualTo(BatchItemResult.FAILED);
+        assertThat(unknown.getMessage()).isEqualTo("User not found");
+        assertThat(unknown.getTicketId()).isNull();
+        assertThat(response.getResults().get(1).getStatus()).isEqualTo(BatchItemResult.CREATED);
+    }
+    
+    @Test
+    void failingRowRollsBackItsChunkOnly() {
+        int chunkSize = (Integer) ReflectionTestUtils.getField(TicketBatchService.class, "CHUNK_SIZE");
+        List<TicketRequest> requests = new ArrayList<>();
+        // Passes validation but exceeds the description column, so the insert fails
+        requests.add(new TicketRequest("too long", "x".repeat(2001), Priority.LOW, null, null));
+        for (int i = 1; i <= chunkSize; i++) {
+            requests.add(request("item " + i, null));
+        }
+        
+        BatchResponse response = batchService.createTickets(requests, creator);
+        
+        assertThat(response.getSucceeded()).isEqualTo(1);
+        assertThat(response.getFailed()).isEqualTo(chunkSize);
+        assertThat(response.getResults().subList(0, chunkSize)).allSatisfy(result -> {
+            assertThat(result.getStatus()).isEqualTo(BatchItemResult.FAILED);
+            assertThat(result.getTicketId()).isNull();
+        });
+        BatchItemResult nextChunk = response.getResults().get(chunkSize);
+        assertThat(nextChunk.getStatus()).isEqualTo(BatchItemResult.CREATED);
+        assertThat(ticketRepository.findById(nextChunk.getTicketId())).isPresent();
+        assertThat(ticketRepository.findAll()).noneMatch(ticket -> ticket.getTitle().equals("item 1")
+                && ticket.getCreatedBy().getId().equals(creator.getId()));
+    }
+    
+    private TicketRequest request(String title, Long assignedToId) {
+        return new TicketRequest(title, title, Priority.MEDIUM, assignedToId, null);
+    }
+}
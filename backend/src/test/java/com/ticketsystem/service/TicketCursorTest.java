@@ -0,0 +1,65 @@
+package com.ticketsystem.service;
+
+import com.ticketsystem.entity.Ticket;
+import com.ticketsystem.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TicketCursorTest {
+    
+    @Test
+    void keysetCursorRoundTrips() {
+        Ticket ticket = new Ticket();
+        ticket.setId(42L);
+        ticket.setCreatedAt(LocalDateTime.of(2024, 3, 1, 12, 30, 15, 123_000_000));
+        
+        TicketCursor cursor = TicketCursor.decode(TicketCursor.after(ticket).encode());
+        
+        assertThat(cursor.getCreatedAt()).isEqualTo(ticket.getCreatedAt());
+        assertThat(cursor.getId()).isEqualTo(42L);
+    }
+    
+    @Test
+    void missingCursorStartsAtTheBeginning() {
+        assertThat(TicketCursor.decode(null)).isSameAs(TicketCursor.START);
+        assertThat(TicketCursor.decode("")).isSameAs(TicketCursor.START);
+        assertThat(TicketCursor.decodeOffset(null)).isZero();
+    }
+    
+    @Test
+    void offsetCursorRoundTrips() {
+        assertThat(TicketCursor.decodeOffset(TicketCursor.encodeOffset(250))).isEqualTo(250);
+        assertThat(TicketCursor.decodeOffset(TicketCursor.encodeOffset(TicketCursor.MAX_OFFSET)))
+                .isEqualTo(TicketCursor.MAX_OFFSET);
+    }
+    
+    @Test
+    void offsetsBeyondTheCapAreRejected() {
+        assertThatThrownBy(() -> TicketCursor.decodeOffset(TicketCursor.encodeOffset(TicketCursor.MAX_OFFSET + 1)))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> TicketCursor.decodeOffset(TicketCursor.encodeOffset(Integer.MAX_VALUE)))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> TicketCursor.decodeOffset(TicketCursor.encodeOffset(-1)))
+                .isInstanceOf(BadRequestException.class);
+    }
+    
+    @Test
+    void malformedCursorsAreRejected() {
+        assertThatThrownBy(() -> TicketCursor.decode("not base64!")).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> TicketCursor.decode(encode("yesterday|1"))).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> TicketCursor.decodeOffset(encode("r|99999999999")))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> TicketCursor.decodeOffset(TicketCursor.START.encode()))
+                .isInstanceOf(BadRequestException.class);
+    }
+    
+    private String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
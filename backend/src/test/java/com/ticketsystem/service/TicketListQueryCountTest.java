@@ -0,0 +1,114 @@
+package com.ticketsystem.service;
+
+import com.ticketsystem.dto.TicketPageResponse;
+import com.ticketsystem.dto.TicketRequest;
+import com.ticketsystem.entity.Priority;
+import com.ticketsystem.entity.Role;
+import com.ticketsystem.entity.Ticket;
+import com.ticketsystem.entity.TicketStatus;
+import com.ticketsystem.entity.User;
+import com.ticketsystem.metrics.RequestQueryStats;
+import com.ticketsystem.repository.TicketRepository;
+import com.ticketsystem.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The list and search paths must cost the same number of SQL statements whether a page
+ * holds a handful of tickets or a full page, so user rows and comment counts are never
+ * loaded per ticket.
+ */
+@SpringBootTest
+class TicketListQueryCountTest {
+    
+    private static final int PAGE_SIZE = 200;
+    
+    @Autowired
+    private TicketService ticketService;
+    
+    @Autowired
+    private TicketSearchIndex searchIndex;
+    
+    @Autowired
+    private TicketRepository ticketRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Test
+    void statementsPerListCallDoNotGrowWithTicketCount() {
+        Map<String, Long> few = statementsPerCall(3);
+        Map<String, Long> many = statementsPerCall(150);
+        
+        assertThat(many).isEqualTo(few);
+        assertThat(few.values()).allSatisfy(statements -> assertThat(statements).isLessThanOrEqualTo(4));
+    }
+    
+    /**
+     * Seeds tickets for two fresh users, so the user cache misses in every round, and counts
+     * the statements of one call per list path. The table-ordered pages start after a marker
+     * ticket, so tickets other tests left behind do not change which users are loaded.
+     */
+    private Map<String, Long> statementsPerCall(int tickets) {
+        String round = "round" + UUID.randomUUID().toString().replace("-", "");
+        User creator = userRepository.save(user(round + "c", Role.USER));
+        User assignee = userRepository.save(user(round + "a", Role.SUPPORT));
+        String after = TicketCursor.after(ticketRepository.save(
+                ticketService.newTicket(request("Marker ticket", 0), creator, null))).encode();
+        List<Ticket> seeded = new ArrayList<>();
+        for (int i = 0; i < tickets; i++) {
+            Ticket ticket = ticketService.newTicket(request(round + " ticket " + i, i), creator, assignee);
+            ticket.setCommentCount(i % 4);
+            seeded.add(ticket);
+        }
+        ticketRepository.saveAll(seeded);
+        searchIndex.rebuild();
+        
+        Map<String, Long> statements = new LinkedHashMap<>();
+        statements.put("all", count(() -> ticketService.getAllTickets(after, PAGE_SIZE)));
+        statements.put("my", count(() -> ticketService.getMyTickets(creator, null, PAGE_SIZE)));
+        statements.put("assigned", count(() -> ticketService.getAssignedTickets(assignee, null, PAGE_SIZE)));
+        statements.put("filter", count(() -> ticketService.searchTickets(null, TicketStatus.OPEN, null, after, PAGE_SIZE)));
+        statements.put("text", count(() -> {
+            TicketPageResponse page = ticketService.searchTickets(round, null, null, null, PAGE_SIZE);
+            assertThat(page.getContent()).hasSize(tickets);
+            return page;
+        }));
+        return statements;
+    }
+    
+    private long count(Supplier<TicketPageResponse> call) {
+        RequestQueryStats.reset();
+        TicketPageResponse page = call.get();
+        assertThat(page.getContent()).isNotEmpty();
+        return RequestQueryStats.statements();
+    }
+    
+    private TicketRequest request(String title, int number) {
+        TicketRequest request = new TicketRequest();
+        request.setTitle(title);
+        request.setDescription("Seeded ticket number " + number);
+        request.setPriority(Priority.MEDIUM);
+        return request;
+    }
+    
+    private User user(String username, Role role) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("unused");
+        user.setEmail(username + "@example.com");
+        user.setFullName(username);
+        user.setRole(role);
+        return user;
+    }
+}
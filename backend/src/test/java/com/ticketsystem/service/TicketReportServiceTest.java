@@ -0,0 +1,112 @@
+package com.ticketsystem.service;
+
+import com.ticketsystem.dto.TicketExportFilter;
+import com.ticketsystem.entity.Priority;
+import com.ticketsystem.entity.Role;
+import com.ticketsystem.entity.Ticket;
+import com.ticketsystem.entity.TicketStatus;
+import com.ticketsystem.entity.User;
+import com.ticketsystem.repository.TicketRepository;
+import com.ticketsystem.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class TicketReportServiceTest {
+    
+    private static final List<TicketReportService.Column> ID_AND_DESCRIPTION =
+            TicketReportService.Column.parse("id,description");
+    
+    @Autowired
+    private TicketReportService reportService;
+    
+    @Autowired
+    private TicketSearchIndex searchIndex;
+    
+    @Autowired
+    private TicketRepository ticketRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Test
+    void csvQuotesSpecialCharactersAndDefusesFormulas() throws IOException {
+        String word = uniqueWord();
+        User creator = creator(word);
+        Ticket formula = save(word, "=HYPERLINK(\"http://evil\")", creator, LocalDateTime.now());
+        Ticket plus = save(word, "+1 more", creator, LocalDateTime.now());
+        Ticket at = save(word, "@admin", creator, LocalDateTime.now());
+        Ticket separators = save(word, "first, \"second\"\nthird", creator, LocalDateTime.now());
+        Ticket plain = save(word, "Ünïcödé ✓ plain", creator, LocalDateTime.now());
+        
+        String csv = export(new TicketExportFilter(word, null, null, null, null, null, null));
+        
+        assertThat(csv).startsWith("id,description\r\n");
+        assertThat(csv).contains(formula.getId() + ",\"'=HYPERLINK(\"\"http://evil\"\")\"\r\n");
+        assertThat(csv).contains(plus.getId() + ",'+1 more\r\n");
+        assertThat(csv).contains(at.getId() + ",'@admin\r\n");
+        assertThat(csv).contains(separators.getId() + ",\"first, \"\"second\"\"\nthird\"\r\n");
+        assertThat(csv).contains(plain.getId() + ",Ünïcödé ✓ plain\r\n");
+    }
+    
+    @Test
+    void searchExportAppliesDateBoundsInTheIndex() throws IOException {
+        String word = uniqueWord();
+        User creator = creator(word);
+        Ticket old = save(word, "old", creator, LocalDateTime.of(2020, 1, 10, 23, 59));
+        Ticket inRange = save(word, "in range", creator, LocalDateTime.of(2020, 1, 11, 0, 0));
+        Ticket lastDay = save(word, "last day", creator, LocalDateTime.of(2020, 1, 12, 23, 59));
+        Ticket later = save(word, "later", creator, LocalDateTime.of(2020, 1, 13, 0, 0));
+        
+        String csv = export(new TicketExportFilter(word, null, null,
+                LocalDate.of(2020, 1, 11), LocalDate.of(2020, 1, 12), null, null));
+        
+        assertThat(csv).contains(inRange.getId() + ",in range", lastDay.getId() + ",last day");
+        assertThat(csv).doesNotContain(old.getId() + ",old", later.getId() + ",later");
+    }
+    
+    private String export(TicketExportFilter filter) throws IOException {
+        searchIndex.refresh();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        reportService.export(filter, TicketReportService.Format.CSV, ID_AND_DESCRIPTION, false, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+    
+    private Ticket save(String word, String description, User creator, LocalDateTime createdAt) {
+        Ticket ticket = new Ticket();
+        ticket.setTitle(word);
+        ticket.setDescription(description);
+        ticket.setStatus(TicketStatus.OPEN);
+        ticket.setPriority(Priority.MEDIUM);
+        ticket.setCreatedBy(creator);
+        ticket.setCreatedAt(createdAt);
+        ticket = ticketRepository.save(ticket);
+        searchIndex.index(ticket);
+        return ticket;
+    }
+    
+    private User creator(String word) {
+        User creator = new User();
+        creator.setUsername(word);
+        creator.setPassword("unused");
+        creator.setEmail(word + "@example.com");
+        creator.setFullName(word);
+        creator.setRole(Role.USER);
+        return userRepository.save(creator);
+    }
+    
+    private String uniqueWord() {
+        return "w" + UUID.randomUUID().toString().replace("-", "");
+    }
+}
@@ -0,0 +1,95 @@
+package com.ticketsystem.service;
+
+import com.ticketsystem.entity.Priority;
+import com.ticketsystem.entity.Role;
+import com.ticketsystem.entity.Ticket;
+import com.ticketsystem.entity.TicketStatus;
+import com.ticketsystem.entity.User;
+import com.ticketsystem.repository.TicketRepository;
+import com.ticketsystem.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class TicketSearchIndexTest {
+    
+    @Autowired
+    private TicketSearchIndex searchIndex;
+    
+    @Autowired
+    private TicketRepository ticketRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Test
+    void scanReturnsEveryHitOnceInRankOrder() throws IOException {
+        String word = uniqueWord();
+        List<Long> seeded = seed(word, 1234);
+        searchIndex.rebuild();
+        
+        List<Long> scanned = new ArrayList<>();
+        List<Integer> batches = new ArrayList<>();
+        searchIndex.scan(word, null, null, 500, ids -> {
+            batches.add(ids.size());
+            scanned.addAll(ids);
+        });
+        
+        assertThat(scanned).containsExactlyInAnyOrderElementsOf(seeded);
+        assertThat(batches).containsExactly(500, 500, 234);
+        assertThat(searchIndex.search(word, null, null, 0, 10).getTicketIds())
+                .containsExactlyElementsOf(scanned.subList(0, 10));
+    }
+    
+    @Test
+    void rebuildDropsDocumentsOfMissingTicketsWithoutDuplicates() {
+        String word = uniqueWord();
+        List<Long> seeded = seed(word, 3);
+        Ticket ghost = new Ticket();
+        ghost.setId(Long.MAX_VALUE - 7);
+        ghost.setTitle(word + " ghost");
+        ghost.setDescription("gone");
+        ghost.setStatus(TicketStatus.OPEN);
+        ghost.setPriority(Priority.LOW);
+        searchIndex.index(ghost);
+        seeded.forEach(id -> searchIndex.index(ticketRepository.findById(id).orElseThrow()));
+        
+        searchIndex.rebuild();
+        
+        assertThat(searchIndex.search(word, null, null, 0, 10).getTicketIds())
+                .containsExactlyInAnyOrderElementsOf(seeded);
+    }
+    
+    private List<Long> seed(String word, int count) {
+        User creator = new User();
+        creator.setUsername(word);
+        creator.setPassword("unused");
+        creator.setEmail(word + "@example.com");
+        creator.setFullName(word);
+        creator.setRole(Role.USER);
+        creator = userRepository.save(creator);
+        List<Ticket> tickets = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Ticket ticket = new Ticket();
+            ticket.setTitle(word + " ticket " + i);
+            ticket.setDescription("Seeded for search " + i);
+            ticket.setStatus(TicketStatus.OPEN);
+            ticket.setPriority(Priority.MEDIUM);
+            ticket.setCreatedBy(creator);
+            tickets.add(ticket);
+        }
+        return ticketRepository.saveAll(tickets).stream().map(Ticket::getId).toList();
+    }
+    
+    private String uniqueWord() {
+        return "w" + UUID.randomUUID().toString().replace("-", "");
+    }
+}
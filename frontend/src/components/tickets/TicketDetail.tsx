@@ -21,6 +21,7 @@ import { useParams, useNavigate } from 'react-router-dom';
 import { Ticket, Comment, TicketStatus } from '../../types';
 import { ticketService } from '../../services/ticketService';
 import { commentService } from '../../services/commentService';
+import { subscribeToChanges } from '../../services/changeFeed';
 import { useAuth } from '../../contexts/AuthContext';
 import EditIcon from '@mui/icons-material/Edit';
 import ArrowBackIcon from '@mui/icons-material/ArrowBack';
@@ -41,6 +42,20 @@ const TicketDetail: React.FC = () => {
     // eslint-disable-next-line react-hooks/exhaustive-deps
   }, [id]);
 
+  useEffect(() => {
+    return subscribeToChanges((event) => {
+      if (event.ticketId !== Number(id)) return;
+      if (event.entity === 'COMMENT') {
+        loadComments();
+      } else if (event.type === 'DELETED') {
+        navigate('/');
+      } else {
+        loadTicket();
+      }
+    });
+    // eslint-disable-next-line react-hooks/exhaustive-deps
+  }, [id]);
+
   const loadTicket = async () => {
     try {
       const data = await ticketService.getTicketById(Number(id));
@@ -50,6 +50,7 @@ const TicketEditor: React.FC = () => {
         description: ticket.description,
         priority: ticket.priority,
         assignedToId: ticket.assignedTo?.id,
+        version: ticket.version,
       });
     } catch (err) {
       setError('Failed to load ticket');
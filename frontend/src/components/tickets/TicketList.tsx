@@ -1,4 +1,4 @@
-import React, { useState, useEffect } from 'react';
+import React, { useState, useEffect, useRef } from 'react';
 import {
   Container,
   Paper,
@@ -20,8 +20,10 @@ import {
   IconButton,
 } from '@mui/material';
 import { useNavigate } from 'react-router-dom';
-import { Ticket, TicketStatus, Priority } from '../../types';
+import { Ticket, TicketPage, TicketStatus, Priority } from '../../types';
 import { ticketService } from '../../services/ticketService';
+import { subscribeToChanges } from '../../services/changeFeed';
+import { authService } from '../../services/authService';
 import AddIcon from '@mui/icons-material/Add';
 import SearchIcon from '@mui/icons-material/Search';
 import VisibilityIcon from '@mui/icons-material/Visibility';
@@ -30,6 +32,11 @@ interface TicketListProps {
   filterType?: 'my' | 'assigned' | 'all';
 }
 
+// The query behind the rows on screen; "load more" continues it from nextCursor
+type ActiveQuery =
+  | { kind: 'list' }
+  | { kind: 'search'; search?: string; status?: TicketStatus; priority?: Priority };
+
 const TicketList: React.FC<TicketListProps> = ({ filterType = 'all' }) => {
   const navigate = useNavigate();
   const [tickets, setTickets] = useState<Ticket[]>([]);
@@ -37,24 +44,96 @@ const TicketList: React.FC<TicketListProps> = ({ filterType = 'all' }) => {
   const [statusFilter, setStatusFilter] = useState<TicketStatus | ''>('');
   const [priorityFilter, setPriorityFilter] = useState<Priority | ''>('');
   const [loading, setLoading] = useState(false);
+  const [query, setQuery] = useState<ActiveQuery>({ kind: 'list' });
+  const [nextCursor, setNextCursor] = useState<string | undefined>(undefined);
+  const ticketsRef = useRef<Ticket[]>([]);
+  ticketsRef.current = tickets;
+  const queryRef = useRef<ActiveQuery>(query);
+  queryRef.current = query;
+  const nextCursorRef = useRef<string | undefined>(nextCursor);
+  nextCursorRef.current = nextCursor;
 
   useEffect(() => {
     loadTickets();
     // eslint-disable-next-line react-hooks/exhaustive-deps
   }, [filterType]);
 
-  const loadTickets = async () => {
-    setLoading(true);
+  useEffect(() => {
+    return subscribeToChanges((event) => {
+      if (event.entity === 'TICKET' && event.type === 'DELETED') {
+        setTickets((current) => current.filter((t) => t.id !== event.ticketId));
+      } else if (event.entity === 'TICKET' && event.type === 'CREATED') {
+        appendIfVisible(event.ticketId);
+      } else if (ticketsRef.current.some((t) => t.id === event.ticketId)) {
+        refreshTicket(event.ticketId);
+      }
+    });
+    // eslint-disable-next-line react-hooks/exhaustive-deps
+  }, [filterType]);
+
+  const refreshTicket = async (ticketId: number) => {
     try {
-      let data: Ticket[];
-      if (filterType === 'my') {
-        data = await ticketService.getMyTickets();
-      } else if (filterType === 'assigned') {
-        data = await ticketService.getAssignedTickets();
-      } else {
-        data = await ticketService.getAllTickets();
+      const updated = await ticketService.getTicketById(ticketId);
+      setTickets((current) => current.map((t) => (t.id === ticketId ? updated : t)));
+    } catch (err) {
+      console.error('Failed to refresh ticket', err);
+    }
+  };
+
+  // Lists are ordered oldest first, so a new ticket belongs at the end of the last page.
+  // While more pages are pending it shows up once they are loaded; relevance-ranked text
+  // search results are not touched, the ticket appears when the search is run again.
+  const appendIfVisible = async (ticketId: number) => {
+    const active = queryRef.current;
+    if (nextCursorRef.current || (active.kind === 'search' && active.search)) {
+      return;
+    }
+    try {
+      const created = await ticketService.getTicketById(ticketId);
+      if (!matchesView(created, active)) {
+        return;
       }
-      setTickets(data);
+      setTickets((current) => (current.some((t) => t.id === ticketId) ? current : [...current, created]));
+    } catch (err) {
+      console.error('Failed to load new ticket', err);
+    }
+  };
+
+  const matchesView = (ticket: Ticket, active: ActiveQuery): boolean => {
+    if (active.kind === 'search') {
+      return (!active.status || ticket.status === active.status)
+        && (!active.priority || ticket.priority === active.priority);
+    }
+    const currentUser = authService.getCurrentUser();
+    if (filterType === 'my') {
+      return ticket.createdBy?.id === currentUser?.id;
+    }
+    if (filterType === 'assigned') {
+      return ticket.assignedTo?.id === currentUser?.id;
+    }
+    return true;
+  };
+
+  const fetchPage = (active: ActiveQuery, cursor?: string): Promise<TicketPage> => {
+    if (active.kind === 'search') {
+      return ticketService.searchTickets(active.search, active.status, active.priority, cursor);
+    }
+    if (filterType === 'my') {
+      return ticketService.getMyTickets(cursor);
+    }
+    if (filterType === 'assigned') {
+      return ticketService.getAssignedTickets(cursor);
+    }
+    return ticketService.getAllTickets(cursor);
+  };
+
+  const runQuery = async (active: ActiveQuery) => {
+    setLoading(true);
+    try {
+      const data = await fetchPage(active);
+      setQuery(active);
+      setTickets(data.content);
+      setNextCursor(data.hasMore ? data.nextCursor : undefined);
     } catch (err) {
       console.error('Failed to load tickets', err);
     } finally {
@@ -62,17 +141,29 @@ const TicketList: React.FC<TicketListProps> = ({ filterType = 'all' }) => {
     }
   };
 
-  const handleSearch = async () => {
+  const loadTickets = () => runQuery({ kind: 'list' });
+
+  const handleSearch = () => runQuery({
+    kind: 'search',
+    search: search || undefined,
+    status: statusFilter || undefined,
+    priority: priorityFilter || undefined,
+  });
+
+  const loadMore = async () => {
+    if (!nextCursor) {
+      return;
+    }
     setLoading(true);
     try {
-      const data = await ticketService.searchTickets(
-        search || undefined,
-        statusFilter || undefined,
-        priorityFilter || undefined
-      );
-      setTickets(data);
+      const data = await fetchPage(query, nextCursor);
+      setTickets((current) => {
+        const seen = new Set(current.map((t) => t.id));
+        return [...current, ...data.content.filter((t) => !seen.has(t.id))];
+      });
+      setNextCursor(data.hasMore ? data.nextCursor : undefined);
     } catch (err) {
-      console.error('Failed to search tickets', err);
+      console.error('Failed to load more tickets', err);
     } finally {
       setLoading(false);
     }
@@ -225,6 +316,13 @@ const TicketList: React.FC<TicketListProps> = ({ filterType = 'all' }) => {
             </Typography>
           </Box>
         )}
+        {nextCursor && (
+          <Box sx={{ p: 2, textAlign: 'center' }}>
+            <Button variant="outlined" onClick={loadMore} disabled={loading}>
+              {loading ? 'Loading...' : 'Load more'}
+            </Button>
+          </Box>
+        )}
       </TableContainer>
     </Container>
   );
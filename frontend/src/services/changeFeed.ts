@@ -0,0 +1,54 @@
+import api, { API_URL } from './api';
+import { ChangeEvent } from '../types';
+
+const RECONNECT_DELAY_MS = 3000;
+
+// EventSource cannot send an Authorization header, so the feed is opened with a short-lived
+// stream token in the URL instead of the login token. The browser retries a dropped stream
+// with the same URL; once that token has expired the retry is refused and the source closes,
+// so a fresh token is fetched and the feed reopened.
+export const subscribeToChanges = (onChange: (event: ChangeEvent) => void): (() => void) => {
+  if (!localStorage.getItem('token')) {
+    return () => {};
+  }
+
+  let source: EventSource | null = null;
+  let retry: ReturnType<typeof setTimeout> | undefined;
+  let closed = false;
+
+  const reconnectLater = () => {
+    if (!closed) {
+      retry = setTimeout(connect, RECONNECT_DELAY_MS);
+    }
+  };
+
+  async function connect() {
+    let token: string;
+    try {
+      const response = await api.post('/events/token');
+      token = response.data.token;
+    } catch (err) {
+      reconnectLater();
+      return;
+    }
+    if (closed) {
+      return;
+    }
+    source = new EventSource(`${API_URL}/events?access_token=${encodeURIComponent(token)}`);
+    source.addEventListener('change', (message) => {
+      onChange(JSON.parse((message as MessageEvent).data));
+    });
+    source.onerror = () => {
+      if (source?.readyState === EventSource.CLOSED) {
+        reconnectLater();
+      }
+    };
+  }
+
+  connect();
+  return () => {
+    closed = true;
+    clearTimeout(retry);
+    source?.close();
+  };
+};
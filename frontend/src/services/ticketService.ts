@@ -1,9 +1,11 @@
 import api from './api';
-import { Ticket, TicketRequest, TicketStatus, Priority } from '../types';
+import { Ticket, TicketPage, TicketRequest, TicketStatus, Priority } from '../types';
 
 export const ticketService = {
-  getAllTickets: async (): Promise<Ticket[]> => {
-    const response = await api.get('/tickets');
+  getAllTickets: async (cursor?: string): Promise<TicketPage> => {
+    const response = await api.get('/tickets', {
+      params: { cursor },
+    });
     return response.data;
   },
 
@@ -36,21 +38,26 @@ export const ticketService = {
   searchTickets: async (
     search?: string,
     status?: TicketStatus,
-    priority?: Priority
-  ): Promise<Ticket[]> => {
+    priority?: Priority,
+    cursor?: string
+  ): Promise<TicketPage> => {
     const response = await api.get('/tickets/search', {
-      params: { search, status, priority },
+      params: { search, status, priority, cursor },
     });
     return response.data;
   },
 
-  getMyTickets: async (): Promise<Ticket[]> => {
-    const response = await api.get('/tickets/my-tickets');
+  getMyTickets: async (cursor?: string): Promise<TicketPage> => {
+    const response = await api.get('/tickets/my-tickets', {
+      params: { cursor },
+    });
     return response.data;
   },
 
-  getAssignedTickets: async (): Promise<Ticket[]> => {
-    const response = await api.get('/tickets/assigned-to-me');
+  getAssignedTickets: async (cursor?: string): Promise<TicketPage> => {
+    const response = await api.get('/tickets/assigned-to-me', {
+      params: { cursor },
+    });
     return response.data;
   },
 };
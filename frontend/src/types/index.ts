@@ -59,6 +59,13 @@ export interface Ticket {
   createdAt: string;
   updatedAt?: string;
   commentCount: number;
+  version: number;
+}
+
+export interface TicketPage {
+  content: Ticket[];
+  nextCursor?: string;
+  hasMore: boolean;
 }
 
 export interface TicketRequest {
@@ -66,6 +73,7 @@ export interface TicketRequest {
   description: string;
   priority: Priority;
   assignedToId?: number;
+  version?: number;
 }
 
 export interface Comment {
@@ -78,3 +86,10 @@ export interface Comment {
 export interface CommentRequest {
   content: string;
 }
+
+export interface ChangeEvent {
+  entity: 'TICKET' | 'COMMENT';
+  type: 'CREATED' | 'UPDATED' | 'STATUS_CHANGED' | 'DELETED' | 'ADDED';
+  ticketId: number;
+  commentId?: number;
+}